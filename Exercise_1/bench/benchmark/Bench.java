@@ -0,0 +1,314 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal dependency-free benchmark harness in the spirit of JMH
+ * Runs warmup and measurement iterations of a fixed duration, optionally on
+ * several threads, and reports throughput, time per operation and bytes
+ * allocated per operation (HotSpot per-thread allocation counters, the same
+ * source as JMH's GC profiler). Results can be written to CSV and compared
+ * against a baseline CSV to flag regressions.
+ * Results go to the System.out captured at construction, so benchmarked code
+ * may have stdout redirected afterwards without hiding the report.
+ *
+ * Options (system properties):
+ *   bench.include     regex on "group.name" to select benchmarks
+ *   bench.warmup      warmup iterations (default 3)
+ *   bench.iterations  measurement iterations (default 5)
+ *   bench.time        milliseconds per iteration (default 500)
+ *   bench.csv         write results to this CSV file
+ *   bench.baseline    compare against this CSV file
+ *   bench.tolerance   allowed throughput drop in percent before flagging (default 10)
+ */
+public final class Bench {
+    
+    /**
+     * One benchmarked operation; the return value is consumed so the JIT cannot drop the work
+     */
+    public interface Op {
+        Object run() throws Exception;
+    }
+    
+    /**
+     * Operation with untimed per-invocation setup (like JMH Level.Invocation)
+     * Each run() is timed individually, so use it only for operations well above a microsecond.
+     * Allocation figures include what setup() allocates.
+     */
+    public interface SetupOp extends Op {
+        void setup() throws Exception;
+    }
+    
+    /**
+     * Result of one benchmark configuration
+     */
+    public static final class Result {
+        final String key;
+        final int threads;
+        final double opsPerSecond;
+        final double errorPercent;
+        final double nanosPerOp;
+        final double bytesPerOp;
+        
+        Result(String key, int threads, double opsPerSecond, double errorPercent, double nanosPerOp, double bytesPerOp) {
+            this.key = key;
+            this.threads = threads;
+            this.opsPerSecond = opsPerSecond;
+            this.errorPercent = errorPercent;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+        
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+    }
+    
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    // Each worker folds its results into a local hash and publishes it here once per
+    // iteration, so dead-code elimination cannot remove benchmarked work and the
+    // threads do not contend on a shared cache line while they are timed
+    private static volatile int sink;
+    
+    private final Pattern include;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final List<Result> results = new ArrayList<>();
+    private final PrintStream report;
+    
+    public Bench() {
+        this.include = Pattern.compile(System.getProperty("bench.include", ".*"));
+        this.warmupIterations = Integer.getInteger("bench.warmup", 3);
+        this.measurementIterations = Math.max(1, Integer.getInteger("bench.iterations", 5));
+        this.iterationNanos = Long.getLong("bench.time", 500) * 1_000_000L;
+        this.report = System.out;
+        
+        report.printf(Locale.ROOT, "%-72s %7s %14s %8s %14s %12s%n",
+            "Benchmark", "Threads", "ops/s", "error", "ns/op", "B/op");
+    }
+    
+    /**
+     * Checks whether a benchmark is selected by bench.include
+     * @param group Benchmark group
+     * @param name Benchmark name including parameters
+     * @return true if it should run
+     */
+    public boolean isIncluded(String group, String name) {
+        return include.matcher(group + "." + name).find();
+    }
+    
+    /**
+     * Measures an operation; each thread gets its own Op from the factory
+     * @param group Benchmark group (e.g. StockMarket)
+     * @param name Benchmark name including parameters
+     * @param threads Number of concurrent threads
+     * @param factory Creates the per-thread operation (called once per thread, untimed)
+     * @return The result, or null if the benchmark was not selected
+     */
+    public Result measure(String group, String name, int threads, Supplier<? extends Op> factory) throws Exception {
+        if (!isIncluded(group, name)) {
+            return null;
+        }
+        
+        Op[] ops = new Op[threads];
+        for (int i = 0; i < threads; i++) {
+            ops[i] = factory.get();
+        }
+        
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(ops);
+        }
+        
+        double[] throughput = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] iteration = runIteration(ops);
+            totalOps += iteration[0];
+            totalBytes += iteration[2];
+            throughput[i] = iteration[0] * 1e9 / iteration[1];
+        }
+        
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= throughput.length;
+        double variance = 0;
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean);
+        }
+        double stddev = throughput.length > 1 ? Math.sqrt(variance / (throughput.length - 1)) : 0;
+        
+        Result result = new Result(group + "." + name, threads, mean,
+            mean == 0 ? 0 : stddev * 100.0 / mean,
+            mean == 0 ? 0 : threads * 1e9 / mean,
+            totalOps == 0 ? 0 : (double) totalBytes / totalOps);
+        results.add(result);
+        
+        report.printf(Locale.ROOT, "%-72s %7d %14.1f %7.1f%% %14.1f %12.1f%n",
+            result.key, threads, result.opsPerSecond, result.errorPercent, result.nanosPerOp, result.bytesPerOp);
+        return result;
+    }
+    
+    /**
+     * Writes the CSV and checks the baseline if configured
+     * @return true if no regression was found
+     */
+    public boolean finish() throws IOException {
+        String csv = System.getProperty("bench.csv");
+        if (csv != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add("benchmark,threads,ops_per_sec,error_pct,ns_per_op,bytes_per_op");
+            for (Result result : results) {
+                lines.add(String.format(Locale.ROOT, "%s,%d,%.3f,%.2f,%.3f,%.1f", result.key, result.threads,
+                    result.opsPerSecond, result.errorPercent, result.nanosPerOp, result.bytesPerOp));
+            }
+            Path path = Paths.get(csv);
+            Files.write(path, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            report.println("Results written to " + path);
+        }
+        
+        String baselineFile = System.getProperty("bench.baseline");
+        if (baselineFile == null) {
+            return true;
+        }
+        
+        double tolerance = Double.parseDouble(System.getProperty("bench.tolerance", "10"));
+        Map<String, Double> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(Paths.get(baselineFile), StandardCharsets.UTF_8)) {
+            String[] fields = line.split(",");
+            if (fields.length >= 3 && !fields[0].equals("benchmark")) {
+                baseline.put(fields[0] + "@" + fields[1], Double.parseDouble(fields[2]));
+            }
+        }
+        
+        boolean ok = true;
+        for (Result result : results) {
+            Double before = baseline.get(result.key + "@" + result.threads);
+            if (before == null || before == 0) {
+                continue;
+            }
+            double change = (result.opsPerSecond - before) * 100.0 / before;
+            if (change < -tolerance) {
+                ok = false;
+                report.printf(Locale.ROOT, "REGRESSION %s (%d threads): %.1f -> %.1f ops/s (%.1f%%)%n",
+                    result.key, result.threads, before, result.opsPerSecond, change);
+            }
+        }
+        report.println(ok ? "No regressions against " + baselineFile : "Regressions found against " + baselineFile);
+        return ok;
+    }
+    
+    /**
+     * Runs one iteration on all threads
+     * @return {operations, elapsed nanos (per thread, averaged), allocated bytes}
+     */
+    private long[] runIteration(Op[] ops) throws Exception {
+        int threads = ops.length;
+        long[] counts = new long[threads];
+        long[] elapsed = new long[threads];
+        long[] allocated = new long[threads];
+        Exception[] failures = new Exception[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    long bytesBefore = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+                    long[] timed = ops[index] instanceof SetupOp
+                        ? runWithSetup((SetupOp) ops[index])
+                        : runBatched(ops[index]);
+                    allocated[index] = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - bytesBefore;
+                    counts[index] = timed[0];
+                    elapsed[index] = timed[1];
+                    sink ^= (int) timed[2];
+                } catch (Exception e) {
+                    failures[index] = e;
+                }
+            }, "bench-worker-" + t);
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (Exception failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        
+        long operations = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for (int t = 0; t < threads; t++) {
+            operations += counts[t];
+            nanos += elapsed[t];
+            bytes += allocated[t];
+        }
+        return new long[] {operations, Math.max(1, nanos / threads), bytes};
+    }
+    
+    private long[] runBatched(Op op) throws Exception {
+        long begin = System.nanoTime();
+        long deadline = begin + iterationNanos;
+        long count = 0;
+        int batch = 1;
+        long batchStart = begin;
+        int hash = 0;
+        long now;
+        do {
+            // Grow the batch up to 64 calls so the clock stays out of fast operations,
+            // while slow operations (large fan-outs) still stop close to the deadline
+            for (int i = 0; i < batch; i++) {
+                hash ^= System.identityHashCode(op.run());
+            }
+            count += batch;
+            now = System.nanoTime();
+            if (batch < 64 && now - batchStart < 100_000) {
+                batch <<= 1;
+            }
+            batchStart = now;
+        } while (now < deadline);
+        return new long[] {count, now - begin, hash};
+    }
+    
+    private long[] runWithSetup(SetupOp op) throws Exception {
+        long deadline = System.nanoTime() + iterationNanos;
+        long timed = 0;
+        long count = 0;
+        int hash = 0;
+        do {
+            op.setup();
+            long begin = System.nanoTime();
+            Object value = op.run();
+            timed += System.nanoTime() - begin;
+            hash ^= System.identityHashCode(value);
+            count++;
+        } while (System.nanoTime() < deadline);
+        return new long[] {count, Math.max(1, timed), hash};
+    }
+}
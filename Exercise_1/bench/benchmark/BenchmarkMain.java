@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Entry point for the Exercise 1 benchmark suite
+ * Run through run_benchmarks.sh, which disables logging. Brokers, weather
+ * displays and the DatabaseManager print to System.out; stdout is swapped for a
+ * discarding stream while benchmarks run, so the numbers include building each
+ * line but not terminal I/O.
+ *
+ * Suite options (system properties, see Bench for harness options):
+ *   bench.observers   observer counts (default 1,10,100,1000,10000,100000)
+ *   bench.threads     thread counts for fan-out and factories (default 1,4)
+ *   bench.contention  thread counts for getInstance (default 1,4,16,64)
+ */
+public class BenchmarkMain {
+    
+    public static void main(String[] args) throws Exception {
+        int[] observers = parse(System.getProperty("bench.observers", "1,10,100,1000,10000,100000"));
+        int[] threads = parse(System.getProperty("bench.threads", "1,4"));
+        int[] contention = parse(System.getProperty("bench.contention", "1,4,16,64"));
+        
+        Bench bench = new Bench();
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            ObserverBenchmark.run(bench, observers, threads);
+            FactoryBenchmark.run(bench, threads);
+            SingletonBenchmark.run(bench, contention);
+        } finally {
+            System.setOut(stdout);
+        }
+        
+        if (!bench.finish()) {
+            System.exit(2);
+        }
+    }
+    
+    private static int[] parse(String list) {
+        return Arrays.stream(list.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    }
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import factory.NotificationFactory;
+import factory.VehicleFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmarks for object creation through VehicleFactory and NotificationFactory
+ * Every thread has its own factory; the products are not shared. Each creation
+ * also builds its log line, so these numbers include the per-object logging cost.
+ */
+public class FactoryBenchmark {
+    private static final String VEHICLE_GROUP = "VehicleFactory";
+    private static final String NOTIFICATION_GROUP = "NotificationFactory";
+    private static final int FLEET_SIZE = 100;
+    
+    /**
+     * Runs the creation benchmarks for every thread count
+     * @param bench The harness
+     * @param threads Thread counts to sweep
+     */
+    public static void run(Bench bench, int[] threads) throws Exception {
+        VehicleFactory.VehicleType[] vehicleTypes = VehicleFactory.VehicleType.values();
+        NotificationFactory.NotificationType[] notificationTypes = NotificationFactory.NotificationType.values();
+        
+        List<VehicleFactory.VehicleSpecification> fleet = new ArrayList<>();
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            fleet.add(new VehicleFactory.VehicleSpecification(vehicleTypes[i % vehicleTypes.length], "Model-" + i, "Blue"));
+        }
+        
+        for (int threadCount : threads) {
+            bench.measure(VEHICLE_GROUP, "createVehicle", threadCount, () -> new Bench.Op() {
+                private final VehicleFactory factory = new VehicleFactory();
+                private int next;
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createVehicle(vehicleTypes[next++ % vehicleTypes.length], "Model S", "Red");
+                }
+            });
+            
+            bench.measure(VEHICLE_GROUP, "createFleet(size=" + FLEET_SIZE + ")", threadCount, () -> new Bench.Op() {
+                private final VehicleFactory factory = new VehicleFactory();
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createFleet(fleet);
+                }
+            });
+            
+            bench.measure(NOTIFICATION_GROUP, "createNotification(enum)", threadCount, () -> new Bench.Op() {
+                private final NotificationFactory factory = new NotificationFactory();
+                private int next;
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createNotification(notificationTypes[next++ % notificationTypes.length]);
+                }
+            });
+            
+            bench.measure(NOTIFICATION_GROUP, "createNotification(string)", threadCount, () -> new Bench.Op() {
+                private final NotificationFactory factory = new NotificationFactory();
+                private final String[] names = {"email", "sms", "push"};
+                private int next;
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createNotification(names[next++ % names.length]);
+                }
+            });
+        }
+    }
+}
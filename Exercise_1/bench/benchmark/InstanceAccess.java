@@ -0,0 +1,128 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Reference lazy-singleton access strategies around the same trivial payload,
+ * so SingletonBenchmark can compare them side by side:
+ *   SYNCHRONIZED      synchronized getInstance(), locks on every call
+ *   PLAIN_DCL         double-checked locking on a plain field (the previous
+ *                     getInstance code; unsafe publication under the JMM)
+ *   VOLATILE_DCL      double-checked locking on a volatile field
+ *   VARHANDLE_DCL     double-checked locking with VarHandle acquire/release
+ *   HOLDER            initialization-on-demand holder (what getInstance uses now)
+ */
+public enum InstanceAccess {
+    SYNCHRONIZED {
+        @Override
+        Object get() {
+            return SynchronizedHolder.get();
+        }
+    },
+    PLAIN_DCL {
+        @Override
+        Object get() {
+            return PlainDcl.get();
+        }
+    },
+    VOLATILE_DCL {
+        @Override
+        Object get() {
+            return VolatileDcl.get();
+        }
+    },
+    VARHANDLE_DCL {
+        @Override
+        Object get() {
+            return VarHandleDcl.get();
+        }
+    },
+    HOLDER {
+        @Override
+        Object get() {
+            return LazyHolder.INSTANCE;
+        }
+    };
+    
+    abstract Object get();
+    
+    static final class Payload {
+        final long createdAt = System.nanoTime();
+    }
+    
+    private static final class SynchronizedHolder {
+        private static Payload instance;
+        
+        static synchronized Payload get() {
+            if (instance == null) {
+                instance = new Payload();
+            }
+            return instance;
+        }
+    }
+    
+    private static final class PlainDcl {
+        private static Payload instance;
+        
+        static Payload get() {
+            if (instance == null) {
+                synchronized (PlainDcl.class) {
+                    if (instance == null) {
+                        instance = new Payload();
+                    }
+                }
+            }
+            return instance;
+        }
+    }
+    
+    private static final class VolatileDcl {
+        private static volatile Payload instance;
+        
+        static Payload get() {
+            Payload result = instance;
+            if (result == null) {
+                synchronized (VolatileDcl.class) {
+                    result = instance;
+                    if (result == null) {
+                        result = new Payload();
+                        instance = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+    
+    private static final class VarHandleDcl {
+        private static final VarHandle INSTANCE;
+        private static Payload instance;
+        
+        static {
+            try {
+                INSTANCE = MethodHandles.lookup().findStaticVarHandle(VarHandleDcl.class, "instance", Payload.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        
+        static Payload get() {
+            Payload result = (Payload) INSTANCE.getAcquire();
+            if (result == null) {
+                synchronized (VarHandleDcl.class) {
+                    result = (Payload) INSTANCE.getAcquire();
+                    if (result == null) {
+                        result = new Payload();
+                        INSTANCE.setRelease(result);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+    
+    private static final class LazyHolder {
+        static final Payload INSTANCE = new Payload();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import observer.Broker;
+import observer.ObserverException;
+import observer.StockMarket;
+import observer.WeatherDisplay;
+import observer.WeatherStation;
+
+import java.math.BigDecimal;
+
+/**
+ * Benchmarks for observer fan-out
+ * One operation is one subject update delivered to every registered observer:
+ *   StockMarket.setStockPrice -> notifyObservers -> Broker.update
+ *   WeatherStation.setMeasurements -> notifyObservers -> WeatherDisplay.update
+ * With several threads all of them update the same subject, the way a shared
+ * market-data or telemetry feed is used. B/op is per fan-out; divide by the
+ * observer count for the cost of a single delivery.
+ */
+public class ObserverBenchmark {
+    private static final String STOCK_GROUP = "StockMarket";
+    private static final String WEATHER_GROUP = "WeatherStation";
+    
+    // Mix of minor and significant (>= $5) moves so both broker action branches run
+    private static final BigDecimal[] PRICES = {
+        new BigDecimal("150.00"), new BigDecimal("151.25"), new BigDecimal("149.80"), new BigDecimal("156.40")
+    };
+    private static final String[] CONDITIONS = {"Sunny", "Cloudy", "Rainy", "Stormy"};
+    
+    /**
+     * Runs both fan-out benchmarks for every observer and thread count
+     * @param bench The harness
+     * @param observerCounts Number of registered observers to sweep
+     * @param threads Thread counts to sweep
+     */
+    public static void run(Bench bench, int[] observerCounts, int[] threads) throws Exception {
+        for (int observers : observerCounts) {
+            String suffix = "(observers=" + observers + ")";
+            
+            if (bench.isIncluded(STOCK_GROUP, "setStockPrice" + suffix)) {
+                StockMarket market = createStockMarket(observers);
+                for (int threadCount : threads) {
+                    bench.measure(STOCK_GROUP, "setStockPrice" + suffix, threadCount, () -> new Bench.Op() {
+                        private int next;
+                        
+                        @Override
+                        public Object run() throws ObserverException {
+                            market.setStockPrice(PRICES[next++ & (PRICES.length - 1)]);
+                            return market;
+                        }
+                    });
+                }
+            }
+            
+            if (bench.isIncluded(WEATHER_GROUP, "setMeasurements" + suffix)) {
+                WeatherStation station = createWeatherStation(observers);
+                for (int threadCount : threads) {
+                    bench.measure(WEATHER_GROUP, "setMeasurements" + suffix, threadCount, () -> new Bench.Op() {
+                        private int next;
+                        
+                        @Override
+                        public Object run() {
+                            int index = next++ & (CONDITIONS.length - 1);
+                            station.setMeasurements(20.0f + index, 55.0f + index, 1013.2f, CONDITIONS[index]);
+                            return station;
+                        }
+                    });
+                }
+            }
+        }
+    }
+    
+    private static StockMarket createStockMarket(int observers) throws ObserverException {
+        StockMarket market = new StockMarket("BNCH", PRICES[0]);
+        for (int i = 0; i < observers; i++) {
+            market.registerObserver(new Broker("BR" + i, "Broker " + i));
+        }
+        return market;
+    }
+    
+    private static WeatherStation createWeatherStation(int observers) {
+        String[] types = {"Mobile", "Desktop", "TV"};
+        WeatherStation station = new WeatherStation("WS-BENCH");
+        for (int i = 0; i < observers; i++) {
+            station.registerObserver(new WeatherDisplay("WD" + i, types[i % types.length]));
+        }
+        return station;
+    }
+}
@@ -0,0 +1,29 @@
+package benchmark;
+
+import singleton.DatabaseManager;
+import singleton.Logger;
+
+/**
+ * Benchmarks for singleton access under contention
+ * Measures the real getInstance() methods and the reference strategies in
+ * InstanceAccess, all threads calling the same accessor at once.
+ */
+public class SingletonBenchmark {
+    private static final String GROUP = "Singleton";
+    
+    /**
+     * Runs every accessor at every thread count
+     * @param bench The harness
+     * @param threads Thread counts to sweep
+     */
+    public static void run(Bench bench, int[] threads) throws Exception {
+        for (int threadCount : threads) {
+            bench.measure(GROUP, "Logger.getInstance", threadCount, () -> Logger::getInstance);
+            bench.measure(GROUP, "DatabaseManager.getInstance", threadCount, () -> DatabaseManager::getInstance);
+            
+            for (InstanceAccess access : InstanceAccess.values()) {
+                bench.measure(GROUP, "reference(" + access + ")", threadCount, () -> access::get);
+            }
+        }
+    }
+}
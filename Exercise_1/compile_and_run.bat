@@ -6,7 +6,7 @@ REM Create output directory
 if not exist "out" mkdir out
 
 REM Compile all Java files
-javac -d out src\singleton\*.java src\factory\*.java src\observer\*.java src\*.java
+javac -d out ..\common\src\util\*.java src\singleton\*.java src\factory\*.java src\observer\*.java src\*.java
 
 if %errorlevel% neq 0 (
     echo Compilation failed!
@@ -7,7 +7,7 @@ echo
 mkdir -p out
 
 # Compile all Java files
-javac -d out src/singleton/*.java src/factory/*.java src/observer/*.java src/*.java
+javac -d out ../common/src/util/*.java src/singleton/*.java src/factory/*.java src/observer/*.java src/*.java
 
 if [ $? -ne 0 ]; then
     echo "Compilation failed!"
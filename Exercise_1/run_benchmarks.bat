@@ -0,0 +1,25 @@
+@echo off
+echo Compiling Design Patterns benchmarks...
+echo.
+
+REM Create output directory
+if not exist "out-bench" mkdir out-bench
+
+REM Compile application and benchmark sources together
+javac -d out-bench ..\common\src\util\*.java src\singleton\*.java src\factory\*.java src\observer\*.java bench\benchmark\*.java
+
+if %errorlevel% neq 0 (
+    echo Compilation failed!
+    pause
+    exit /b 1
+)
+
+echo Compilation successful!
+echo.
+echo Running benchmarks (logging disabled)...
+echo.
+
+REM Extra -D options (e.g. -Dbench.include=StockMarket -Dbench.observers=1000) are passed through
+java -Xms2g -Xmx2g -Dlogger.sink=none %* -cp out-bench benchmark.BenchmarkMain
+
+pause
@@ -0,0 +1,23 @@
+#!/bin/bash
+
+echo "Compiling Design Patterns benchmarks..."
+echo
+
+# Create output directory
+mkdir -p out-bench
+
+# Compile application and benchmark sources together
+javac -d out-bench ../common/src/util/*.java src/singleton/*.java src/factory/*.java src/observer/*.java bench/benchmark/*.java
+
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+echo "Compilation successful!"
+echo
+echo "Running benchmarks (logging disabled)..."
+echo
+
+# Extra -D options (e.g. -Dbench.include=StockMarket -Dbench.observers=1000) are passed through
+java -Xms2g -Xmx2g -Dlogger.sink=none "$@" -cp out-bench benchmark.BenchmarkMain
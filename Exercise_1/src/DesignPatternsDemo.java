@@ -154,7 +154,7 @@ public class DesignPatternsDemo {
         System.out.println("=== SINGLETON PATTERN - 2 USE CASES ===");
         System.out.println("1. LOGGER SERVICE");
         System.out.println("   - Private constructor prevents external instantiation");
-        System.out.println("   - Thread-safe getInstance() method with double-checked locking");
+        System.out.println("   - Thread-safe, lock-free getInstance() method (lazy holder idiom)");
         System.out.println("   - Single instance shared across application");
         System.out.println("   - Exception handling for null messages");
         System.out.println("   - Timestamp logging functionality");
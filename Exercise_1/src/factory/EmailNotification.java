@@ -14,6 +14,9 @@ public class EmailNotification implements Notification {
     
     @Override
     public void send() throws NotificationException {
+        NotificationEvents.Send event = NotificationEvents.beginSend(getType());
+        boolean sent = false;
+        
         try {
             logger.logMessage("Preparing email notification...");
             
@@ -24,6 +27,7 @@ public class EmailNotification implements Notification {
             System.out.println("   Email notification sent successfully!");
             
             logger.logMessage("Email notification completed");
+            sent = true;
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -31,6 +35,8 @@ public class EmailNotification implements Notification {
         } catch (Exception e) {
             logger.logError("Failed to send email notification", e);
             throw new NotificationException("Failed to send email notification", e);
+        } finally {
+            NotificationEvents.endSend(event, sent);
         }
     }
     
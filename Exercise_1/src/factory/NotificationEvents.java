@@ -0,0 +1,61 @@
+package factory;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event type for Notification.send
+ * Implementations check SEND.isEnabled() before creating an event, so
+ * nothing is allocated when no recording is running.
+ */
+final class NotificationEvents {
+    
+    @Name("designpatterns.factory.NotificationSend")
+    @Label("Notification Send")
+    @Category({"Design Patterns", "Factory"})
+    @Description("One Notification.send call, including simulated delivery delay")
+    static final class Send extends Event {
+        @Label("Notification Type")
+        String notificationType;
+        
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+    
+    static final EventType SEND = EventType.getEventType(Send.class);
+    
+    private NotificationEvents() {
+        // Holder for event types only
+    }
+    
+    /**
+     * Starts a send event if recording is enabled
+     * @param notificationType EMAIL, SMS or PUSH
+     * @return Started event, or null when the event type is disabled
+     */
+    static Send beginSend(String notificationType) {
+        if (!SEND.isEnabled()) {
+            return null;
+        }
+        Send event = new Send();
+        event.notificationType = notificationType;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Commits a send event started by beginSend
+     * @param event The event, may be null
+     * @param succeeded Whether the notification was sent
+     */
+    static void endSend(Send event, boolean succeeded) {
+        if (event != null) {
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+}
@@ -14,6 +14,9 @@ public class PushNotification implements Notification {
     
     @Override
     public void send() throws NotificationException {
+        NotificationEvents.Send event = NotificationEvents.beginSend(getType());
+        boolean sent = false;
+        
         try {
             logger.logMessage("Preparing push notification...");
             
@@ -24,6 +27,7 @@ public class PushNotification implements Notification {
             System.out.println("   Push notification sent successfully!");
             
             logger.logMessage("Push notification completed");
+            sent = true;
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -31,6 +35,8 @@ public class PushNotification implements Notification {
         } catch (Exception e) {
             logger.logError("Failed to send push notification", e);
             throw new NotificationException("Failed to send push notification", e);
+        } finally {
+            NotificationEvents.endSend(event, sent);
         }
     }
     
@@ -14,6 +14,9 @@ public class SMSNotification implements Notification {
     
     @Override
     public void send() throws NotificationException {
+        NotificationEvents.Send event = NotificationEvents.beginSend(getType());
+        boolean sent = false;
+        
         try {
             logger.logMessage("Preparing SMS notification...");
             
@@ -24,6 +27,7 @@ public class SMSNotification implements Notification {
             System.out.println("   SMS notification sent successfully!");
             
             logger.logMessage("SMS notification completed");
+            sent = true;
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -31,6 +35,8 @@ public class SMSNotification implements Notification {
         } catch (Exception e) {
             logger.logError("Failed to send SMS notification", e);
             throw new NotificationException("Failed to send SMS notification", e);
+        } finally {
+            NotificationEvents.endSend(event, sent);
         }
     }
     
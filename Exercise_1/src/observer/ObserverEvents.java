@@ -0,0 +1,71 @@
+package observer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event types for observer fan-out
+ * Subjects check NOTIFY.isEnabled() before creating an event, so nothing
+ * is allocated when no recording is running.
+ */
+final class ObserverEvents {
+    
+    @Name("designpatterns.observer.NotifyObservers")
+    @Label("Notify Observers")
+    @Category({"Design Patterns", "Observer"})
+    @Description("One notifyObservers fan-out from a subject to all registered observers")
+    static final class NotifyObservers extends Event {
+        @Label("Subject Type")
+        String subjectType;
+        
+        @Label("Subject Id")
+        String subjectId;
+        
+        @Label("Observer Count")
+        int observerCount;
+        
+        @Label("Failed Notifications")
+        int failedCount;
+    }
+    
+    static final EventType NOTIFY = EventType.getEventType(NotifyObservers.class);
+    
+    private ObserverEvents() {
+        // Holder for event types only
+    }
+    
+    /**
+     * Starts a fan-out event if recording is enabled
+     * @param subjectType Subject class name
+     * @param subjectId Stock symbol or station id
+     * @return Started event, or null when the event type is disabled
+     */
+    static NotifyObservers beginNotify(String subjectType, String subjectId) {
+        if (!NOTIFY.isEnabled()) {
+            return null;
+        }
+        NotifyObservers event = new NotifyObservers();
+        event.subjectType = subjectType;
+        event.subjectId = subjectId;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Commits a fan-out event started by beginNotify
+     * @param event The event, may be null
+     * @param observerCount Number of observers notified
+     * @param failedCount Number of observers that threw
+     */
+    static void endNotify(NotifyObservers event, int observerCount, int failedCount) {
+        if (event != null) {
+            event.observerCount = observerCount;
+            event.failedCount = failedCount;
+            event.commit();
+        }
+    }
+}
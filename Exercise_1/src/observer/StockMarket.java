@@ -1,5 +1,7 @@
 package observer;
 
+import singleton.CachedClock;
+import singleton.LogThrottle;
 import singleton.Logger;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -12,6 +14,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class StockMarket implements Subject {
     private final Logger logger;
+    private final LogThrottle notifyLog;
     private final List<Observer> observers;
     private String stockSymbol;
     private BigDecimal currentPrice;
@@ -26,6 +29,7 @@ public class StockMarket implements Subject {
         }
         
         this.logger = Logger.getInstance();
+        this.notifyLog = logger.throttle("stock.notify", 5, 1000);
         this.observers = new CopyOnWriteArrayList<>(); // Thread-safe for concurrent access
         this.stockSymbol = stockSymbol.trim().toUpperCase();
         this.currentPrice = initialPrice;
@@ -81,13 +85,18 @@ public class StockMarket implements Subject {
     
     @Override
     public void notifyObservers() throws ObserverException {
+        ObserverEvents.NotifyObservers event = ObserverEvents.beginNotify("StockMarket", stockSymbol);
+        int failed = 0;
+        
         try {
             if (observers.isEmpty()) {
                 logger.logMessage("No observers to notify for stock: " + stockSymbol);
                 return;
             }
             
-            logger.logMessage("Notifying " + observers.size() + " observers about " + stockSymbol + " price change");
+            if (notifyLog.tryAcquire()) {
+                logger.logMessage("Notifying " + observers.size() + " observers about " + stockSymbol + " price change");
+            }
             
             // Create price data object to pass to observers
             StockPriceData priceData = new StockPriceData(stockSymbol, currentPrice, previousPrice);
@@ -104,6 +113,7 @@ public class StockMarket implements Subject {
             }
             
             // If some notifications failed, throw exception with details
+            failed = notificationErrors.size();
             if (!notificationErrors.isEmpty()) {
                 throw new ObserverException("Failed to notify " + notificationErrors.size() + 
                     " out of " + observers.size() + " observers");
@@ -114,6 +124,8 @@ public class StockMarket implements Subject {
         } catch (Exception e) {
             logger.logError("Unexpected error during observer notification", e);
             throw new ObserverException("Unexpected error during observer notification", e);
+        } finally {
+            ObserverEvents.endNotify(event, observers.size(), failed);
         }
     }
     
@@ -177,13 +189,14 @@ class StockPriceData {
         this.stockSymbol = stockSymbol;
         this.price = price;
         this.previousPrice = previousPrice;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = CachedClock.getInstance().currentTimeMillis();
     }
     
     public String getStockSymbol() { return stockSymbol; }
     public BigDecimal getPrice() { return price; }
     public BigDecimal getPreviousPrice() { return previousPrice; }
     public long getTimestamp() { return timestamp; }
+    public String getFormattedTimestamp() { return CachedClock.getInstance().format(timestamp, true); }
     
     public BigDecimal getPriceChange() {
         return price.subtract(previousPrice);
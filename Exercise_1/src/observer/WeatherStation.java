@@ -1,5 +1,6 @@
 package observer;
 
+import singleton.CachedClock;
 import singleton.Logger;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -11,6 +12,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class WeatherStation implements Subject {
     private final List<Observer> observers;
     private final Logger logger;
+    private final CachedClock clock;
     private final String stationId;
     
     // Weather data
@@ -18,6 +20,7 @@ public class WeatherStation implements Subject {
     private float humidity;
     private float pressure;
     private String weatherCondition;
+    private long lastUpdated;
     
     public WeatherStation(String stationId) {
         if (stationId == null || stationId.trim().isEmpty()) {
@@ -27,6 +30,7 @@ public class WeatherStation implements Subject {
         this.stationId = stationId.trim();
         this.observers = new CopyOnWriteArrayList<>(); // Thread-safe for concurrent access
         this.logger = Logger.getInstance();
+        this.clock = CachedClock.getInstance();
         this.temperature = 0.0f;
         this.humidity = 0.0f;
         this.pressure = 0.0f;
@@ -52,6 +56,7 @@ public class WeatherStation implements Subject {
             this.humidity = humidity;
             this.pressure = pressure;
             this.weatherCondition = weatherCondition.trim();
+            this.lastUpdated = clock.currentTimeMillis();
             
             logger.logMessage("Weather Station " + stationId + " updated measurements: " +
                 "Temp=" + temperature + "°C, Humidity=" + humidity + "%, Pressure=" + pressure + "hPa, Condition=" + weatherCondition);
@@ -111,14 +116,17 @@ public class WeatherStation implements Subject {
     
     @Override
     public void notifyObservers() {
+        ObserverEvents.NotifyObservers event = ObserverEvents.beginNotify("WeatherStation", stationId);
+        int failed = 0;
+        
         try {
             if (observers.isEmpty()) {
                 logger.logMessage("No observers to notify for Weather Station " + stationId);
                 return;
             }
             
-            String weatherData = String.format("Weather Update from %s: %.1f°C, %.1f%% humidity, %.1f hPa, %s", 
-                stationId, temperature, humidity, pressure, weatherCondition);
+            String weatherData = String.format("Weather Update from %s: %.1f°C, %.1f%% humidity, %.1f hPa, %s (measured %s)", 
+                stationId, temperature, humidity, pressure, weatherCondition, clock.format(lastUpdated, true));
             
             logger.logMessage("Notifying " + observers.size() + " observers about weather change from Station " + stationId);
             
@@ -126,12 +134,15 @@ public class WeatherStation implements Subject {
                 try {
                     observer.update(this, weatherData);
                 } catch (ObserverException e) {
+                    failed++;
                     logger.logError("Failed to notify observer: " + observer.getObserverId(), e);
                 }
             }
             
         } catch (Exception e) {
             logger.logError("Unexpected error during observer notification for Weather Station " + stationId, e);
+        } finally {
+            ObserverEvents.endNotify(event, observers.size(), failed);
         }
     }
     
@@ -160,6 +171,14 @@ public class WeatherStation implements Subject {
             stationId, temperature, humidity, pressure, weatherCondition);
     }
     
+    /**
+     * Gets the time of the last measurement update
+     * @return Epoch milliseconds, or 0 if no measurements were set yet
+     */
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+    
     /**
      * Gets current temperature
      * @return Temperature in Celsius
@@ -1,46 +1,39 @@
 package singleton;
 
 import java.sql.Connection;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * DatabaseManager class implementing Singleton pattern
  * Manages database connections with thread-safe implementation
  */
 public class DatabaseManager {
-    // Static instance variable (lazy initialization)
-    private static DatabaseManager instance;
+    // Lazy holder, initialized by the JVM on the first getInstance() call
+    private static final class Holder {
+        static final DatabaseManager INSTANCE = new DatabaseManager();
+    }
     
     // Database connection
     private Connection connection;
     private final String url;
     private final String username;
-    private final DateTimeFormatter formatter;
+    private final CachedClock clock;
     
     // Private constructor prevents external instantiation
     private DatabaseManager() {
         this.url = "jdbc:mysql://localhost:3306/astronaut_db";
         this.username = "astronaut_user";
-        this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        this.clock = CachedClock.getInstance();
         
         System.out.println("[DATABASE] DatabaseManager instance created at " + getCurrentTimestamp());
         initializeConnection();
     }
     
     /**
-     * Thread-safe getInstance method using synchronized block
+     * Thread-safe, lock-free getInstance using the initialization-on-demand holder idiom
      * @return Single instance of DatabaseManager
      */
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            synchronized (DatabaseManager.class) {
-                if (instance == null) {
-                    instance = new DatabaseManager();
-                }
-            }
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     /**
@@ -116,7 +109,7 @@ public class DatabaseManager {
      * @return Formatted timestamp
      */
     private String getCurrentTimestamp() {
-        return LocalDateTime.now().format(formatter);
+        return clock.getTimestamp();
     }
     
     /**
@@ -0,0 +1,113 @@
+package singleton;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-call-site rate limiter for repetitive log messages
+ * Allows up to maxPerWindow messages per time window; further messages only
+ * increment a counter and are collapsed into a single "repeated N times"
+ * line when the next window opens, or by flush(), which the Logger calls
+ * at shutdown. A window is replaced as a whole with one compare-and-set,
+ * so its start and count never disagree. Obtained from Logger.throttle(...).
+ */
+public class LogThrottle {
+    private final Logger logger;
+    private final String key;
+    private final int maxPerWindow;
+    private final long windowMillis;
+    
+    /**
+     * One rate window: its start and the messages counted in it
+     */
+    private static final class Window {
+        final long start;
+        final AtomicInteger count = new AtomicInteger();
+        
+        Window(long start) {
+            this.start = start;
+        }
+    }
+    
+    private final AtomicReference<Window> window;
+    private final AtomicInteger suppressed;
+    
+    LogThrottle(Logger logger, String key, int maxPerWindow, long windowMillis) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Throttle key cannot be null or empty");
+        }
+        if (maxPerWindow < 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Throttle limits must be positive");
+        }
+        
+        this.logger = logger;
+        this.key = key.trim();
+        this.maxPerWindow = maxPerWindow;
+        this.windowMillis = windowMillis;
+        this.window = new AtomicReference<>(new Window(System.currentTimeMillis()));
+        this.suppressed = new AtomicInteger();
+    }
+    
+    /**
+     * Decides whether the caller should log its message now
+     * Call before building the message so suppressed calls cost only a counter increment.
+     * @return true if the message should be logged, false if it was suppressed
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        Window current = window.get();
+        if (now - current.start >= windowMillis) {
+            // Exactly one caller opens the next window and reports the previous one
+            Window next = new Window(now);
+            if (window.compareAndSet(current, next)) {
+                flush();
+                current = next;
+            } else {
+                current = window.get();
+            }
+        }
+        
+        if (current.count.incrementAndGet() <= maxPerWindow) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Logs the "repeated N times" line for messages suppressed since the last report, if any
+     */
+    public void flush() {
+        int dropped = suppressed.getAndSet(0);
+        if (dropped > 0) {
+            logger.logMessage("[" + key + "] previous message repeated " + dropped + " times");
+        }
+    }
+    
+    /**
+     * Convenience for fixed messages that are cheap to pass in
+     * @param message The message to log if the throttle allows it
+     */
+    public void logMessage(String message) {
+        if (tryAcquire()) {
+            logger.logMessage(message);
+        }
+    }
+    
+    /**
+     * Gets the number of messages suppressed in the current window
+     * @return Suppressed message count
+     */
+    public int getSuppressedCount() {
+        return suppressed.get();
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("LogThrottle{key='%s', max=%d per %d ms}", key, maxPerWindow, windowMillis);
+    }
+}
@@ -1,38 +1,51 @@
 package singleton;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import util.MappedFileAppender;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Logger class implementing Singleton pattern
  * Thread-safe implementation for application logging
  */
 public class Logger {
-    // Static instance variable (lazy initialization)
-    private static Logger instance;
+    // Lazy holder, initialized by the JVM on the first getInstance() call
+    private static final class Holder {
+        static final Logger INSTANCE = new Logger();
+    }
+    
+    // Shared coarse clock for timestamps
+    private final CachedClock clock;
+    
+    // Output sinks, selected at startup with -Dlogger.sink=console|file|both|none
+    private final boolean consoleEnabled;
+    private final MappedFileAppender fileAppender;
     
-    // Date formatter for timestamps
-    private final DateTimeFormatter formatter;
+    // Rate limiters for chatty call sites, shared by template key
+    private final Map<String, LogThrottle> throttles = new ConcurrentHashMap<>();
     
     // Private constructor prevents external instantiation
     private Logger() {
-        this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        System.out.println("[SYSTEM] Logger instance created at " + getCurrentTimestamp());
+        this.clock = CachedClock.getInstance();
+        
+        String sink = System.getProperty("logger.sink", "console").trim().toLowerCase();
+        this.fileAppender = sink.equals("file") || sink.equals("both") ? createFileAppender() : null;
+        this.consoleEnabled = !sink.equals("none") && (fileAppender == null || sink.equals("both"));
+        
+        writeLine("[SYSTEM] Logger instance created at " + getCurrentTimestamp(), false);
+        
+        // One hook, so pending throttle counts are written before the file sink closes
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "logger-shutdown"));
     }
     
     /**
-     * Thread-safe getInstance method using synchronized block
+     * Thread-safe, lock-free getInstance using the initialization-on-demand holder idiom
      * @return Single instance of Logger
      */
     public static Logger getInstance() {
-        if (instance == null) {
-            synchronized (Logger.class) {
-                if (instance == null) {
-                    instance = new Logger();
-                }
-            }
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     /**
@@ -47,7 +60,7 @@ public class Logger {
             }
             
             String timestamp = getCurrentTimestamp();
-            System.out.println("[" + timestamp + "] " + message);
+            writeLine("[" + timestamp + "] " + message, false);
             
         } catch (IllegalArgumentException e) {
             System.err.println("[ERROR] " + getCurrentTimestamp() + " - " + e.getMessage());
@@ -64,18 +77,96 @@ public class Logger {
     public void logError(String message, Exception exception) {
         try {
             String timestamp = getCurrentTimestamp();
-            System.err.println("[ERROR] [" + timestamp + "] " + message + " - " + exception.getMessage());
+            writeLine("[ERROR] [" + timestamp + "] " + message + " - " + exception.getMessage(), true);
         } catch (Exception e) {
             System.err.println("[CRITICAL] Failed to log error: " + e.getMessage());
         }
     }
     
+    /**
+     * Gets the rate limiter for a message template, creating it on first use
+     * Limits can be overridden with -Dlogger.throttle.<key>=max/windowMillis, or "off" to disable
+     * @param key Template key identifying the call site
+     * @param maxPerWindow Messages allowed per window
+     * @param windowMillis Window length in milliseconds
+     * @return Shared throttle for the key
+     */
+    public LogThrottle throttle(String key, int maxPerWindow, long windowMillis) {
+        return throttles.computeIfAbsent(key, k -> {
+            String override = System.getProperty("logger.throttle." + k);
+            if (override == null) {
+                return new LogThrottle(this, k, maxPerWindow, windowMillis);
+            }
+            if (override.trim().equalsIgnoreCase("off")) {
+                return new LogThrottle(this, k, Integer.MAX_VALUE, Long.MAX_VALUE);
+            }
+            
+            try {
+                String[] parts = override.split("/");
+                return new LogThrottle(this, k, Integer.parseInt(parts[0].trim()), Long.parseLong(parts[1].trim()));
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] Invalid throttle setting for " + k + ": " + override);
+                return new LogThrottle(this, k, maxPerWindow, windowMillis);
+            }
+        });
+    }
+    
+    /**
+     * Reports the messages the throttles are still holding back, then closes the file sink
+     */
+    private void shutdown() {
+        for (LogThrottle throttle : throttles.values()) {
+            throttle.flush();
+        }
+        if (fileAppender != null) {
+            fileAppender.close();
+        }
+    }
+    
+    /**
+     * Writes a formatted line to the configured sinks
+     * @param line The line to write
+     * @param error Whether the line goes to stderr when console output is enabled
+     */
+    private void writeLine(String line, boolean error) {
+        if (fileAppender != null) {
+            fileAppender.append(line);
+        }
+        if (consoleEnabled) {
+            if (error) {
+                System.err.println(line);
+            } else {
+                System.out.println(line);
+            }
+        }
+    }
+    
+    /**
+     * Creates the memory-mapped file sink from system properties
+     * logger.file (path), logger.file.segmentKB, logger.file.rotateMinutes, logger.file.compress
+     * @return File appender, or null if it could not be opened (console is used instead)
+     */
+    private static MappedFileAppender createFileAppender() {
+        String path = System.getProperty("logger.file", "logs/design-patterns.log");
+        try {
+            long segmentKb = Long.getLong("logger.file.segmentKB", 16 * 1024);
+            long rotateMinutes = Long.getLong("logger.file.rotateMinutes", 0);
+            boolean compress = Boolean.getBoolean("logger.file.compress");
+            
+            return new MappedFileAppender(Paths.get(path), segmentKb * 1024, rotateMinutes * 60_000L, compress);
+            
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[ERROR] Could not open log file " + path + ", falling back to console - " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Gets current timestamp as formatted string
      * @return Formatted timestamp
      */
     private String getCurrentTimestamp() {
-        return LocalDateTime.now().format(formatter);
+        return clock.getTimestamp();
     }
 }
 
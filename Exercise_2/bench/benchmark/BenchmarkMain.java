@@ -0,0 +1,46 @@
+package benchmark;
+
+import manager.ScheduleManagerBenchmark;
+
+import java.util.Arrays;
+
+/**
+ * Entry point for the Exercise 2 benchmark suite
+ * Run through run_benchmarks.sh, which disables logging and the flight
+ * recorder so the numbers measure the data structures.
+ *
+ * Suite options (system properties, see Bench for harness options):
+ *   bench.sizes       schedule sizes (default 1000,10000,100000,1000000)
+ *   bench.threads     thread counts for thread-safe benchmarks (default 1,4)
+ *   bench.contention  thread counts for getInstance (default 1,4,16,64)
+ *   bench.clients     concurrent server clients (default 1,4,16,64)
+ *   bench.pipeline    requests per server round trip (default 1,64)
+ */
+public class BenchmarkMain {
+    
+    public static void main(String[] args) throws Exception {
+        int[] sizes = parse(System.getProperty("bench.sizes", "1000,10000,100000,1000000"));
+        int[] threads = parse(System.getProperty("bench.threads", "1,4"));
+        int[] contention = parse(System.getProperty("bench.contention", "1,4,16,64"));
+        int[] clients = parse(System.getProperty("bench.clients", "1,4,16,64"));
+        int[] pipelines = parse(System.getProperty("bench.pipeline", "1,64"));
+        
+        Bench bench = new Bench();
+        ScheduleManagerBenchmark.run(bench, sizes);
+        TaskBenchmark.run(bench, threads);
+        SingletonBenchmark.run(bench, contention);
+        ServerBenchmark.run(bench, clients, pipelines);
+        
+        if (!bench.finish()) {
+            System.exit(2);
+        }
+    }
+    
+    private static int[] parse(String list) {
+        return Arrays.stream(list.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    }
+}
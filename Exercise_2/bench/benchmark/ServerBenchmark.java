@@ -0,0 +1,114 @@
+package benchmark;
+
+import factory.TaskFactory;
+import server.ScheduleClient;
+import server.ScheduleServer;
+
+import java.io.IOException;
+import java.time.LocalTime;
+
+/**
+ * Load test for the NIO schedule server over loopback
+ * Each benchmark thread is one client connection. One operation is one round
+ * trip carrying a pipeline of requests that cycles GET, RANGE, ADD and REMOVE
+ * against a schedule pre-filled with one short task per minute; requests per
+ * second is ops/s times the pipeline depth.
+ */
+public class ServerBenchmark {
+    private static final String GROUP = "ScheduleServer";
+    private static final int FIXTURE_TASKS = 1440;
+    
+    /**
+     * Starts an in-process server, runs every client count and pipeline depth, then stops it
+     * @param bench The harness
+     * @param clients Concurrent client counts to sweep
+     * @param pipelines Requests per round trip to sweep
+     */
+    public static void run(Bench bench, int[] clients, int[] pipelines) throws Exception {
+        boolean selected = false;
+        for (int pipeline : pipelines) {
+            selected |= bench.isIncluded(GROUP, "roundTrip(pipeline=" + pipeline + ")");
+        }
+        if (!selected) {
+            return;
+        }
+        
+        ScheduleServer server = new ScheduleServer(0);
+        server.start();
+        int port = server.getAddress().getPort();
+        try (ScheduleClient setup = new ScheduleClient(port)) {
+            // Minute m holds task "Fixture-m" in its first 30 seconds
+            for (int minute = 0; minute < FIXTURE_TASKS; minute++) {
+                setup.add(TaskFactory.TaskType.RESEARCH, LocalTime.ofSecondOfDay(minute * 60L),
+                    LocalTime.ofSecondOfDay(minute * 60L + 30), "Fixture-" + minute);
+            }
+            setup.flush();
+            for (int minute = 0; minute < FIXTURE_TASKS; minute++) {
+                setup.read();
+            }
+            
+            int[] clientIds = {0};
+            for (int pipeline : pipelines) {
+                for (int clientCount : clients) {
+                    bench.measure(GROUP, "roundTrip(pipeline=" + pipeline + ")", clientCount,
+                        () -> new PipelinedClient(port, clientIds[0]++, pipeline));
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+    
+    /**
+     * One connection issuing pipelined request batches
+     */
+    private static final class PipelinedClient implements Bench.Op {
+        private final ScheduleClient client;
+        private final int clientId;
+        private final int pipeline;
+        private long sequence;
+        
+        PipelinedClient(int port, int clientId, int pipeline) {
+            try {
+                this.client = new ScheduleClient(port);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not connect to schedule server", e);
+            }
+            this.clientId = clientId;
+            this.pipeline = pipeline;
+        }
+        
+        @Override
+        public Object run() throws IOException {
+            String added = null;
+            for (int i = 0; i < pipeline; i++) {
+                long n = sequence++;
+                int minute = (int) ((n * 7 + clientId * 13) % FIXTURE_TASKS);
+                switch ((int) (n & 3)) {
+                    case 0:
+                        client.get("Fixture-" + minute);
+                        break;
+                    case 1:
+                        client.range(LocalTime.ofSecondOfDay(minute * 60L), LocalTime.ofSecondOfDay(minute * 60L + 59));
+                        break;
+                    case 2:
+                        // Free second-half slot; concurrent clients may collide and get CONFLICT
+                        added = "Load-" + clientId + "-" + n;
+                        client.add(TaskFactory.TaskType.EXERCISE, LocalTime.ofSecondOfDay(minute * 60L + 30 + clientId % 29),
+                            LocalTime.ofSecondOfDay(minute * 60L + 31 + clientId % 29), added);
+                        break;
+                    default:
+                        client.remove(added != null ? added : "Missing");
+                        added = null;
+                }
+            }
+            client.flush();
+            
+            ScheduleClient.Response last = null;
+            for (int i = 0; i < pipeline; i++) {
+                last = client.read();
+            }
+            return last;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package benchmark;
+
+import manager.ScheduleManager;
+import metrics.ScheduleMetrics;
+import util.FlightRecorder;
+import util.Logger;
+
+/**
+ * Benchmarks for singleton access under contention
+ * All threads call the same getInstance() at once; ScheduleManager, TaskFactory
+ * and the observers call these on every construction. The comparison against
+ * other lazy-initialization strategies lives in the Exercise 1 suite.
+ */
+public class SingletonBenchmark {
+    private static final String GROUP = "Singleton";
+    
+    /**
+     * Runs every getInstance() at every thread count
+     * @param bench The harness
+     * @param threads Thread counts to sweep
+     */
+    public static void run(Bench bench, int[] threads) throws Exception {
+        for (int threadCount : threads) {
+            bench.measure(GROUP, "Logger.getInstance", threadCount, () -> Logger::getInstance);
+            bench.measure(GROUP, "ScheduleManager.getInstance", threadCount, () -> ScheduleManager::getInstance);
+            bench.measure(GROUP, "ScheduleMetrics.getInstance", threadCount, () -> ScheduleMetrics::getInstance);
+            bench.measure(GROUP, "FlightRecorder.getInstance", threadCount, () -> FlightRecorder::getInstance);
+        }
+    }
+}
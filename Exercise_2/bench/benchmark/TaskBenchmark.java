@@ -0,0 +1,58 @@
+package benchmark;
+
+import factory.TaskFactory;
+import model.ResearchTask;
+import model.Task;
+
+import java.time.LocalTime;
+
+/**
+ * Benchmarks for task creation through TaskFactory and Task.toString
+ */
+public class TaskBenchmark {
+    private static final String FACTORY_GROUP = "TaskFactory";
+    private static final String TASK_GROUP = "Task";
+    
+    /**
+     * Runs the factory and formatting benchmarks
+     * @param bench The harness
+     * @param threads Thread counts to sweep (TaskFactory and tasks are not shared between threads)
+     */
+    public static void run(Bench bench, int[] threads) throws Exception {
+        TaskFactory.TaskType[] types = TaskFactory.TaskType.values();
+        LocalTime start = LocalTime.of(9, 0);
+        LocalTime end = LocalTime.of(10, 30);
+        
+        for (int threadCount : threads) {
+            bench.measure(FACTORY_GROUP, "createTask(enum)", threadCount, () -> new Bench.Op() {
+                private final TaskFactory factory = new TaskFactory();
+                private int next;
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createTask(types[next++ % types.length], "Spacewalk prep", start, end);
+                }
+            });
+            
+            bench.measure(FACTORY_GROUP, "createTask(string)", threadCount, () -> new Bench.Op() {
+                private final TaskFactory factory = new TaskFactory();
+                private final String[] names = factory.getTaskTypeNames();
+                private int next;
+                
+                @Override
+                public Object run() throws Exception {
+                    return factory.createTask(names[next++ % names.length], "Spacewalk prep", start, end);
+                }
+            });
+            
+            bench.measure(TASK_GROUP, "toString", threadCount, () -> new Bench.Op() {
+                private final Task task = new ResearchTask("Mars Soil Analysis", start, end);
+                
+                @Override
+                public Object run() {
+                    return task.toString();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package manager;
+
+import benchmark.Bench;
+import exception.TaskException;
+import model.ResearchTask;
+import model.Task;
+import model.TaskReminder;
+import observer.ReminderObserver;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks for the ScheduleManager hot paths at increasing schedule sizes
+ * Lives in the manager package so fixtures can be installed with
+ * replaceTasks() instead of n conflict-checked inserts.
+ *
+ * Distributions:
+ *   REALISTIC    tasks spread over the day with gaps; probes hit random slots
+ *   ADVERSARIAL  tasks packed back to back; probes sit at the end of the day
+ *                and overlap many tasks, which is the worst case for a linear scan
+ *
+ * The rearrange benchmarks (REALISTIC only) compare moving several tasks with
+ * removeTask/addTask pairs, in-place moveTask calls and one ScheduleTransaction.
+ * undoRedo alternates undo() and redo() of REARRANGE_MOVES recorded moves.
+ * The merge benchmarks put MERGE_PLAN free-slot tasks into the schedule with
+ * one merge() or with one addTask() each, undoing them in untimed setup.
+ * getLoad queries random two-hour windows of the per-minute load index, and
+ * getTypeSummaries reads the running per-type totals.
+ *
+ * addTaskWithReminders (REALISTIC only) repeats addTask with a reminder
+ * observer registered, so every task has a timer and each add arms one.
+ *
+ * The dependency benchmarks (REALISTIC only) move the head of a chain of
+ * size back-to-back tasks, shifting every other one (moveChainHead), and a
+ * hub task every fixture task depends on, which visits all of them and
+ * shifts at most the first (moveFanOutHub). Each move is undone in untimed setup.
+ *
+ * The search benchmarks (REALISTIC only) look up random names by prefix,
+ * substring and with one transposition typed (two edits).
+ *
+ * The MultiResource benchmarks spread the tasks over RESOURCES resource
+ * timelines, one resource per task, and probe with tasks claiming two of them.
+ */
+public class ScheduleManagerBenchmark {
+    private static final String GROUP = "ScheduleManager";
+    private static final long DAY_NANOS = LocalTime.MAX.toNanoOfDay();
+    private static final int REARRANGE_MOVES = 16;
+    private static final int RESOURCES = 200;
+    private static final int MERGE_PLAN = 256;
+    
+    public enum Distribution {
+        REALISTIC, ADVERSARIAL
+    }
+    
+    /**
+     * Immutable fixture: sorted tasks plus free gaps for probe tasks
+     */
+    static final class Fixture {
+        final Distribution distribution;
+        final List<Task> tasks;
+        final long slotNanos;
+        
+        Fixture(Distribution distribution, int size, long seed) {
+            this.distribution = distribution;
+            this.slotNanos = DAY_NANOS / size;
+            this.tasks = new ArrayList<>(size);
+            
+            Random random = new Random(seed);
+            for (int i = 0; i < size; i++) {
+                long slotStart = i * slotNanos;
+                long start;
+                long end;
+                if (distribution == Distribution.ADVERSARIAL) {
+                    start = slotStart;
+                    end = slotStart + slotNanos;
+                } else {
+                    // Task occupies at most the first three quarters of its slot
+                    start = slotStart + (long) (random.nextDouble() * slotNanos / 4);
+                    end = start + slotNanos / 4 + (long) (random.nextDouble() * slotNanos / 2);
+                }
+                tasks.add(new ResearchTask("Task-" + i, LocalTime.ofNanoOfDay(start), LocalTime.ofNanoOfDay(end)));
+            }
+        }
+        
+        /**
+         * Task for probing conflicts or adding
+         * REALISTIC: sits in the free last quarter of a slot, so it never conflicts.
+         * ADVERSARIAL: spans the last 1% of the day, so it overlaps many tasks.
+         */
+        Task probe(int slot, String name) {
+            if (distribution == Distribution.ADVERSARIAL) {
+                long start = DAY_NANOS - Math.max(DAY_NANOS / 100, slotNanos);
+                return new ResearchTask(name, LocalTime.ofNanoOfDay(start), LocalTime.ofNanoOfDay(DAY_NANOS - 1));
+            }
+            long start = slot * slotNanos + slotNanos * 3 / 4 + 1;
+            return new ResearchTask(name, LocalTime.ofNanoOfDay(start),
+                LocalTime.ofNanoOfDay(start + Math.max(1, slotNanos / 8)));
+        }
+    }
+    
+    /**
+     * Runs addTask, removeTask, hasTask and findConflictingTask for every size and distribution
+     * @param bench The harness
+     * @param sizes Schedule sizes to sweep
+     */
+    public static void run(Bench bench, int[] sizes) throws Exception {
+        ScheduleManager manager = ScheduleManager.getInstance();
+        
+        for (int size : sizes) {
+            for (Distribution distribution : Distribution.values()) {
+                String suffix = "(size=" + size + ", dist=" + distribution + ")";
+                if (!bench.isIncluded(GROUP, "addTask" + suffix) && !bench.isIncluded(GROUP, "removeTask" + suffix)
+                        && !bench.isIncluded(GROUP, "hasTask" + suffix)
+                        && !bench.isIncluded(GROUP, "findConflictingTask" + suffix)
+                        && !bench.isIncluded(GROUP, "getLoad" + suffix)
+                        && !bench.isIncluded(GROUP, "getTypeSummaries" + suffix)
+                        && !bench.isIncluded(GROUP, "searchPrefix" + suffix)
+                        && !bench.isIncluded(GROUP, "searchContaining" + suffix)
+                        && !bench.isIncluded(GROUP, "searchSimilar" + suffix)
+                        && !bench.isIncluded(GROUP, "rearrangeIndividually" + suffix)
+                        && !bench.isIncluded(GROUP, "rearrangeMoveTask" + suffix)
+                        && !bench.isIncluded(GROUP, "rearrangeTransaction" + suffix)
+                        && !bench.isIncluded(GROUP, "undoRedo" + suffix)
+                        && !bench.isIncluded(GROUP, "mergePlan" + suffix)
+                        && !bench.isIncluded(GROUP, "addPlanIndividually" + suffix)
+                        && !bench.isIncluded(GROUP, "addTaskWithReminders" + suffix)
+                        && !bench.isIncluded(GROUP, "moveChainHead" + suffix)
+                        && !bench.isIncluded(GROUP, "moveFanOutHub" + suffix)) {
+                    continue;
+                }
+                
+                Fixture fixture = new Fixture(distribution, size, 42L);
+                manager.replaceTasks(fixture.tasks);
+                Random random = new Random(7L);
+                
+                // addTask: the probe from the previous invocation is removed again in untimed setup
+                bench.measure(GROUP, "addTask" + suffix, 1, () -> new Bench.SetupOp() {
+                    private Task pending;
+                    
+                    @Override
+                    public void setup() throws Exception {
+                        if (pending != null && manager.hasTask(pending.getName())) {
+                            manager.removeTask(pending.getName());
+                        }
+                        pending = fixture.probe(random.nextInt(size), "Probe");
+                    }
+                    
+                    @Override
+                    public Object run() {
+                        try {
+                            manager.addTask(pending);
+                            return pending;
+                        } catch (TaskException e) {
+                            return e; // Conflict path is part of the adversarial measurement
+                        }
+                    }
+                });
+                manager.replaceTasks(fixture.tasks);
+                
+                // removeTask: the task removed by the previous invocation is put back in untimed setup
+                bench.measure(GROUP, "removeTask" + suffix, 1, () -> new Bench.SetupOp() {
+                    private Task removed;
+                    
+                    @Override
+                    public void setup() throws Exception {
+                        if (removed != null) {
+                            manager.addTask(removed);
+                        }
+                        removed = distribution == Distribution.ADVERSARIAL
+                            ? fixture.tasks.get(size - 1)
+                            : fixture.tasks.get(random.nextInt(size));
+                    }
+                    
+                    @Override
+                    public Object run() throws Exception {
+                        manager.removeTask(removed.getName());
+                        return removed;
+                    }
+                });
+                manager.replaceTasks(fixture.tasks);
+                
+                // hasTask: existing random names, or a missing name that forces a full scan
+                String[] names = new String[1024];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = distribution == Distribution.ADVERSARIAL
+                        ? "Missing-" + i
+                        : fixture.tasks.get(random.nextInt(size)).getName();
+                }
+                bench.measure(GROUP, "hasTask" + suffix, 1, () -> new Bench.Op() {
+                    private int next;
+                    
+                    @Override
+                    public Object run() {
+                        return manager.hasTask(names[next++ & (names.length - 1)]);
+                    }
+                });
+                
+                Task[] probes = new Task[1024];
+                for (int i = 0; i < probes.length; i++) {
+                    probes[i] = fixture.probe(random.nextInt(size), "Probe-" + i);
+                }
+                bench.measure(GROUP, "findConflictingTask" + suffix, 1, () -> new Bench.Op() {
+                    private int next;
+                    
+                    @Override
+                    public Object run() {
+                        return manager.findConflictingTask(probes[next++ & (probes.length - 1)]);
+                    }
+                });
+                
+                LocalTime[] windows = new LocalTime[1024];
+                for (int i = 0; i < windows.length; i++) {
+                    windows[i] = LocalTime.of(random.nextInt(22), random.nextInt(60));
+                }
+                bench.measure(GROUP, "getLoad" + suffix, 1, () -> new Bench.Op() {
+                    private int next;
+                    
+                    @Override
+                    public Object run() {
+                        LocalTime start = windows[next++ & (windows.length - 1)];
+                        return manager.getLoad(start, start.plusHours(2));
+                    }
+                });
+                bench.measure(GROUP, "getTypeSummaries" + suffix, 1, () -> manager::getTypeSummaries);
+                
+                if (distribution == Distribution.REALISTIC) {
+                    runRearrange(bench, manager, fixture, suffix);
+                    runUndoRedo(bench, manager, fixture, suffix);
+                    runSearch(bench, manager, fixture, suffix, random);
+                    runMerge(bench, manager, fixture, suffix);
+                    runReminders(bench, manager, fixture, suffix, random);
+                    runDependencies(bench, manager, fixture, suffix);
+                }
+                
+                manager.replaceTasks(new ArrayList<>());
+            }
+            runMultiResource(bench, manager, size);
+        }
+    }
+    
+    /**
+     * Runs addTask and findConflictingTask on a schedule spread over RESOURCES resources
+     * Task i claims resource i % RESOURCES in its slot on that resource's
+     * timeline; probes claim two random resources in the free last quarter of
+     * a slot, so they check two timelines and never conflict.
+     */
+    private static void runMultiResource(Bench bench, ScheduleManager manager, int size) throws Exception {
+        String suffix = "(size=" + size + ", resources=" + RESOURCES + ")";
+        if (!bench.isIncluded(GROUP, "addTaskMultiResource" + suffix)
+                && !bench.isIncluded(GROUP, "findConflictingTaskMultiResource" + suffix)) {
+            return;
+        }
+        
+        int perResource = Math.max(1, size / RESOURCES);
+        long slotNanos = DAY_NANOS / (perResource + 1);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long start = (i / RESOURCES) * slotNanos;
+            tasks.add(new ResearchTask("Task-" + i, LocalTime.ofNanoOfDay(start),
+                LocalTime.ofNanoOfDay(start + slotNanos / 2), List.of("r" + (i % RESOURCES))));
+        }
+        Random random = new Random(7L);
+        Task[] probes = new Task[1024];
+        for (int i = 0; i < probes.length; i++) {
+            long start = random.nextInt(perResource) * slotNanos + slotNanos * 3 / 4;
+            int first = random.nextInt(RESOURCES);
+            int second = (first + 1 + random.nextInt(RESOURCES - 1)) % RESOURCES;
+            probes[i] = new ResearchTask("Probe-" + i, LocalTime.ofNanoOfDay(start),
+                LocalTime.ofNanoOfDay(start + slotNanos / 8), List.of("r" + first, "r" + second));
+        }
+        manager.replaceTasks(tasks);
+        
+        bench.measure(GROUP, "addTaskMultiResource" + suffix, 1, () -> new Bench.SetupOp() {
+            private int next;
+            private Task pending;
+            
+            @Override
+            public void setup() throws Exception {
+                if (pending != null && manager.hasTask(pending.getName())) {
+                    manager.removeTask(pending.getName());
+                }
+                pending = probes[next++ & (probes.length - 1)];
+            }
+            
+            @Override
+            public Object run() throws Exception {
+                manager.addTask(pending);
+                return pending;
+            }
+        });
+        
+        bench.measure(GROUP, "findConflictingTaskMultiResource" + suffix, 1, () -> new Bench.Op() {
+            private int next;
+            
+            @Override
+            public Object run() {
+                return manager.findConflictingTask(probes[next++ & (probes.length - 1)]);
+            }
+        });
+        manager.replaceTasks(new ArrayList<>());
+    }
+    
+    /**
+     * Moves REARRANGE_MOVES tasks spread over the day into the free quarter of
+     * their slot and back on alternate invocations, as removeTask/addTask
+     * pairs, as moveTask calls and as a single transaction
+     */
+    private static void runRearrange(Bench bench, ScheduleManager manager, Fixture fixture, String suffix)
+            throws Exception {
+        int size = fixture.tasks.size();
+        int moves = Math.min(REARRANGE_MOVES, size);
+        Task[] original = new Task[moves];
+        Task[] moved = new Task[moves];
+        for (int i = 0; i < moves; i++) {
+            int slot = (int) ((long) i * size / moves);
+            original[i] = fixture.tasks.get(slot);
+            moved[i] = fixture.probe(slot, original[i].getName());
+        }
+        String name = "(moves=" + moves + ", " + suffix.substring(1);
+        
+        manager.replaceTasks(fixture.tasks);
+        bench.measure(GROUP, "rearrangeIndividually" + name, 1, () -> new Bench.Op() {
+            private boolean forward = true;
+            
+            @Override
+            public Object run() throws Exception {
+                Task[] targets = forward ? moved : original;
+                for (Task target : targets) {
+                    manager.removeTask(target.getName());
+                    manager.addTask(target);
+                }
+                forward = !forward;
+                return targets;
+            }
+        });
+        
+        manager.replaceTasks(fixture.tasks);
+        bench.measure(GROUP, "rearrangeMoveTask" + name, 1, () -> new Bench.Op() {
+            private boolean forward = true;
+            
+            @Override
+            public Object run() throws Exception {
+                Task[] targets = forward ? moved : original;
+                for (Task target : targets) {
+                    manager.moveTask(target.getName(), target.getStartTime(), target.getEndTime());
+                }
+                forward = !forward;
+                return targets;
+            }
+        });
+        
+        manager.replaceTasks(fixture.tasks);
+        bench.measure(GROUP, "rearrangeTransaction" + name, 1, () -> new Bench.Op() {
+            private boolean forward = true;
+            
+            @Override
+            public Object run() throws Exception {
+                Task[] targets = forward ? moved : original;
+                ScheduleTransaction transaction = manager.beginTransaction();
+                for (Task target : targets) {
+                    transaction.move(target.getName(), target.getStartTime(), target.getEndTime());
+                }
+                forward = !forward;
+                return transaction.commit();
+            }
+        });
+    }
+    
+    /**
+     * Records REARRANGE_MOVES moves, then undoes them all and redoes them all
+     * on alternate invocations; one operation is one undo() or redo()
+     */
+    private static void runUndoRedo(Bench bench, ScheduleManager manager, Fixture fixture, String suffix)
+            throws Exception {
+        int size = fixture.tasks.size();
+        int moves = Math.min(REARRANGE_MOVES, size);
+        manager.replaceTasks(fixture.tasks);
+        for (int i = 0; i < moves; i++) {
+            int slot = (int) ((long) i * size / moves);
+            Task target = fixture.probe(slot, fixture.tasks.get(slot).getName());
+            manager.moveTask(target.getName(), target.getStartTime(), target.getEndTime());
+        }
+        
+        bench.measure(GROUP, "undoRedo" + suffix, 1, () -> new Bench.Op() {
+            private boolean undoing = true;
+            
+            @Override
+            public Object run() throws Exception {
+                if (undoing ? !manager.canUndo() : !manager.canRedo()) {
+                    undoing = !undoing;
+                }
+                return undoing ? manager.undo() : manager.redo();
+            }
+        });
+    }
+    
+    /**
+     * Merges a sorted plan of probe tasks in free slots spread over the day
+     */
+    private static void runMerge(Bench bench, ScheduleManager manager, Fixture fixture, String suffix)
+            throws Exception {
+        int size = fixture.tasks.size();
+        int count = Math.min(MERGE_PLAN, size);
+        List<Task> plan = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            plan.add(fixture.probe((int) ((long) i * size / count), "Plan-" + i));
+        }
+        manager.replaceTasks(fixture.tasks);
+        
+        bench.measure(GROUP, "mergePlan" + suffix, 1, () -> new Bench.SetupOp() {
+            @Override
+            public void setup() throws Exception {
+                if (manager.getTaskCount() > size) {
+                    manager.undo();
+                }
+            }
+            
+            @Override
+            public Object run() throws Exception {
+                return manager.merge(plan, MergePolicy.KEEP_EXISTING);
+            }
+        });
+        manager.replaceTasks(fixture.tasks);
+        
+        bench.measure(GROUP, "addPlanIndividually" + suffix, 1, () -> new Bench.SetupOp() {
+            @Override
+            public void setup() throws Exception {
+                while (manager.getTaskCount() > size) {
+                    manager.undo();
+                }
+            }
+            
+            @Override
+            public Object run() throws Exception {
+                int added = 0;
+                for (Task task : plan) {
+                    try {
+                        manager.addTask(task);
+                        added++;
+                    } catch (TaskException e) {
+                        // Probes can overlap the end of their slot's task; merge() skips those too
+                    }
+                }
+                return added;
+            }
+        });
+    }
+    
+    /**
+     * Searches fixture names ("Task-<i>"): the first digits as a prefix, the
+     * trailing digits as a substring, and the full name with two digits swapped
+     */
+    private static void runSearch(Bench bench, ScheduleManager manager, Fixture fixture, String suffix,
+            Random random) throws Exception {
+        manager.replaceTasks(fixture.tasks);
+        String[] prefixes = new String[1024];
+        String[] fragments = new String[1024];
+        String[] typos = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = fixture.tasks.get(random.nextInt(fixture.tasks.size())).getName();
+            int digits = name.length() - "Task-".length();
+            prefixes[i] = name.substring(0, "Task-".length() + Math.min(3, digits));
+            fragments[i] = name.substring(name.length() - Math.min(4, digits));
+            typos[i] = digits < 2 ? name : name.substring(0, name.length() - 2)
+                + name.charAt(name.length() - 1) + name.charAt(name.length() - 2);
+        }
+        
+        bench.measure(GROUP, "searchPrefix" + suffix, 1, () -> new Bench.Op() {
+            private int next;
+            
+            @Override
+            public Object run() {
+                return manager.findTasksByPrefix(prefixes[next++ & (prefixes.length - 1)], 20);
+            }
+        });
+        bench.measure(GROUP, "searchContaining" + suffix, 1, () -> new Bench.Op() {
+            private int next;
+            
+            @Override
+            public Object run() {
+                return manager.findTasksContaining(fragments[next++ & (fragments.length - 1)], 20);
+            }
+        });
+        bench.measure(GROUP, "searchSimilar" + suffix, 1, () -> new Bench.Op() {
+            private int next;
+            
+            @Override
+            public Object run() {
+                return manager.findTasksSimilar(typos[next++ & (typos.length - 1)], 2, 20);
+            }
+        });
+    }
+    
+    /**
+     * Repeats the addTask benchmark while a no-op reminder observer keeps a timer per task
+     */
+    private static void runReminders(Bench bench, ScheduleManager manager, Fixture fixture, String suffix,
+            Random random) throws Exception {
+        if (!bench.isIncluded(GROUP, "addTaskWithReminders" + suffix)) {
+            return;
+        }
+        ReminderObserver observer = new ReminderObserver() {
+            @Override
+            public void remind(TaskReminder reminder) {
+                // Only the timer bookkeeping is measured
+            }
+            
+            @Override
+            public String getObserverId() {
+                return "Benchmark";
+            }
+        };
+        manager.addReminderObserver(observer);
+        try {
+            manager.replaceTasks(fixture.tasks);
+            bench.measure(GROUP, "addTaskWithReminders" + suffix, 1, () -> new Bench.SetupOp() {
+                private Task pending;
+                
+                @Override
+                public void setup() throws Exception {
+                    if (pending != null && manager.hasTask(pending.getName())) {
+                        manager.removeTask(pending.getName());
+                    }
+                    pending = fixture.probe(random.nextInt(fixture.tasks.size()), "Probe");
+                }
+                
+                @Override
+                public Object run() {
+                    try {
+                        manager.addTask(pending);
+                        return pending;
+                    } catch (TaskException e) {
+                        return e;
+                    }
+                }
+            });
+        } finally {
+            manager.removeReminderObserver(observer);
+        }
+    }
+    
+    /**
+     * Moves the head of a dependency chain and the hub of a dependency fan-out
+     */
+    private static void runDependencies(Bench bench, ScheduleManager manager, Fixture fixture, String suffix)
+            throws Exception {
+        int size = fixture.tasks.size();
+        if (bench.isIncluded(GROUP, "moveChainHead" + suffix)) {
+            // Back to back over the first half of the day, so the whole chain shifts into the second
+            long length = DAY_NANOS / 2 / size;
+            List<Task> chain = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                chain.add(new ResearchTask("Chain-" + i, LocalTime.ofNanoOfDay(i * length),
+                    LocalTime.ofNanoOfDay((i + 1) * length)));
+            }
+            manager.replaceTasks(chain);
+            for (int i = 1; i < size; i++) {
+                manager.addDependency("Chain-" + (i - 1), "Chain-" + i);
+            }
+            LocalTime start = LocalTime.ofNanoOfDay(length / 2);
+            LocalTime end = LocalTime.ofNanoOfDay(length / 2 + length);
+            bench.measure(GROUP, "moveChainHead" + suffix, 1, () -> new Bench.SetupOp() {
+                // The wiring above is undoable too, so only undo a move made here
+                private boolean moved;
+                
+                @Override
+                public void setup() throws Exception {
+                    if (moved) {
+                        manager.undo();
+                        moved = false;
+                    }
+                }
+                
+                @Override
+                public Object run() throws Exception {
+                    Task head = manager.moveTask("Chain-0", start, end);
+                    moved = true;
+                    return head;
+                }
+            });
+        }
+        
+        if (bench.isIncluded(GROUP, "moveFanOutHub" + suffix)) {
+            // The hub has a timeline of its own and ends before any fixture task can need to shift
+            List<Task> tasks = new ArrayList<>(size + 1);
+            tasks.add(new ResearchTask("Hub", LocalTime.MIDNIGHT, LocalTime.ofNanoOfDay(1),
+                Collections.singletonList("hub")));
+            tasks.addAll(fixture.tasks);
+            manager.replaceTasks(tasks);
+            for (Task task : fixture.tasks) {
+                manager.addDependency("Hub", task.getName());
+            }
+            LocalTime end = LocalTime.ofNanoOfDay(fixture.slotNanos / 8);
+            bench.measure(GROUP, "moveFanOutHub" + suffix, 1, () -> new Bench.SetupOp() {
+                // The wiring above is undoable too, so only undo a move made here
+                private boolean moved;
+                
+                @Override
+                public void setup() throws Exception {
+                    if (moved) {
+                        manager.undo();
+                        moved = false;
+                    }
+                }
+                
+                @Override
+                public Object run() throws Exception {
+                    Task head = manager.moveTask("Hub", LocalTime.MIDNIGHT, end);
+                    moved = true;
+                    return head;
+                }
+            });
+        }
+    }
+}
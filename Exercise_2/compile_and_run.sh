@@ -7,7 +7,7 @@ echo
 mkdir -p out
 
 # Compile all Java files
-javac -d out src/model/*.java src/factory/*.java src/util/*.java src/observer/*.java src/manager/*.java src/exception/*.java src/*.java
+javac -d out ../common/src/util/*.java src/model/*.java src/factory/*.java src/util/*.java src/observer/*.java src/manager/*.java src/exception/*.java src/metrics/*.java src/command/*.java src/server/*.java src/http/*.java src/replication/*.java src/*.java
 
 if [ $? -ne 0 ]; then
     echo "Compilation failed!"
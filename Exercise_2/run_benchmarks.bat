@@ -0,0 +1,25 @@
+@echo off
+echo Compiling Astronaut Schedule Organizer benchmarks...
+echo.
+
+REM Create output directory
+if not exist "out-bench" mkdir out-bench
+
+REM Compile application and benchmark sources together
+javac -d out-bench ..\common\src\util\*.java src\model\*.java src\factory\*.java src\util\*.java src\observer\*.java src\manager\*.java src\exception\*.java src\metrics\*.java src\command\*.java src\server\*.java src\http\*.java src\replication\*.java bench\benchmark\*.java bench\manager\*.java
+
+if %errorlevel% neq 0 (
+    echo Compilation failed!
+    pause
+    exit /b 1
+)
+
+echo Compilation successful!
+echo.
+echo Running benchmarks (logging and flight recorder disabled)...
+echo.
+
+REM Extra -D options (e.g. -Dbench.include=hasTask -Dbench.sizes=1000) are passed through
+java -Xms2g -Xmx2g -Dlogger.sink=none -Drecorder.enabled=false %* -cp out-bench benchmark.BenchmarkMain
+
+pause
@@ -0,0 +1,23 @@
+#!/bin/bash
+
+echo "Compiling Astronaut Schedule Organizer benchmarks..."
+echo
+
+# Create output directory
+mkdir -p out-bench
+
+# Compile application and benchmark sources together
+javac -d out-bench ../common/src/util/*.java src/model/*.java src/factory/*.java src/util/*.java src/observer/*.java src/manager/*.java src/exception/*.java src/metrics/*.java src/command/*.java src/server/*.java src/http/*.java src/replication/*.java bench/benchmark/*.java bench/manager/*.java
+
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+echo "Compilation successful!"
+echo
+echo "Running benchmarks (logging and flight recorder disabled)..."
+echo
+
+# Extra -D options (e.g. -Dbench.include=hasTask -Dbench.sizes=1000) are passed through
+java -Xms2g -Xmx2g -Dlogger.sink=none -Drecorder.enabled=false "$@" -cp out-bench benchmark.BenchmarkMain
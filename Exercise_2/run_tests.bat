@@ -0,0 +1,25 @@
+@echo off
+echo Compiling Astronaut Schedule Organizer tests...
+echo.
+
+REM Create output directory
+if not exist "out-test" mkdir out-test
+
+REM Compile application and test sources together
+javac -d out-test ..\common\src\util\*.java src\model\*.java src\factory\*.java src\util\*.java src\observer\*.java src\manager\*.java src\exception\*.java src\metrics\*.java src\command\*.java src\server\*.java src\http\*.java src\replication\*.java test\tests\*.java test\manager\*.java
+
+if %errorlevel% neq 0 (
+    echo Compilation failed!
+    pause
+    exit /b 1
+)
+
+echo Compilation successful!
+echo.
+echo Running tests (logging and flight recorder disabled)...
+echo.
+
+REM Extra -D options (e.g. -Dtest.include=TimingWheel) are passed through
+java -Dlogger.sink=none -Drecorder.enabled=false %* -cp out-test tests.TestMain
+
+pause
@@ -0,0 +1,23 @@
+#!/bin/bash
+
+echo "Compiling Astronaut Schedule Organizer tests..."
+echo
+
+# Create output directory
+mkdir -p out-test
+
+# Compile application and test sources together
+javac -d out-test ../common/src/util/*.java src/model/*.java src/factory/*.java src/util/*.java src/observer/*.java src/manager/*.java src/exception/*.java src/metrics/*.java src/command/*.java src/server/*.java src/http/*.java src/replication/*.java test/tests/*.java test/manager/*.java
+
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+echo "Compilation successful!"
+echo
+echo "Running tests (logging and flight recorder disabled)..."
+echo
+
+# Extra -D options (e.g. -Dtest.include=TimingWheel) are passed through
+java -Dlogger.sink=none -Drecorder.enabled=false "$@" -cp out-test tests.TestMain
@@ -1,13 +1,34 @@
+import command.BatchRunner;
+import command.CommandProcessor;
+import http.ScheduleHttpServer;
+import replication.ReplicationFollower;
+import replication.ReplicationLeader;
+import replication.ReplicationProtocol;
 import manager.ScheduleManager;
+import server.Protocol;
+import server.ScheduleServer;
 import factory.TaskFactory;
 import observer.ConflictNotifier;
+import observer.ReminderNotifier;
 import model.Task;
 import exception.TaskException;
 import util.Logger;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -33,13 +54,37 @@ public class AstronautScheduleOrganizer {
         ConflictNotifier conflictNotifier = new ConflictNotifier("Mission Control");
         scheduleManager.addObserver(conflictNotifier);
         
+        // Print reminders as tasks approach, start and end
+        scheduleManager.addReminderObserver(new ReminderNotifier("Mission Control"));
+        
         logger.logMessage("Astronaut Schedule Organizer initialized");
     }
     
     /**
      * Main entry point of the application
+     * Interactive menu by default; "--batch [file|-]" replays commands from a file or stdin,
+     * "--server [port]" serves the binary protocol and "--http [port]" the JSON API on localhost,
+     * "--follow host:port [httpPort]" runs a read-only replica of a leader started with
+     * -Dreplication.port (any mode can be a leader)
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("--batch")) {
+            System.exit(runBatch(args.length > 1 ? args[1] : "-"));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--server")) {
+            System.exit(runServer(args.length > 1 ? args[1] : String.valueOf(Protocol.DEFAULT_PORT)));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--http")) {
+            System.exit(runHttpServer(args.length > 1 ? args[1] : String.valueOf(ScheduleHttpServer.DEFAULT_PORT)));
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("--follow")) {
+            System.exit(runFollower(args.length > 1 ? args[1] : "localhost:" + ReplicationProtocol.DEFAULT_PORT,
+                args.length > 2 ? args[2] : null));
+        }
+        if (!startReplicationLeader()) {
+            System.exit(1);
+        }
+        
         System.out.println("==============================================================");
         System.out.println("           ASTRONAUT DAILY SCHEDULE ORGANIZER               ");
         System.out.println("                    Exercise 2 - Java                      ");
@@ -50,6 +95,193 @@ public class AstronautScheduleOrganizer {
         app.run();
     }
     
+    /**
+     * Runs the non-interactive batch mode
+     * Results go to stdout in bulk and the summary to stderr. Console logging is
+     * off unless -Dlogger.sink is given, and no conflict notifier is registered,
+     * since conflicts are already reported in the result lines.
+     * @param source Command file, or "-" for stdin
+     * @return Process exit code (0 on success, 1 if the input could not be read)
+     */
+    private static int runBatch(String source) {
+        if (System.getProperty("logger.sink") == null) {
+            System.setProperty("logger.sink", "none");
+        }
+        
+        if (!startReplicationLeader()) {
+            return 1;
+        }
+        
+        BatchRunner runner = new BatchRunner(new CommandProcessor());
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader input = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            BatchRunner.Summary summary = runner.run(input, output);
+            System.err.println(summary);
+            return 0;
+        } catch (IOException e) {
+            Logger.getInstance().logError("Batch run failed", e);
+            System.err.println("Batch run failed: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Runs the NIO schedule server until the process is stopped
+     * Console logging is off unless -Dlogger.sink is given.
+     * @param port TCP port on the loopback interface
+     * @return Process exit code (0 after a clean stop, 1 if the server could not start)
+     */
+    private static int runServer(String port) {
+        if (System.getProperty("logger.sink") == null) {
+            System.setProperty("logger.sink", "none");
+        }
+        
+        if (!startReplicationLeader()) {
+            return 1;
+        }
+        
+        try {
+            ScheduleServer server = new ScheduleServer(Integer.parseInt(port.trim()));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "schedule-server-shutdown"));
+            System.out.println("Schedule server listening on " + server.getAddress() + " (Ctrl+C to stop)");
+            server.awaitStop();
+            return 0;
+        } catch (NumberFormatException | IOException e) {
+            Logger.getInstance().logError("Schedule server failed to start", e);
+            System.err.println("Schedule server failed to start: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+    
+    /**
+     * Runs the HTTP/JSON API until the process is stopped
+     * Console logging is off unless -Dlogger.sink is given.
+     * @param port TCP port on the loopback interface
+     * @return Process exit code (0 after a clean stop, 1 if the server could not start)
+     */
+    private static int runHttpServer(String port) {
+        if (System.getProperty("logger.sink") == null) {
+            System.setProperty("logger.sink", "none");
+        }
+        
+        if (!startReplicationLeader()) {
+            return 1;
+        }
+        
+        try {
+            ScheduleHttpServer server = new ScheduleHttpServer(Integer.parseInt(port.trim()));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "schedule-http-shutdown"));
+            System.out.println("Schedule HTTP API listening on http://" + server.getAddress().getHostString()
+                + ":" + server.getAddress().getPort() + " (Ctrl+C to stop)");
+            server.awaitStop();
+            return 0;
+        } catch (NumberFormatException | IOException e) {
+            Logger.getInstance().logError("Schedule HTTP API failed to start", e);
+            System.err.println("Schedule HTTP API failed to start: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+    
+    /**
+     * Starts a replication leader if -Dreplication.port is set
+     * -Dreplication.mode=async|ack (default async) and -Dreplication.ackTimeoutMillis
+     * (default 5000) choose between asynchronous and acknowledged replication.
+     * @return false if the leader was requested but could not start
+     */
+    private static boolean startReplicationLeader() {
+        String port = System.getProperty("replication.port");
+        if (port == null) {
+            return true;
+        }
+        
+        try {
+            String modeName = System.getProperty("replication.mode", "async").trim();
+            ReplicationLeader.Mode mode = modeName.equalsIgnoreCase("ack")
+                ? ReplicationLeader.Mode.ACKNOWLEDGED : ReplicationLeader.Mode.valueOf(modeName.toUpperCase());
+            ReplicationLeader leader = new ReplicationLeader(Integer.parseInt(port.trim()), mode,
+                Long.getLong("replication.ackTimeoutMillis", 5000));
+            leader.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(leader::stop, "replication-shutdown"));
+            System.err.println("Replication leader (" + mode + ") listening on " + leader.getAddress());
+            return true;
+        } catch (IllegalArgumentException | IOException e) {
+            Logger.getInstance().logError("Replication leader failed to start", e);
+            System.err.println("Replication leader failed to start: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Runs a read-only replica that follows a replication leader
+     * Prints the replication position whenever it changes; console logging is
+     * off unless -Dlogger.sink is given.
+     * @param leader Leader replication address as host:port
+     * @param httpPort Optional port for a read-only HTTP API on the replica, or null
+     * @return Process exit code (1 if the arguments are invalid or the HTTP API could not start)
+     */
+    private static int runFollower(String leader, String httpPort) {
+        if (System.getProperty("logger.sink") == null) {
+            System.setProperty("logger.sink", "none");
+        }
+        
+        ReplicationFollower follower;
+        try {
+            int colon = leader.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected host:port but got " + leader);
+            }
+            follower = new ReplicationFollower(new InetSocketAddress(leader.substring(0, colon),
+                Integer.parseInt(leader.substring(colon + 1).trim())));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid leader address: " + e.getMessage());
+            return 1;
+        }
+        follower.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(follower::stop, "replication-follower-shutdown"));
+        
+        if (httpPort != null) {
+            try {
+                ScheduleHttpServer server = new ScheduleHttpServer(Integer.parseInt(httpPort.trim()));
+                server.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "schedule-http-shutdown"));
+                System.out.println("Read-only HTTP API on http://" + server.getAddress().getHostString()
+                    + ":" + server.getAddress().getPort());
+            } catch (NumberFormatException | IOException e) {
+                Logger.getInstance().logError("Schedule HTTP API failed to start", e);
+                System.err.println("Schedule HTTP API failed to start: " + e.getMessage());
+                return 1;
+            }
+        }
+        
+        System.out.println("Following replication leader " + leader + " (Ctrl+C to stop)");
+        String lastStatus = "";
+        try {
+            while (true) {
+                String status = String.format("Replica at #%d, leader #%d, lag %d (%s)",
+                    follower.getAppliedSequence(), follower.getLeaderSequence(), follower.getLag(),
+                    follower.isConnected() ? "connected" : "disconnected");
+                if (!status.equals(lastStatus)) {
+                    System.out.println(status);
+                    lastStatus = status;
+                }
+                Thread.sleep(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+    
     /**
      * Main application loop
      */
@@ -169,8 +401,17 @@ public class AstronautScheduleOrganizer {
                 return;
             }
             
+            // Get shared resources; none means the crew timeline
+            System.out.print("Enter resources (comma-separated, e.g., treadmill,airlock; Enter for none): ");
+            List<String> resources = new ArrayList<>();
+            for (String resource : scanner.nextLine().split(",")) {
+                if (!resource.trim().isEmpty()) {
+                    resources.add(resource.trim());
+                }
+            }
+            
             // Create and add task
-            Task task = taskFactory.createTask(taskType, taskName, startTime, endTime);
+            Task task = taskFactory.createTask(taskType, taskName, startTime, endTime, resources);
             scheduleManager.addTask(task);
             
             System.out.println();
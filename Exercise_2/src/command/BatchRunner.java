@@ -0,0 +1,105 @@
+package command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Replays a stream of line-oriented commands through a CommandProcessor
+ * Input is read through a large buffer and results are collected in memory
+ * and written in bulk, so throughput is bounded by the schedule rather than
+ * by console I/O.
+ */
+public class BatchRunner {
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * Totals for one batch run
+     */
+    public static final class Summary {
+        private final long commands;
+        private final long succeeded;
+        private final long notFound;
+        private final long failed;
+        private final long elapsedNanos;
+        
+        Summary(long commands, long succeeded, long notFound, long failed, long elapsedNanos) {
+            this.commands = commands;
+            this.succeeded = succeeded;
+            this.notFound = notFound;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public long getCommands() { return commands; }
+        public long getSucceeded() { return succeeded; }
+        public long getNotFound() { return notFound; }
+        public long getFailed() { return failed; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        
+        public double getOpsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commands * 1e9 / elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Processed %d commands (ok=%d, not_found=%d, error=%d) in %.1f ms, %.0f ops/sec",
+                commands, succeeded, notFound, failed, elapsedNanos / 1e6, getOpsPerSecond());
+        }
+    }
+    
+    private final CommandProcessor processor;
+    
+    public BatchRunner(CommandProcessor processor) {
+        this.processor = processor;
+    }
+    
+    /**
+     * Executes every command from the input and writes all results to the output
+     * @param input Command source (stdin or a file)
+     * @param output Result sink; flushed but not closed
+     * @return Totals and elapsed time, including I/O
+     * @throws IOException if reading or writing fails
+     */
+    public Summary run(Reader input, Writer output) throws IOException {
+        long begin = System.nanoTime();
+        long commands = 0;
+        long succeeded = 0;
+        long notFound = 0;
+        long failed = 0;
+        
+        BufferedReader reader = input instanceof BufferedReader
+            ? (BufferedReader) input
+            : new BufferedReader(input, BUFFER_SIZE);
+        StringBuilder results = new StringBuilder(BUFFER_SIZE);
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            switch (processor.execute(line, results)) {
+                case OK:
+                    succeeded++;
+                    break;
+                case NOT_FOUND:
+                    notFound++;
+                    break;
+                case ERROR:
+                    failed++;
+                    break;
+                default:
+                    continue; // Blank line or comment
+            }
+            commands++;
+            
+            // Hand results over in large chunks instead of per command
+            if (results.length() >= BUFFER_SIZE) {
+                output.append(results);
+                results.setLength(0);
+            }
+        }
+        output.append(results);
+        output.flush();
+        
+        return new Summary(commands, succeeded, notFound, failed, System.nanoTime() - begin);
+    }
+}
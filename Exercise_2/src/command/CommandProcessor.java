@@ -0,0 +1,583 @@
+package command;
+
+import exception.TaskException;
+import factory.TaskFactory;
+import manager.MergePolicy;
+import manager.ScheduleManager;
+import manager.ScheduleTransaction;
+import model.MergeReport;
+import model.ScheduleLoad;
+import model.Task;
+import model.TypeSummary;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Executes line-oriented schedule commands against the ScheduleManager
+ * Results are appended to a caller-supplied buffer so callers can write
+ * them out in bulk. Not thread-safe; use one processor per thread.
+ *
+ * Commands (keywords and task types are case-insensitive, times are HH:mm):
+ *   ADD <type> <start> <end> <name> [@<resource>,...]
+ *                                     add a task; the name may contain spaces, and the
+ *                                     optional resources replace the default crew timeline
+ *   REMOVE <name>                     remove a task by name
+ *   MOVE <start> <end> <name>         move a task to a new time slot in place
+ *   RESIZE <end> <name>               change a task's end time, keeping its start
+ *   DEPEND <before> -> <after>        make a task wait for another to end; it and the tasks
+ *                                     waiting for it are shifted later if needed
+ *   UNDEPEND <before> -> <after>      drop a dependency
+ *   DEPS <name>                       list what a task waits for ("before") and what waits
+ *                                     for it ("after")
+ *   VIEW                              list all tasks in start time order
+ *   QUERY <name>                      look up one task by name
+ *   QUERY <start> <end>               list tasks overlapping the window
+ *   QUERY @<resource>                 list tasks claiming a resource
+ *   LOAD [<start> <end>]              busy minutes, peak concurrency and utilization of the
+ *                                     window (default the whole day), then the busiest hour
+ *   SEARCH <text>                     list tasks whose names contain the text
+ *   SEARCH PREFIX|FUZZY <text>        names starting with the text, or within two typos of it
+ *   TOTALS                            count, minutes, span and budget of each task type
+ *   BUDGET <type> <min|-> <max|->     set the minute budget of a task type (- for none)
+ *   BEGIN                             stage the following ADD/REMOVE/MOVE commands
+ *   COMMIT                            apply the staged commands all or nothing
+ *   ROLLBACK                          discard the staged commands (or merge plan)
+ *   MERGE <policy>                    collect the following ADD commands as an incoming plan;
+ *                                     COMMIT merges it (policy KEEP_EXISTING, PREFER_INCOMING
+ *                                     or REJECT decides conflicts with existing tasks)
+ *   ARCHIVE <yyyy-mm-dd>              store the current schedule as the read-only record of a day
+ *   DAYS                              list the archived days
+ *   DAY <yyyy-mm-dd> [<start> <end>]  list an archived day's tasks, or those overlapping the window
+ *   UNDO                              revert the last edit (a committed transaction is one edit)
+ *   REDO                              re-apply the last undone edit
+ * Blank lines and lines starting with # are ignored.
+ *
+ * Every command produces one status line starting with OK, NOT_FOUND or
+ * ERROR; listings follow as "  <task>" lines after "OK <n> tasks".
+ */
+public class CommandProcessor {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int SEARCH_LIMIT = 20;
+    
+    /**
+     * Outcome of one command line
+     */
+    public enum Status {
+        OK, NOT_FOUND, ERROR, SKIPPED
+    }
+    
+    private final ScheduleManager scheduleManager;
+    private final TaskFactory taskFactory;
+    
+    // Open transaction between BEGIN and COMMIT/ROLLBACK, or null
+    private ScheduleTransaction transaction;
+    
+    // Incoming plan between MERGE and COMMIT/ROLLBACK, or null
+    private List<Task> plan;
+    private MergePolicy mergePolicy;
+    
+    public CommandProcessor() {
+        this(ScheduleManager.getInstance(), new TaskFactory());
+    }
+    
+    public CommandProcessor(ScheduleManager scheduleManager, TaskFactory taskFactory) {
+        this.scheduleManager = scheduleManager;
+        this.taskFactory = taskFactory;
+    }
+    
+    /**
+     * Executes one command line
+     * @param line The command line
+     * @param out Buffer the result lines are appended to (nothing for SKIPPED)
+     * @return Outcome of the command
+     */
+    public Status execute(String line, StringBuilder out) {
+        String trimmed = line == null ? "" : line.trim();
+        if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+            return Status.SKIPPED;
+        }
+        
+        String[] parts = WHITESPACE.split(trimmed, 2);
+        String keyword = parts[0].toUpperCase(Locale.ROOT);
+        String arguments = parts.length > 1 ? parts[1] : "";
+        
+        try {
+            switch (keyword) {
+                case "ADD":
+                    return add(arguments, out);
+                case "REMOVE":
+                    return remove(arguments, out);
+                case "MOVE":
+                    return move(arguments, out);
+                case "RESIZE":
+                    return resize(arguments, out);
+                case "DEPEND":
+                    return depend(arguments, out);
+                case "UNDEPEND":
+                    return undepend(arguments, out);
+                case "DEPS":
+                    return dependencies(arguments, out);
+                case "BEGIN":
+                    return begin(out);
+                case "COMMIT":
+                    return commit(out);
+                case "ROLLBACK":
+                    return rollback(out);
+                case "MERGE":
+                    return merge(arguments, out);
+                case "ARCHIVE":
+                    return archive(arguments, out);
+                case "DAYS":
+                    return days(out);
+                case "DAY":
+                    return day(arguments, out);
+                case "UNDO":
+                    return undo(true, out);
+                case "REDO":
+                    return undo(false, out);
+                case "VIEW":
+                    return list(scheduleManager.getTasks(), out);
+                case "QUERY":
+                    return query(arguments, out);
+                case "LOAD":
+                    return load(arguments, out);
+                case "SEARCH":
+                    return search(arguments, out);
+                case "TOTALS":
+                    return totals(out);
+                case "BUDGET":
+                    return budget(arguments, out);
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + parts[0]);
+            }
+        } catch (TaskException | IllegalArgumentException e) {
+            out.append("ERROR ").append(e.getMessage()).append('\n');
+            return Status.ERROR;
+        }
+    }
+    
+    private Status add(String arguments, StringBuilder out) throws TaskException {
+        String[] fields = WHITESPACE.split(arguments, 4);
+        if (fields.length < 4 || fields[3].isEmpty()) {
+            throw new IllegalArgumentException("Usage: ADD <type> <start HH:mm> <end HH:mm> <name> [@<resource>,...]");
+        }
+        
+        LocalTime start = parseTime(fields[1]);
+        LocalTime end = parseTime(fields[2]);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        
+        String name = fields[3];
+        List<String> resources = null;
+        int marker = name.lastIndexOf(" @");
+        if (marker > 0) {
+            resources = Arrays.asList(name.substring(marker + 2).split(","));
+            name = name.substring(0, marker).trim();
+        }
+        if (plan != null) {
+            Task task = taskFactory.createTask(fields[0], name, start, end, resources);
+            plan.add(task);
+            out.append("OK planned ").append(task).append('\n');
+            return Status.OK;
+        }
+        if (transaction != null) {
+            Task task = taskFactory.createTask(fields[0], name, start, end, resources);
+            transaction.add(task);
+            out.append("OK staged add ").append(task).append('\n');
+            return Status.OK;
+        }
+        if (scheduleManager.hasTask(name)) {
+            throw new IllegalArgumentException("A task with this name already exists: " + name);
+        }
+        
+        Task task = taskFactory.createTask(fields[0], name, start, end, resources);
+        scheduleManager.addTask(task);
+        out.append("OK added ").append(task).append('\n');
+        return Status.OK;
+    }
+    
+    private Status remove(String name, StringBuilder out) throws TaskException {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Usage: REMOVE <name>");
+        }
+        checkNoPlan();
+        if (transaction != null) {
+            transaction.remove(name);
+            out.append("OK staged remove ").append(name).append('\n');
+            return Status.OK;
+        }
+        if (!scheduleManager.hasTask(name)) {
+            out.append("NOT_FOUND ").append(name).append('\n');
+            return Status.NOT_FOUND;
+        }
+        
+        scheduleManager.removeTask(name);
+        out.append("OK removed ").append(name).append('\n');
+        return Status.OK;
+    }
+    
+    private Status move(String arguments, StringBuilder out) throws TaskException {
+        String[] fields = WHITESPACE.split(arguments, 3);
+        if (fields.length < 3 || fields[2].isEmpty()) {
+            throw new IllegalArgumentException("Usage: MOVE <start HH:mm> <end HH:mm> <name>");
+        }
+        
+        LocalTime start = parseTime(fields[0]);
+        LocalTime end = parseTime(fields[1]);
+        String name = fields[2];
+        checkNoPlan();
+        if (transaction != null) {
+            transaction.move(name, start, end);
+            out.append("OK staged move ").append(name).append('\n');
+            return Status.OK;
+        }
+        if (!scheduleManager.hasTask(name)) {
+            out.append("NOT_FOUND ").append(name).append('\n');
+            return Status.NOT_FOUND;
+        }
+        
+        // A failed move leaves the task where it was
+        Task moved = scheduleManager.moveTask(name, start, end);
+        out.append("OK moved ").append(moved).append('\n');
+        return Status.OK;
+    }
+    
+    private Status resize(String arguments, StringBuilder out) throws TaskException {
+        String[] fields = WHITESPACE.split(arguments, 2);
+        if (fields.length < 2 || fields[1].isEmpty()) {
+            throw new IllegalArgumentException("Usage: RESIZE <end HH:mm> <name>");
+        }
+        
+        LocalTime end = parseTime(fields[0]);
+        String name = fields[1];
+        checkNoPlan();
+        if (transaction != null) {
+            throw new IllegalArgumentException("RESIZE is not supported in a transaction, use MOVE");
+        }
+        Task task = scheduleManager.findTask(name);
+        if (task == null) {
+            out.append("NOT_FOUND ").append(name).append('\n');
+            return Status.NOT_FOUND;
+        }
+        
+        Task resized = scheduleManager.resizeTask(name, end);
+        out.append("OK resized ").append(resized).append('\n');
+        return Status.OK;
+    }
+    
+    private Status depend(String arguments, StringBuilder out) throws TaskException {
+        String[] names = splitDependency(arguments, "DEPEND");
+        List<Task> shifted = scheduleManager.addDependency(names[0], names[1]);
+        out.append("OK ").append(names[1]).append(" waits for ").append(names[0]).append(", ")
+            .append(shifted.size()).append(" tasks shifted\n");
+        for (Task task : shifted) {
+            out.append("  ").append(task).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    private Status undepend(String arguments, StringBuilder out) throws TaskException {
+        String[] names = splitDependency(arguments, "UNDEPEND");
+        if (!scheduleManager.removeDependency(names[0], names[1])) {
+            out.append("NOT_FOUND ").append(names[0]).append(" -> ").append(names[1]).append('\n');
+            return Status.NOT_FOUND;
+        }
+        out.append("OK ").append(names[1]).append(" no longer waits for ").append(names[0]).append('\n');
+        return Status.OK;
+    }
+    
+    private Status dependencies(String name, StringBuilder out) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Usage: DEPS <name>");
+        }
+        if (!scheduleManager.hasTask(name)) {
+            out.append("NOT_FOUND ").append(name).append('\n');
+            return Status.NOT_FOUND;
+        }
+        List<Task> before = scheduleManager.getPrerequisites(name);
+        List<Task> after = scheduleManager.getDependents(name);
+        out.append("OK ").append(before.size()).append(" before, ").append(after.size()).append(" after\n");
+        for (Task task : before) {
+            out.append("  before ").append(task).append('\n');
+        }
+        for (Task task : after) {
+            out.append("  after ").append(task).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    /**
+     * Splits "<before> -> <after>" into the two task names
+     */
+    private String[] splitDependency(String arguments, String keyword) {
+        int arrow = arguments.indexOf("->");
+        String before = arrow < 0 ? "" : arguments.substring(0, arrow).trim();
+        String after = arrow < 0 ? "" : arguments.substring(arrow + 2).trim();
+        if (before.isEmpty() || after.isEmpty()) {
+            throw new IllegalArgumentException("Usage: " + keyword + " <before> -> <after>");
+        }
+        checkNoPlan();
+        if (transaction != null) {
+            throw new IllegalArgumentException(keyword + " is not supported in a transaction");
+        }
+        return new String[] {before, after};
+    }
+    
+    private Status begin(StringBuilder out) {
+        if (transaction != null) {
+            throw new IllegalArgumentException("A transaction is already open");
+        }
+        checkNoPlan();
+        transaction = scheduleManager.beginTransaction();
+        out.append("OK begin at version ").append(transaction.getBaseVersion()).append('\n');
+        return Status.OK;
+    }
+    
+    private Status commit(StringBuilder out) throws TaskException {
+        if (plan != null) {
+            return commitPlan(out);
+        }
+        if (transaction == null) {
+            throw new IllegalArgumentException("No open transaction");
+        }
+        ScheduleTransaction committing = transaction;
+        transaction = null;
+        int operations = committing.size();
+        long version = committing.commit();
+        out.append("OK committed ").append(operations).append(" operations at version ").append(version).append('\n');
+        return Status.OK;
+    }
+    
+    private Status rollback(StringBuilder out) {
+        if (plan != null) {
+            out.append("OK discarded plan of ").append(plan.size()).append(" tasks\n");
+            plan = null;
+            return Status.OK;
+        }
+        if (transaction == null) {
+            throw new IllegalArgumentException("No open transaction");
+        }
+        int operations = transaction.size();
+        transaction.rollback();
+        transaction = null;
+        out.append("OK rolled back ").append(operations).append(" operations\n");
+        return Status.OK;
+    }
+    
+    private Status merge(String arguments, StringBuilder out) {
+        if (transaction != null) {
+            throw new IllegalArgumentException("Finish the open transaction first");
+        }
+        checkNoPlan();
+        try {
+            mergePolicy = MergePolicy.valueOf(arguments.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Usage: MERGE KEEP_EXISTING|PREFER_INCOMING|REJECT");
+        }
+        plan = new ArrayList<>();
+        out.append("OK collecting plan (").append(mergePolicy).append(")\n");
+        return Status.OK;
+    }
+    
+    /**
+     * Merges the collected plan; ADD lines may come in any order, so it is sorted first
+     */
+    private Status commitPlan(StringBuilder out) throws TaskException {
+        List<Task> merging = plan;
+        plan = null;
+        merging.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        MergeReport report = scheduleManager.merge(merging, mergePolicy);
+        out.append("OK merged ").append(report).append('\n');
+        for (String conflict : report.getConflicts()) {
+            out.append("  ").append(conflict).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    private void checkNoPlan() {
+        if (plan != null) {
+            throw new IllegalArgumentException("Only ADD can be collected in a merge plan; COMMIT or ROLLBACK first");
+        }
+    }
+    
+    private Status undo(boolean undo, StringBuilder out) throws TaskException {
+        if (transaction != null) {
+            throw new IllegalArgumentException("Finish the open transaction first");
+        }
+        checkNoPlan();
+        String edit = undo ? scheduleManager.undo() : scheduleManager.redo();
+        out.append(undo ? "OK undid " : "OK redid ").append(edit).append('\n');
+        return Status.OK;
+    }
+    
+    private Status query(String arguments, StringBuilder out) {
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Usage: QUERY <name> | QUERY <start HH:mm> <end HH:mm> | QUERY @<resource>");
+        }
+        if (arguments.charAt(0) == '@') {
+            return list(scheduleManager.findTasksUsing(arguments.substring(1)), out);
+        }
+        
+        String[] fields = WHITESPACE.split(arguments);
+        if (fields.length == 2 && isTime(fields[0]) && isTime(fields[1])) {
+            LocalTime start = parseTime(fields[0]);
+            LocalTime end = parseTime(fields[1]);
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("Start time must be before end time");
+            }
+            return list(scheduleManager.findTasksBetween(start, end), out);
+        }
+        
+        Task task = scheduleManager.findTask(arguments);
+        if (task == null) {
+            out.append("NOT_FOUND ").append(arguments).append('\n');
+            return Status.NOT_FOUND;
+        }
+        out.append("OK ").append(task).append('\n');
+        return Status.OK;
+    }
+    
+    private Status load(String arguments, StringBuilder out) {
+        LocalTime start = LocalTime.MIN;
+        LocalTime end = LocalTime.MAX;
+        if (!arguments.isEmpty()) {
+            String[] fields = WHITESPACE.split(arguments);
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Usage: LOAD [<start HH:mm> <end HH:mm>]");
+            }
+            start = parseTime(fields[0]);
+            end = parseTime(fields[1]);
+        }
+        
+        ScheduleLoad load = scheduleManager.getLoad(start, end);
+        LocalTime busiest = scheduleManager.getBusiestHour();
+        out.append("OK ").append(load).append('\n');
+        out.append("  busiest hour ").append(busiest == null ? "none" : busiest.toString()).append('\n');
+        return Status.OK;
+    }
+    
+    private Status search(String arguments, StringBuilder out) {
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException("Usage: SEARCH [PREFIX|FUZZY] <text>");
+        }
+        String[] fields = WHITESPACE.split(arguments, 2);
+        String mode = fields[0].toUpperCase(Locale.ROOT);
+        if (fields.length == 2 && mode.equals("PREFIX")) {
+            return list(scheduleManager.findTasksByPrefix(fields[1], SEARCH_LIMIT), out);
+        }
+        if (fields.length == 2 && mode.equals("FUZZY")) {
+            return list(scheduleManager.findTasksSimilar(fields[1], ScheduleManager.MAX_SEARCH_EDITS,
+                SEARCH_LIMIT), out);
+        }
+        return list(scheduleManager.findTasksContaining(arguments, SEARCH_LIMIT), out);
+    }
+    
+    private Status totals(StringBuilder out) {
+        List<TypeSummary> summaries = scheduleManager.getTypeSummaries();
+        out.append("OK ").append(summaries.size()).append(" types\n");
+        for (TypeSummary summary : summaries) {
+            out.append("  ").append(summary).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    private Status budget(String arguments, StringBuilder out) {
+        String[] fields = WHITESPACE.split(arguments);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Usage: BUDGET <type> <min minutes|-> <max minutes|->");
+        }
+        TaskFactory.TaskType type;
+        try {
+            type = TaskFactory.TaskType.valueOf(fields[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid task type: " + fields[0]);
+        }
+        scheduleManager.setBudget(type, parseMinutes(fields[1]), parseMinutes(fields[2]));
+        out.append("OK ").append(scheduleManager.getTypeSummary(type)).append('\n');
+        return Status.OK;
+    }
+    
+    private Status archive(String arguments, StringBuilder out) throws TaskException {
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException("Usage: ARCHIVE <yyyy-mm-dd>");
+        }
+        LocalDate date = parseDate(arguments);
+        int archived = scheduleManager.archiveDay(date);
+        out.append("OK archived ").append(archived).append(" tasks as ").append(date).append('\n');
+        return Status.OK;
+    }
+    
+    private Status days(StringBuilder out) throws TaskException {
+        List<LocalDate> days = scheduleManager.getArchivedDays();
+        out.append("OK ").append(days.size()).append(" days (").append(scheduleManager.getCachedDayCount())
+            .append(" in memory)\n");
+        for (LocalDate date : days) {
+            out.append("  ").append(date).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    private Status day(String arguments, StringBuilder out) throws TaskException {
+        String[] fields = WHITESPACE.split(arguments);
+        if (arguments.isEmpty() || (fields.length != 1 && fields.length != 3)) {
+            throw new IllegalArgumentException("Usage: DAY <yyyy-mm-dd> [<start HH:mm> <end HH:mm>]");
+        }
+        LocalDate date = parseDate(fields[0]);
+        if (fields.length == 1) {
+            return list(scheduleManager.getArchivedTasks(date), out);
+        }
+        return list(scheduleManager.findArchivedTasksBetween(date, parseTime(fields[1]), parseTime(fields[2])), out);
+    }
+    
+    private static Long parseMinutes(String value) {
+        if (value.equals("-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid minutes (expected a number or -): " + value);
+        }
+    }
+    
+    private static Status list(List<Task> tasks, StringBuilder out) {
+        out.append("OK ").append(tasks.size()).append(" tasks\n");
+        for (Task task : tasks) {
+            out.append("  ").append(task).append('\n');
+        }
+        return Status.OK;
+    }
+    
+    private static boolean isTime(String value) {
+        return value.length() == 5 && value.charAt(2) == ':'
+            && Character.isDigit(value.charAt(0)) && Character.isDigit(value.charAt(1))
+            && Character.isDigit(value.charAt(3)) && Character.isDigit(value.charAt(4));
+    }
+    
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "', use yyyy-mm-dd");
+        }
+    }
+    
+    private static LocalTime parseTime(String value) {
+        try {
+            return LocalTime.parse(value, TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time '" + value + "', use HH:mm");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package exception;
+
+/**
+ * Thrown when changes are requested from a position that the bounded change
+ * log no longer holds; the reader has to resynchronize from a snapshot
+ */
+public class ChangeLogTruncatedException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    private final long requestedSequence;
+    private final long oldestSequence;
+    
+    public ChangeLogTruncatedException(long requestedSequence, long oldestSequence) {
+        super("Changes after #" + requestedSequence + " are no longer available (oldest retained: #"
+            + oldestSequence + ")");
+        this.requestedSequence = requestedSequence;
+        this.oldestSequence = oldestSequence;
+    }
+    
+    public long getRequestedSequence() {
+        return requestedSequence;
+    }
+    
+    public long getOldestSequence() {
+        return oldestSequence;
+    }
+}
@@ -0,0 +1,20 @@
+package exception;
+
+/**
+ * Thrown when a task's time slot overlaps a task already in the schedule;
+ * nothing was changed and subscribers have been notified of the conflict
+ */
+public class ConflictException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    private final String conflictingTaskName;
+    
+    public ConflictException(String message, String conflictingTaskName) {
+        super(message);
+        this.conflictingTaskName = conflictingTaskName;
+    }
+    
+    public String getConflictingTaskName() {
+        return conflictingTaskName;
+    }
+}
@@ -0,0 +1,12 @@
+package exception;
+
+/**
+ * Thrown when a task is added under a name the schedule already holds (names are case-insensitive)
+ */
+public class DuplicateTaskException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    public DuplicateTaskException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package exception;
+
+/**
+ * Thrown when a local edit reaches a schedule that is a read-only replica
+ */
+public class ReadOnlyScheduleException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    public ReadOnlyScheduleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package exception;
+
+/**
+ * Thrown when an operation names a task the schedule does not hold
+ */
+public class TaskNotFoundException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    public TaskNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a schedule transaction cannot commit; nothing was changed
+ * A stale transaction lost the optimistic concurrency check and can be
+ * rebuilt and retried; otherwise getProblems() lists every conflict or
+ * invalid operation found while validating the post-transaction schedule.
+ */
+public class TransactionException extends TaskException {
+    private static final long serialVersionUID = 1L;
+    
+    private final boolean stale;
+    private final List<String> problems;
+    
+    public TransactionException(String message, boolean stale, List<String> problems) {
+        super(message);
+        this.stale = stale;
+        this.problems = Collections.unmodifiableList(problems);
+    }
+    
+    /**
+     * Checks whether the schedule changed after the transaction began
+     * @return true if a retry against the current schedule may succeed
+     */
+    public boolean isStale() {
+        return stale;
+    }
+    
+    public List<String> getProblems() {
+        return problems;
+    }
+}
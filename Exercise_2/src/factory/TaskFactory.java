@@ -2,8 +2,10 @@ package factory;
 
 import model.*;
 import exception.TaskException;
+import util.LogThrottle;
 import util.Logger;
 import java.time.LocalTime;
+import java.util.Collection;
 
 /**
  * Factory class for creating different types of tasks
@@ -11,6 +13,7 @@ import java.time.LocalTime;
  */
 public class TaskFactory {
     private final Logger logger;
+    private final LogThrottle createLog;
     
     // Enum for task types - provides type safety
     public enum TaskType {
@@ -19,6 +22,7 @@ public class TaskFactory {
     
     public TaskFactory() {
         this.logger = Logger.getInstance();
+        this.createLog = logger.throttle("task.create", 20, 1000);
     }
     
     /**
@@ -32,20 +36,37 @@ public class TaskFactory {
      */
     public Task createTask(TaskType type, String name, LocalTime startTime, LocalTime endTime) 
             throws TaskException {
+        return createTask(type, name, startTime, endTime, null);
+    }
+    
+    /**
+     * Creates a task that claims the given resources
+     * @param type The type of task to create
+     * @param name The name of the task
+     * @param startTime The start time of the task
+     * @param endTime The end time of the task
+     * @param resources Resource names, or null/empty for the default crew timeline
+     * @return Task instance
+     * @throws TaskException if task creation fails
+     */
+    public Task createTask(TaskType type, String name, LocalTime startTime, LocalTime endTime,
+            Collection<String> resources) throws TaskException {
         try {
             if (type == null) {
                 throw new IllegalArgumentException("Task type cannot be null");
             }
             
-            logger.logMessage("Creating task of type: " + type + " - " + name);
+            if (createLog.tryAcquire()) {
+                logger.logMessage("Creating task of type: " + type + " - " + name);
+            }
             
             switch (type) {
                 case RESEARCH:
-                    return new ResearchTask(name, startTime, endTime);
+                    return new ResearchTask(name, startTime, endTime, resources);
                 case EXERCISE:
-                    return new ExerciseTask(name, startTime, endTime);
+                    return new ExerciseTask(name, startTime, endTime, resources);
                 case MAINTENANCE:
-                    return new MaintenanceTask(name, startTime, endTime);
+                    return new MaintenanceTask(name, startTime, endTime, resources);
                 default:
                     throw new TaskException("Unsupported task type: " + type);
             }
@@ -70,19 +91,35 @@ public class TaskFactory {
      */
     public Task createTask(String typeString, String name, LocalTime startTime, LocalTime endTime) 
             throws TaskException {
+        return createTask(typeString, name, startTime, endTime, null);
+    }
+    
+    /**
+     * Creates a task from a string type that claims the given resources
+     * @param typeString String representation of task type
+     * @param name The name of the task
+     * @param startTime The start time of the task
+     * @param endTime The end time of the task
+     * @param resources Resource names, or null/empty for the default crew timeline
+     * @return Task instance
+     * @throws TaskException if task creation fails
+     */
+    public Task createTask(String typeString, String name, LocalTime startTime, LocalTime endTime,
+            Collection<String> resources) throws TaskException {
+        TaskType type;
         try {
             if (typeString == null || typeString.trim().isEmpty()) {
                 throw new IllegalArgumentException("Task type string cannot be null or empty");
             }
             
-            TaskType type = TaskType.valueOf(typeString.toUpperCase().trim());
-            return createTask(type, name, startTime, endTime);
+            type = TaskType.valueOf(typeString.toUpperCase().trim());
             
         } catch (IllegalArgumentException e) {
             logger.logError("Invalid task type string: " + typeString, e);
             throw new TaskException("Invalid task type: " + typeString + 
                 ". Valid types are: RESEARCH, EXERCISE, MAINTENANCE", e);
         }
+        return createTask(type, name, startTime, endTime, resources);
     }
     
     /**
@@ -0,0 +1,247 @@
+package http;
+
+import model.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP API: streaming writers for tasks and
+ * a parser for flat request objects. Kept dependency-free on purpose.
+ */
+final class Json {
+    
+    private Json() {
+        // Static helpers only
+    }
+    
+    /**
+     * Writes a JSON string literal
+     */
+    static void writeString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+    
+    /**
+     * Writes a task as {"name","type","start","end","durationMinutes","resources"}
+     */
+    static void writeTask(Appendable out, Task task) throws IOException {
+        out.append("{\"name\":");
+        writeString(out, task.getName());
+        out.append(",\"type\":\"").append(task.getTaskType().toUpperCase())
+            .append("\",\"start\":\"").append(task.getStartTime().toString())
+            .append("\",\"end\":\"").append(task.getEndTime().toString())
+            .append("\",\"durationMinutes\":").append(String.valueOf(task.getDurationMinutes()))
+            .append(",\"resources\":[");
+        boolean first = true;
+        for (String resource : task.getResources()) {
+            if (!first) {
+                out.append(',');
+            }
+            writeString(out, resource);
+            first = false;
+        }
+        out.append("]}");
+    }
+    
+    /**
+     * Writes {"error": message}
+     */
+    static String error(String message) {
+        StringBuilder out = new StringBuilder();
+        try {
+            out.append("{\"error\":");
+            writeString(out, message);
+            out.append('}');
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder does not throw
+        }
+        return out.toString();
+    }
+    
+    /**
+     * Parses a flat JSON object; nested objects are rejected
+     * @param text Request body
+     * @return Field values as strings (numbers and booleans as written, null as null,
+     *         arrays of scalars joined with commas; see splitList)
+     * @throws IllegalArgumentException if the body is not a flat JSON object
+     */
+    static Map<String, String> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, String> fields = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String key = parser.string();
+                parser.expect(':');
+                fields.put(key, parser.value());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return fields;
+    }
+    
+    /**
+     * Splits a comma-joined array value (or a plain comma-separated string)
+     * @return Trimmed, non-empty items; empty if the value is null
+     */
+    static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+    
+    private static final class Parser {
+        private final String text;
+        private int pos;
+        
+        Parser(String text) {
+            this.text = text;
+        }
+        
+        void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at position " + pos);
+            }
+        }
+        
+        boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+        
+        void end() {
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw new IllegalArgumentException("Unexpected content at position " + pos);
+            }
+        }
+        
+        String value() {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == '"') {
+                return string();
+            }
+            if (consume('[')) {
+                List<String> items = new ArrayList<>();
+                if (!consume(']')) {
+                    do {
+                        items.add(value());
+                    } while (consume(','));
+                    expect(']');
+                }
+                return String.join(",", items);
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                char c = text.charAt(pos);
+                if (c == '{' || c == '[') {
+                    throw new IllegalArgumentException("Nested values are not supported");
+                }
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Missing value at position " + start);
+            }
+            return literal.equals("null") ? null : literal;
+        }
+        
+        String string() {
+            skipWhitespace();
+            if (pos >= text.length() || text.charAt(pos) != '"') {
+                throw new IllegalArgumentException("Expected string at position " + pos);
+            }
+            pos++;
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("Truncated unicode escape");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+        
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
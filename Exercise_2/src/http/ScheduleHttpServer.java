@@ -0,0 +1,668 @@
+package http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import exception.ConflictException;
+import exception.DuplicateTaskException;
+import exception.ReadOnlyScheduleException;
+import exception.TaskException;
+import exception.TaskNotFoundException;
+import exception.TransactionException;
+import factory.TaskFactory;
+import manager.ScheduleManager;
+import model.ScheduleLoad;
+import model.ScheduleSnapshot;
+import model.Task;
+import util.LogThrottle;
+import util.Logger;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/JSON front-end for the ScheduleManager on the JDK's built-in HttpServer
+ *
+ * Endpoints:
+ *   GET    /tasks                      whole schedule, streamed
+ *   GET    /tasks?from=HH:mm&to=HH:mm  tasks overlapping a time range, streamed
+ *   GET    /tasks/{name}               one task
+ *   POST   /tasks                      {"type","name","start","end","resources"?}; 201, 409 on a
+ *                                      conflict or taken name, 422 over a budget or against a dependency
+ *   PATCH  /tasks/{name}               {"start","end"} moves, {"end"} resizes; 404 if unknown,
+ *                                      409 on a conflict, 422 over a budget or against a dependency
+ *   DELETE /tasks/{name}               204, 404 if unknown, 422 if it would undercut a budget
+ *   GET    /conflicts?start=&end=      tasks a new task in that range would conflict with;
+ *                                      add resources=a,b for a task claiming those (default crew)
+ *   GET    /search?q=&mode=&limit=     tasks by partial name: mode contains (default), prefix
+ *                                      or fuzzy (edits=0..2, default 2); limit defaults to 20
+ *   GET    /load?start=&end=           busy minutes, peak concurrency and utilization of a
+ *                                      window (default the whole day) and the busiest hour
+ *
+ * GET responses carry an ETag built from the schedule version, so clients can
+ * poll with If-None-Match and get 304 until the schedule changes. Each request
+ * runs on its own virtual thread when the JDK provides them, otherwise on a
+ * cached pool of daemon threads.
+ */
+public class ScheduleHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    
+    private final ScheduleManager scheduleManager;
+    private final TaskFactory taskFactory;
+    private final Logger logger;
+    private final LogThrottle errorLog;
+    private final InetSocketAddress bindAddress;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    /**
+     * Creates a server bound to the loopback interface
+     * @param port TCP port, or 0 for an ephemeral port
+     */
+    public ScheduleHttpServer(int port) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+    
+    public ScheduleHttpServer(InetSocketAddress bindAddress) {
+        this.scheduleManager = ScheduleManager.getInstance();
+        this.taskFactory = new TaskFactory();
+        this.logger = Logger.getInstance();
+        this.errorLog = logger.throttle("http.error", 10, 1000);
+        this.bindAddress = bindAddress;
+    }
+    
+    /**
+     * Binds the socket and starts serving requests
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        
+        executor = newRequestExecutor();
+        server = HttpServer.create(bindAddress, 1024);
+        server.createContext("/tasks", new TasksHandler());
+        server.createContext("/conflicts", new ConflictsHandler());
+        server.createContext("/load", new LoadHandler());
+        server.createContext("/search", new SearchHandler());
+        server.setExecutor(executor);
+        server.start();
+        logger.logMessage("Schedule HTTP API listening on " + getAddress());
+    }
+    
+    /**
+     * Stops accepting requests, waits briefly for running exchanges and shuts the executor down
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        stopped.countDown();
+        logger.logMessage("Schedule HTTP API stopped");
+    }
+    
+    /**
+     * Blocks until stop() has been called
+     * @throws InterruptedException if the wait is interrupted
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+    
+    /**
+     * Gets the bound address (useful with port 0)
+     * @return Local socket address
+     */
+    public synchronized InetSocketAddress getAddress() {
+        return server != null ? server.getAddress() : bindAddress;
+    }
+    
+    /**
+     * Creates a virtual-thread-per-request executor (JDK 21+), falling back to a
+     * cached pool of daemon threads on older runtimes
+     * @return Executor for HTTP exchanges
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threads = runnable -> {
+                Thread thread = new Thread(runnable, "http-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(threads);
+        }
+    }
+    
+    /**
+     * /tasks and /tasks/{name}
+     */
+    private final class TasksHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                String name = path.startsWith("/tasks/") && path.length() > "/tasks/".length()
+                    ? path.substring("/tasks/".length()) : null;
+                String method = exchange.getRequestMethod();
+                
+                if (name == null && !path.equals("/tasks") && !path.equals("/tasks/")) {
+                    sendError(exchange, 404, "Not found: " + path);
+                } else if (name == null && method.equals("GET")) {
+                    listTasks(exchange);
+                } else if (scheduleManager.isReadOnly() && (method.equals("POST")
+                        || method.equals("PATCH") || method.equals("DELETE"))) {
+                    sendError(exchange, 403, "Schedule is a read-only replica");
+                } else if (name == null && method.equals("POST")) {
+                    addTask(exchange);
+                } else if (name != null && method.equals("GET")) {
+                    getTask(exchange, name);
+                } else if (name != null && method.equals("PATCH")) {
+                    moveTask(exchange, name);
+                } else if (name != null && method.equals("DELETE")) {
+                    removeTask(exchange, name);
+                } else {
+                    exchange.getResponseHeaders().set("Allow", name == null ? "GET, POST" : "GET, PATCH, DELETE");
+                    sendError(exchange, 405, "Method not allowed: " + method);
+                }
+            } catch (RuntimeException e) {
+                fail(exchange, e);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+    
+    /**
+     * /conflicts?start=HH:mm&end=HH:mm[&resources=a,b]
+     */
+    private final class ConflictsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                    return;
+                }
+                Map<String, String> query = parseQuery(exchange.getRequestURI());
+                LocalTime start = parseTime(query.get("start"), "start");
+                LocalTime end = parseTime(query.get("end"), "end");
+                if (!start.isBefore(end)) {
+                    sendError(exchange, 400, "Start time must be before end time");
+                    return;
+                }
+                
+                Set<String> claimed = new HashSet<>();
+                for (String resource : Json.splitList(query.get("resources"))) {
+                    claimed.add(resource.toLowerCase(Locale.ROOT));
+                }
+                if (claimed.isEmpty()) {
+                    claimed.add(Task.CREW_RESOURCE);
+                }
+                List<Task> conflicts = scheduleManager.findTasksBetween(start, end);
+                conflicts.removeIf(task -> Collections.disjoint(task.getResources(), claimed));
+                StringBuilder body = new StringBuilder("{\"conflict\":").append(!conflicts.isEmpty())
+                    .append(",\"tasks\":[");
+                for (int i = 0; i < conflicts.size(); i++) {
+                    if (i > 0) {
+                        body.append(',');
+                    }
+                    Json.writeTask(body, conflicts.get(i));
+                }
+                sendJson(exchange, 200, body.append("]}").toString());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                fail(exchange, e);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+    
+    /**
+     * /search?q=text[&mode=contains|prefix|fuzzy][&edits=n][&limit=n]
+     */
+    private final class SearchHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                    return;
+                }
+                Map<String, String> query = parseQuery(exchange.getRequestURI());
+                String text = query.get("q");
+                int limit = parseInt(query.get("limit"), "limit", 20);
+                String mode = query.getOrDefault("mode", "contains").toLowerCase(Locale.ROOT);
+                List<Task> found;
+                switch (mode) {
+                    case "contains":
+                        found = scheduleManager.findTasksContaining(text, limit);
+                        break;
+                    case "prefix":
+                        found = scheduleManager.findTasksByPrefix(text, limit);
+                        break;
+                    case "fuzzy":
+                        found = scheduleManager.findTasksSimilar(text,
+                            parseInt(query.get("edits"), "edits", ScheduleManager.MAX_SEARCH_EDITS), limit);
+                        break;
+                    default:
+                        sendError(exchange, 400, "Unknown search mode (expected contains, prefix or fuzzy): "
+                            + mode);
+                        return;
+                }
+                
+                StringBuilder body = new StringBuilder("{\"tasks\":[");
+                for (int i = 0; i < found.size(); i++) {
+                    if (i > 0) {
+                        body.append(',');
+                    }
+                    Json.writeTask(body, found.get(i));
+                }
+                sendJson(exchange, 200, body.append("]}").toString());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                fail(exchange, e);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+    
+    /**
+     * /load[?start=HH:mm&end=HH:mm]
+     */
+    private final class LoadHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                    return;
+                }
+                Map<String, String> query = parseQuery(exchange.getRequestURI());
+                LocalTime start = query.containsKey("start") ? parseTime(query.get("start"), "start") : LocalTime.MIN;
+                LocalTime end = query.containsKey("end") ? parseTime(query.get("end"), "end") : LocalTime.MAX;
+                if (!start.isBefore(end)) {
+                    sendError(exchange, 400, "Start time must be before end time");
+                    return;
+                }
+                
+                ScheduleLoad load = scheduleManager.getLoad(start, end);
+                LocalTime busiest = scheduleManager.getBusiestHour();
+                StringBuilder body = new StringBuilder("{\"start\":");
+                Json.writeString(body, start.toString());
+                body.append(",\"end\":");
+                Json.writeString(body, end.equals(LocalTime.MAX) ? "24:00" : end.toString());
+                body.append(",\"busyMinutes\":").append(load.getBusyMinutes())
+                    .append(",\"peakConcurrency\":").append(load.getPeakConcurrency())
+                    .append(",\"utilization\":").append(String.format(Locale.ROOT, "%.4f", load.getUtilization()))
+                    .append(",\"busiestHour\":");
+                if (busiest == null) {
+                    body.append("null");
+                } else {
+                    Json.writeString(body, busiest.toString());
+                }
+                sendJson(exchange, 200, body.append('}').toString());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                fail(exchange, e);
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+    
+    /**
+     * Streams the schedule (or a range of it) as chunked JSON
+     * The ETag is the snapshot's own sequence, or for ranges the version read
+     * before the query, so it is never newer than the body.
+     */
+    private void listTasks(HttpExchange exchange) throws IOException {
+        Map<String, String> query;
+        LocalTime from;
+        LocalTime to;
+        try {
+            query = parseQuery(exchange.getRequestURI());
+            from = query.containsKey("from") ? parseTime(query.get("from"), "from") : null;
+            to = query.containsKey("to") ? parseTime(query.get("to"), "to") : null;
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        if ((from == null) != (to == null)) {
+            sendError(exchange, 400, "Both 'from' and 'to' are required for a range query");
+            return;
+        }
+        if (from != null && !from.isBefore(to)) {
+            sendError(exchange, 400, "'from' must be before 'to'");
+            return;
+        }
+        
+        long version = scheduleManager.getVersion();
+        if (notModified(exchange, etag(version))) {
+            return;
+        }
+        List<Task> tasks;
+        if (from == null) {
+            ScheduleSnapshot snapshot = scheduleManager.getSnapshot();
+            version = snapshot.getSequence();
+            tasks = snapshot.getTasks();
+        } else {
+            tasks = scheduleManager.findTasksBetween(from, to);
+        }
+        String etag = etag(version);
+        
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON);
+        headers.set("ETag", etag);
+        exchange.sendResponseHeaders(200, 0); // Chunked: the body is written as it is produced
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024)) {
+            out.write("{\"version\":");
+            out.write(Long.toString(version));
+            out.write(",\"count\":");
+            out.write(Integer.toString(tasks.size()));
+            out.write(",\"tasks\":[");
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Json.writeTask(out, tasks.get(i));
+            }
+            out.write("]}");
+        }
+    }
+    
+    private void getTask(HttpExchange exchange, String name) throws IOException {
+        long version = scheduleManager.getVersion();
+        String etag = etag(version);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        Task task = scheduleManager.findTask(name);
+        if (task == null) {
+            sendError(exchange, 404, "Task not found: " + name);
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        Json.writeTask(body, task);
+        exchange.getResponseHeaders().set("ETag", etag);
+        sendJson(exchange, 200, body.toString());
+    }
+    
+    private void addTask(HttpExchange exchange) throws IOException {
+        Task task;
+        try {
+            Map<String, String> fields = Json.parseObject(readBody(exchange));
+            String type = fields.get("type");
+            String name = fields.get("name") != null ? fields.get("name").trim() : "";
+            LocalTime start = parseTime(fields.get("start"), "start");
+            LocalTime end = parseTime(fields.get("end"), "end");
+            if (type == null) {
+                throw new IllegalArgumentException("Missing field 'type'");
+            }
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Task name cannot be empty");
+            }
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("Start time must be before end time");
+            }
+            task = taskFactory.createTask(type, name, start, end, Json.splitList(fields.get("resources")));
+        } catch (IllegalArgumentException | TaskException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        
+        if (scheduleManager.hasTask(task.getName())) {
+            sendError(exchange, 409, "A task with this name already exists: " + task.getName());
+            return;
+        }
+        try {
+            scheduleManager.addTask(task);
+        } catch (ConflictException | DuplicateTaskException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        } catch (TransactionException e) {
+            sendError(exchange, 422, e.getMessage());
+            return;
+        } catch (ReadOnlyScheduleException e) {
+            sendError(exchange, 403, "Schedule is a read-only replica");
+            return;
+        } catch (TaskException e) {
+            sendError(exchange, 500, e.getMessage());
+            return;
+        }
+        
+        StringBuilder body = new StringBuilder();
+        Json.writeTask(body, task);
+        exchange.getResponseHeaders().set("Location",
+            "/tasks/" + URLEncoder.encode(task.getName(), StandardCharsets.UTF_8).replace("+", "%20"));
+        sendJson(exchange, 201, body.toString());
+    }
+    
+    private void moveTask(HttpExchange exchange, String name) throws IOException {
+        LocalTime start;
+        LocalTime end;
+        try {
+            Map<String, String> fields = Json.parseObject(readBody(exchange));
+            start = fields.containsKey("start") ? parseTime(fields.get("start"), "start") : null;
+            end = parseTime(fields.get("end"), "end");
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        
+        Task current = scheduleManager.findTask(name);
+        if (current == null) {
+            sendError(exchange, 404, "Task not found: " + name);
+            return;
+        }
+        if (!(start != null ? start : current.getStartTime()).isBefore(end)) {
+            sendError(exchange, 400, "Start time must be before end time");
+            return;
+        }
+        Task moved;
+        try {
+            moved = start != null
+                ? scheduleManager.moveTask(name, start, end)
+                : scheduleManager.resizeTask(name, end);
+        } catch (ConflictException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        } catch (TransactionException e) {
+            sendError(exchange, 422, e.getMessage());
+            return;
+        } catch (TaskNotFoundException e) {
+            // Removed concurrently after the lookup above
+            sendError(exchange, 404, e.getMessage());
+            return;
+        } catch (ReadOnlyScheduleException e) {
+            sendError(exchange, 403, "Schedule is a read-only replica");
+            return;
+        } catch (TaskException e) {
+            sendError(exchange, 500, e.getMessage());
+            return;
+        }
+        
+        StringBuilder body = new StringBuilder();
+        Json.writeTask(body, moved);
+        sendJson(exchange, 200, body.toString());
+    }
+    
+    private void removeTask(HttpExchange exchange, String name) throws IOException {
+        if (!scheduleManager.hasTask(name)) {
+            sendError(exchange, 404, "Task not found: " + name);
+            return;
+        }
+        try {
+            scheduleManager.removeTask(name);
+        } catch (TaskNotFoundException e) {
+            // Removed concurrently between the check and the call
+            sendError(exchange, 404, e.getMessage());
+            return;
+        } catch (TransactionException e) {
+            sendError(exchange, 422, e.getMessage());
+            return;
+        } catch (ReadOnlyScheduleException e) {
+            sendError(exchange, 403, "Schedule is a read-only replica");
+            return;
+        } catch (TaskException e) {
+            sendError(exchange, 500, e.getMessage());
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+    
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Answers 304 if If-None-Match lists the current ETag (or "*")
+     * @return true if the response has been sent
+     */
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+    
+    private static LocalTime parseTime(String value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field '" + field + "'");
+        }
+        try {
+            return LocalTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time for '" + field + "' (expected HH:mm): " + value);
+        }
+    }
+    
+    private static int parseInt(String value, String field, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for '" + field + "': " + value);
+        }
+    }
+    
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body larger than " + MAX_BODY_BYTES + " bytes");
+                }
+            }
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, Json.error(message));
+    }
+    
+    private void fail(HttpExchange exchange, RuntimeException e) {
+        if (errorLog.tryAcquire()) {
+            logger.logError("HTTP request failed: " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+        }
+        try {
+            sendError(exchange, 500, "Internal error");
+        } catch (IOException | RuntimeException ignored) {
+            // Headers may already be sent; the connection is closed by the caller
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package manager;
+
+import exception.ChangeLogTruncatedException;
+import model.ScheduleChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory log of schedule changes
+ * A ring buffer holding the last capacity changes; older entries are
+ * overwritten. Readers ask for the changes after a sequence number and may
+ * block until new changes arrive. Appends come from ScheduleManager under its
+ * write lock, so sequence order is the order changes were applied.
+ */
+final class ChangeLog {
+    private final ScheduleChange[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    
+    // Guarded by lock; entries before firstSequence were dropped by restart()
+    private long lastSequence;
+    private long firstSequence = 1;
+    
+    ChangeLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive: " + capacity);
+        }
+        this.ring = new ScheduleChange[capacity];
+    }
+    
+    /**
+     * Appends the next change and wakes up blocked readers
+     * @param change Change whose sequence is exactly one above the last one
+     */
+    void append(ScheduleChange change) {
+        lock.lock();
+        try {
+            if (change.getSequence() != lastSequence + 1) {
+                throw new IllegalStateException("Out of order change " + change + " after #" + lastSequence);
+            }
+            ring[(int) (change.getSequence() % ring.length)] = change;
+            lastSequence = change.getSequence();
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Reads the changes after a sequence number, waiting up to a timeout if there are none yet
+     * @param afterSequence Last sequence the reader has seen (0 to start from the beginning)
+     * @param maxChanges Maximum batch size
+     * @param timeoutMillis How long to wait for a first change (0 to return immediately)
+     * @return Consecutive changes, oldest first; empty if none arrived in time
+     * @throws ChangeLogTruncatedException if changes after afterSequence were already overwritten,
+     *         or the log was restarted at a different position
+     * @throws InterruptedException if interrupted while waiting
+     */
+    List<ScheduleChange> read(long afterSequence, int maxChanges, long timeoutMillis)
+            throws ChangeLogTruncatedException, InterruptedException {
+        if (maxChanges <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxChanges);
+        }
+        
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (afterSequence == lastSequence && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            
+            long oldest = oldestSequence();
+            if (afterSequence + 1 < oldest || afterSequence > lastSequence) {
+                // Ahead of the log only happens after restart() moved the log back
+                throw new ChangeLogTruncatedException(afterSequence, oldest);
+            }
+            int count = (int) Math.min(maxChanges, lastSequence - afterSequence);
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            List<ScheduleChange> changes = new ArrayList<>(count);
+            for (long sequence = afterSequence + 1; sequence <= afterSequence + count; sequence++) {
+                changes.add(ring[(int) (sequence % ring.length)]);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Drops all entries and continues after a new position (replica snapshot install)
+     * Readers behind or ahead of it get ChangeLogTruncatedException and resynchronize.
+     * @param sequence Sequence of the last change included in the installed state
+     */
+    void restart(long sequence) {
+        lock.lock();
+        try {
+            Arrays.fill(ring, null);
+            lastSequence = sequence;
+            firstSequence = sequence + 1;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the sequence number of the most recent change
+     * @return Last sequence, 0 if nothing was logged yet
+     */
+    long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Caller holds lock
+    private long oldestSequence() {
+        return Math.max(firstSequence, lastSequence - ring.length + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package manager;
+
+import exception.ChangeLogTruncatedException;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+import observer.ScheduleChangeListener;
+import util.Logger;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push subscription to the ScheduleManager change feed
+ * A daemon thread follows the change log and hands everything that arrived
+ * since the last delivery to the listener as one batch (up to maxBatch), so
+ * a slow listener gets fewer, larger batches rather than falling behind call
+ * by call. Created by ScheduleManager.subscribe(); close() to stop.
+ */
+public final class ChangeSubscription implements AutoCloseable {
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final long POLL_MILLIS = 1000;
+    
+    private final ScheduleManager scheduleManager;
+    private final ChangeLog changeLog;
+    private final ScheduleChangeListener listener;
+    private final int maxBatch;
+    private final Logger logger;
+    private final Thread thread;
+    
+    private volatile long lastSequence;
+    private volatile boolean running = true;
+    
+    ChangeSubscription(ScheduleManager scheduleManager, ChangeLog changeLog, long afterSequence,
+            int maxBatch, ScheduleChangeListener listener) {
+        this.scheduleManager = scheduleManager;
+        this.changeLog = changeLog;
+        this.listener = listener;
+        this.maxBatch = maxBatch;
+        this.logger = Logger.getInstance();
+        this.lastSequence = afterSequence;
+        this.thread = new Thread(this::follow, "schedule-feed-" + COUNTER.incrementAndGet());
+        this.thread.setDaemon(true);
+    }
+    
+    void start() {
+        thread.start();
+    }
+    
+    /**
+     * Gets the sequence number of the last change delivered (or included in a delivered snapshot)
+     * @return Position to resume from with a new subscription
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public boolean isActive() {
+        return running && thread.isAlive();
+    }
+    
+    /**
+     * Stops delivery; a batch already being delivered completes first
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+    
+    private void follow() {
+        while (running) {
+            try {
+                List<ScheduleChange> changes = changeLog.read(lastSequence, maxBatch, POLL_MILLIS);
+                if (!changes.isEmpty()) {
+                    deliver(changes);
+                }
+            } catch (ChangeLogTruncatedException e) {
+                logger.logMessage("Change feed " + thread.getName() + " fell behind, resynchronizing: "
+                    + e.getMessage());
+                resync();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                // A failing listener must not kill the feed; the batch is not redelivered
+                logger.logError("Change feed listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Delivers changes up to the first RESET, then a snapshot in its place
+     */
+    private void deliver(List<ScheduleChange> changes) {
+        int reset = -1;
+        for (int i = 0; i < changes.size(); i++) {
+            if (changes.get(i).getKind() == ScheduleChange.Kind.RESET) {
+                reset = i;
+                break;
+            }
+        }
+        
+        List<ScheduleChange> incremental = reset < 0 ? changes : changes.subList(0, reset);
+        if (!incremental.isEmpty()) {
+            lastSequence = incremental.get(incremental.size() - 1).getSequence();
+            listener.onChanges(incremental);
+        }
+        if (reset >= 0) {
+            resync();
+        }
+    }
+    
+    private void resync() {
+        ScheduleSnapshot snapshot = scheduleManager.getSnapshot();
+        lastSequence = snapshot.getSequence();
+        listener.onSnapshot(snapshot);
+    }
+}
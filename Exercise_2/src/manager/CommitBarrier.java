@@ -0,0 +1,14 @@
+package manager;
+
+/**
+ * Hook that lets ScheduleManager mutations wait until their change is replicated
+ * Invoked on the mutating thread after the change has been applied and the
+ * write lock released, so readers are never blocked by a slow replica.
+ */
+public interface CommitBarrier {
+    /**
+     * Returns once the change is committed by the barrier's rules (or they give up)
+     * @param sequence Sequence number of the change just applied
+     */
+    void awaitCommitted(long sequence);
+}
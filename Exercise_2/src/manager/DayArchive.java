@@ -0,0 +1,245 @@
+package manager;
+
+import exception.TaskException;
+import factory.TaskFactory;
+import model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-only archive of past days, one gzip-compressed segment file per date
+ * Only the set of archived dates stays in memory. A day is paged in on its
+ * first query and rebuilt into a TaskIndex, so archived days answer window,
+ * name and load queries like the live schedule. At most cacheDays segments
+ * are held, least recently used evicted first, and they are held through
+ * soft references so the collector can drop them earlier under memory
+ * pressure; an evicted day is simply read again. Heap use is therefore
+ * bounded by the cache, however long the mission runs.
+ *
+ * A segment (yyyy-MM-dd.day.gz) is MAGIC(int) epochDay(long) count(int)
+ * task*, with tasks encoded as in the replication protocol: type(byte)
+ * start(long) end(long) name(UTF) resourceCount(byte) resource(UTF)*, times
+ * in nanos of day and count 0 for the default crew timeline. Segments are
+ * written to a temporary file and renamed, so a crash never leaves a partial
+ * day, and are never rewritten. Thread-safe.
+ */
+final class DayArchive {
+    private static final int MAGIC = 0x41534459; // "ASDY"
+    private static final String SUFFIX = ".day.gz";
+    
+    private final Path directory;
+    private final int cacheDays;
+    private final TaskFactory taskFactory;
+    
+    // Dates with a segment on disk, filled from the directory on first use (guarded by this)
+    private final NavigableSet<LocalDate> days = new TreeSet<>();
+    private boolean scanned;
+    
+    // Paged-in days in access order, least recently used first (guarded by this)
+    private final LinkedHashMap<LocalDate, SoftReference<TaskIndex>> cache;
+    
+    DayArchive(Path directory, int cacheDays, TaskFactory taskFactory) {
+        this.directory = directory;
+        this.cacheDays = Math.max(1, cacheDays);
+        this.taskFactory = taskFactory;
+        this.cache = new LinkedHashMap<LocalDate, SoftReference<TaskIndex>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, SoftReference<TaskIndex>> eldest) {
+                return size() > DayArchive.this.cacheDays;
+            }
+        };
+    }
+    
+    /**
+     * Writes a day's tasks as a new segment
+     * @param tasks Conflict-free tasks of the day
+     * @throws IllegalStateException if the day is already archived
+     */
+    synchronized void write(LocalDate date, Collection<Task> tasks) throws IOException {
+        scan();
+        if (days.contains(date)) {
+            throw new IllegalStateException("Day " + date + " is already archived");
+        }
+        
+        Files.createDirectories(directory);
+        Path target = segmentPath(date);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeLong(date.toEpochDay());
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        target.toFile().setReadOnly();
+        days.add(date);
+    }
+    
+    /**
+     * Gets an archived day, paging it in if it is not cached
+     * @return The day's index (read-only for callers), or null if the day is not archived
+     */
+    synchronized TaskIndex day(LocalDate date) throws IOException {
+        scan();
+        if (!days.contains(date)) {
+            return null;
+        }
+        SoftReference<TaskIndex> cached = cache.get(date);
+        TaskIndex day = cached != null ? cached.get() : null;
+        if (day == null) {
+            day = read(date);
+            cache.put(date, new SoftReference<>(day));
+        }
+        return day;
+    }
+    
+    /**
+     * Gets the archived dates in order
+     */
+    synchronized List<LocalDate> days() throws IOException {
+        scan();
+        return new ArrayList<>(days);
+    }
+    
+    /**
+     * Gets the number of days currently paged in (cleared soft references not counted)
+     */
+    synchronized int cachedDays() {
+        int count = 0;
+        for (Iterator<SoftReference<TaskIndex>> it = cache.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() == null) {
+                it.remove();
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private Path segmentPath(LocalDate date) {
+        return directory.resolve(date + SUFFIX);
+    }
+    
+    /**
+     * Lists the segments already on disk, once; a missing directory is an empty archive
+     */
+    private void scan() throws IOException {
+        if (scanned) {
+            return;
+        }
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path path : stream) {
+                    String name = path.getFileName().toString();
+                    try {
+                        days.add(LocalDate.parse(name.substring(0, name.length() - SUFFIX.length())));
+                    } catch (DateTimeParseException e) {
+                        // Not a segment of ours
+                    }
+                }
+            }
+        }
+        scanned = true;
+    }
+    
+    private TaskIndex read(LocalDate date) throws IOException {
+        Path path = segmentPath(date);
+        List<Task> tasks;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC || in.readLong() != date.toEpochDay()) {
+                throw new IOException("Not a segment of day " + date + ": " + path);
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Invalid task count " + count + " in " + path);
+            }
+            tasks = new ArrayList<>(Math.min(count, 4096));
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in));
+            }
+        }
+        
+        TaskIndex day = new TaskIndex();
+        try {
+            day.reset(tasks);
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupt segment " + path + ": " + e.getMessage());
+        }
+        return day;
+    }
+    
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        out.writeByte(TypeTotals.typeOf(task));
+        out.writeLong(task.getStartTime().toNanoOfDay());
+        out.writeLong(task.getEndTime().toNanoOfDay());
+        out.writeUTF(task.getName());
+        if (task.hasDefaultResources()) {
+            out.writeByte(0);
+        } else {
+            if (task.getResources().size() > 255) {
+                throw new IOException("At most 255 resources per task: " + task.getName());
+            }
+            out.writeByte(task.getResources().size());
+            for (String resource : task.getResources()) {
+                out.writeUTF(resource);
+            }
+        }
+    }
+    
+    private Task readTask(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type >= TypeTotals.TYPES.length) {
+            throw new IOException("Invalid task type " + type);
+        }
+        LocalTime start = readTime(in);
+        LocalTime end = readTime(in);
+        String name = in.readUTF();
+        int resourceCount = in.readUnsignedByte();
+        List<String> resources = new ArrayList<>(resourceCount);
+        for (int i = 0; i < resourceCount; i++) {
+            resources.add(in.readUTF());
+        }
+        try {
+            return taskFactory.createTask(TypeTotals.TYPES[type], name, start, end, resources);
+        } catch (TaskException e) {
+            throw new IOException("Invalid archived task '" + name + "': " + e.getMessage());
+        }
+    }
+    
+    private static LocalTime readTime(DataInputStream in) throws IOException {
+        long nanos = in.readLong();
+        if (nanos < 0 || nanos > LocalTime.MAX.toNanoOfDay()) {
+            throw new IOException("Invalid time " + nanos);
+        }
+        return LocalTime.ofNanoOfDay(nanos);
+    }
+}
@@ -0,0 +1,207 @@
+package manager;
+
+import model.Dependency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Precedence constraints between tasks: "before" must end before "after" starts
+ * Edges join task names (case-insensitive), not task versions, so a task
+ * keeps its constraints when it is moved or resized. Each node holds its
+ * predecessor and successor sets, so the constraints of one task are found
+ * in O(its degree) and nothing else in the graph is looked at. A node is
+ * dropped with its last edge. The reachability walk is iterative, so long
+ * chains cannot overflow the stack. Not thread-safe; ScheduleManager guards
+ * it with its lock.
+ */
+final class DependencyGraph {
+    
+    /**
+     * A task name with its edges
+     */
+    private static final class Node {
+        final String key;
+        String name;
+        final Set<Node> predecessors = new LinkedHashSet<>();
+        final Set<Node> successors = new LinkedHashSet<>();
+        
+        Node(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+    
+    private final Map<String, Node> nodes = new HashMap<>();
+    private int edges;
+    
+    boolean isEmpty() {
+        return edges == 0;
+    }
+    
+    int size() {
+        return edges;
+    }
+    
+    void clear() {
+        nodes.clear();
+        edges = 0;
+    }
+    
+    /**
+     * Adds the edge before -> after
+     * @return false if it was already there
+     */
+    boolean add(String before, String after) {
+        Node from = node(before);
+        Node to = node(after);
+        if (!from.successors.add(to)) {
+            return false;
+        }
+        to.predecessors.add(from);
+        edges++;
+        return true;
+    }
+    
+    /**
+     * Removes the edge before -> after
+     * @return false if there was no such edge
+     */
+    boolean remove(String before, String after) {
+        Node from = nodes.get(NameIndex.fold(before));
+        Node to = nodes.get(NameIndex.fold(after));
+        if (from == null || to == null || !from.successors.remove(to)) {
+            return false;
+        }
+        to.predecessors.remove(from);
+        edges--;
+        prune(from);
+        prune(to);
+        return true;
+    }
+    
+    /**
+     * Drops a task's edges, linking each of its predecessors to each of its
+     * successors so the order it imposed between them is kept
+     * @param unlinked Receives the edges dropped
+     * @param linked Receives the edges added in their place
+     */
+    void removeTask(String name, List<Dependency> unlinked, List<Dependency> linked) {
+        Node node = nodes.remove(NameIndex.fold(name));
+        if (node == null) {
+            return;
+        }
+        for (Node predecessor : node.predecessors) {
+            predecessor.successors.remove(node);
+            unlinked.add(new Dependency(predecessor.name, node.name));
+        }
+        for (Node successor : node.successors) {
+            successor.predecessors.remove(node);
+            unlinked.add(new Dependency(node.name, successor.name));
+        }
+        edges -= node.predecessors.size() + node.successors.size();
+        for (Node predecessor : node.predecessors) {
+            for (Node successor : node.successors) {
+                if (predecessor.successors.add(successor)) {
+                    successor.predecessors.add(predecessor);
+                    edges++;
+                    linked.add(new Dependency(predecessor.name, successor.name));
+                }
+            }
+        }
+        for (Node predecessor : node.predecessors) {
+            prune(predecessor);
+        }
+        for (Node successor : node.successors) {
+            prune(successor);
+        }
+    }
+    
+    /**
+     * Tells whether a path leads from one task to another
+     * @param through Which tasks the path may pass through; the walk does not leave them
+     */
+    boolean reaches(String from, String to, Predicate<String> through) {
+        Node start = nodes.get(NameIndex.fold(from));
+        Node target = nodes.get(NameIndex.fold(to));
+        if (start == null || target == null) {
+            return false;
+        }
+        Set<Node> seen = Collections.newSetFromMap(new HashMap<>());
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        seen.add(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node == target) {
+                return true;
+            }
+            for (Node successor : node.successors) {
+                if ((successor == target || through.test(successor.name)) && seen.add(successor)) {
+                    pending.push(successor);
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Lists every edge, grouped by the task that must end first
+     */
+    List<Dependency> edges() {
+        List<Dependency> result = new ArrayList<>(edges);
+        for (Node node : nodes.values()) {
+            for (Node successor : node.successors) {
+                result.add(new Dependency(node.name, successor.name));
+            }
+        }
+        return result;
+    }
+    
+    List<String> predecessors(String name) {
+        Node node = nodes.get(NameIndex.fold(name));
+        return node == null ? Collections.emptyList() : names(node.predecessors);
+    }
+    
+    List<String> successors(String name) {
+        Node node = nodes.get(NameIndex.fold(name));
+        return node == null ? Collections.emptyList() : names(node.successors);
+    }
+    
+    private Node node(String name) {
+        String key = NameIndex.fold(name);
+        Node node = nodes.get(key);
+        if (node == null) {
+            node = new Node(key, name);
+            nodes.put(key, node);
+        } else {
+            node.name = name;
+        }
+        return node;
+    }
+    
+    /**
+     * Forgets a node once it has no edges left
+     */
+    private void prune(Node node) {
+        if (node.predecessors.isEmpty() && node.successors.isEmpty()) {
+            nodes.remove(node.key);
+        }
+    }
+    
+    private static List<String> names(Set<Node> nodes) {
+        List<String> names = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            names.add(node.name);
+        }
+        return names;
+    }
+}
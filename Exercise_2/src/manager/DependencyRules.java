@@ -0,0 +1,251 @@
+package manager;
+
+import exception.TaskException;
+import factory.TaskFactory;
+import model.Dependency;
+import model.Task;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Keeps the dependency graph and the scheduled tasks in step
+ * Checks edits against the dependencies of the tasks they put in, shifts
+ * dependents later when a task they wait for moves, and hands on the
+ * dependencies of tasks taken out. Every dependency joins two scheduled
+ * tasks and holds between edits, which is what keeps each of these local
+ * to the tasks involved. Not thread-safe; ScheduleManager calls it under
+ * its lock.
+ */
+final class DependencyRules {
+    private final TaskIndex tasks;
+    private final DependencyGraph graph;
+    private final TaskFactory taskFactory;
+    
+    DependencyRules(TaskIndex tasks, DependencyGraph graph, TaskFactory taskFactory) {
+        this.tasks = tasks;
+        this.graph = graph;
+        this.taskFactory = taskFactory;
+    }
+    
+    /**
+     * Reports each prerequisite a moved task would start before the end of
+     */
+    void checkPrerequisites(Task moved, List<String> problems) {
+        for (String name : graph.predecessors(moved.getName())) {
+            Task predecessor = tasks.get(name);
+            if (predecessor != null && moved.getStartTime().isBefore(predecessor.getEndTime())) {
+                problems.add(violation(predecessor, moved));
+            }
+        }
+    }
+    
+    /**
+     * Tells whether first -> then would close a cycle
+     * Since the dependencies hold, tasks on a path back to first end before
+     * it starts, so the walk skips any task that does not.
+     */
+    boolean closesCycle(Task first, Task then) {
+        LocalTime firstStart = first.getStartTime();
+        return graph.reaches(then.getName(), first.getName(), name -> {
+            Task task = tasks.get(name);
+            return task != null && !task.getEndTime().isAfter(firstStart);
+        });
+    }
+    
+    /**
+     * Shifts the dependents of a changed task, and theirs in turn, later until
+     * each starts once all of its predecessors have ended, keeping durations
+     * Every other dependency holds, so only a shifted task (or the changed one)
+     * can push a dependent, and a dependent that starts after it ends is left
+     * alone without being queued. Since every dependency that holds has a task
+     * start after its predecessors start, and shifts only go later, tasks are
+     * shifted in start time order and each one's shifted predecessors are all
+     * known when it is reached. The work is O(d + k log k) for the d dependents
+     * of the changed and shifted tasks and the k of them that move, however
+     * long the chains behind them. Adds the old and new version of each
+     * shifted task to removed and added.
+     * @param changed The changed task as it will be scheduled
+     * @param dependents Names of the dependents of the changed task that may have to move
+     */
+    void propagate(Task changed, List<String> dependents, List<Task> removed, List<Task> added,
+            List<String> problems) {
+        // Latest end among each dependent's shifted predecessors, and which one it is
+        Map<String, Task> pushedBy = new HashMap<>();
+        PriorityQueue<Task> pending = new PriorityQueue<>(TaskIndex.START_ORDER);
+        push(changed, dependents, pushedBy, pending);
+        while (!pending.isEmpty()) {
+            Task current = pending.poll();
+            Task latest = pushedBy.get(NameIndex.fold(current.getName()));
+            LocalTime start = latest.getEndTime();
+            Duration length = Duration.between(current.getStartTime(), current.getEndTime());
+            if (length.compareTo(Duration.between(start, LocalTime.MAX)) > 0) {
+                problems.add(String.format("Task '%s' (%s) would run past midnight after '%s' (%s)",
+                    current.getName(), current.getFormattedTimeRange(),
+                    latest.getName(), latest.getFormattedTimeRange()));
+                continue;
+            }
+            try {
+                Task moved = taskFactory.createTask(current.getTaskType(), current.getName(), start,
+                    start.plus(length), current.getResources());
+                removed.add(current);
+                added.add(moved);
+                push(moved, graph.successors(moved.getName()), pushedBy, pending);
+            } catch (TaskException e) {
+                problems.add(e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Reports each dependency an edit would break
+     * Only the dependencies of the tasks it puts in are checked, O(their
+     * degree) each.
+     */
+    void check(List<Task> removed, List<Task> added, List<String> problems) {
+        if (graph.isEmpty() || added.isEmpty()) {
+            return;
+        }
+        // Names the edit touches; a null value means taken out
+        Map<String, Task> edited = new HashMap<>();
+        for (Task task : removed) {
+            edited.put(NameIndex.fold(task.getName()), null);
+        }
+        for (Task task : added) {
+            edited.put(NameIndex.fold(task.getName()), task);
+        }
+        boolean takesOut = edited.containsValue(null);
+        for (Task task : added) {
+            for (String name : linked(task.getName(), true, edited, takesOut)) {
+                String key = NameIndex.fold(name);
+                Task predecessor = edited.containsKey(key) ? edited.get(key) : tasks.get(name);
+                if (predecessor != null && task.getStartTime().isBefore(predecessor.getEndTime())) {
+                    problems.add(violation(predecessor, task));
+                }
+            }
+            for (String name : linked(task.getName(), false, edited, takesOut)) {
+                // An edited successor is checked as an added task
+                if (edited.containsKey(NameIndex.fold(name))) {
+                    continue;
+                }
+                Task successor = tasks.get(name);
+                if (successor != null && successor.getStartTime().isBefore(task.getEndTime())) {
+                    problems.add(violation(task, successor));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reports a dependency an undo or redo put back if either task has left
+     * the schedule or they no longer run in order
+     * check() only covers the tasks an edit puts in, and an edit that merely
+     * dropped a dependency puts in none. Once the restored dependency holds
+     * it cannot close a cycle, as every other one holds too.
+     */
+    void checkRestored(String before, String after, List<Task> putIn, List<String> problems) {
+        Task first = tasks.get(before);
+        Task then = tasks.get(after);
+        for (Task task : putIn) {
+            if (task.getName().equalsIgnoreCase(before)) {
+                first = task;
+            } else if (task.getName().equalsIgnoreCase(after)) {
+                then = task;
+            }
+        }
+        if (first == null || then == null) {
+            problems.add("Task not found: " + (first == null ? before : after));
+        } else if (then.getStartTime().isBefore(first.getEndTime())) {
+            problems.add(violation(first, then));
+        }
+    }
+    
+    /**
+     * Hands on the dependencies of the tasks an edit took out for good, as removeTask does
+     * Tasks put back under the same name (moves, revisions) keep theirs.
+     * @param unlinked Receives the dependencies dropped
+     * @param linked Receives the dependencies added in their place
+     */
+    void handOn(List<Task> removed, List<Task> added, List<Dependency> unlinked, List<Dependency> linked) {
+        if (graph.isEmpty() || removed.isEmpty()) {
+            return;
+        }
+        Set<String> staying = new HashSet<>();
+        for (Task task : added) {
+            staying.add(NameIndex.fold(task.getName()));
+        }
+        for (Task task : removed) {
+            if (!staying.contains(NameIndex.fold(task.getName()))) {
+                graph.removeTask(task.getName(), unlinked, linked);
+            }
+        }
+    }
+    
+    static String violation(Task before, Task after) {
+        return String.format("Task '%s' (%s) must start after '%s' ends (%s)",
+            after.getName(), after.getFormattedTimeRange(), before.getName(), before.getFormattedTimeRange());
+    }
+    
+    /**
+     * Records a shifted task's end against its dependents and queues those that now start too early
+     */
+    private void push(Task shifted, List<String> dependents, Map<String, Task> pushedBy,
+            Queue<Task> pending) {
+        for (String name : dependents) {
+            Task dependent = tasks.get(name);
+            // One that starts late enough cannot be queued with an even later requirement either
+            if (dependent == null || !dependent.getStartTime().isBefore(shifted.getEndTime())) {
+                continue;
+            }
+            String key = NameIndex.fold(name);
+            Task latest = pushedBy.get(key);
+            if (latest == null) {
+                pushedBy.put(key, shifted);
+                pending.add(dependent);
+            } else if (shifted.getEndTime().isAfter(latest.getEndTime())) {
+                // Already queued; it will start after the later of the two
+                pushedBy.put(key, shifted);
+            }
+        }
+    }
+    
+    /**
+     * Gets a task's prerequisites or dependents as they will be once an edit
+     * has handed on the dependencies of the tasks it takes out
+     * @param edited Names the edit touches; a null value means taken out
+     * @param takesOut Whether edited holds any task taken out
+     */
+    private List<String> linked(String name, boolean predecessors, Map<String, Task> edited, boolean takesOut) {
+        List<String> direct = predecessors ? graph.predecessors(name) : graph.successors(name);
+        if (!takesOut) {
+            return direct;
+        }
+        
+        List<String> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(direct);
+        while (!pending.isEmpty()) {
+            String next = pending.pop();
+            String key = NameIndex.fold(next);
+            if (!seen.add(key)) {
+                continue;
+            }
+            if (edited.containsKey(key) && edited.get(key) == null) {
+                pending.addAll(predecessors ? graph.predecessors(next) : graph.successors(next));
+            } else {
+                result.add(next);
+            }
+        }
+        return result;
+    }
+}
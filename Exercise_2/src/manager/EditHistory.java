@@ -0,0 +1,130 @@
+package manager;
+
+import model.Task;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded undo/redo stacks of schedule edits
+ * An edit stores only the tasks it took out and put in. Tasks are immutable,
+ * so these are references shared with the live schedule rather than copies,
+ * and an edit costs a few dozen bytes however large the schedule is. Undoing
+ * swaps the two sets back through the index in O(k log n) for an edit of k
+ * tasks. An edit that added or dropped a dependency also names it, so
+ * undoing the edit drops or restores it. The oldest edit is dropped once
+ * capacity is reached. Not thread-safe; ScheduleManager guards it with its
+ * write lock.
+ */
+final class EditHistory {
+    
+    /**
+     * One undoable edit: the tasks it took out of the schedule and put in,
+     * and the dependency it added or, if dropped is set, took away
+     */
+    static final class Edit {
+        final String label;
+        final List<Task> removed;
+        final List<Task> added;
+        final String before;
+        final String after;
+        final boolean dropped;
+        
+        Edit(String label, List<Task> removed, List<Task> added, String before, String after,
+                boolean dropped) {
+            this.label = label;
+            this.removed = removed;
+            this.added = added;
+            this.before = before;
+            this.after = after;
+            this.dropped = dropped;
+        }
+    }
+    
+    private final int capacity;
+    private final Deque<Edit> undo = new ArrayDeque<>();
+    private final Deque<Edit> redo = new ArrayDeque<>();
+    
+    EditHistory(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("History capacity cannot be negative: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Records a new edit; anything that could be redone is discarded
+     */
+    void record(String label, List<Task> removed, List<Task> added) {
+        record(label, removed, added, null, null);
+    }
+    
+    /**
+     * Records a new edit that also added the dependency before -> after
+     */
+    void record(String label, List<Task> removed, List<Task> added, String before, String after) {
+        redo.clear();
+        push(undo, new Edit(label, removed, added, before, after, false));
+    }
+    
+    /**
+     * Records a new edit that dropped the dependency before -> after and moved no task
+     */
+    void recordDrop(String label, String before, String after) {
+        redo.clear();
+        push(undo, new Edit(label, Collections.emptyList(), Collections.emptyList(), before, after, true));
+    }
+    
+    /**
+     * Takes the edit to undo, or null if there is none
+     */
+    Edit pollUndo() {
+        return undo.pollFirst();
+    }
+    
+    /**
+     * Takes the edit to redo, or null if there is none
+     */
+    Edit pollRedo() {
+        return redo.pollFirst();
+    }
+    
+    /**
+     * Files an edit that was just undone, so it can be redone
+     */
+    void undone(Edit edit) {
+        push(redo, edit);
+    }
+    
+    /**
+     * Files an edit that was just redone, so it can be undone again
+     */
+    void redone(Edit edit) {
+        push(undo, edit);
+    }
+    
+    int undoSize() {
+        return undo.size();
+    }
+    
+    int redoSize() {
+        return redo.size();
+    }
+    
+    void clear() {
+        undo.clear();
+        redo.clear();
+    }
+    
+    private void push(Deque<Edit> stack, Edit edit) {
+        if (capacity == 0) {
+            return;
+        }
+        if (stack.size() == capacity) {
+            stack.pollLast();
+        }
+        stack.addFirst(edit);
+    }
+}
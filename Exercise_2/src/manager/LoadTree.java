@@ -0,0 +1,115 @@
+package manager;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Segment tree of scheduled load over the minutes of the day
+ * Leaf m holds how many tasks run during minute m (a task counts for every
+ * minute it touches). Adding or removing a task is a range update, and
+ * range sums (busy task-minutes) and range maxima (peak concurrency) are
+ * O(log minutes). Range updates keep their pending amount on the covering
+ * node instead of pushing it down, so queries never write and can run
+ * concurrently under ScheduleManager's read lock; updates need its write lock.
+ */
+final class LoadTree {
+    static final int MINUTES = 24 * 60;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    
+    // Node n covers a range of minutes; children are 2n and 2n + 1
+    private final long[] sum = new long[4 * MINUTES];
+    private final int[] max = new int[4 * MINUTES];
+    private final int[] pending = new int[4 * MINUTES];
+    
+    /**
+     * First minute touched by an interval starting at this time
+     */
+    static int firstMinute(LocalTime start) {
+        return (int) (start.toNanoOfDay() / NANOS_PER_MINUTE);
+    }
+    
+    /**
+     * Minute after the last one touched by an interval ending at this time
+     * (LocalTime.MAX gives MINUTES, the end of the day)
+     */
+    static int endMinute(LocalTime end) {
+        return (int) ((end.toNanoOfDay() + NANOS_PER_MINUTE - 1) / NANOS_PER_MINUTE);
+    }
+    
+    /**
+     * Adds delta tasks to every minute in [from, to)
+     */
+    void add(int from, int to, int delta) {
+        if (from < to) {
+            add(1, 0, MINUTES, from, to, delta);
+        }
+    }
+    
+    private void add(int node, int low, int high, int from, int to, int delta) {
+        if (from <= low && high <= to) {
+            pending[node] += delta;
+            sum[node] += (long) delta * (high - low);
+            max[node] += delta;
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (from < mid) {
+            add(2 * node, low, mid, from, to, delta);
+        }
+        if (to > mid) {
+            add(2 * node + 1, mid, high, from, to, delta);
+        }
+        sum[node] = sum[2 * node] + sum[2 * node + 1] + (long) pending[node] * (high - low);
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]) + pending[node];
+    }
+    
+    /**
+     * Sums the load over [from, to): the task-minutes scheduled in the window
+     */
+    long sum(int from, int to) {
+        return from < to ? sum(1, 0, MINUTES, from, to) : 0;
+    }
+    
+    private long sum(int node, int low, int high, int from, int to) {
+        if (from <= low && high <= to) {
+            return sum[node];
+        }
+        int mid = (low + high) >>> 1;
+        long total = (long) pending[node] * (Math.min(high, to) - Math.max(low, from));
+        if (from < mid) {
+            total += sum(2 * node, low, mid, from, to);
+        }
+        if (to > mid) {
+            total += sum(2 * node + 1, mid, high, from, to);
+        }
+        return total;
+    }
+    
+    /**
+     * Gets the highest load of any minute in [from, to): the peak number of concurrent tasks
+     */
+    int max(int from, int to) {
+        return from < to ? max(1, 0, MINUTES, from, to) : 0;
+    }
+    
+    private int max(int node, int low, int high, int from, int to) {
+        if (from <= low && high <= to) {
+            return max[node];
+        }
+        int mid = (low + high) >>> 1;
+        int peak = Integer.MIN_VALUE;
+        if (from < mid) {
+            peak = max(2 * node, low, mid, from, to);
+        }
+        if (to > mid) {
+            peak = Math.max(peak, max(2 * node + 1, mid, high, from, to));
+        }
+        return peak + pending[node];
+    }
+    
+    void clear() {
+        Arrays.fill(sum, 0);
+        Arrays.fill(max, 0);
+        Arrays.fill(pending, 0);
+    }
+}
@@ -0,0 +1,168 @@
+package manager;
+
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Works out what merging a sorted plan into the schedule takes out and puts in
+ * sweep() drops repeated names and tasks that conflict with earlier ones in
+ * the plan, in one pass and without the lock. resolve() then settles
+ * conflicts with the schedule under the policy, filling removed and added;
+ * ScheduleManager checks budgets and dependencies and applies the result.
+ * Used once per merge.
+ */
+final class MergePlan {
+    private final List<Task> plan;
+    private final MergePolicy policy;
+    private final List<Task> incoming;
+    
+    // Results, read by ScheduleManager once resolve() has run
+    final List<Task> removed = new ArrayList<>();
+    final List<Task> added = new ArrayList<>();
+    final List<Task> skipped = new ArrayList<>();
+    final List<String> conflicts = new ArrayList<>();
+    int unchanged;
+    
+    MergePlan(List<Task> plan, MergePolicy policy) {
+        this.plan = plan;
+        this.policy = policy;
+        this.incoming = new ArrayList<>(plan.size());
+    }
+    
+    /**
+     * Keeps the first of each name and each task that does not overlap an
+     * earlier kept task on a shared resource; the last kept task per
+     * resource has the latest end on it
+     * @throws IllegalArgumentException if the plan holds a null or is not sorted by start time
+     */
+    void sweep() {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Task> lastByResource = new HashMap<>();
+        Task previous = null;
+        for (Task task : plan) {
+            if (task == null) {
+                throw new IllegalArgumentException("Plan cannot contain null tasks");
+            }
+            if (previous != null && task.getStartTime().isBefore(previous.getStartTime())) {
+                throw new IllegalArgumentException("Plan must be sorted by start time: '" + task.getName()
+                    + "' starts before '" + previous.getName() + "'");
+            }
+            previous = task;
+            if (!names.add(task.getName())) {
+                conflicts.add("Task '" + task.getName() + "' appears more than once in the plan; skipped");
+                skipped.add(task);
+                continue;
+            }
+            Task clash = null;
+            for (String resource : task.getResources()) {
+                Task last = lastByResource.get(resource);
+                if (last != null && last.getEndTime().isAfter(task.getStartTime())) {
+                    clash = last;
+                    break;
+                }
+            }
+            if (clash != null) {
+                conflicts.add(String.format("Incoming task '%s' (%s) conflicts with incoming task '%s' (%s); skipped",
+                    task.getName(), task.getFormattedTimeRange(), clash.getName(), clash.getFormattedTimeRange()));
+                skipped.add(task);
+                continue;
+            }
+            for (String resource : task.getResources()) {
+                lastByResource.put(resource, task);
+            }
+            incoming.add(task);
+        }
+    }
+    
+    /**
+     * Settles the swept tasks against the schedule
+     * Conflicts with existing tasks are index lookups, O(log n) per incoming
+     * task. A task the plan revises vacates its old slot for the rest of the
+     * plan; under KEEP_EXISTING a revision skipped because it overlaps a task
+     * that stays keeps its old slot, which can in turn block others. Caller
+     * holds the lock.
+     */
+    void resolve(TaskIndex tasks) {
+        Set<Task> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Task> changed = new ArrayList<>();
+        List<Task> currents = new ArrayList<>();
+        List<List<Task>> overlaps = new ArrayList<>();
+        Set<Task> moving = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task task : incoming) {
+            Task current = tasks.get(task.getName());
+            if (current != null && current.equals(task) && current.getResources().equals(task.getResources())) {
+                unchanged++;
+                continue;
+            }
+            List<Task> overlapping = tasks.findConflicts(task);
+            overlapping.removeIf(existing -> existing == current);
+            changed.add(task);
+            currents.add(current);
+            overlaps.add(overlapping);
+            if (current != null) {
+                moving.add(current);
+            }
+        }
+        if (policy == MergePolicy.KEEP_EXISTING) {
+            // A skipped revision keeps its old slot and may block others in turn; repeat until
+            // every remaining revision only overlaps tasks that move away
+            boolean[] refused = new boolean[changed.size()];
+            boolean settled;
+            do {
+                settled = true;
+                for (int i = 0; i < changed.size(); i++) {
+                    if (!refused[i] && !moving.containsAll(overlaps.get(i))) {
+                        refused[i] = true;
+                        moving.remove(currents.get(i));
+                        settled = false;
+                    }
+                }
+            } while (!settled);
+        }
+        
+        for (int i = 0; i < changed.size(); i++) {
+            Task task = changed.get(i);
+            Task current = currents.get(i);
+            List<Task> overlapping = overlaps.get(i);
+            overlapping.removeIf(moving::contains);
+            if (!overlapping.isEmpty()) {
+                String conflict = String.format("Incoming task '%s' (%s) conflicts with %s",
+                    task.getName(), task.getFormattedTimeRange(), describe(overlapping));
+                if (policy == MergePolicy.PREFER_INCOMING) {
+                    conflicts.add(conflict + "; replaced existing");
+                    for (Task existing : overlapping) {
+                        if (leaving.add(existing)) {
+                            removed.add(existing);
+                        }
+                    }
+                } else {
+                    conflicts.add(policy == MergePolicy.KEEP_EXISTING ? conflict + "; kept existing" : conflict);
+                    skipped.add(task);
+                    continue;
+                }
+            }
+            if (current != null && leaving.add(current)) {
+                removed.add(current);
+            }
+            added.add(task);
+        }
+        removed.sort(TaskIndex.START_ORDER);
+    }
+    
+    private static String describe(List<Task> overlapping) {
+        StringBuilder text = new StringBuilder();
+        for (Task task : overlapping) {
+            text.append(text.length() == 0 ? "" : ", ").append('\'').append(task.getName()).append("' (")
+                .append(task.getFormattedTimeRange()).append(')');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package manager;
+
+/**
+ * How ScheduleManager.merge() resolves an incoming task that conflicts with the schedule
+ */
+public enum MergePolicy {
+    /**
+     * Skip the incoming task and keep the tasks it overlaps
+     */
+    KEEP_EXISTING,
+    
+    /**
+     * Remove the existing tasks the incoming task overlaps
+     */
+    PREFER_INCOMING,
+    
+    /**
+     * Apply nothing if any incoming task conflicts
+     */
+    REJECT
+}
@@ -0,0 +1,356 @@
+package manager;
+
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Search index over task names: prefix, substring and edit-distance queries
+ * Names are folded to lower case and kept sorted, which answers prefix
+ * queries with one range scan and doubles as an implicit trie for fuzzy
+ * queries: a depth-first walk over shared prefixes carries one row of the
+ * edit-distance table per prefix and abandons a prefix as soon as every cell
+ * exceeds the allowed edits, so only names near the query are visited. Once
+ * the edits are used up, the walk seeks straight to the characters of the
+ * query instead of trying every next character.
+ * Substring queries use an index from each three-character sequence to the
+ * ids of the names containing it; the query's lists are intersected, starting
+ * from the shortest, and only ids found in all of them are verified.
+ * Removed ids stay in the lists until dead ids outnumber live ones, then the
+ * lists are rebuilt. Not thread-safe; ScheduleManager guards it with its lock.
+ */
+final class NameIndex {
+    private static final int GRAM = 3;
+    private static final int MIN_REBUILD = 1024;
+    
+    /**
+     * A task with its lower-case name and posting list id
+     */
+    private static final class Entry {
+        final String key;
+        final Task task;
+        final int id;
+        
+        Entry(String key, Task task, int id) {
+            this.key = key;
+            this.task = task;
+            this.id = id;
+        }
+    }
+    
+    /**
+     * Growable list of ids, ascending because ids are handed out in order
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+        
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+    
+    private final TreeMap<String, Entry> sorted = new TreeMap<>();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private Entry[] byId = new Entry[1024];
+    private int nextId;
+    private int dead;
+    
+    static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+    
+    void add(Task task) {
+        String key = fold(task.getName());
+        Entry entry = new Entry(key, task, nextId++);
+        sorted.put(key, entry);
+        index(entry);
+    }
+    
+    void remove(Task task) {
+        Entry entry = sorted.remove(fold(task.getName()));
+        if (entry == null) {
+            return;
+        }
+        byId[entry.id] = null;
+        dead++;
+        if (dead > MIN_REBUILD && dead > sorted.size()) {
+            rebuild();
+        }
+    }
+    
+    void clear() {
+        sorted.clear();
+        grams.clear();
+        byId = new Entry[1024];
+        nextId = 0;
+        dead = 0;
+    }
+    
+    /**
+     * Finds names starting with a prefix, in name order
+     */
+    List<Task> withPrefix(String prefix, int limit) {
+        String key = fold(prefix);
+        List<Task> result = new ArrayList<>();
+        for (Entry entry : sorted.tailMap(key, true).values()) {
+            if (result.size() == limit || !entry.key.startsWith(key)) {
+                break;
+            }
+            result.add(entry.task);
+        }
+        return result;
+    }
+    
+    /**
+     * Finds names containing a text: the first limit of them in name order
+     * Queries shorter than a trigram scan the names until the limit is reached.
+     * Longer ones verify every name listed under all of their trigrams; those
+     * come in insertion order, so a bounded heap keeps the limit smallest.
+     */
+    List<Task> containing(String text, int limit) {
+        String key = fold(text);
+        List<Entry> found = new ArrayList<>();
+        if (key.length() < GRAM) {
+            for (Entry entry : sorted.values()) {
+                if (found.size() == limit) {
+                    break;
+                }
+                if (entry.key.contains(key)) {
+                    found.add(entry);
+                }
+            }
+        } else {
+            Postings[] lists = new Postings[key.length() - GRAM + 1];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = grams.get(key.substring(i, i + GRAM));
+                if (lists[i] == null) {
+                    return new ArrayList<>();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+            Postings shortest = lists[0];
+            int[] cursors = new int[lists.length];
+            Comparator<Entry> byKey = Comparator.comparing(entry -> entry.key);
+            PriorityQueue<Entry> smallest = new PriorityQueue<>(
+                Math.min(limit, shortest.size) + 1, byKey.reversed());
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                // Every trigram must list the id; the lists ascend, so one cursor each suffices
+                for (int l = 1; l < lists.length; l++) {
+                    Postings other = lists[l];
+                    int cursor = cursors[l];
+                    while (cursor < other.size && other.ids[cursor] < id) {
+                        cursor++;
+                    }
+                    cursors[l] = cursor;
+                    if (cursor == other.size) {
+                        break candidates;
+                    }
+                    if (other.ids[cursor] != id) {
+                        continue candidates;
+                    }
+                }
+                Entry entry = byId[id];
+                if (entry != null && entry.key.contains(key)) {
+                    smallest.add(entry);
+                    if (smallest.size() > limit) {
+                        smallest.poll();
+                    }
+                }
+            }
+            found.addAll(smallest);
+            found.sort(byKey);
+        }
+        List<Task> result = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            result.add(entry.task);
+        }
+        return result;
+    }
+    
+    /**
+     * Finds names within maxEdits typing errors of a name: insertions,
+     * deletions, substitutions and swaps of adjacent characters
+     * The walk runs with 0, 1, ... allowed edits and stops as soon as it has
+     * limit matches, so a well-populated neighbourhood never pays for the
+     * wider search.
+     * @return Matches ordered by edit distance, then by name
+     */
+    List<Task> similar(String name, int maxEdits, int limit) {
+        FuzzySearch search = new FuzzySearch(fold(name));
+        for (int edits = 0; edits <= maxEdits && search.found.size() < limit; edits++) {
+            search.run(edits);
+        }
+        
+        List<Entry> found = search.found;
+        Integer[] order = new Integer[found.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> search.distances[i])
+            .thenComparing(i -> found.get(i).key));
+        List<Task> result = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && result.size() < limit; i++) {
+            result.add(found.get(order[i]).task);
+        }
+        return result;
+    }
+    
+    /**
+     * One fuzzy query: the query, its distinct characters and a distance row
+     * per depth of the walk, reused across siblings
+     */
+    private final class FuzzySearch {
+        final String query;
+        final char[] distinct;
+        final List<int[]> rows = new ArrayList<>();
+        final List<Entry> found = new ArrayList<>();
+        int[] distances = new int[16];
+        int maxEdits;
+        
+        FuzzySearch(String query) {
+            this.query = query;
+            char[] chars = query.toCharArray();
+            Arrays.sort(chars);
+            int count = 0;
+            for (int i = 0; i < chars.length; i++) {
+                if (i == 0 || chars[i] != chars[i - 1]) {
+                    chars[count++] = chars[i];
+                }
+            }
+            this.distinct = Arrays.copyOf(chars, count);
+            int[] root = row(0);
+            for (int i = 0; i < root.length; i++) {
+                root[i] = i;
+            }
+        }
+        
+        void run(int edits) {
+            maxEdits = edits;
+            found.clear();
+            walk(0, "", sorted.firstEntry(), (char) 0);
+        }
+        
+        /**
+         * Visits every name starting with prefix; rows[depth] holds the
+         * distances between prefix and each prefix of the query
+         * @param first First name at or after prefix
+         * @param last Last character of prefix
+         */
+        private void walk(int depth, String prefix, Map.Entry<String, Entry> first, char last) {
+            int[] row = rows.get(depth);
+            int[] above = depth > 0 ? rows.get(depth - 1) : null;
+            Map.Entry<String, Entry> next = first;
+            if (next != null && next.getKey().equals(prefix)) {
+                if (row[query.length()] <= maxEdits) {
+                    if (found.size() == distances.length) {
+                        distances = Arrays.copyOf(distances, distances.length * 2);
+                    }
+                    distances[found.size()] = row[query.length()];
+                    found.add(next.getValue());
+                }
+                next = sorted.higherEntry(prefix);
+            }
+            if (next == null || !next.getKey().startsWith(prefix)) {
+                return;
+            }
+            
+            // A swap completed further down also leaves a cell of this row within
+            // maxEdits, so pruning on a row's best cell is exact
+            int[] child = row(depth + 1);
+            if (fill(child, above, row, last, (char) 0, false) > maxEdits) {
+                // Only characters of the query can extend this prefix: seek to each directly
+                for (char c : distinct) {
+                    if (fill(child, above, row, last, c, true) <= maxEdits) {
+                        String childPrefix = prefix + c;
+                        Map.Entry<String, Entry> entry = sorted.ceilingEntry(childPrefix);
+                        if (entry != null && entry.getKey().startsWith(childPrefix)) {
+                            walk(depth + 1, childPrefix, entry, c);
+                        }
+                    }
+                }
+                return;
+            }
+            
+            // Any character may do: visit each child, seeking past the previous one
+            while (next != null && next.getKey().startsWith(prefix)) {
+                char c = next.getKey().charAt(prefix.length());
+                if (fill(child, above, row, last, c, true) <= maxEdits) {
+                    walk(depth + 1, prefix + c, next, c);
+                }
+                if (c == Character.MAX_VALUE) {
+                    break;
+                }
+                next = sorted.ceilingEntry(prefix + (char) (c + 1));
+            }
+        }
+        
+        /**
+         * Computes the distance row of prefix + c from the rows of prefix and its parent
+         * @param matches false for a character that occurs nowhere in the query
+         * @return The smallest distance in the row
+         */
+        private int fill(int[] child, int[] above, int[] row, char last, char c, boolean matches) {
+            child[0] = row[0] + 1;
+            int best = child[0];
+            for (int i = 1; i < row.length; i++) {
+                boolean same = matches && query.charAt(i - 1) == c;
+                int distance = Math.min(row[i - 1] + (same ? 0 : 1), Math.min(row[i] + 1, child[i - 1] + 1));
+                if (matches && above != null && i > 1 && c == query.charAt(i - 2) && last == query.charAt(i - 1)) {
+                    distance = Math.min(distance, above[i - 2] + 1);
+                }
+                child[i] = distance;
+                best = Math.min(best, distance);
+            }
+            return best;
+        }
+        
+        private int[] row(int depth) {
+            while (rows.size() <= depth) {
+                rows.add(new int[query.length() + 1]);
+            }
+            return rows.get(depth);
+        }
+    }
+    
+    private void index(Entry entry) {
+        if (entry.id == byId.length) {
+            byId = Arrays.copyOf(byId, byId.length * 2);
+        }
+        byId[entry.id] = entry;
+        String key = entry.key;
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            String gram = key.substring(i, i + GRAM);
+            // A trigram that repeats in the name is listed once
+            if (key.indexOf(gram) == i) {
+                grams.computeIfAbsent(gram, g -> new Postings()).add(entry.id);
+            }
+        }
+    }
+    
+    /**
+     * Renumbers the live names and rebuilds the posting lists without dead ids
+     */
+    private void rebuild() {
+        List<Entry> live = new ArrayList<>(sorted.values());
+        clear();
+        for (Entry entry : live) {
+            Entry renumbered = new Entry(entry.key, entry.task, nextId++);
+            sorted.put(renumbered.key, renumbered);
+            index(renumbered);
+        }
+    }
+}
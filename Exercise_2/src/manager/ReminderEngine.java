@@ -0,0 +1,257 @@
+package manager;
+
+import model.Task;
+import model.TaskReminder;
+import util.Logger;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Fires task reminders from one thread: leadMinutes before a task starts,
+ * when it starts and when it ends
+ * Each task has exactly one pending timer, for its next event; when it
+ * fires, the same timer is re-armed for the event after it, and after the
+ * end for the next day's reminder, since the schedule is a daily one.
+ * Timers live in a TimingWheel of tickMillis ticks, so adding, removing or
+ * moving a task costs O(1) plus a hash lookup, and a pending task
+ * costs one small object, however many there are. A reminder is delivered
+ * at most one tick after it is due plus the time earlier observers took.
+ * After a stall (or a clock jump) only the events that fell due are fired;
+ * the timers are re-armed from the current time, not replayed.
+ *
+ * Time comes from an injectable Clock, and runDue() fires whatever is due
+ * without the thread, so tests can drive the engine with a fixed clock.
+ * Thread-safe.
+ */
+final class ReminderEngine {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    
+    /**
+     * The pending timer of one task
+     */
+    private static final class Reminder extends TimingWheel.Timer {
+        final Task task;
+        TaskReminder.Kind kind;
+        long dueMillis;
+        
+        Reminder(Task task) {
+            this.task = task;
+        }
+    }
+    
+    private final Clock clock;
+    private final ZoneId zone;
+    private final long tickMillis;
+    private final long leadMinutes;
+    private final Consumer<TaskReminder> sink;
+    private final Logger logger;
+    
+    // Guarded by this
+    private final TimingWheel wheel;
+    // Keyed by the task itself (equal by name and times), so a replica's copy finds the timer too
+    private final Map<Task, Reminder> byTask = new HashMap<>();
+    
+    // Local midnights starting with the day of the last armed timer (guarded by this)
+    private LocalDate cachedDay;
+    private final long[] midnights = new long[3];
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    /**
+     * @param clock Source of the current time and of the schedule's time zone
+     * @param tickMillis Wheel resolution; the most a reminder can be late
+     * @param leadMinutes How long before a start the UPCOMING reminder fires; 0 for none
+     * @param sink Receives due reminders on the engine thread, outside the engine's lock
+     */
+    ReminderEngine(Clock clock, long tickMillis, long leadMinutes, Consumer<TaskReminder> sink) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        if (leadMinutes < 0 || leadMinutes >= 24 * 60) {
+            throw new IllegalArgumentException("Lead time must be between 0 and 1439 minutes: " + leadMinutes);
+        }
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.tickMillis = tickMillis;
+        this.leadMinutes = leadMinutes;
+        this.sink = sink;
+        this.logger = Logger.getInstance();
+        this.wheel = new TimingWheel(clock.millis() / tickMillis);
+    }
+    
+    /**
+     * Arms the reminders of an added task
+     */
+    synchronized void schedule(Task task) {
+        Reminder reminder = new Reminder(task);
+        Reminder previous = byTask.put(task, reminder);
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+        arm(reminder, clock.millis());
+    }
+    
+    /**
+     * Disarms the reminders of a removed task
+     */
+    synchronized void cancel(Task task) {
+        Reminder reminder = byTask.remove(task);
+        if (reminder != null) {
+            wheel.cancel(reminder);
+        }
+    }
+    
+    /**
+     * Replaces all timers with those of a new set of tasks
+     */
+    synchronized void reset(Collection<Task> tasks) {
+        wheel.clear();
+        byTask.clear();
+        long now = clock.millis();
+        for (Task task : tasks) {
+            Reminder reminder = new Reminder(task);
+            byTask.put(task, reminder);
+            arm(reminder, now);
+        }
+    }
+    
+    /**
+     * Gets the number of tasks with a pending reminder
+     */
+    synchronized int size() {
+        return wheel.size();
+    }
+    
+    /**
+     * Fires every reminder due by the clock's current time and re-arms their timers
+     * @return Number of reminders delivered
+     */
+    int runDue() {
+        List<TaskReminder> due = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            List<Reminder> expired = new ArrayList<>();
+            wheel.advance(now / tickMillis, timer -> expired.add((Reminder) timer));
+            for (Reminder reminder : expired) {
+                due.add(new TaskReminder(reminder.kind, reminder.task, reminder.dueMillis, leadMinutes));
+                arm(reminder, Math.max(reminder.dueMillis, now));
+            }
+        }
+        for (TaskReminder reminder : due) {
+            try {
+                sink.accept(reminder);
+            } catch (RuntimeException e) {
+                logger.logError("Failed to deliver reminder: " + reminder, e);
+            }
+        }
+        return due.size();
+    }
+    
+    /**
+     * Starts the engine thread, which wakes at every tick boundary
+     */
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "schedule-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stops the engine thread; pending timers are kept
+     */
+    void stop() {
+        Thread stopping;
+        synchronized (this) {
+            running = false;
+            stopping = thread;
+            thread = null;
+        }
+        if (stopping != null) {
+            stopping.interrupt();
+            try {
+                stopping.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                runDue();
+                Thread.sleep(tickMillis - Math.floorMod(clock.millis(), tickMillis));
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.logError("Reminder engine failed to advance", e);
+            }
+        }
+    }
+    
+    /**
+     * Points a task's timer at its first event strictly after a time
+     */
+    private void arm(Reminder reminder, long afterMillis) {
+        Task task = reminder.task;
+        long leadMillis = leadMinutes * 60_000;
+        if (cachedDay == null || afterMillis < midnights[0] || afterMillis >= midnights[1]) {
+            cacheMidnights(Instant.ofEpochMilli(afterMillis).atZone(zone).toLocalDate());
+        }
+        reminder.dueMillis = Long.MAX_VALUE;
+        // Yesterday's events are over and later days' all come after tomorrow's start
+        for (int offset = 0; offset < 2; offset++) {
+            long start = epochMillis(offset, task.getStartTime().toNanoOfDay());
+            if (leadMillis > 0) {
+                consider(reminder, TaskReminder.Kind.UPCOMING, start - leadMillis, afterMillis);
+            }
+            consider(reminder, TaskReminder.Kind.STARTED, start, afterMillis);
+            consider(reminder, TaskReminder.Kind.ENDED, epochMillis(offset, task.getEndTime().toNanoOfDay()),
+                afterMillis);
+        }
+        // Ceiling, so a reminder never fires before it is due
+        wheel.schedule(reminder, Math.floorDiv(reminder.dueMillis + tickMillis - 1, tickMillis));
+    }
+    
+    private static void consider(Reminder reminder, TaskReminder.Kind kind, long dueMillis, long afterMillis) {
+        if (dueMillis > afterMillis && dueMillis < reminder.dueMillis) {
+            reminder.kind = kind;
+            reminder.dueMillis = dueMillis;
+        }
+    }
+    
+    private void cacheMidnights(LocalDate day) {
+        cachedDay = day;
+        for (int i = 0; i < midnights.length; i++) {
+            midnights[i] = day.plusDays(i).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+    
+    /**
+     * Converts a time of day on the cached day or the one after to epoch milliseconds
+     * Offsets from the cached midnight on ordinary days; days with a daylight
+     * saving shift go through the time zone rules.
+     */
+    private long epochMillis(int dayOffset, long nanoOfDay) {
+        long midnight = midnights[dayOffset];
+        if (midnights[dayOffset + 1] - midnight == DAY_MILLIS) {
+            return midnight + nanoOfDay / 1_000_000;
+        }
+        return cachedDay.plusDays(dayOffset).atStartOfDay().plusNanos(nanoOfDay).atZone(zone)
+            .toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,62 @@
+package manager;
+
+import model.Dependency;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+
+/**
+ * Applies a leader's snapshots and changes to the task index and dependency graph
+ * Nothing is checked: the leader already made the conflict, budget and
+ * dependency checks, and the dependencies it handed on arrive as LINKED and
+ * UNLINKED changes of their own, so a replica never derives anything itself.
+ * Reminders, the version and the change log stay with ScheduleManager. Not
+ * thread-safe; ScheduleManager calls it under its write lock.
+ */
+final class ReplicaApplier {
+    private final TaskIndex tasks;
+    private final DependencyGraph dependencies;
+    
+    ReplicaApplier(TaskIndex tasks, DependencyGraph dependencies) {
+        this.tasks = tasks;
+        this.dependencies = dependencies;
+    }
+    
+    /**
+     * Replaces the tasks and dependencies with a snapshot's
+     */
+    void install(ScheduleSnapshot snapshot) {
+        tasks.reset(snapshot.getTasks());
+        dependencies.clear();
+        for (Dependency dependency : snapshot.getDependencies()) {
+            dependencies.add(dependency.getBefore(), dependency.getAfter());
+        }
+    }
+    
+    /**
+     * Applies one change, which must directly follow the last one applied
+     * @param version Sequence number of the last change applied
+     * @throws IllegalStateException on a gap in the sequence, or for a RESET
+     */
+    void apply(ScheduleChange change, long version) {
+        if (change.getSequence() != version + 1) {
+            throw new IllegalStateException("Replication gap: expected #" + (version + 1)
+                + " but got " + change);
+        }
+        switch (change.getKind()) {
+            case ADDED:
+                tasks.add(change.getTask());
+                break;
+            case REMOVED:
+                tasks.remove(change.getTask());
+                break;
+            case LINKED:
+                dependencies.add(change.getDependency().getBefore(), change.getDependency().getAfter());
+                break;
+            case UNLINKED:
+                dependencies.remove(change.getDependency().getBefore(), change.getDependency().getAfter());
+                break;
+            default:
+                throw new IllegalStateException("Cannot apply " + change + " incrementally");
+        }
+    }
+}
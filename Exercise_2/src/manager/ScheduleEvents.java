@@ -0,0 +1,165 @@
+package manager;
+
+import model.Task;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import java.util.function.IntSupplier;
+
+/**
+ * Java Flight Recorder event types for ScheduleManager hot paths
+ * The begin helpers check the EventType's isEnabled() before creating an
+ * event, so nothing is allocated when no recording is running.
+ */
+final class ScheduleEvents {
+    
+    @Name("astronaut.schedule.AddTask")
+    @Label("Add Task")
+    @Category({"Astronaut Schedule"})
+    @Description("ScheduleManager.addTask including conflict check and insert")
+    static final class AddTask extends Event {
+        @Label("Task Name")
+        String taskName;
+        
+        @Label("Task Type")
+        String taskType;
+        
+        @Label("Task Count")
+        @Description("Number of tasks in the schedule after the operation")
+        int taskCount;
+        
+        @Label("Added")
+        boolean added;
+    }
+    
+    @Name("astronaut.schedule.RemoveTask")
+    @Label("Remove Task")
+    @Category({"Astronaut Schedule"})
+    @Description("ScheduleManager.removeTask lookup and removal")
+    static final class RemoveTask extends Event {
+        @Label("Task Name")
+        String taskName;
+        
+        @Label("Task Count")
+        @Description("Number of tasks in the schedule after the operation")
+        int taskCount;
+        
+        @Label("Removed")
+        boolean removed;
+    }
+    
+    @Name("astronaut.schedule.ConflictCheck")
+    @Label("Conflict Check")
+    @Category({"Astronaut Schedule"})
+    @Description("Index lookup for a task overlapping a new or moved task")
+    static final class ConflictCheck extends Event {
+        @Label("Task Name")
+        String taskName;
+        
+        @Label("Task Count")
+        @Description("Number of tasks in the schedule")
+        int taskCount;
+        
+        @Label("Conflict Found")
+        boolean conflictFound;
+    }
+    
+    static final EventType ADD_TASK = EventType.getEventType(AddTask.class);
+    static final EventType REMOVE_TASK = EventType.getEventType(RemoveTask.class);
+    static final EventType CONFLICT_CHECK = EventType.getEventType(ConflictCheck.class);
+    
+    private ScheduleEvents() {
+        // Holder for event types only
+    }
+    
+    /**
+     * Starts an add event if recording is enabled
+     * @param task The task being added, may be null
+     * @return Started event, or null when the event type is disabled
+     */
+    static AddTask beginAddTask(Task task) {
+        if (!ADD_TASK.isEnabled()) {
+            return null;
+        }
+        AddTask event = new AddTask();
+        event.taskName = task != null ? task.getName() : null;
+        event.taskType = task != null ? task.getTaskType() : null;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Commits an add event started by beginAddTask
+     * @param event The event, may be null
+     * @param taskCount Reads the task count; only called when there is an event
+     * @param added Whether the task was added
+     */
+    static void endAddTask(AddTask event, IntSupplier taskCount, boolean added) {
+        if (event != null) {
+            event.taskCount = taskCount.getAsInt();
+            event.added = added;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Starts a remove event if recording is enabled
+     * @param taskName Name passed to removeTask
+     * @return Started event, or null when the event type is disabled
+     */
+    static RemoveTask beginRemoveTask(String taskName) {
+        if (!REMOVE_TASK.isEnabled()) {
+            return null;
+        }
+        RemoveTask event = new RemoveTask();
+        event.taskName = taskName;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Commits a remove event started by beginRemoveTask
+     * @param event The event, may be null
+     * @param taskCount Reads the task count; only called when there is an event
+     * @param removed Whether a task was removed
+     */
+    static void endRemoveTask(RemoveTask event, IntSupplier taskCount, boolean removed) {
+        if (event != null) {
+            event.taskCount = taskCount.getAsInt();
+            event.removed = removed;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Starts a conflict check event if recording is enabled
+     * @param task The task being checked
+     * @return Started event, or null when the event type is disabled
+     */
+    static ConflictCheck beginConflictCheck(Task task) {
+        if (!CONFLICT_CHECK.isEnabled()) {
+            return null;
+        }
+        ConflictCheck event = new ConflictCheck();
+        event.taskName = task.getName();
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Commits a conflict check event started by beginConflictCheck
+     * @param event The event, may be null
+     * @param taskCount Number of tasks in the schedule
+     * @param conflictFound Whether a conflicting task was found
+     */
+    static void endConflictCheck(ConflictCheck event, int taskCount, boolean conflictFound) {
+        if (event != null) {
+            event.taskCount = taskCount;
+            event.conflictFound = conflictFound;
+            event.commit();
+        }
+    }
+}
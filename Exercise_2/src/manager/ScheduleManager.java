@@ -1,281 +1,2009 @@
 package manager;
 
+import model.Dependency;
+import model.MergeReport;
+import model.ScheduleChange;
+import model.ScheduleLoad;
+import model.ScheduleSnapshot;
 import model.Task;
+import model.TaskReminder;
+import model.TypeSummary;
 import observer.ConflictObserver;
+import observer.ReminderObserver;
+import observer.ScheduleChangeListener;
+import util.FlightRecorder;
+import util.LogThrottle;
 import util.Logger;
+import exception.ChangeLogTruncatedException;
+import exception.ConflictException;
+import exception.DuplicateTaskException;
+import exception.ReadOnlyScheduleException;
 import exception.TaskException;
+import exception.TaskNotFoundException;
+import exception.TransactionException;
+import factory.TaskFactory;
+import metrics.ScheduleMetrics;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * ScheduleManager class implementing Singleton pattern
  * Manages astronaut daily schedule with conflict detection
+ * Thread-safe: mutations take a write lock, lookups a read lock, and conflict
+ * observers are notified after the lock is released.
+ *
+ * Tasks are kept in a TaskIndex with one timeline per claimed resource (see
+ * Task.getResources()) and a name index. A conflict check only consults the
+ * timelines of the resources a task claims, so conflict checks, adds,
+ * removes, moves and name lookups are O(log n) per claimed resource. Task
+ * names are unique (case-insensitive). The index also maintains a segment
+ * tree of per-minute load, so getLoad() answers any window in O(log minutes),
+ * and a name search index for prefix, substring and fuzzy lookups.
+ *
+ * Per-type counts and total minutes are kept up to date on every mutation,
+ * and optional per-type time budgets (-Dschedule.budget.<type>.min/.max in
+ * minutes, or setBudget()) are checked against them in O(1) per task an edit
+ * touches. Changes applied from a replication leader are not checked.
+ *
+ * The live schedule is the working day. archiveDay() stores a copy of it as
+ * the read-only record of a date in a compressed segment file
+ * (-Dschedule.archive.dir, default archive), and archived days are paged
+ * back in when queried, keeping at most -Dschedule.archive.cacheDays
+ * (default 7) of them in memory.
+ *
+ * Reminder observers are told when a task is about to start
+ * (-Dschedule.reminder.leadMinutes before, default 5), starts and ends. The
+ * reminder engine starts with the first reminder observer: one thread and a
+ * hierarchical timing wheel (-Dschedule.reminder.tickMillis, default 1000),
+ * with one timer per task re-armed as changes are logged.
+ *
+ * Dependencies make a task wait for others to end before it starts. Moving,
+ * resizing or constraining a task shifts the tasks downstream of it later,
+ * keeping their durations, as one edit. Only the dependents of the task and
+ * of the tasks that actually shift are looked at, so a move costs
+ * O(log n) per shifted task however long the chains behind it. Adds,
+ * transactions, merges and undo/redo are rejected if they would break a
+ * dependency, and any of them that takes a task out hands its dependencies
+ * on. Each dependency added or dropped, handed on ones included, is logged
+ * as a LINKED or UNLINKED change and snapshots carry the dependencies, so
+ * followers keep them; they are not archived.
+ *
+ * Local edits are recorded in a bounded undo/redo history
+ * (-Dschedule.history.capacity, default 1000) that keeps only the tasks each
+ * edit took out and put in.
+ *
+ * Every successful mutation is also appended to a bounded change log
+ * (-Dschedule.changeLog.capacity, default 65536) with a sequence number equal
+ * to the new version, which followers read with readChanges() or subscribe().
  */
 public class ScheduleManager {
-    // Static instance variable
-    private static ScheduleManager instance;
+    /**
+     * Largest edit distance findTasksSimilar accepts; more would match most short names
+     */
+    public static final int MAX_SEARCH_EDITS = 2;
+    
+    // Lazy holder, initialized by the JVM on the first getInstance() call
+    private static final class Holder {
+        static final ScheduleManager INSTANCE = new ScheduleManager();
+    }
     
     // Task storage and observers
-    private final List<Task> tasks;
+    private final TaskIndex tasks;
     private final List<ConflictObserver> observers;
     private final Logger logger;
+    private final LogThrottle displayLog;
+    private final FlightRecorder recorder;
+    private final ScheduleMetrics metrics;
+    private final TaskFactory taskFactory;
+    
+    // Guards tasks, version and appends to the change log; observers are notified outside the lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChangeLog changeLog;
+    
+    // Undo/redo stacks, guarded by the write lock
+    private final EditHistory history;
+    
+    // Per-type minute budgets, guarded by the lock
+    private final TimeBudgets budgets;
+    
+    // Compressed past days, paged in on demand; has its own lock
+    private final DayArchive archive;
+    
+    // Reminder timers kept in step with the tasks while anyone observes them (guarded by the lock)
+    private final List<ReminderObserver> reminderObservers = new CopyOnWriteArrayList<>();
+    private ReminderEngine reminders;
+    
+    // Precedence constraints between task names and the checks and shifts that keep them, guarded by the lock
+    private final DependencyGraph dependencies = new DependencyGraph();
+    private final DependencyRules rules;
+    
+    // Applies a leader's snapshots and changes when this schedule is a replica, under the write lock
+    private final ReplicaApplier replica;
+    
+    // Sequence number of the last change (HTTP ETags, change feed)
+    private volatile long version;
+    
+    // Set by a replication leader in acknowledged mode; awaited after the write lock is released
+    private volatile CommitBarrier commitBarrier;
+    
+    // Replicas reject local mutations and only apply the leader's changes
+    private volatile boolean readOnly;
     
     // Private constructor prevents external instantiation
     private ScheduleManager() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskIndex();
         this.observers = new CopyOnWriteArrayList<>(); // Thread-safe for concurrent access
         this.logger = Logger.getInstance();
+        this.displayLog = logger.throttle("schedule.display", 5, 1000);
+        this.recorder = FlightRecorder.getInstance();
+        this.metrics = ScheduleMetrics.getInstance();
+        this.taskFactory = new TaskFactory();
+        this.rules = new DependencyRules(tasks, dependencies, taskFactory);
+        this.replica = new ReplicaApplier(tasks, dependencies);
+        this.changeLog = new ChangeLog(Integer.getInteger("schedule.changeLog.capacity", 65536));
+        this.history = new EditHistory(Integer.getInteger("schedule.history.capacity", 1000));
+        this.budgets = new TimeBudgets();
+        for (TaskFactory.TaskType type : TypeTotals.TYPES) {
+            String prefix = "schedule.budget." + type.name().toLowerCase(Locale.ROOT);
+            budgets.set(type.ordinal(), Long.getLong(prefix + ".min", TimeBudgets.NONE),
+                Long.getLong(prefix + ".max", TimeBudgets.NONE));
+        }
+        this.archive = new DayArchive(Paths.get(System.getProperty("schedule.archive.dir", "archive")),
+            Integer.getInteger("schedule.archive.cacheDays", 7), taskFactory);
         
         logger.logMessage("ScheduleManager instance created");
+        initializeMetrics();
     }
     
     /**
-     * Thread-safe getInstance method using synchronized block
+     * Thread-safe, lock-free getInstance using the initialization-on-demand holder idiom
      * @return Single instance of ScheduleManager
      */
     public static ScheduleManager getInstance() {
-        if (instance == null) {
-            synchronized (ScheduleManager.class) {
-                if (instance == null) {
-                    instance = new ScheduleManager();
-                }
-            }
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Binds the task gauge, registers the JMX MBean and starts the optional
+     * periodic dump (-Dmetrics.dumpSeconds=N)
+     */
+    private void initializeMetrics() {
+        metrics.bindTaskCount(this::getTaskCount);
+        try {
+            metrics.registerMBean();
+        } catch (Exception e) {
+            logger.logError("Failed to register schedule metrics MBean", e);
+        }
+        
+        long dumpSeconds = Long.getLong("metrics.dumpSeconds", 0);
+        if (dumpSeconds > 0) {
+            metrics.startPeriodicDump(dumpSeconds, logger::logMessage);
         }
-        return instance;
     }
     
     /**
      * Adds a task to the schedule after checking for conflicts
      * @param task The task to add
+     * @throws ConflictException if the task overlaps a scheduled task
+     * @throws DuplicateTaskException if a task with the same name is scheduled
+     * @throws TransactionException if the task would break a time budget or a dependency
+     * @throws ReadOnlyScheduleException if the schedule is a read-only replica
      * @throws TaskException if task addition fails
      */
     public void addTask(Task task) throws TaskException {
+        ScheduleEvents.AddTask event = ScheduleEvents.beginAddTask(task);
+        boolean added = false;
+        
         try {
             if (task == null) {
                 throw new IllegalArgumentException("Task cannot be null");
             }
+            metrics.recordAddAttempt();
+            checkWritable();
             
             logger.logMessage("Attempting to add task: " + task.getName());
             
-            // Check for time conflicts
-            Task conflictingTask = findConflictingTask(task);
+            // Check for duplicate names and time conflicts and insert atomically
+            Task conflictingTask;
+            int taskCount;
+            long sequence;
+            lock.writeLock().lock();
+            try {
+                if (tasks.get(task.getName()) != null) {
+                    throw new DuplicateTaskException("A task with this name already exists: " + task.getName());
+                }
+                conflictingTask = findConflict(task, null);
+                if (conflictingTask == null) {
+                    List<String> problems = new ArrayList<>();
+                    String overBudget = budgets.check(tasks.totals(), Collections.emptyList(),
+                        Collections.singletonList(task));
+                    if (overBudget != null) {
+                        problems.add(overBudget);
+                    } else {
+                        rules.check(Collections.emptyList(), Collections.singletonList(task), problems);
+                    }
+                    if (!problems.isEmpty()) {
+                        throw new TransactionException("Cannot add '" + task.getName() + "': "
+                            + String.join("; ", problems), false, problems);
+                    }
+                    tasks.add(task);
+                    logChange(ScheduleChange.Kind.ADDED, task);
+                    history.record("add " + task.getName(), Collections.emptyList(),
+                        Collections.singletonList(task));
+                }
+                taskCount = tasks.size();
+                sequence = version;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
             if (conflictingTask != null) {
                 String conflictMessage = String.format(
                     "Task '%s' (%s) conflicts with existing task '%s' (%s)",
                     task.getName(), task.getFormattedTimeRange(),
                     conflictingTask.getName(), conflictingTask.getFormattedTimeRange()
                 );
+                metrics.recordConflict();
+                recorder.record(FlightRecorder.EventType.CONFLICT, task.getName(),
+                    task.getStartTime(), task.getEndTime(), taskCount);
                 
                 // Notify observers about the conflict
                 notifyObservers(conflictMessage);
                 
-                throw new TaskException("Schedule conflict detected: " + conflictMessage);
+                throw new ConflictException("Schedule conflict detected: " + conflictMessage,
+                    conflictingTask.getName());
             }
             
-            // No conflict, add the task
-            tasks.add(task);
-            
-            // Sort tasks by start time for better organization
-            tasks.sort(Comparator.comparing(Task::getStartTime));
+            awaitCommit(sequence);
+            recorder.record(FlightRecorder.EventType.TASK_ADDED, task.getName(),
+                task.getStartTime(), task.getEndTime(), taskCount);
+            added = true;
+            metrics.recordAdd();
             
             logger.logMessage("Task added successfully: " + task.getName() + 
-                " (Total tasks: " + tasks.size() + ")");
+                " (Total tasks: " + taskCount + ")");
             
         } catch (TaskException e) {
             throw e; // Re-throw task exceptions
         } catch (Exception e) {
             logger.logError("Failed to add task", e);
             throw new TaskException("Failed to add task: " + task.getName(), e);
+        } finally {
+            ScheduleEvents.endAddTask(event, this::getTaskCount, added);
         }
     }
     
     /**
      * Removes a task from the schedule by name
+     * Its dependencies are handed on: every task it had to wait for now comes
+     * before every task that waited for it. Transactions, merges and undo hand
+     * on the dependencies of the tasks they take out the same way. Undoing the
+     * removal brings the task back without them.
      * @param taskName The name of the task to remove
+     * @throws TaskNotFoundException if no task has that name
+     * @throws TransactionException if the removal would undercut a time budget
      * @throws TaskException if task removal fails
      */
     public void removeTask(String taskName) throws TaskException {
+        ScheduleEvents.RemoveTask event = ScheduleEvents.beginRemoveTask(taskName);
+        boolean removed = false;
+        
         try {
             if (taskName == null || taskName.trim().isEmpty()) {
                 throw new IllegalArgumentException("Task name cannot be null or empty");
             }
             
+            checkWritable();
             logger.logMessage("Attempting to remove task: " + taskName);
             
             // Find and remove the task
-            boolean removed = tasks.removeIf(task -> task.getName().equalsIgnoreCase(taskName.trim()));
+            long sequence;
+            lock.writeLock().lock();
+            try {
+                Task task = tasks.get(taskName.trim());
+                if (task != null) {
+                    String underBudget = budgets.check(tasks.totals(), Collections.singletonList(task),
+                        Collections.emptyList());
+                    if (underBudget != null) {
+                        throw new TransactionException("Cannot remove '" + task.getName() + "': " + underBudget,
+                            false, Collections.singletonList(underBudget));
+                    }
+                    tasks.remove(task);
+                    handOnDependencies(Collections.singletonList(task), Collections.emptyList());
+                    removed = true;
+                    logChange(ScheduleChange.Kind.REMOVED, task);
+                    history.record("remove " + task.getName(), Collections.singletonList(task),
+                        Collections.emptyList());
+                    recorder.record(FlightRecorder.EventType.TASK_REMOVED, task.getName(),
+                        task.getStartTime(), task.getEndTime(), tasks.size());
+                }
+                sequence = version;
+            } finally {
+                lock.writeLock().unlock();
+            }
             
+            metrics.recordRemove(removed);
             if (!removed) {
-                throw new TaskException("Task not found: " + taskName);
+                throw new TaskNotFoundException("Task not found: " + taskName);
             }
+            awaitCommit(sequence);
             
             logger.logMessage("Task removed successfully: " + taskName + 
-                " (Remaining tasks: " + tasks.size() + ")");
+                " (Remaining tasks: " + getTaskCount() + ")");
             
         } catch (TaskException e) {
             throw e; // Re-throw task exceptions
         } catch (Exception e) {
             logger.logError("Failed to remove task", e);
             throw new TaskException("Failed to remove task: " + taskName, e);
+        } finally {
+            ScheduleEvents.endRemoveTask(event, this::getTaskCount, removed);
         }
     }
     
     /**
-     * Displays all tasks in the schedule
+     * Moves a task to a new time slot in place
+     * The slot is checked against every other task, so a task may move into
+     * time it already occupies, and on a conflict it stays where it was. The
+     * index is updated in O(log n); the change is logged as REMOVED then ADDED.
+     * The task may not start before a task it depends on ends, and tasks that
+     * depend on it are shifted later as needed (see addDependency()); then
+     * the move and the shifts are applied, logged and undone together.
+     * @param taskName Name of the task to move (case-insensitive)
+     * @param newStart New start time
+     * @param newEnd New end time
+     * @return The rescheduled task
+     * @throws ConflictException if the new slot overlaps another task
+     * @throws TaskNotFoundException if no task has that name
+     * @throws TransactionException if the move would break a time budget or a dependency,
+     *         or a shifted dependent would overlap another task
+     * @throws TaskException if the times are invalid or the schedule is read-only
      */
-    public void viewTasks() {
+    public Task moveTask(String taskName, LocalTime newStart, LocalTime newEnd) throws TaskException {
+        if (newStart == null) {
+            throw new IllegalArgumentException("Start time cannot be null");
+        }
+        return reschedule(taskName, newStart, newEnd);
+    }
+    
+    /**
+     * Changes a task's end time and keeps its start (see moveTask)
+     * @param taskName Name of the task to resize (case-insensitive)
+     * @param newEnd New end time
+     * @return The resized task
+     * @throws ConflictException if the new slot overlaps another task
+     * @throws TaskNotFoundException if no task has that name
+     * @throws TransactionException if the change would break a time budget or a dependency
+     * @throws TaskException if the end is not after the start or the schedule is read-only
+     */
+    public Task resizeTask(String taskName, LocalTime newEnd) throws TaskException {
+        return reschedule(taskName, null, newEnd);
+    }
+    
+    /**
+     * Replaces a task with a copy at a new time unless that conflicts with another task
+     * @param newStart New start time, or null to keep the current one
+     */
+    private Task reschedule(String taskName, LocalTime newStart, LocalTime newEnd) throws TaskException {
+        if (taskName == null || taskName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task name cannot be null or empty");
+        }
+        if (newEnd == null) {
+            throw new IllegalArgumentException("End time cannot be null");
+        }
+        
         try {
-            logger.logMessage("Displaying schedule (Total tasks: " + tasks.size() + ")");
+            checkWritable();
+            logger.logMessage("Attempting to move task: " + taskName);
             
-            if (tasks.isEmpty()) {
-                System.out.println();
-                System.out.println("=== ASTRONAUT DAILY SCHEDULE ===");
-                System.out.println("No tasks scheduled for today.");
-                System.out.println("===============================");
-                System.out.println();
-                return;
+            Task old;
+            Task moved;
+            Task conflictingTask = null;
+            List<Task> removed = new ArrayList<>();
+            List<Task> added = new ArrayList<>();
+            List<String> problems = new ArrayList<>();
+            int taskCount;
+            long sequence;
+            lock.writeLock().lock();
+            try {
+                old = tasks.get(taskName.trim());
+                if (old == null) {
+                    throw new TaskNotFoundException("Task not found: " + taskName);
+                }
+                LocalTime start = newStart != null ? newStart : old.getStartTime();
+                moved = taskFactory.createTask(old.getTaskType(), old.getName(), start, newEnd,
+                    old.getResources());
+                removed.add(old);
+                added.add(moved);
+                if (!dependencies.isEmpty()) {
+                    rules.checkPrerequisites(moved, problems);
+                    if (problems.isEmpty()) {
+                        rules.propagate(moved, dependencies.successors(old.getName()), removed, added, problems);
+                    }
+                    if (!problems.isEmpty()) {
+                        throw new TransactionException("Cannot move '" + old.getName() + "': "
+                            + String.join("; ", problems), false, problems);
+                    }
+                }
+                
+                if (added.size() > 1) {
+                    // Shifted dependents keep their durations, but the moved task may not
+                    String outOfBudget = budgets.check(tasks.totals(), removed, added);
+                    if (outOfBudget != null) {
+                        throw new TransactionException("Cannot move '" + old.getName() + "': " + outOfBudget,
+                            false, Collections.singletonList(outOfBudget));
+                    }
+                    apply(removed, added, problems);
+                    if (problems.isEmpty()) {
+                        for (Task task : removed) {
+                            logChange(ScheduleChange.Kind.REMOVED, task);
+                        }
+                        for (Task task : added) {
+                            logChange(ScheduleChange.Kind.ADDED, task);
+                        }
+                        history.record((newStart != null ? "move " : "resize ") + old.getName(), removed, added);
+                    }
+                } else {
+                    conflictingTask = findConflict(moved, old);
+                }
+                if (added.size() == 1 && conflictingTask == null) {
+                    String outOfBudget = budgets.check(tasks.totals(), Collections.singletonList(old),
+                        Collections.singletonList(moved));
+                    if (outOfBudget != null) {
+                        throw new TransactionException("Cannot move '" + old.getName() + "': " + outOfBudget,
+                            false, Collections.singletonList(outOfBudget));
+                    }
+                    tasks.remove(old);
+                    tasks.add(moved);
+                    logChange(ScheduleChange.Kind.REMOVED, old);
+                    logChange(ScheduleChange.Kind.ADDED, moved);
+                    history.record((newStart != null ? "move " : "resize ") + old.getName(),
+                        Collections.singletonList(old), Collections.singletonList(moved));
+                }
+                taskCount = tasks.size();
+                sequence = version;
+            } finally {
+                lock.writeLock().unlock();
             }
             
-            System.out.println();
-            System.out.println("=== ASTRONAUT DAILY SCHEDULE ===");
-            System.out.println("Total Tasks: " + tasks.size());
-            System.out.println();
-            
-            for (int i = 0; i < tasks.size(); i++) {
-                Task task = tasks.get(i);
-                System.out.println((i + 1) + ". " + task.toString());
+            if (conflictingTask != null) {
+                String conflictMessage = String.format(
+                    "Task '%s' (%s) conflicts with existing task '%s' (%s)",
+                    moved.getName(), moved.getFormattedTimeRange(),
+                    conflictingTask.getName(), conflictingTask.getFormattedTimeRange()
+                );
+                metrics.recordConflict();
+                recorder.record(FlightRecorder.EventType.CONFLICT, moved.getName(),
+                    moved.getStartTime(), moved.getEndTime(), taskCount);
+                notifyObservers(conflictMessage);
+                
+                throw new ConflictException("Schedule conflict detected: " + conflictMessage,
+                    conflictingTask.getName());
+            }
+            if (!problems.isEmpty()) {
+                String message = "Move of '" + old.getName() + "' rejected: " + String.join("; ", problems);
+                metrics.recordConflict();
+                notifyObservers(message);
+                throw new TransactionException(message, false, problems);
             }
             
-            System.out.println();
-            System.out.println("=== DETAILED VIEW ===");
-            for (Task task : tasks) {
-                System.out.println();
-                task.displayTask();
+            awaitCommit(sequence);
+            for (int i = 0; i < removed.size(); i++) {
+                Task from = removed.get(i);
+                Task to = added.get(i);
+                recorder.record(FlightRecorder.EventType.TASK_REMOVED, from.getName(),
+                    from.getStartTime(), from.getEndTime(), taskCount - 1);
+                recorder.record(FlightRecorder.EventType.TASK_ADDED, to.getName(),
+                    to.getStartTime(), to.getEndTime(), taskCount);
             }
             
-            System.out.println("===============================");
-            System.out.println();
+            logger.logMessage("Task moved successfully: " + moved.getName() + " ("
+                + old.getFormattedTimeRange() + " -> " + moved.getFormattedTimeRange() + ")"
+                + (added.size() > 1 ? ", " + (added.size() - 1) + " dependent tasks shifted" : ""));
+            return moved;
             
+        } catch (TaskException e) {
+            throw e; // Re-throw task exceptions
         } catch (Exception e) {
-            logger.logError("Failed to display tasks", e);
-            System.err.println("Error displaying schedule: " + e.getMessage());
+            logger.logError("Failed to move task", e);
+            throw new TaskException("Failed to move task: " + taskName, e);
         }
     }
     
     /**
-     * Finds a task that conflicts with the given task
-     * @param newTask The task to check for conflicts
-     * @return The conflicting task, or null if no conflict
+     * Makes a task wait for another: it may only start once the other has ended
+     * If it starts too early, it and the tasks that depend on it are shifted
+     * later, keeping their durations. The dependency and the shifts are one
+     * edit: undoing it drops the dependency and moves the tasks back.
+     * @param before Name of the task that must end first (case-insensitive)
+     * @param after Name of the task that must wait for it (case-insensitive)
+     * @return New versions of the tasks that were shifted, in dependency order; empty if none
+     * @throws TaskException if either task is missing, the dependency would form a cycle, or a
+     *         shifted task would conflict or run past midnight
      */
-    private Task findConflictingTask(Task newTask) {
-        for (Task existingTask : tasks) {
-            if (newTask.overlapsWith(existingTask)) {
-                return existingTask;
+    public List<Task> addDependency(String before, String after) throws TaskException {
+        if (before == null || before.trim().isEmpty() || after == null || after.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task names cannot be null or empty");
+        }
+        checkWritable();
+        
+        Task first;
+        Task then;
+        List<Task> removed = new ArrayList<>();
+        List<Task> added = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        boolean conflict = false;
+        long sequence;
+        int taskCount;
+        lock.writeLock().lock();
+        try {
+            first = tasks.get(before.trim());
+            then = tasks.get(after.trim());
+            if (first == null || then == null) {
+                throw new TaskException("Task not found: " + (first == null ? before : after));
+            }
+            if (first == then) {
+                throw new TaskException("A task cannot depend on itself: " + first.getName());
+            }
+            if (rules.closesCycle(first, then)) {
+                throw new TaskException("'" + first.getName() + "' already depends on '" + then.getName()
+                    + "'; the dependency would form a cycle");
+            }
+            if (!dependencies.add(first.getName(), then.getName())) {
+                return Collections.emptyList();
+            }
+            
+            // Every other dependency holds, so only the new one can start a chain of shifts
+            if (then.getStartTime().isBefore(first.getEndTime())) {
+                rules.propagate(first, Collections.singletonList(then.getName()), removed, added, problems);
+            }
+            if (problems.isEmpty() && !added.isEmpty()) {
+                // Shifts keep durations, so the time budgets cannot change
+                apply(removed, added, problems);
+                conflict = !problems.isEmpty();
+            }
+            if (problems.isEmpty()) {
+                for (Task task : removed) {
+                    logChange(ScheduleChange.Kind.REMOVED, task);
+                }
+                for (Task task : added) {
+                    logChange(ScheduleChange.Kind.ADDED, task);
+                }
+                logDependency(ScheduleChange.Kind.LINKED, new Dependency(first.getName(), then.getName()));
+                history.record("depend " + first.getName() + " -> " + then.getName(), removed, added,
+                    first.getName(), then.getName());
+            } else {
+                dependencies.remove(first.getName(), then.getName());
+            }
+            sequence = version;
+            taskCount = tasks.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        if (!problems.isEmpty()) {
+            String message = "Dependency '" + first.getName() + "' -> '" + then.getName() + "' rejected: "
+                + String.join("; ", problems);
+            if (conflict) {
+                metrics.recordConflict();
+                notifyObservers(message);
             }
+            throw new TransactionException(message, false, problems);
+        }
+        
+        awaitCommit(sequence);
+        for (int i = 0; i < removed.size(); i++) {
+            Task from = removed.get(i);
+            Task to = added.get(i);
+            recorder.record(FlightRecorder.EventType.TASK_REMOVED, from.getName(),
+                from.getStartTime(), from.getEndTime(), taskCount - 1);
+            recorder.record(FlightRecorder.EventType.TASK_ADDED, to.getName(),
+                to.getStartTime(), to.getEndTime(), taskCount);
         }
-        return null;
+        logger.logMessage("Dependency added: " + first.getName() + " -> " + then.getName()
+            + (added.isEmpty() ? "" : " (" + added.size() + " tasks shifted)"));
+        return added;
     }
     
     /**
-     * Registers an observer for conflict notifications
-     * @param observer The observer to register
+     * Drops a dependency without moving any task
+     * The drop is an edit of its own: undoing it restores the dependency,
+     * provided the tasks are still scheduled in that order.
+     * @return false if there was no such dependency
+     * @throws TaskException if the schedule is read-only
      */
-    public void addObserver(ConflictObserver observer) {
+    public boolean removeDependency(String before, String after) throws TaskException {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Task names cannot be null");
+        }
+        checkWritable();
+        
+        boolean removed;
+        long sequence;
+        lock.writeLock().lock();
         try {
-            if (observer == null) {
-                throw new IllegalArgumentException("Observer cannot be null");
+            removed = dependencies.remove(before.trim(), after.trim());
+            if (removed) {
+                // Dependencies only join scheduled tasks, so both names resolve
+                String first = tasks.get(before.trim()).getName();
+                String then = tasks.get(after.trim()).getName();
+                logDependency(ScheduleChange.Kind.UNLINKED, new Dependency(first, then));
+                history.recordDrop("undepend " + first + " -> " + then, first, then);
             }
-            
-            if (observers.contains(observer)) {
-                logger.logMessage("Observer " + observer.getObserverId() + " is already registered");
-                return;
+            sequence = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed) {
+            awaitCommit(sequence);
+            logger.logMessage("Dependency removed: " + before.trim() + " -> " + after.trim());
+        }
+        return removed;
+    }
+    
+    /**
+     * Gets the scheduled tasks a task waits for
+     * @param taskName Task name (case-insensitive)
+     * @return Tasks that must end before it starts
+     */
+    public List<Task> getPrerequisites(String taskName) {
+        lock.readLock().lock();
+        try {
+            return present(dependencies.predecessors(taskName.trim()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the scheduled tasks that wait for a task
+     * @param taskName Task name (case-insensitive)
+     * @return Tasks that may only start once it has ended
+     */
+    public List<Task> getDependents(String taskName) {
+        lock.readLock().lock();
+        try {
+            return present(dependencies.successors(taskName.trim()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of dependencies; each joins two scheduled tasks, since
+     * removing a task hands its dependencies on to its neighbours
+     */
+    public int getDependencyCount() {
+        lock.readLock().lock();
+        try {
+            return dependencies.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private List<Task> present(List<String> names) {
+        List<Task> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            Task task = tasks.get(name);
+            if (task != null) {
+                result.add(task);
             }
-            
-            observers.add(observer);
-            logger.logMessage("Observer registered: " + observer.getObserverId() + 
-                " (Total observers: " + observers.size() + ")");
-            
-        } catch (Exception e) {
-            logger.logError("Failed to register observer", e);
         }
+        return result;
     }
     
     /**
-     * Removes an observer from conflict notifications
-     * @param observer The observer to remove
+     * Reverts the most recent add, remove, move or committed transaction
+     * The history is shared by everyone editing this schedule, and it is
+     * cleared when a replica installs the leader's changes.
+     * @return Description of the undone edit, e.g. "move Morning Run"
+     * @throws TaskException if there is nothing to undo or the schedule is read-only
      */
-    public void removeObserver(ConflictObserver observer) {
+    public String undo() throws TaskException {
+        return replay(true);
+    }
+    
+    /**
+     * Re-applies the most recently undone edit; any new edit discards what could be redone
+     * @return Description of the redone edit
+     * @throws TaskException if there is nothing to redo or the schedule is read-only
+     */
+    public String redo() throws TaskException {
+        return replay(false);
+    }
+    
+    public boolean canUndo() {
+        lock.readLock().lock();
         try {
-            if (observer == null) {
-                throw new IllegalArgumentException("Observer cannot be null");
+            return history.undoSize() > 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean canRedo() {
+        lock.readLock().lock();
+        try {
+            return history.redoSize() > 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Swaps an edit's tasks out of or back into the index and logs the change
+     * @param undo true to undo the latest edit, false to redo the latest undone one
+     */
+    private String replay(boolean undo) throws TaskException {
+        checkWritable();
+        String action = undo ? "undo" : "redo";
+        
+        EditHistory.Edit edit;
+        long sequence;
+        int taskCount;
+        lock.writeLock().lock();
+        try {
+            edit = undo ? history.pollUndo() : history.pollRedo();
+            if (edit == null) {
+                throw new TaskException("Nothing to " + action);
             }
+            List<Task> takeOut = undo ? edit.added : edit.removed;
+            List<Task> putIn = undo ? edit.removed : edit.added;
+            // The dependency an edit added or dropped is toggled with it, before its tasks are checked
+            boolean linking = edit.dropped == undo;
+            boolean toggled = edit.before != null && (linking
+                ? dependencies.add(edit.before, edit.after)
+                : dependencies.remove(edit.before, edit.after));
             
-            boolean removed = observers.remove(observer);
-            if (removed) {
-                logger.logMessage("Observer removed: " + observer.getObserverId() + 
-                    " (Remaining observers: " + observers.size() + ")");
-            } else {
-                logger.logMessage("Observer not found for removal: " + observer.getObserverId());
+            // Every local edit is recorded, so this only fails if the history was bypassed
+            List<String> problems = new ArrayList<>();
+            Set<Task> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Task task : takeOut) {
+                if (tasks.get(task.getName()) != task) {
+                    problems.add("Task not found: " + task.getName());
+                }
+                leaving.add(task);
+            }
+            for (Task task : putIn) {
+                Task current = tasks.get(task.getName());
+                if (current != null && !leaving.contains(current)) {
+                    problems.add("A task with this name already exists: " + task.getName());
+                }
+            }
+            if (problems.isEmpty()) {
+                String outOfBudget = budgets.check(tasks.totals(), takeOut, putIn);
+                List<String> broken = new ArrayList<>();
+                rules.check(takeOut, putIn, broken);
+                if (toggled && linking) {
+                    rules.checkRestored(edit.before, edit.after, putIn, broken);
+                }
+                if (outOfBudget != null || !broken.isEmpty()) {
+                    // Budgets or dependencies changed since the edit; keep it where it was
+                    relink(edit, linking, toggled);
+                    if (undo) {
+                        history.redone(edit);
+                    } else {
+                        history.undone(edit);
+                    }
+                    throw new TaskException("Cannot " + action + " '" + edit.label + "': "
+                        + (outOfBudget != null ? outOfBudget : String.join("; ", broken)));
+                }
+                apply(takeOut, putIn, problems);
+            }
+            if (!problems.isEmpty()) {
+                relink(edit, linking, toggled);
+                history.clear();
+                throw new TaskException("Cannot " + action + " '" + edit.label + "', history cleared: "
+                    + String.join("; ", problems));
             }
             
-        } catch (Exception e) {
-            logger.logError("Failed to remove observer", e);
+            handOnDependencies(takeOut, putIn);
+            for (Task task : takeOut) {
+                logChange(ScheduleChange.Kind.REMOVED, task);
+            }
+            for (Task task : putIn) {
+                logChange(ScheduleChange.Kind.ADDED, task);
+            }
+            if (toggled) {
+                logDependency(linking ? ScheduleChange.Kind.LINKED : ScheduleChange.Kind.UNLINKED,
+                    new Dependency(edit.before, edit.after));
+            }
+            if (undo) {
+                history.undone(edit);
+            } else {
+                history.redone(edit);
+            }
+            sequence = version;
+            taskCount = tasks.size();
+        } finally {
+            lock.writeLock().unlock();
         }
+        
+        awaitCommit(sequence);
+        logger.logMessage((undo ? "Undid: " : "Redid: ") + edit.label + " (Total tasks: " + taskCount + ")");
+        return edit.label;
     }
     
     /**
-     * Notifies all observers about a schedule conflict
-     * @param message The conflict message
+     * Reverts what replay did to an edit's dependency when the edit cannot be replayed
+     * @param linking Whether replay added the dependency rather than removing it
      */
-    private void notifyObservers(String message) {
+    private void relink(EditHistory.Edit edit, boolean linking, boolean toggled) {
+        if (!toggled) {
+            return;
+        }
+        if (linking) {
+            dependencies.remove(edit.before, edit.after);
+        } else {
+            dependencies.add(edit.before, edit.after);
+        }
+    }
+    
+    /**
+     * Starts a transaction against the current schedule version
+     * @return Empty transaction; stage operations, then commit() or rollback()
+     */
+    public ScheduleTransaction beginTransaction() {
+        return new ScheduleTransaction(this, version);
+    }
+    
+    /**
+     * Validates and applies a transaction (see ScheduleTransaction.commit())
+     * Staging, validation and the index updates all happen under one write
+     * lock; observers and the commit barrier run after it.
+     * @param transaction The transaction to commit
+     * @return Version after the commit
+     * @throws TaskException if the schedule is read-only or the transaction is rejected
+     */
+    long commit(ScheduleTransaction transaction) throws TaskException {
+        checkWritable();
+        
+        List<Task> removed = new ArrayList<>();
+        List<Task> added = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        boolean conflict = false;
+        long sequence;
+        int taskCount;
+        lock.writeLock().lock();
         try {
-            if (observers.isEmpty()) {
-                logger.logMessage("No observers to notify about conflict");
-                return;
+            if (version != transaction.getBaseVersion()) {
+                throw new TransactionException("Schedule changed since the transaction began (version "
+                    + transaction.getBaseVersion() + ", now " + version + ")", true, new ArrayList<>());
             }
             
-            logger.logMessage("Notifying " + observers.size() + " observers about schedule conflict");
-            
-            for (ConflictObserver observer : observers) {
-                try {
-                    observer.update(message);
-                } catch (Exception e) {
-                    logger.logError("Failed to notify observer: " + observer.getObserverId(), e);
+            // Report invalid operations and conflicts together
+            stage(transaction.getOperations(), removed, added, problems);
+            String outOfBudget = budgets.check(tasks.totals(), removed, added);
+            if (outOfBudget != null) {
+                problems.add(outOfBudget);
+            }
+            rules.check(removed, added, problems);
+            int invalid = problems.size();
+            apply(removed, added, problems);
+            conflict = problems.size() > invalid;
+            if (problems.isEmpty()) {
+                handOnDependencies(removed, added);
+                for (Task task : removed) {
+                    logChange(ScheduleChange.Kind.REMOVED, task);
+                }
+                for (Task task : added) {
+                    logChange(ScheduleChange.Kind.ADDED, task);
                 }
+                history.record("transaction of " + transaction.size() + " operations", removed, added);
             }
-            
-        } catch (Exception e) {
-            logger.logError("Unexpected error during observer notification", e);
+            sequence = version;
+            taskCount = tasks.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        if (!problems.isEmpty()) {
+            String message = "Transaction rejected: " + String.join("; ", problems);
+            if (conflict) {
+                metrics.recordConflict();
+                notifyObservers(message);
+            }
+            throw new TransactionException(message, false, problems);
         }
+        
+        awaitCommit(sequence);
+        for (Task task : removed) {
+            metrics.recordRemove(true);
+            recorder.record(FlightRecorder.EventType.TASK_REMOVED, task.getName(),
+                task.getStartTime(), task.getEndTime(), taskCount);
+        }
+        for (Task task : added) {
+            metrics.recordAddAttempt();
+            metrics.recordAdd();
+            recorder.record(FlightRecorder.EventType.TASK_ADDED, task.getName(),
+                task.getStartTime(), task.getEndTime(), taskCount);
+        }
+        logger.logMessage("Transaction committed: " + removed.size() + " removed, " + added.size()
+            + " added (Total tasks: " + taskCount + ")");
+        return sequence;
     }
     
     /**
-     * Gets the current number of tasks
-     * @return Number of tasks in the schedule
+     * Merges an incoming plan, sorted by start time, into the schedule
+     * An incoming task named like an existing one is a revision and replaces
+     * it. Repeated names and conflicts among the incoming tasks are found in
+     * one sweep over the sorted plan, keeping the earlier task. Conflicts with
+     * the schedule are index lookups, O(log n) per incoming task, and the
+     * policy decides who wins them. A task the plan revises leaves its old
+     * slot free for the rest of the plan. Under KEEP_EXISTING an incoming task
+     * may not take time held by any existing task that stays; a revision
+     * skipped that way keeps its old slot, which can in turn block others.
+     * The merge is one edit: a single undo step, with its changes logged as
+     * REMOVED then ADDED.
+     * @param plan Incoming tasks in start time order
+     * @param policy How conflicts with existing tasks are resolved
+     * @return What was added, removed and skipped, and every conflict found
+     * @throws TransactionException under REJECT if anything conflicts, or if the merge breaks a time
+     *         budget or a dependency
+     * @throws TaskException if the schedule is read-only
      */
-    public int getTaskCount() {
-        return tasks.size();
+    public MergeReport merge(List<Task> plan, MergePolicy policy) throws TaskException {
+        if (plan == null || policy == null) {
+            throw new IllegalArgumentException("Plan and merge policy cannot be null");
+        }
+        checkWritable();
+        logger.logMessage("Merging plan of " + plan.size() + " tasks (" + policy + ")");
+        
+        MergePlan merge = new MergePlan(plan, policy);
+        merge.sweep();
+        List<Task> removed = merge.removed;
+        List<Task> added = merge.added;
+        List<String> conflicts = merge.conflicts;
+        List<String> problems = new ArrayList<>();
+        long sequence;
+        int taskCount;
+        lock.writeLock().lock();
+        try {
+            merge.resolve(tasks);
+            
+            if (policy == MergePolicy.REJECT && !conflicts.isEmpty()) {
+                problems.addAll(conflicts);
+            } else if (!removed.isEmpty() || !added.isEmpty()) {
+                String outOfBudget = budgets.check(tasks.totals(), removed, added);
+                if (outOfBudget != null) {
+                    problems.add(outOfBudget);
+                }
+                rules.check(removed, added, problems);
+                if (problems.isEmpty()) {
+                    // Every added task was checked against the plan and the schedule above
+                    for (Task task : removed) {
+                        tasks.remove(task);
+                    }
+                    for (Task task : added) {
+                        tasks.add(task);
+                    }
+                    handOnDependencies(removed, added);
+                }
+                if (problems.isEmpty()) {
+                    for (Task task : removed) {
+                        logChange(ScheduleChange.Kind.REMOVED, task);
+                    }
+                    for (Task task : added) {
+                        logChange(ScheduleChange.Kind.ADDED, task);
+                    }
+                    history.record("merge of " + plan.size() + " tasks", removed, added);
+                }
+            }
+            sequence = version;
+            taskCount = tasks.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        if (!conflicts.isEmpty()) {
+            metrics.recordConflict();
+            notifyObservers("Merge (" + policy + ") found " + conflicts.size() + " conflicts: "
+                + String.join("; ", conflicts));
+        }
+        if (!problems.isEmpty()) {
+            throw new TransactionException("Merge rejected: " + String.join("; ", problems), false, problems);
+        }
+        
+        awaitCommit(sequence);
+        for (Task task : removed) {
+            metrics.recordRemove(true);
+            recorder.record(FlightRecorder.EventType.TASK_REMOVED, task.getName(),
+                task.getStartTime(), task.getEndTime(), taskCount);
+        }
+        for (Task task : added) {
+            metrics.recordAddAttempt();
+            metrics.recordAdd();
+            recorder.record(FlightRecorder.EventType.TASK_ADDED, task.getName(),
+                task.getStartTime(), task.getEndTime(), taskCount);
+        }
+        MergeReport report = new MergeReport(added, removed, merge.skipped, conflicts, merge.unchanged,
+            taskCount, sequence);
+        logger.logMessage("Plan merged: " + report);
+        return report;
     }
     
     /**
-     * Gets the current number of observers
-     * @return Number of registered observers
+     * Replays staged operations against the name index
+     * Fills removed (existing tasks that go away) and added (new tasks), with
+     * moves counted as both; caller holds the write lock.
      */
-    public int getObserverCount() {
-        return observers.size();
+    private void stage(List<ScheduleTransaction.Operation> operations, List<Task> removed, List<Task> added,
+            List<String> problems) {
+        // Names the transaction has touched so far; a null value means staged as removed
+        Map<String, Task> staged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (ScheduleTransaction.Operation operation : operations) {
+            String key = operation.name;
+            Task current = staged.containsKey(key) ? staged.get(key) : tasks.get(key);
+            switch (operation.kind) {
+                case ADD:
+                    if (current != null) {
+                        problems.add("A task with this name already exists: " + operation.name);
+                    } else {
+                        staged.put(key, operation.task);
+                        added.add(operation.task);
+                    }
+                    break;
+                case REMOVE:
+                    if (current == null) {
+                        problems.add("Task not found: " + operation.name);
+                    } else {
+                        staged.put(key, null);
+                        unstage(current, removed, added);
+                    }
+                    break;
+                case MOVE:
+                    if (current == null) {
+                        problems.add("Task not found: " + operation.name);
+                    } else {
+                        try {
+                            Task moved = taskFactory.createTask(current.getTaskType(), current.getName(),
+                                operation.start, operation.end, current.getResources());
+                            staged.put(key, moved);
+                            unstage(current, removed, added);
+                            added.add(moved);
+                        } catch (TaskException e) {
+                            problems.add(e.getMessage());
+                        }
+                    }
+                    break;
+                default:
+                    problems.add("Unsupported operation: " + operation.kind);
+            }
+        }
     }
     
     /**
-     * Checks if a task with the given name exists
-     * @param taskName The task name to check
-     * @return true if task exists, false otherwise
+     * Drops a task from the result: a task staged earlier is unstaged, an existing one removed
      */
-    public boolean hasTask(String taskName) {
-        if (taskName == null || taskName.trim().isEmpty()) {
-            return false;
+    private static void unstage(Task task, List<Task> removed, List<Task> added) {
+        for (Iterator<Task> it = added.iterator(); it.hasNext(); ) {
+            if (it.next() == task) {
+                it.remove();
+                return;
+            }
+        }
+        removed.add(task);
+    }
+    
+    /**
+     * Takes the removed tasks out of the index and inserts the added ones in
+     * start time order, reporting each added task that overlaps a task already
+     * placed. On any problem the index is restored; caller holds the write lock.
+     */
+    private void apply(List<Task> removed, List<Task> added, List<String> problems) {
+        List<Task> incoming = new ArrayList<>(added);
+        incoming.sort(TaskIndex.START_ORDER);
+        for (Task task : removed) {
+            tasks.remove(task);
+        }
+        List<Task> placed = new ArrayList<>(incoming.size());
+        for (Task task : incoming) {
+            Task conflict = tasks.findConflict(task, null);
+            if (conflict != null) {
+                problems.add(String.format("Task '%s' (%s) conflicts with task '%s' (%s)",
+                    task.getName(), task.getFormattedTimeRange(),
+                    conflict.getName(), conflict.getFormattedTimeRange()));
+            } else {
+                tasks.add(task);
+                placed.add(task);
+            }
+        }
+        
+        if (!problems.isEmpty()) {
+            for (Task task : placed) {
+                tasks.remove(task);
+            }
+            for (Task task : removed) {
+                tasks.add(task);
+            }
+        }
+    }
+    
+    /**
+     * Hands on the dependencies of the tasks an edit took out for good and
+     * logs every dependency dropped or added, so followers need not repeat
+     * this; caller holds the write lock
+     */
+    private void handOnDependencies(List<Task> removed, List<Task> added) {
+        List<Dependency> unlinked = new ArrayList<>();
+        List<Dependency> linked = new ArrayList<>();
+        rules.handOn(removed, added, unlinked, linked);
+        for (Dependency dependency : unlinked) {
+            logDependency(ScheduleChange.Kind.UNLINKED, dependency);
+        }
+        for (Dependency dependency : linked) {
+            logDependency(ScheduleChange.Kind.LINKED, dependency);
+        }
+    }
+    
+    /**
+     * Displays all tasks in the schedule
+     */
+    public void viewTasks() {
+        try {
+            List<Task> snapshot = getTasks();
+            if (displayLog.tryAcquire()) {
+                logger.logMessage("Displaying schedule (Total tasks: " + snapshot.size() + ")");
+            }
+            
+            if (snapshot.isEmpty()) {
+                System.out.println();
+                System.out.println("=== ASTRONAUT DAILY SCHEDULE ===");
+                System.out.println("No tasks scheduled for today.");
+                System.out.println("===============================");
+                System.out.println();
+                return;
+            }
+            
+            System.out.println();
+            System.out.println("=== ASTRONAUT DAILY SCHEDULE ===");
+            System.out.println("Total Tasks: " + snapshot.size());
+            System.out.println();
+            
+            for (int i = 0; i < snapshot.size(); i++) {
+                Task task = snapshot.get(i);
+                System.out.println((i + 1) + ". " + task.toString());
+            }
+            
+            System.out.println();
+            System.out.println("=== DETAILED VIEW ===");
+            for (Task task : snapshot) {
+                System.out.println();
+                task.displayTask();
+            }
+            
+            System.out.println("===============================");
+            System.out.println();
+            
+        } catch (Exception e) {
+            logger.logError("Failed to display tasks", e);
+            System.err.println("Error displaying schedule: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Finds a task that conflicts with the given task
+     * @param newTask The task to check for conflicts
+     * @return The conflicting task, or null if no conflict
+     */
+    public Task findConflictingTask(Task newTask) {
+        if (newTask == null) {
+            return null;
+        }
+        
+        lock.readLock().lock();
+        try {
+            return findConflict(newTask, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Index lookup behind findConflictingTask; caller holds the lock
+     * @param ignore Task to leave out (the task being moved), or null
+     */
+    private Task findConflict(Task newTask, Task ignore) {
+        ScheduleEvents.ConflictCheck event = ScheduleEvents.beginConflictCheck(newTask);
+        
+        long startNanos = System.nanoTime();
+        Task conflict = tasks.findConflict(newTask, ignore);
+        metrics.recordConflictCheck(System.nanoTime() - startNanos);
+        
+        ScheduleEvents.endConflictCheck(event, tasks.size(), conflict != null);
+        return conflict;
+    }
+    
+    /**
+     * Registers an observer for conflict notifications
+     * @param observer The observer to register
+     */
+    public void addObserver(ConflictObserver observer) {
+        try {
+            if (observer == null) {
+                throw new IllegalArgumentException("Observer cannot be null");
+            }
+            
+            if (observers.contains(observer)) {
+                logger.logMessage("Observer " + observer.getObserverId() + " is already registered");
+                return;
+            }
+            
+            observers.add(observer);
+            logger.logMessage("Observer registered: " + observer.getObserverId() + 
+                " (Total observers: " + observers.size() + ")");
+            
+        } catch (Exception e) {
+            logger.logError("Failed to register observer", e);
+        }
+    }
+    
+    /**
+     * Removes an observer from conflict notifications
+     * @param observer The observer to remove
+     */
+    public void removeObserver(ConflictObserver observer) {
+        try {
+            if (observer == null) {
+                throw new IllegalArgumentException("Observer cannot be null");
+            }
+            
+            boolean removed = observers.remove(observer);
+            if (removed) {
+                logger.logMessage("Observer removed: " + observer.getObserverId() + 
+                    " (Remaining observers: " + observers.size() + ")");
+            } else {
+                logger.logMessage("Observer not found for removal: " + observer.getObserverId());
+            }
+            
+        } catch (Exception e) {
+            logger.logError("Failed to remove observer", e);
+        }
+    }
+    
+    /**
+     * Notifies all observers about a schedule conflict
+     * @param message The conflict message
+     */
+    private void notifyObservers(String message) {
+        try {
+            if (observers.isEmpty()) {
+                logger.logMessage("No observers to notify about conflict");
+                return;
+            }
+            
+            logger.logMessage("Notifying " + observers.size() + " observers about schedule conflict");
+            
+            long startNanos = System.nanoTime();
+            for (ConflictObserver observer : observers) {
+                try {
+                    observer.update(message);
+                } catch (Exception e) {
+                    logger.logError("Failed to notify observer: " + observer.getObserverId(), e);
+                }
+            }
+            metrics.recordNotify(System.nanoTime() - startNanos);
+            
+        } catch (Exception e) {
+            logger.logError("Unexpected error during observer notification", e);
+        }
+    }
+    
+    /**
+     * Gets the current number of tasks
+     * @return Number of tasks in the schedule
+     */
+    public int getTaskCount() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the schedule version: the sequence number of the last change
+     * Read it before taking a snapshot, so the version never claims newer content
+     * than the snapshot holds, or use getSnapshot() to get both at once.
+     * @return Monotonic version counter
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Gets a copy of the schedule, its dependencies and the sequence number of the last change it includes
+     * @return Consistent snapshot
+     */
+    public ScheduleSnapshot getSnapshot() {
+        lock.readLock().lock();
+        try {
+            return new ScheduleSnapshot(version, Collections.unmodifiableList(new ArrayList<>(tasks.values())),
+                Collections.unmodifiableList(dependencies.edges()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Reads logged changes without blocking
+     * @param afterSequence Last sequence the caller has seen (0 for everything retained)
+     * @param maxChanges Maximum number of changes to return
+     * @return Consecutive changes, oldest first; empty if the caller is up to date
+     * @throws ChangeLogTruncatedException if the log no longer reaches back to afterSequence;
+     *         resynchronize with getSnapshot()
+     */
+    public List<ScheduleChange> readChanges(long afterSequence, int maxChanges) throws ChangeLogTruncatedException {
+        try {
+            return changeLog.read(afterSequence, maxChanges, 0);
+        } catch (InterruptedException e) {
+            // Not reached with a zero timeout
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Subscribes to changes after a sequence number
+     * Pass getVersion() to follow from now on, or a previously seen sequence to
+     * resume; if that position is no longer retained, the listener gets a
+     * snapshot first.
+     * @param afterSequence Last sequence the listener has seen
+     * @param maxBatch Maximum number of changes per onChanges call
+     * @param listener Receives batches on the subscription's thread
+     * @return Running subscription; close it to stop delivery
+     */
+    public ChangeSubscription subscribe(long afterSequence, int maxBatch, ScheduleChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatch);
+        }
+        if (afterSequence < 0 || afterSequence > version) {
+            throw new IllegalArgumentException("No such sequence: " + afterSequence + " (current: " + version + ")");
+        }
+        
+        ChangeSubscription subscription = new ChangeSubscription(this, changeLog, afterSequence, maxBatch, listener);
+        subscription.start();
+        logger.logMessage("Change feed subscription started after #" + afterSequence);
+        return subscription;
+    }
+    
+    /**
+     * Installs a replication barrier; addTask and removeTask return only after
+     * it has been passed for their change
+     * @param barrier The barrier, or null to commit locally only
+     */
+    public void setCommitBarrier(CommitBarrier barrier) {
+        this.commitBarrier = barrier;
+    }
+    
+    /**
+     * Marks the schedule as a read-only replica, or writable again after a failover
+     * @param readOnly true to reject addTask and removeTask
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        logger.logMessage(readOnly ? "Schedule is now a read-only replica" : "Schedule is now writable");
+    }
+    
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    /**
+     * Replaces the schedule with a leader's snapshot; the change log restarts after its sequence
+     * @param snapshot Leader snapshot, tasks in start time order
+     */
+    public void installSnapshot(ScheduleSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            replica.install(snapshot);
+            if (reminders != null) {
+                reminders.reset(tasks.values());
+            }
+            history.clear();
+            version = snapshot.getSequence();
+            changeLog.restart(version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.logMessage("Installed schedule snapshot at #" + snapshot.getSequence()
+            + " (" + snapshot.getTasks().size() + " tasks, " + snapshot.getDependencies().size()
+            + " dependencies)");
+    }
+    
+    /**
+     * Applies a batch of a leader's changes under one write lock, keeping their sequence numbers
+     * No conflict checks: the leader already made them.
+     * Dependencies change only through the LINKED and UNLINKED changes the
+     * leader logged, including those handed on when a task was removed.
+     * @param changes Consecutive ADDED/REMOVED/LINKED/UNLINKED changes following the current version
+     * @throws IllegalStateException if the batch does not continue the current version
+     */
+    public void applyChanges(List<ScheduleChange> changes) {
+        lock.writeLock().lock();
+        try {
+            history.clear();
+            for (ScheduleChange change : changes) {
+                replica.apply(change, version);
+                updateReminders(change.getKind(), change.getTask());
+                version = change.getSequence();
+                changeLog.append(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void checkWritable() throws ReadOnlyScheduleException {
+        if (readOnly) {
+            throw new ReadOnlyScheduleException("Schedule is a read-only replica");
+        }
+    }
+    
+    private void awaitCommit(long sequence) {
+        CommitBarrier barrier = commitBarrier;
+        if (barrier != null) {
+            barrier.awaitCommitted(sequence);
+        }
+    }
+    
+    /**
+     * Bumps the version and appends the change; caller holds the write lock
+     */
+    private void logChange(ScheduleChange.Kind kind, Task task) {
+        version++;
+        changeLog.append(new ScheduleChange(version, kind, task));
+        updateReminders(kind, task);
+    }
+    
+    /**
+     * Bumps the version and appends a dependency change; caller holds the write lock
+     */
+    private void logDependency(ScheduleChange.Kind kind, Dependency dependency) {
+        version++;
+        changeLog.append(new ScheduleChange(version, kind, dependency));
+    }
+    
+    /**
+     * Arms or disarms a task's reminders, O(1); caller holds the write lock
+     */
+    private void updateReminders(ScheduleChange.Kind kind, Task task) {
+        if (reminders == null) {
+            return;
+        }
+        if (kind == ScheduleChange.Kind.ADDED) {
+            reminders.schedule(task);
+        } else if (kind == ScheduleChange.Kind.REMOVED) {
+            reminders.cancel(task);
+        }
+    }
+    
+    /**
+     * Registers an observer for task reminders, starting the reminder engine for the first one
+     * @param observer The observer to register
+     */
+    public void addReminderObserver(ReminderObserver observer) {
+        if (observer == null) {
+            throw new IllegalArgumentException("Observer cannot be null");
+        }
+        if (reminderObservers.contains(observer)) {
+            logger.logMessage("Reminder observer " + observer.getObserverId() + " is already registered");
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            reminderObservers.add(observer);
+            if (reminders == null) {
+                reminders = new ReminderEngine(Clock.systemDefaultZone(),
+                    Long.getLong("schedule.reminder.tickMillis", 1000),
+                    Long.getLong("schedule.reminder.leadMinutes", 5), this::notifyReminder);
+                reminders.reset(tasks.values());
+                reminders.start();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.logMessage("Reminder observer registered: " + observer.getObserverId()
+            + " (Total reminder observers: " + reminderObservers.size() + ")");
+    }
+    
+    /**
+     * Removes a reminder observer, stopping the reminder engine after the last one
+     * @param observer The observer to remove
+     */
+    public void removeReminderObserver(ReminderObserver observer) {
+        if (observer == null) {
+            throw new IllegalArgumentException("Observer cannot be null");
+        }
+        
+        ReminderEngine stopping = null;
+        lock.writeLock().lock();
+        try {
+            if (!reminderObservers.remove(observer)) {
+                logger.logMessage("Reminder observer not found for removal: " + observer.getObserverId());
+                return;
+            }
+            if (reminderObservers.isEmpty()) {
+                stopping = reminders;
+                reminders = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Joined outside the lock: the engine thread may be delivering a reminder
+        if (stopping != null) {
+            stopping.stop();
+        }
+        logger.logMessage("Reminder observer removed: " + observer.getObserverId()
+            + " (Remaining reminder observers: " + reminderObservers.size() + ")");
+    }
+    
+    /**
+     * Gets the number of tasks with a pending reminder
+     * @return Pending timers, 0 while no reminder observer is registered
+     */
+    public int getPendingReminderCount() {
+        lock.readLock().lock();
+        try {
+            return reminders == null ? 0 : reminders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Hands a due reminder to every reminder observer; runs on the reminder thread
+     */
+    private void notifyReminder(TaskReminder reminder) {
+        for (ReminderObserver observer : reminderObservers) {
+            try {
+                observer.remind(reminder);
+            } catch (Exception e) {
+                logger.logError("Failed to notify reminder observer: " + observer.getObserverId(), e);
+            }
+        }
+    }
+    
+    /**
+     * Gets the current number of observers
+     * @return Number of registered observers
+     */
+    public int getObserverCount() {
+        return observers.size();
+    }
+    
+    /**
+     * Replaces the whole schedule without per-task conflict checks or logging
+     * Used by the benchmarks to install very large fixtures quickly
+     * @param sortedTasks Tasks sorted by start time, free of overlaps and with unique names
+     */
+    void replaceTasks(List<Task> sortedTasks) {
+        lock.writeLock().lock();
+        try {
+            tasks.reset(sortedTasks);
+            if (reminders != null) {
+                reminders.reset(tasks.values());
+            }
+            history.clear();
+            dependencies.clear();
+            logChange(ScheduleChange.Kind.RESET, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Checks if a task with the given name exists
+     * @param taskName The task name to check
+     * @return true if task exists, false otherwise
+     */
+    public boolean hasTask(String taskName) {
+        metrics.recordLookup();
+        if (taskName == null || taskName.trim().isEmpty()) {
+            return false;
+        }
+        
+        lock.readLock().lock();
+        try {
+            return tasks.get(taskName.trim()) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds a task by name (case-insensitive)
+     * @param taskName The task name to look up
+     * @return The task, or null if there is none
+     */
+    public Task findTask(String taskName) {
+        metrics.recordLookup();
+        if (taskName == null || taskName.trim().isEmpty()) {
+            return null;
+        }
+        
+        String name = taskName.trim();
+        lock.readLock().lock();
+        try {
+            return tasks.get(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds all tasks overlapping a time window, in start time order
+     * @param start Window start (inclusive)
+     * @param end Window end (exclusive)
+     * @return Overlapping tasks, empty if none
+     */
+    public List<Task> findTasksBetween(LocalTime start, LocalTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            return new ArrayList<>();
+        }
+        
+        lock.readLock().lock();
+        try {
+            return tasks.between(start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds all tasks claiming a resource, in start time order
+     * @param resource Resource name (case-insensitive)
+     * @return Tasks on that resource's timeline, empty if none
+     */
+    public List<Task> findTasksUsing(String resource) {
+        if (resource == null || resource.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        lock.readLock().lock();
+        try {
+            return tasks.onResource(resource.trim().toLowerCase(Locale.ROOT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds tasks whose names start with a prefix (case-insensitive)
+     * @param prefix Name prefix
+     * @param limit Maximum number of results
+     * @return Matching tasks in name order
+     */
+    public List<Task> findTasksByPrefix(String prefix, int limit) {
+        checkSearch(prefix, limit);
+        metrics.recordLookup();
+        lock.readLock().lock();
+        try {
+            return tasks.names().withPrefix(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds tasks whose names contain a text (case-insensitive)
+     * @param text Text to look for
+     * @param limit Maximum number of results
+     * @return Up to limit matching tasks, in name order
+     */
+    public List<Task> findTasksContaining(String text, int limit) {
+        checkSearch(text, limit);
+        metrics.recordLookup();
+        lock.readLock().lock();
+        try {
+            return tasks.names().containing(text, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Finds tasks whose names are within a few typing errors of a name (case-insensitive)
+     * @param name Name as typed
+     * @param maxEdits Insertions, deletions, substitutions and adjacent swaps allowed (0 to MAX_SEARCH_EDITS)
+     * @param limit Maximum number of results
+     * @return Matching tasks, closest first, then in name order
+     */
+    public List<Task> findTasksSimilar(String name, int maxEdits, int limit) {
+        checkSearch(name, limit);
+        if (maxEdits < 0 || maxEdits > MAX_SEARCH_EDITS) {
+            throw new IllegalArgumentException("Edits must be between 0 and " + MAX_SEARCH_EDITS + ": " + maxEdits);
+        }
+        metrics.recordLookup();
+        lock.readLock().lock();
+        try {
+            return tasks.names().similar(name.trim(), maxEdits, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void checkSearch(String text, int limit) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search text cannot be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive: " + limit);
+        }
+    }
+    
+    /**
+     * Gets the scheduled load in a time window
+     * @param start Window start (inclusive)
+     * @param end Window end (exclusive; LocalTime.MAX for the end of the day)
+     * @return Busy task-minutes, peak concurrency and utilization of the window
+     */
+    public ScheduleLoad getLoad(LocalTime start, LocalTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        lock.readLock().lock();
+        try {
+            return loadOf(tasks, start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static ScheduleLoad loadOf(TaskIndex index, LocalTime start, LocalTime end) {
+        int from = LoadTree.firstMinute(start);
+        int to = LoadTree.endMinute(end);
+        LoadTree load = index.load();
+        return new ScheduleLoad(start, end, load.sum(from, to), load.max(from, to), to - from);
+    }
+    
+    /**
+     * Finds the clock hour with the most busy task-minutes (24 window queries)
+     * @return Start of the busiest hour (the earliest on a tie), or null if the schedule is empty
+     */
+    public LocalTime getBusiestHour() {
+        lock.readLock().lock();
+        try {
+            LoadTree load = tasks.load();
+            int busiest = -1;
+            long most = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                long busy = load.sum(hour * 60, hour * 60 + 60);
+                if (busy > most) {
+                    most = busy;
+                    busiest = hour;
+                }
+            }
+            return busiest < 0 ? null : LocalTime.of(busiest, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Sets or clears the time budget of a task type
+     * Existing tasks are not checked; only later edits must respect it.
+     * @param type Task type
+     * @param minMinutes Minimum total minutes, or null for none
+     * @param maxMinutes Maximum total minutes, or null for none
+     */
+    public void setBudget(TaskFactory.TaskType type, Long minMinutes, Long maxMinutes) {
+        if (type == null) {
+            throw new IllegalArgumentException("Task type cannot be null");
+        }
+        if ((minMinutes != null && minMinutes < 0) || (maxMinutes != null && maxMinutes < 0)) {
+            throw new IllegalArgumentException("Budget minutes cannot be negative");
+        }
+        if (minMinutes != null && maxMinutes != null && minMinutes > maxMinutes) {
+            throw new IllegalArgumentException("Minimum budget cannot exceed the maximum");
+        }
+        
+        lock.writeLock().lock();
+        try {
+            budgets.set(type.ordinal(), minMinutes != null ? minMinutes : TimeBudgets.NONE,
+                maxMinutes != null ? maxMinutes : TimeBudgets.NONE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.logMessage("Budget for " + type + " set to " + (minMinutes != null ? minMinutes : "-") + ".."
+            + (maxMinutes != null ? maxMinutes : "-") + " minutes");
+    }
+    
+    /**
+     * Gets the running totals of one task type, read from counters rather than by scanning
+     * @param type Task type
+     * @return Count, total minutes, time span and budget of the type
+     */
+    public TypeSummary getTypeSummary(TaskFactory.TaskType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Task type cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            return summarize(type.ordinal());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the running totals of every task type, in TaskType order
+     * @return One summary per type, including types with no tasks
+     */
+    public List<TypeSummary> getTypeSummaries() {
+        lock.readLock().lock();
+        try {
+            List<TypeSummary> summaries = new ArrayList<>(TypeTotals.TYPES.length);
+            for (int type = 0; type < TypeTotals.TYPES.length; type++) {
+                summaries.add(summarize(type));
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Builds a type summary; caller holds the lock
+     */
+    private TypeSummary summarize(int type) {
+        TypeTotals totals = tasks.totals();
+        long min = budgets.min(type);
+        long max = budgets.max(type);
+        return new TypeSummary(TypeTotals.TYPES[type].name(), totals.count(type), totals.minutes(type),
+            totals.earliest(type), totals.latest(type),
+            min != TimeBudgets.NONE ? min : null, max != TimeBudgets.NONE ? max : null);
+    }
+    
+    /**
+     * Archives the current schedule as the read-only record of a day
+     * The segment is written from a copy taken under the read lock, so edits
+     * are not held up by the disk. The live schedule is left as it is.
+     * @param date Day the schedule belongs to
+     * @return Number of tasks archived
+     * @throws TaskException if the day is already archived or the segment cannot be written
+     */
+    public int archiveDay(LocalDate date) throws TaskException {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        List<Task> snapshot = getTasks();
+        try {
+            archive.write(date, snapshot);
+        } catch (IllegalStateException e) {
+            throw new TaskException(e.getMessage());
+        } catch (IOException e) {
+            logger.logError("Failed to archive day " + date, e);
+            throw new TaskException("Failed to archive day " + date + ": " + e.getMessage(), e);
+        }
+        logger.logMessage("Archived day " + date + " (" + snapshot.size() + " tasks)");
+        return snapshot.size();
+    }
+    
+    /**
+     * Gets the archived days
+     * @return Dates in ascending order, empty if none
+     * @throws TaskException if the archive directory cannot be read
+     */
+    public List<LocalDate> getArchivedDays() throws TaskException {
+        try {
+            return archive.days();
+        } catch (IOException e) {
+            logger.logError("Failed to list archived days", e);
+            throw new TaskException("Failed to list archived days: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Gets the tasks of an archived day
+     * @param date Archived day
+     * @return Unmodifiable list of tasks in start time order
+     * @throws TaskException if the day is not archived or cannot be read
+     */
+    public List<Task> getArchivedTasks(LocalDate date) throws TaskException {
+        return Collections.unmodifiableList(new ArrayList<>(archivedDay(date).values()));
+    }
+    
+    /**
+     * Finds a task of an archived day by name (case-insensitive)
+     * @return The task, or null if the day has none by that name
+     * @throws TaskException if the day is not archived or cannot be read
+     */
+    public Task findArchivedTask(LocalDate date, String taskName) throws TaskException {
+        if (taskName == null || taskName.trim().isEmpty()) {
+            return null;
+        }
+        return archivedDay(date).get(taskName.trim());
+    }
+    
+    /**
+     * Finds the tasks of an archived day overlapping a time window, in start time order
+     * @param start Window start (inclusive)
+     * @param end Window end (exclusive)
+     * @throws TaskException if the day is not archived or cannot be read
+     */
+    public List<Task> findArchivedTasksBetween(LocalDate date, LocalTime start, LocalTime end)
+            throws TaskException {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        return archivedDay(date).between(start, end);
+    }
+    
+    /**
+     * Gets the load of an archived day in a time window, as getLoad() does for the live schedule
+     * @throws TaskException if the day is not archived or cannot be read
+     */
+    public ScheduleLoad getArchivedLoad(LocalDate date, LocalTime start, LocalTime end) throws TaskException {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        return loadOf(archivedDay(date), start, end);
+    }
+    
+    /**
+     * Gets the number of archived days currently held in memory
+     */
+    public int getCachedDayCount() {
+        return archive.cachedDays();
+    }
+    
+    /**
+     * Pages in an archived day; the returned index is never modified, so it is read without a lock
+     */
+    private TaskIndex archivedDay(LocalDate date) throws TaskException {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        TaskIndex day;
+        try {
+            day = archive.day(date);
+        } catch (IOException e) {
+            logger.logError("Failed to read archived day " + date, e);
+            throw new TaskException("Failed to read archived day " + date + ": " + e.getMessage(), e);
+        }
+        if (day == null) {
+            throw new TaskException("No schedule archived for " + date);
+        }
+        return day;
+    }
+    
+    /**
+     * Gets the number of resources claimed by at least one task
+     * @return Number of resource timelines
+     */
+    public int getResourceCount() {
+        lock.readLock().lock();
+        try {
+            return tasks.resourceCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets a snapshot of the schedule without printing it
+     * @return Unmodifiable list of tasks in start time order
+     */
+    public List<Task> getTasks() {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(tasks.values()));
+        } finally {
+            lock.readLock().unlock();
         }
-        
-        return tasks.stream()
-                .anyMatch(task -> task.getName().equalsIgnoreCase(taskName.trim()));
     }
 }
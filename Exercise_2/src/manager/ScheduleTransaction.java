@@ -0,0 +1,155 @@
+package manager;
+
+import exception.TaskException;
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of adds, removes and moves applied to the schedule atomically
+ * Operations are only staged here. commit() validates them together against
+ * the schedule they would produce and applies all or nothing, with O(log n)
+ * index work per operation and one round of logging and notification. Uses
+ * optimistic concurrency: if any other change was committed after
+ * beginTransaction(), commit fails as stale and the caller rebuilds and
+ * retries. Not thread-safe; one transaction belongs to one thread.
+ *
+ * Operations apply in order, so "remove X, add X" replaces a task and a move
+ * of a task added earlier in the same transaction moves the staged task.
+ */
+public final class ScheduleTransaction {
+    
+    enum Kind {
+        ADD, REMOVE, MOVE
+    }
+    
+    /**
+     * One staged operation
+     */
+    static final class Operation {
+        final Kind kind;
+        final Task task;
+        final String name;
+        final LocalTime start;
+        final LocalTime end;
+        
+        Operation(Kind kind, Task task, String name, LocalTime start, LocalTime end) {
+            this.kind = kind;
+            this.task = task;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    private final ScheduleManager scheduleManager;
+    private final long baseVersion;
+    private final List<Operation> operations = new ArrayList<>();
+    private boolean finished;
+    
+    ScheduleTransaction(ScheduleManager scheduleManager, long baseVersion) {
+        this.scheduleManager = scheduleManager;
+        this.baseVersion = baseVersion;
+    }
+    
+    /**
+     * Stages adding a task
+     * @param task The task to add
+     * @return This transaction
+     */
+    public ScheduleTransaction add(Task task) {
+        checkOpen();
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        operations.add(new Operation(Kind.ADD, task, task.getName(), null, null));
+        return this;
+    }
+    
+    /**
+     * Stages removing a task by name (case-insensitive)
+     * @param taskName The task to remove
+     * @return This transaction
+     */
+    public ScheduleTransaction remove(String taskName) {
+        checkOpen();
+        operations.add(new Operation(Kind.REMOVE, null, requireName(taskName), null, null));
+        return this;
+    }
+    
+    /**
+     * Stages moving a task to a new time slot, keeping its name and type
+     * @param taskName The task to move
+     * @param start New start time
+     * @param end New end time
+     * @return This transaction
+     */
+    public ScheduleTransaction move(String taskName, LocalTime start, LocalTime end) {
+        checkOpen();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        operations.add(new Operation(Kind.MOVE, null, requireName(taskName), start, end));
+        return this;
+    }
+    
+    /**
+     * Validates and applies all staged operations atomically
+     * @return Schedule version after the commit
+     * @throws exception.TransactionException if the schedule changed since begin (stale),
+     *         or the result would contain conflicts, unknown or duplicate names
+     * @throws TaskException if the schedule is a read-only replica
+     */
+    public long commit() throws TaskException {
+        checkOpen();
+        finished = true;
+        return scheduleManager.commit(this);
+    }
+    
+    /**
+     * Discards all staged operations
+     */
+    public void rollback() {
+        finished = true;
+        operations.clear();
+    }
+    
+    /**
+     * Gets the version the transaction was started against
+     * @return Base version for the optimistic check
+     */
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+    
+    /**
+     * Gets the number of staged operations
+     */
+    public int size() {
+        return operations.size();
+    }
+    
+    public boolean isOpen() {
+        return !finished;
+    }
+    
+    List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+    
+    private void checkOpen() {
+        if (finished) {
+            throw new IllegalStateException("Transaction already committed or rolled back");
+        }
+    }
+    
+    private static String requireName(String taskName) {
+        if (taskName == null || taskName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task name cannot be null or empty");
+        }
+        return taskName.trim();
+    }
+}
@@ -0,0 +1,265 @@
+package manager;
+
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Ordered index over a conflict-free schedule
+ * Keeps one timeline per resource. Tasks on a timeline never overlap, so
+ * their start times are unique and their end times ascend with them: the
+ * last task starting at or before a time is the only earlier task that can
+ * still be running at it. A conflict check therefore looks at two neighbours
+ * on each timeline the task claims, and inserts, removals and name lookups
+ * are O(log n) per claimed resource, however many other resources exist.
+ * Tasks on different resources may overlap, so the schedule-wide start time
+ * order is kept separately (ties broken by name). Names are unique and
+ * matched case-insensitively. A LoadTree of per-minute task counts, the
+ * per-type TypeTotals and the NameIndex for partial-name search are kept in
+ * step with every insert and removal. Not thread-safe; ScheduleManager
+ * guards it with its lock.
+ */
+final class TaskIndex {
+    static final Comparator<Task> START_ORDER = Comparator.comparing(Task::getStartTime)
+        .thenComparing(Task::getName, String.CASE_INSENSITIVE_ORDER);
+    
+    private final NavigableSet<Task> byStart = new TreeSet<>(START_ORDER);
+    private final Map<String, Task> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, TreeMap<LocalTime, Task>> timelines = new HashMap<>();
+    private final LoadTree load = new LoadTree();
+    private final TypeTotals totals = new TypeTotals();
+    private final NameIndex names = new NameIndex();
+    
+    int size() {
+        return byStart.size();
+    }
+    
+    /**
+     * Gets the number of resources with at least one task
+     */
+    int resourceCount() {
+        return timelines.size();
+    }
+    
+    /**
+     * Gets a task by name (case-insensitive)
+     * @return The task, or null if there is none
+     */
+    Task get(String name) {
+        return byName.get(name);
+    }
+    
+    /**
+     * Finds the first task, in start time order, that claims one of the
+     * task's resources while it runs
+     * @param ignore Task to leave out (the task being moved), or null
+     * @return The conflicting task, or null if the slot is free
+     */
+    Task findConflict(Task task, Task ignore) {
+        Task first = null;
+        for (String resource : task.getResources()) {
+            TreeMap<LocalTime, Task> timeline = timelines.get(resource);
+            if (timeline == null) {
+                continue;
+            }
+            Task conflict = findConflict(timeline, task.getStartTime(), task.getEndTime(), ignore);
+            if (conflict != null && (first == null || START_ORDER.compare(conflict, first) < 0)) {
+                first = conflict;
+            }
+        }
+        return first;
+    }
+    
+    private static Task findConflict(TreeMap<LocalTime, Task> timeline, LocalTime start, LocalTime end,
+            Task ignore) {
+        Map.Entry<LocalTime, Task> before = timeline.floorEntry(start);
+        if (before != null && before.getValue() == ignore) {
+            before = timeline.lowerEntry(before.getKey());
+        }
+        if (before != null && before.getValue().getEndTime().isAfter(start)) {
+            return before.getValue();
+        }
+        
+        Map.Entry<LocalTime, Task> after = timeline.higherEntry(start);
+        if (after != null && after.getValue() == ignore) {
+            after = timeline.higherEntry(after.getKey());
+        }
+        if (after != null && after.getValue().getStartTime().isBefore(end)) {
+            return after.getValue();
+        }
+        return null;
+    }
+    
+    /**
+     * Finds every task that claims one of the task's resources while it runs
+     * @return Conflicting tasks in start time order, each listed once
+     */
+    List<Task> findConflicts(Task task) {
+        if (task.getResources().size() == 1) {
+            TreeMap<LocalTime, Task> timeline = timelines.get(task.getResources().iterator().next());
+            List<Task> result = new ArrayList<>();
+            if (timeline != null) {
+                addBetween(timeline, task.getStartTime(), task.getEndTime(), result);
+            }
+            return result;
+        }
+        NavigableSet<Task> found = new TreeSet<>(START_ORDER);
+        List<Task> batch = new ArrayList<>();
+        for (String resource : task.getResources()) {
+            TreeMap<LocalTime, Task> timeline = timelines.get(resource);
+            if (timeline != null) {
+                addBetween(timeline, task.getStartTime(), task.getEndTime(), batch);
+                found.addAll(batch);
+                batch.clear();
+            }
+        }
+        return new ArrayList<>(found);
+    }
+    
+    /**
+     * Inserts a task; the caller has checked it against findConflict and the name index
+     * @throws IllegalStateException if its name or its start time on one of its resources is taken
+     */
+    void add(Task task) {
+        Task previous = byName.putIfAbsent(task.getName(), task);
+        if (previous != null) {
+            throw new IllegalStateException("A task with this name already exists: " + task.getName());
+        }
+        List<TreeMap<LocalTime, Task>> claimed = new ArrayList<>(task.getResources().size());
+        for (String resource : task.getResources()) {
+            TreeMap<LocalTime, Task> timeline = timelines.computeIfAbsent(resource, key -> new TreeMap<>());
+            previous = timeline.putIfAbsent(task.getStartTime(), task);
+            if (previous != null) {
+                for (TreeMap<LocalTime, Task> undo : claimed) {
+                    undo.remove(task.getStartTime());
+                }
+                byName.remove(task.getName());
+                throw new IllegalStateException("Task '" + task.getName() + "' starts at the same time as '"
+                    + previous.getName() + "' on " + resource);
+            }
+            claimed.add(timeline);
+        }
+        byStart.add(task);
+        load.add(LoadTree.firstMinute(task.getStartTime()), LoadTree.endMinute(task.getEndTime()), 1);
+        totals.add(task);
+        names.add(task);
+    }
+    
+    /**
+     * Removes a task if it is indexed (matched by name, start and end)
+     * @return true if the task was removed
+     */
+    boolean remove(Task task) {
+        Task current = byName.get(task.getName());
+        if (current == null || !current.equals(task)) {
+            return false;
+        }
+        byName.remove(current.getName());
+        byStart.remove(current);
+        for (String resource : current.getResources()) {
+            TreeMap<LocalTime, Task> timeline = timelines.get(resource);
+            timeline.remove(current.getStartTime());
+            if (timeline.isEmpty()) {
+                timelines.remove(resource);
+            }
+        }
+        load.add(LoadTree.firstMinute(current.getStartTime()), LoadTree.endMinute(current.getEndTime()), -1);
+        totals.remove(current);
+        names.remove(current);
+        return true;
+    }
+    
+    /**
+     * Finds all tasks overlapping [start, end), in start time order
+     */
+    List<Task> between(LocalTime start, LocalTime end) {
+        if (timelines.size() == 1) {
+            List<Task> result = new ArrayList<>();
+            addBetween(timelines.values().iterator().next(), start, end, result);
+            return result;
+        }
+        
+        // A task on several resources is found once per timeline
+        NavigableSet<Task> found = new TreeSet<>(START_ORDER);
+        List<Task> batch = new ArrayList<>();
+        for (TreeMap<LocalTime, Task> timeline : timelines.values()) {
+            addBetween(timeline, start, end, batch);
+            found.addAll(batch);
+            batch.clear();
+        }
+        return new ArrayList<>(found);
+    }
+    
+    private static void addBetween(TreeMap<LocalTime, Task> timeline, LocalTime start, LocalTime end,
+            List<Task> result) {
+        Map.Entry<LocalTime, Task> first = timeline.floorEntry(start);
+        if (first != null && first.getValue().getEndTime().isAfter(start)) {
+            result.add(first.getValue());
+        }
+        // Iterated directly: addAll() would walk the range twice (size, then copy)
+        for (Task task : timeline.subMap(start, false, end, false).values()) {
+            result.add(task);
+        }
+    }
+    
+    /**
+     * Gets the tasks claiming a resource, in start time order
+     * @param resource Lower-case resource name
+     */
+    List<Task> onResource(String resource) {
+        TreeMap<LocalTime, Task> timeline = timelines.get(resource);
+        return timeline == null ? new ArrayList<>() : new ArrayList<>(timeline.values());
+    }
+    
+    /**
+     * Gets the per-minute load of the indexed tasks (a live view)
+     */
+    LoadTree load() {
+        return load;
+    }
+    
+    /**
+     * Gets the per-type totals of the indexed tasks (a live view)
+     */
+    TypeTotals totals() {
+        return totals;
+    }
+    
+    /**
+     * Gets the partial-name search index of the indexed tasks (a live view)
+     */
+    NameIndex names() {
+        return names;
+    }
+    
+    /**
+     * Gets the indexed tasks in start time order (a live view)
+     */
+    Collection<Task> values() {
+        return byStart;
+    }
+    
+    /**
+     * Replaces the contents with tasks that are free of conflicts and duplicate names
+     */
+    void reset(Collection<Task> tasks) {
+        byStart.clear();
+        byName.clear();
+        timelines.clear();
+        load.clear();
+        totals.clear();
+        names.clear();
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+}
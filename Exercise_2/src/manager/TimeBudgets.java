@@ -0,0 +1,83 @@
+package manager;
+
+import model.Task;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Optional minimum and maximum total minutes per task type
+ * An edit is rejected if it raises a type's total above its maximum or
+ * lowers it below its minimum. Edits that move a total toward its budget are
+ * always allowed, so a schedule that starts short of a minimum can be built
+ * up to it. Checking an edit costs O(1) per task it touches, using the
+ * running totals. Not thread-safe; ScheduleManager guards it with its lock.
+ */
+final class TimeBudgets {
+    static final long NONE = -1;
+    
+    private final long[] min = new long[TypeTotals.TYPES.length];
+    private final long[] max = new long[TypeTotals.TYPES.length];
+    
+    TimeBudgets() {
+        Arrays.fill(min, NONE);
+        Arrays.fill(max, NONE);
+    }
+    
+    /**
+     * @param minMinutes Minimum total, or NONE
+     * @param maxMinutes Maximum total, or NONE
+     */
+    void set(int type, long minMinutes, long maxMinutes) {
+        min[type] = minMinutes;
+        max[type] = maxMinutes;
+    }
+    
+    long min(int type) {
+        return min[type];
+    }
+    
+    long max(int type) {
+        return max[type];
+    }
+    
+    /**
+     * Checks an edit against the budgets before it is applied
+     * @param totals Totals of the schedule the edit applies to
+     * @param removed Tasks the edit takes out
+     * @param added Tasks the edit puts in
+     * @return Description of the first budget the edit breaks, or null
+     */
+    String check(TypeTotals totals, List<Task> removed, List<Task> added) {
+        if (added.size() == 1 && removed.isEmpty()) {
+            return check(totals, TypeTotals.typeOf(added.get(0)), added.get(0).getDurationMinutes());
+        }
+        long[] delta = new long[TypeTotals.TYPES.length];
+        for (Task task : removed) {
+            delta[TypeTotals.typeOf(task)] -= task.getDurationMinutes();
+        }
+        for (Task task : added) {
+            delta[TypeTotals.typeOf(task)] += task.getDurationMinutes();
+        }
+        for (int type = 0; type < delta.length; type++) {
+            String problem = check(totals, type, delta[type]);
+            if (problem != null) {
+                return problem;
+            }
+        }
+        return null;
+    }
+    
+    private String check(TypeTotals totals, int type, long delta) {
+        long total = totals.minutes(type) + delta;
+        if (delta > 0 && max[type] != NONE && total > max[type]) {
+            return String.format("%s budget exceeded: %d of at most %d minutes",
+                TypeTotals.TYPES[type], total, max[type]);
+        }
+        if (delta < 0 && min[type] != NONE && total < min[type]) {
+            return String.format("%s budget undercut: %d of at least %d minutes",
+                TypeTotals.TYPES[type], total, min[type]);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,179 @@
+package manager;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel over integer ticks
+ * LEVELS wheels of SLOTS slots each: level k holds the timers due between
+ * SLOTS^k and SLOTS^(k+1) ticks ahead, hashed by the k-th six-bit group of
+ * their due tick. A slot is a doubly-linked list threaded through the
+ * timers themselves, so scheduling and cancelling are O(1) and a pending
+ * timer costs no more than its own object. Each tick expires one level-0
+ * slot; every SLOTS ticks the due slot of the next level up is cascaded
+ * down, so a timer is re-hashed at most LEVELS - 1 times. Timers further
+ * ahead than the wheel spans wait in the top level and are re-hashed when
+ * it comes round. Not thread-safe; ReminderEngine guards it with its lock.
+ */
+final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+    
+    /**
+     * A pending timer; subclasses carry the payload
+     */
+    static class Timer {
+        private long deadline;
+        private Timer prev;
+        private Timer next;
+        private int slot = -1;
+    }
+    
+    private final Timer[] slots = new Timer[LEVELS * SLOTS];
+    private long now;
+    private int size;
+    
+    /**
+     * @param now Current tick; nothing is due at or before it
+     */
+    TimingWheel(long now) {
+        this.now = now;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Schedules a timer, moving it if it is already pending
+     * @param deadline Tick to fire at; a passed deadline fires on the next tick
+     */
+    void schedule(Timer timer, long deadline) {
+        if (timer.slot >= 0) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = deadline;
+        insert(timer, Math.max(deadline, now + 1));
+    }
+    
+    /**
+     * Cancels a pending timer
+     * @return false if it was not pending
+     */
+    boolean cancel(Timer timer) {
+        if (timer.slot < 0) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+    
+    /**
+     * Unlinks every timer without firing it
+     */
+    void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            for (Timer timer = slots[i]; timer != null; ) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.slot = -1;
+                timer = next;
+            }
+            slots[i] = null;
+        }
+        size = 0;
+    }
+    
+    /**
+     * Advances tick by tick up to a tick, handing over the timers that expire
+     * Expired timers are no longer pending when the consumer sees them, but the
+     * consumer must not schedule or cancel timers; collect them and do so after.
+     * An idle wheel jumps straight to the tick.
+     */
+    void advance(long tick, Consumer<Timer> expired) {
+        while (now < tick) {
+            if (size == 0) {
+                now = tick;
+                return;
+            }
+            now++;
+            int index = (int) (now & MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            
+            Timer timer = slots[index];
+            slots[index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.slot = -1;
+                size--;
+                expired.accept(timer);
+                timer = next;
+            }
+        }
+    }
+    
+    /**
+     * Re-hashes the due slot of a level into the levels below, after the level
+     * above if this one has come full circle too
+     */
+    private void cascade(int level) {
+        int index = (int) ((now >>> (BITS * level)) & MASK);
+        if (index == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+        int slot = level * SLOTS + index;
+        Timer timer = slots[slot];
+        slots[slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            insert(timer, Math.max(timer.deadline, now));
+            timer = next;
+        }
+    }
+    
+    /**
+     * Links a timer into the slot for a due tick at or after now
+     */
+    private void insert(Timer timer, long due) {
+        long delta = due - now;
+        if (delta >= SPAN) {
+            due = now + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = delta < SLOTS ? 0 : (63 - Long.numberOfLeadingZeros(delta)) / BITS;
+        int slot = level * SLOTS + (int) ((due >>> (BITS * level)) & MASK);
+        Timer head = slots[slot];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[slot] = timer;
+        timer.slot = slot;
+    }
+    
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.slot = -1;
+    }
+}
@@ -0,0 +1,87 @@
+package manager;
+
+import factory.TaskFactory;
+import model.Task;
+
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Running per-type aggregates of the indexed tasks
+ * Count and total minutes are plain counters, so reading them (and checking a
+ * budget against them) is O(1). Earliest start and latest end come from
+ * per-type multisets of start and end times, O(log n) to update and read.
+ * Updated by TaskIndex on every insert and removal; not thread-safe.
+ */
+final class TypeTotals {
+    static final TaskFactory.TaskType[] TYPES = TaskFactory.TaskType.values();
+    
+    private final int[] count = new int[TYPES.length];
+    private final long[] minutes = new long[TYPES.length];
+    private final TreeMap<LocalTime, Integer>[] starts = newMultisets();
+    private final TreeMap<LocalTime, Integer>[] ends = newMultisets();
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TreeMap<LocalTime, Integer>[] newMultisets() {
+        TreeMap<LocalTime, Integer>[] multisets = new TreeMap[TYPES.length];
+        for (int i = 0; i < multisets.length; i++) {
+            multisets[i] = new TreeMap<>();
+        }
+        return multisets;
+    }
+    
+    /**
+     * Gets the type of a task as an index into TYPES
+     */
+    static int typeOf(Task task) {
+        return TaskFactory.TaskType.valueOf(task.getTaskType().toUpperCase(Locale.ROOT)).ordinal();
+    }
+    
+    void add(Task task) {
+        int type = typeOf(task);
+        count[type]++;
+        minutes[type] += task.getDurationMinutes();
+        starts[type].merge(task.getStartTime(), 1, Integer::sum);
+        ends[type].merge(task.getEndTime(), 1, Integer::sum);
+    }
+    
+    void remove(Task task) {
+        int type = typeOf(task);
+        count[type]--;
+        minutes[type] -= task.getDurationMinutes();
+        starts[type].computeIfPresent(task.getStartTime(), (time, n) -> n == 1 ? null : n - 1);
+        ends[type].computeIfPresent(task.getEndTime(), (time, n) -> n == 1 ? null : n - 1);
+    }
+    
+    int count(int type) {
+        return count[type];
+    }
+    
+    long minutes(int type) {
+        return minutes[type];
+    }
+    
+    /**
+     * Gets the earliest start of a type, or null if it has no tasks
+     */
+    LocalTime earliest(int type) {
+        return starts[type].isEmpty() ? null : starts[type].firstKey();
+    }
+    
+    /**
+     * Gets the latest end of a type, or null if it has no tasks
+     */
+    LocalTime latest(int type) {
+        return ends[type].isEmpty() ? null : ends[type].lastKey();
+    }
+    
+    void clear() {
+        for (int type = 0; type < TYPES.length; type++) {
+            count[type] = 0;
+            minutes[type] = 0;
+            starts[type].clear();
+            ends[type].clear();
+        }
+    }
+}
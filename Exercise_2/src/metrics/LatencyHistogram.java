@@ -0,0 +1,128 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram with low-contention recording
+ * Buckets are powers of two in microseconds (<=1us, <=2us, ... <=2^24us ~ 16.8s)
+ * plus an overflow bucket. Recording is one LongAdder increment per bucket,
+ * count and sum, so it is cheap enough to leave on in production.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 26;
+    
+    private final String name;
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+    
+    public LatencyHistogram(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Histogram name cannot be null or empty");
+        }
+        
+        this.name = name.trim();
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0L);
+    }
+    
+    /**
+     * Records one observed latency
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketFor(nanos)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+    
+    /**
+     * Gets the upper bound of the bucket holding the given percentile
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound in microseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(rank, 1)) {
+                // A bucket bound can overshoot the largest value actually seen
+                return Math.min(upperBoundMicros(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1000.0 / n;
+    }
+    
+    public long getMaxMicros() {
+        return (maxNanos.get() + 999) / 1000;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Clears all recorded values
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+    
+    /**
+     * Index of the first bucket whose upper bound covers the latency
+     */
+    private static int bucketFor(long nanos) {
+        long micros = (nanos + 999) / 1000;
+        if (micros <= 1) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+    
+    private long upperBoundMicros(int bucket) {
+        return bucket == BUCKETS - 1 ? getMaxMicros() : 1L << bucket;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.1fus p50<=%dus p99<=%dus max=%dus",
+            name, getCount(), getMeanMicros(), getPercentileMicros(50), getPercentileMicros(99), getMaxMicros());
+    }
+}
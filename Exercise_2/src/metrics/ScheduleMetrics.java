@@ -0,0 +1,239 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ScheduleMetrics class implementing Singleton pattern
+ * In-process metrics for ScheduleManager: LongAdder throughput counters and
+ * fixed-bucket latency histograms, exported as a JMX MBean and optionally
+ * dumped as text on a fixed period.
+ */
+public class ScheduleMetrics implements ScheduleMetricsMBean {
+    public static final String OBJECT_NAME = "astronaut.schedule:type=ScheduleMetrics";
+    
+    // Lazy holder, initialized by the JVM on the first getInstance() call
+    private static final class Holder {
+        static final ScheduleMetrics INSTANCE = new ScheduleMetrics();
+    }
+    
+    private final LongAdder addAttempts = new LongAdder();
+    private final LongAdder adds = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder removeMisses = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LatencyHistogram conflictCheckLatency = new LatencyHistogram("conflictCheck");
+    private final LatencyHistogram notifyLatency = new LatencyHistogram("observerNotify");
+    
+    private volatile IntSupplier taskCount = () -> 0;
+    private ScheduledExecutorService reporter;
+    
+    // Private constructor prevents external instantiation
+    private ScheduleMetrics() {
+    }
+    
+    /**
+     * Thread-safe, lock-free getInstance using the initialization-on-demand holder idiom
+     * @return Single instance of ScheduleMetrics
+     */
+    public static ScheduleMetrics getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Registers this object with the platform MBean server (no-op if already registered)
+     * @throws Exception if JMX registration fails
+     */
+    public void registerMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+    
+    /**
+     * Starts a daemon thread that passes a text dump to the sink every period
+     * @param periodSeconds Dump period in seconds
+     * @param sink Receives each dump, e.g. a logger
+     */
+    public synchronized void startPeriodicDump(long periodSeconds, Consumer<String> sink) {
+        if (periodSeconds <= 0) {
+            throw new IllegalArgumentException("Dump period must be positive");
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "schedule-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> sink.accept(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Binds the task count gauge to the schedule
+     * @param supplier Supplies the current number of tasks
+     */
+    public void bindTaskCount(IntSupplier supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("Task count supplier cannot be null");
+        }
+        this.taskCount = supplier;
+    }
+    
+    // Recording methods, called on the hot paths
+    public void recordAddAttempt() {
+        addAttempts.increment();
+    }
+    
+    public void recordAdd() {
+        adds.increment();
+    }
+    
+    public void recordConflict() {
+        conflicts.increment();
+    }
+    
+    public void recordRemove(boolean found) {
+        if (found) {
+            removes.increment();
+        } else {
+            removeMisses.increment();
+        }
+    }
+    
+    public void recordLookup() {
+        lookups.increment();
+    }
+    
+    public void recordConflictCheck(long nanos) {
+        conflictCheckLatency.record(nanos);
+    }
+    
+    public void recordNotify(long nanos) {
+        notifyLatency.record(nanos);
+    }
+    
+    public LatencyHistogram getConflictCheckLatency() {
+        return conflictCheckLatency;
+    }
+    
+    public LatencyHistogram getNotifyLatency() {
+        return notifyLatency;
+    }
+    
+    // MBean attributes
+    @Override
+    public long getAddAttempts() {
+        return addAttempts.sum();
+    }
+    
+    @Override
+    public long getAddCount() {
+        return adds.sum();
+    }
+    
+    @Override
+    public long getRemoveCount() {
+        return removes.sum();
+    }
+    
+    @Override
+    public long getRemoveMisses() {
+        return removeMisses.sum();
+    }
+    
+    @Override
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+    
+    @Override
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+    
+    @Override
+    public double getConflictRatePercent() {
+        long attempts = addAttempts.sum();
+        return attempts == 0 ? 0.0 : conflicts.sum() * 100.0 / attempts;
+    }
+    
+    @Override
+    public int getTaskCount() {
+        return taskCount.getAsInt();
+    }
+    
+    @Override
+    public long getConflictCheckCount() {
+        return conflictCheckLatency.getCount();
+    }
+    
+    @Override
+    public double getConflictCheckMeanMicros() {
+        return conflictCheckLatency.getMeanMicros();
+    }
+    
+    @Override
+    public long getConflictCheckP99Micros() {
+        return conflictCheckLatency.getPercentileMicros(99);
+    }
+    
+    @Override
+    public long getConflictCheckMaxMicros() {
+        return conflictCheckLatency.getMaxMicros();
+    }
+    
+    @Override
+    public long getNotifyCount() {
+        return notifyLatency.getCount();
+    }
+    
+    @Override
+    public double getNotifyMeanMicros() {
+        return notifyLatency.getMeanMicros();
+    }
+    
+    @Override
+    public long getNotifyP99Micros() {
+        return notifyLatency.getPercentileMicros(99);
+    }
+    
+    @Override
+    public long getNotifyMaxMicros() {
+        return notifyLatency.getMaxMicros();
+    }
+    
+    @Override
+    public String dump() {
+        return String.format("=== SCHEDULE METRICS ===%n" +
+            "tasks=%d addAttempts=%d adds=%d conflicts=%d (%.1f%%) removes=%d removeMisses=%d lookups=%d%n" +
+            "%s%n%s",
+            getTaskCount(), getAddAttempts(), getAddCount(), getConflictCount(), getConflictRatePercent(),
+            getRemoveCount(), getRemoveMisses(), getLookupCount(),
+            conflictCheckLatency, notifyLatency);
+    }
+    
+    @Override
+    public void reset() {
+        addAttempts.reset();
+        adds.reset();
+        removes.reset();
+        removeMisses.reset();
+        lookups.reset();
+        conflicts.reset();
+        conflictCheckLatency.reset();
+        notifyLatency.reset();
+    }
+}
@@ -0,0 +1,54 @@
+package metrics;
+
+/**
+ * JMX management interface for ScheduleManager metrics
+ * Registered as astronaut.schedule:type=ScheduleMetrics
+ */
+public interface ScheduleMetricsMBean {
+    long getAddAttempts();
+    
+    long getAddCount();
+    
+    long getRemoveCount();
+    
+    long getRemoveMisses();
+    
+    long getLookupCount();
+    
+    long getConflictCount();
+    
+    /**
+     * Conflicts as a percentage of add attempts
+     * @return Conflict rate in percent
+     */
+    double getConflictRatePercent();
+    
+    int getTaskCount();
+    
+    long getConflictCheckCount();
+    
+    double getConflictCheckMeanMicros();
+    
+    long getConflictCheckP99Micros();
+    
+    long getConflictCheckMaxMicros();
+    
+    long getNotifyCount();
+    
+    double getNotifyMeanMicros();
+    
+    long getNotifyP99Micros();
+    
+    long getNotifyMaxMicros();
+    
+    /**
+     * Renders all metrics as a text block
+     * @return Text dump
+     */
+    String dump();
+    
+    /**
+     * Clears all counters and histograms
+     */
+    void reset();
+}
@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * A precedence constraint between two scheduled tasks: "after" may only start once "before" has ended
+ * Names are as scheduled; they compare case-insensitively elsewhere, as
+ * task names do.
+ */
+public final class Dependency {
+    private final String before;
+    private final String after;
+    
+    public Dependency(String before, String after) {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Task names cannot be null");
+        }
+        this.before = before;
+        this.after = after;
+    }
+    
+    public String getBefore() {
+        return before;
+    }
+    
+    public String getAfter() {
+        return after;
+    }
+    
+    @Override
+    public String toString() {
+        return before + " -> " + after;
+    }
+}
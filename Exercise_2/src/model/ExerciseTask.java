@@ -1,6 +1,7 @@
 package model;
 
 import java.time.LocalTime;
+import java.util.Collection;
 
 /**
  * Exercise task implementation
@@ -12,12 +13,19 @@ public class ExerciseTask extends Task {
         super(name, startTime, endTime, "Exercise");
     }
     
+    public ExerciseTask(String name, LocalTime startTime, LocalTime endTime, Collection<String> resources) {
+        super(name, startTime, endTime, "Exercise", resources);
+    }
+    
     @Override
     public void displayTask() {
         System.out.println("EXERCISE TASK:");
         System.out.println("  Name: " + name);
         System.out.println("  Time: " + getFormattedTimeRange());
         System.out.println("  Duration: " + getDurationMinutes() + " minutes");
+        if (!hasDefaultResources()) {
+            System.out.println("  Resources: " + String.join(", ", resources));
+        }
         System.out.println("  Description: Physical fitness and health maintenance");
     }
 }
@@ -1,6 +1,7 @@
 package model;
 
 import java.time.LocalTime;
+import java.util.Collection;
 
 /**
  * Maintenance task implementation
@@ -12,12 +13,19 @@ public class MaintenanceTask extends Task {
         super(name, startTime, endTime, "Maintenance");
     }
     
+    public MaintenanceTask(String name, LocalTime startTime, LocalTime endTime, Collection<String> resources) {
+        super(name, startTime, endTime, "Maintenance", resources);
+    }
+    
     @Override
     public void displayTask() {
         System.out.println("MAINTENANCE TASK:");
         System.out.println("  Name: " + name);
         System.out.println("  Time: " + getFormattedTimeRange());
         System.out.println("  Duration: " + getDurationMinutes() + " minutes");
+        if (!hasDefaultResources()) {
+            System.out.println("  Resources: " + String.join(", ", resources));
+        }
         System.out.println("  Description: Equipment and facility maintenance");
     }
 }
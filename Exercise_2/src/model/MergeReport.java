@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of merging an incoming plan into the schedule
+ * A revised task (incoming task named like an existing one) shows up in
+ * both getRemoved() (the old version) and getAdded() (the new one).
+ */
+public final class MergeReport {
+    private final List<Task> added;
+    private final List<Task> removed;
+    private final List<Task> skipped;
+    private final List<String> conflicts;
+    private final int unchanged;
+    private final int taskCount;
+    private final long version;
+    
+    public MergeReport(List<Task> added, List<Task> removed, List<Task> skipped, List<String> conflicts,
+            int unchanged, int taskCount, long version) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.skipped = Collections.unmodifiableList(skipped);
+        this.conflicts = Collections.unmodifiableList(conflicts);
+        this.unchanged = unchanged;
+        this.taskCount = taskCount;
+        this.version = version;
+    }
+    
+    /**
+     * Gets the incoming tasks now in the schedule, in start time order
+     * @return New tasks and new versions of revised tasks
+     */
+    public List<Task> getAdded() {
+        return added;
+    }
+    
+    /**
+     * Gets the existing tasks taken out of the schedule
+     * @return Old versions of revised tasks and tasks displaced by incoming ones
+     */
+    public List<Task> getRemoved() {
+        return removed;
+    }
+    
+    /**
+     * Gets the incoming tasks left out because of a conflict or a repeated name
+     * @return Skipped tasks in plan order
+     */
+    public List<Task> getSkipped() {
+        return skipped;
+    }
+    
+    /**
+     * Gets a description of every conflict found and how it was resolved
+     * @return Conflicts within the plan, then conflicts with the schedule, each in plan order
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+    
+    /**
+     * Gets the number of incoming tasks identical to the scheduled ones
+     * @return Tasks that needed no change
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+    
+    public int getTaskCount() {
+        return taskCount;
+    }
+    
+    /**
+     * Gets the schedule version after the merge
+     * @return Version, unchanged if the merge changed nothing
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d added, %d removed, %d skipped, %d unchanged, %d conflicts (Total tasks: %d)",
+            added.size(), removed.size(), skipped.size(), unchanged, conflicts.size(), taskCount);
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.time.LocalTime;
+import java.util.Collection;
 
 /**
  * Research task implementation
@@ -12,12 +13,19 @@ public class ResearchTask extends Task {
         super(name, startTime, endTime, "Research");
     }
     
+    public ResearchTask(String name, LocalTime startTime, LocalTime endTime, Collection<String> resources) {
+        super(name, startTime, endTime, "Research", resources);
+    }
+    
     @Override
     public void displayTask() {
         System.out.println("RESEARCH TASK:");
         System.out.println("  Name: " + name);
         System.out.println("  Time: " + getFormattedTimeRange());
         System.out.println("  Duration: " + getDurationMinutes() + " minutes");
+        if (!hasDefaultResources()) {
+            System.out.println("  Resources: " + String.join(", ", resources));
+        }
         System.out.println("  Description: Scientific research and experimentation");
     }
 }
@@ -0,0 +1,87 @@
+package model;
+
+/**
+ * One entry of the ScheduleManager change feed
+ * Sequence numbers start at 1 and grow by one per change, in the order the
+ * changes were applied to the schedule.
+ */
+public final class ScheduleChange {
+    
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        // The whole schedule was replaced; followers must reload a snapshot
+        RESET,
+        // A dependency was added or dropped; no task moved
+        LINKED,
+        UNLINKED;
+        
+        public boolean isDependency() {
+            return this == LINKED || this == UNLINKED;
+        }
+    }
+    
+    private final long sequence;
+    private final Kind kind;
+    private final Task task;
+    private final Dependency dependency;
+    
+    public ScheduleChange(long sequence, Kind kind, Task task) {
+        if (kind == null) {
+            throw new IllegalArgumentException("Change kind cannot be null");
+        }
+        if (kind.isDependency()) {
+            throw new IllegalArgumentException(kind + " takes a dependency, not a task");
+        }
+        if (task == null && kind != Kind.RESET) {
+            throw new IllegalArgumentException("Task cannot be null for " + kind);
+        }
+        this.sequence = sequence;
+        this.kind = kind;
+        this.task = task;
+        this.dependency = null;
+    }
+    
+    public ScheduleChange(long sequence, Kind kind, Dependency dependency) {
+        if (kind == null || !kind.isDependency()) {
+            throw new IllegalArgumentException("Not a dependency change: " + kind);
+        }
+        if (dependency == null) {
+            throw new IllegalArgumentException("Dependency cannot be null for " + kind);
+        }
+        this.sequence = sequence;
+        this.kind = kind;
+        this.task = null;
+        this.dependency = dependency;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Gets the added or removed task
+     * @return The task, or null for RESET and dependency changes
+     */
+    public Task getTask() {
+        return task;
+    }
+    
+    /**
+     * Gets the added or dropped dependency
+     * @return The dependency, or null unless the kind is LINKED or UNLINKED
+     */
+    public Dependency getDependency() {
+        return dependency;
+    }
+    
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + kind + (task != null ? " " + task.getName() : "")
+            + (dependency != null ? " " + dependency : "");
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import java.time.LocalTime;
+
+/**
+ * Scheduled load in a time window, read from the per-minute load index
+ * Tasks count for every minute they touch, so partial minutes round up.
+ */
+public final class ScheduleLoad {
+    private final LocalTime start;
+    private final LocalTime end;
+    private final long busyMinutes;
+    private final int peakConcurrency;
+    private final int windowMinutes;
+    
+    public ScheduleLoad(LocalTime start, LocalTime end, long busyMinutes, int peakConcurrency, int windowMinutes) {
+        this.start = start;
+        this.end = end;
+        this.busyMinutes = busyMinutes;
+        this.peakConcurrency = peakConcurrency;
+        this.windowMinutes = windowMinutes;
+    }
+    
+    public LocalTime getStart() {
+        return start;
+    }
+    
+    public LocalTime getEnd() {
+        return end;
+    }
+    
+    /**
+     * Gets the task-minutes scheduled in the window (two parallel tasks count twice)
+     * @return Sum of the per-minute load
+     */
+    public long getBusyMinutes() {
+        return busyMinutes;
+    }
+    
+    /**
+     * Gets the highest number of tasks running in the same minute
+     * @return Peak concurrency, 0 for an idle window
+     */
+    public int getPeakConcurrency() {
+        return peakConcurrency;
+    }
+    
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    
+    /**
+     * Gets busy minutes per window minute; above 1.0 when tasks run in parallel on different resources
+     * @return Average load over the window
+     */
+    public double getUtilization() {
+        return windowMinutes == 0 ? 0 : (double) busyMinutes / windowMinutes;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s - %s: %d busy minutes, %.0f%% utilization, peak %d concurrent",
+            start, end.equals(LocalTime.MAX) ? "24:00" : end, busyMinutes, getUtilization() * 100, peakConcurrency);
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consistent copy of the schedule and its dependencies together with the
+ * sequence number of the last change it includes, taken under a single lock
+ */
+public final class ScheduleSnapshot {
+    private final long sequence;
+    private final List<Task> tasks;
+    private final List<Dependency> dependencies;
+    
+    public ScheduleSnapshot(long sequence, List<Task> tasks) {
+        this(sequence, tasks, Collections.emptyList());
+    }
+    
+    public ScheduleSnapshot(long sequence, List<Task> tasks, List<Dependency> dependencies) {
+        this.sequence = sequence;
+        this.tasks = tasks;
+        this.dependencies = dependencies;
+    }
+    
+    /**
+     * Gets the sequence number of the last change included; a follower resumes the feed after it
+     * @return Sequence number (0 if the schedule never changed)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+    
+    /**
+     * Gets the tasks in start time order
+     * @return Unmodifiable list of tasks
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+    
+    /**
+     * Gets the dependencies between the tasks
+     * @return Unmodifiable list of dependencies, each joining two of the tasks
+     */
+    public List<Dependency> getDependencies() {
+        return dependencies;
+    }
+}
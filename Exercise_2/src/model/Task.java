@@ -2,20 +2,46 @@ package model;
 
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Abstract base class for all task types
  * Follows Single Responsibility Principle - handles basic task properties
+ *
+ * A task claims a set of resources (crew members, treadmill, airlock, ...)
+ * for its time slot; two tasks conflict only if they overlap in time and
+ * share a resource. Tasks that declare no resources claim CREW_RESOURCE, the
+ * single shared timeline of the schedule.
  */
 public abstract class Task {
+    /**
+     * Resource claimed by tasks that declare none
+     */
+    public static final String CREW_RESOURCE = "crew";
+    
+    private static final Set<String> DEFAULT_RESOURCES = Collections.singleton(CREW_RESOURCE);
+    
     protected String name;
     protected LocalTime startTime;
     protected LocalTime endTime;
     protected String taskType;
+    protected Set<String> resources;
     
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
     public Task(String name, LocalTime startTime, LocalTime endTime, String taskType) {
+        this(name, startTime, endTime, taskType, null);
+    }
+    
+    /**
+     * @param resources Resource names, matched case-insensitively; null or empty for CREW_RESOURCE
+     */
+    public Task(String name, LocalTime startTime, LocalTime endTime, String taskType,
+            Collection<String> resources) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Task name cannot be null or empty");
         }
@@ -30,6 +56,21 @@ public abstract class Task {
         this.startTime = startTime;
         this.endTime = endTime;
         this.taskType = taskType;
+        this.resources = normalizeResources(resources);
+    }
+    
+    private static Set<String> normalizeResources(Collection<String> resources) {
+        if (resources == null || resources.isEmpty()) {
+            return DEFAULT_RESOURCES;
+        }
+        Set<String> normalized = new TreeSet<>();
+        for (String resource : resources) {
+            if (resource == null || resource.trim().isEmpty()) {
+                throw new IllegalArgumentException("Resource name cannot be null or empty");
+            }
+            normalized.add(resource.trim().toLowerCase(Locale.ROOT));
+        }
+        return normalized.equals(DEFAULT_RESOURCES) ? DEFAULT_RESOURCES : Collections.unmodifiableSet(normalized);
     }
     
     /**
@@ -51,6 +92,15 @@ public abstract class Task {
         return this.startTime.isBefore(other.endTime) && other.startTime.isBefore(this.endTime);
     }
     
+    /**
+     * Checks if this task overlaps another task and claims one of its resources
+     * @param other The other task to check against
+     * @return true if the tasks cannot both be scheduled
+     */
+    public boolean conflictsWith(Task other) {
+        return overlapsWith(other) && !Collections.disjoint(resources, other.resources);
+    }
+    
     /**
      * Gets the duration of the task in minutes
      * @return duration in minutes
@@ -76,6 +126,22 @@ public abstract class Task {
         return taskType;
     }
     
+    /**
+     * Gets the claimed resources
+     * @return Unmodifiable, lower-case resource names in sorted order
+     */
+    public Set<String> getResources() {
+        return resources;
+    }
+    
+    /**
+     * Checks if the task only claims the default crew timeline
+     * @return true if no resources were declared
+     */
+    public boolean hasDefaultResources() {
+        return resources == DEFAULT_RESOURCES;
+    }
+    
     public String getFormattedTimeRange() {
         return startTime.format(TIME_FORMATTER) + " - " + endTime.format(TIME_FORMATTER);
     }
@@ -98,7 +164,8 @@ public abstract class Task {
     
     @Override
     public String toString() {
-        return String.format("%s: %s (%s) [%d min]", 
+        String text = String.format("%s: %s (%s) [%d min]", 
             taskType, name, getFormattedTimeRange(), getDurationMinutes());
+        return hasDefaultResources() ? text : text + " @" + String.join(",", resources);
     }
 }
@@ -0,0 +1,66 @@
+package model;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A reminder fired when a scheduled task is about to start, starts or ends
+ */
+public final class TaskReminder {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    
+    /**
+     * The event a reminder is for
+     */
+    public enum Kind {
+        UPCOMING, STARTED, ENDED
+    }
+    
+    private final Kind kind;
+    private final Task task;
+    private final long dueMillis;
+    private final long leadMinutes;
+    
+    public TaskReminder(Kind kind, Task task, long dueMillis, long leadMinutes) {
+        this.kind = kind;
+        this.task = task;
+        this.dueMillis = dueMillis;
+        this.leadMinutes = leadMinutes;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public Task getTask() {
+        return task;
+    }
+    
+    /**
+     * Gets the time the reminder was due; it is delivered up to one engine tick later
+     * @return Epoch milliseconds
+     */
+    public long getDueMillis() {
+        return dueMillis;
+    }
+    
+    /**
+     * Gets the reminder text, such as "Research 'Soil Analysis' starts in 5 minutes (09:00)"
+     */
+    public String getMessage() {
+        String subject = task.getTaskType() + " '" + task.getName() + "'";
+        switch (kind) {
+            case UPCOMING:
+                return subject + " starts in " + leadMinutes + (leadMinutes == 1 ? " minute (" : " minutes (")
+                    + task.getStartTime().format(TIME_FORMATTER) + ")";
+            case STARTED:
+                return subject + " has started";
+            default:
+                return subject + " has ended";
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import java.time.LocalTime;
+
+/**
+ * Running totals of one task type, with its time budget if one is set
+ */
+public final class TypeSummary {
+    private final String type;
+    private final int count;
+    private final long totalMinutes;
+    private final LocalTime earliestStart;
+    private final LocalTime latestEnd;
+    private final Long minMinutes;
+    private final Long maxMinutes;
+    
+    public TypeSummary(String type, int count, long totalMinutes, LocalTime earliestStart, LocalTime latestEnd,
+            Long minMinutes, Long maxMinutes) {
+        this.type = type;
+        this.count = count;
+        this.totalMinutes = totalMinutes;
+        this.earliestStart = earliestStart;
+        this.latestEnd = latestEnd;
+        this.minMinutes = minMinutes;
+        this.maxMinutes = maxMinutes;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+    
+    /**
+     * @return Earliest start of a task of this type, or null if there are none
+     */
+    public LocalTime getEarliestStart() {
+        return earliestStart;
+    }
+    
+    /**
+     * @return Latest end of a task of this type, or null if there are none
+     */
+    public LocalTime getLatestEnd() {
+        return latestEnd;
+    }
+    
+    /**
+     * @return Minimum total minutes, or null if there is no minimum
+     */
+    public Long getMinMinutes() {
+        return minMinutes;
+    }
+    
+    /**
+     * @return Maximum total minutes, or null if there is no maximum
+     */
+    public Long getMaxMinutes() {
+        return maxMinutes;
+    }
+    
+    /**
+     * Checks the total against the budget; a schedule still being built may be below its minimum
+     * @return true if the total is within the minimum and maximum that are set
+     */
+    public boolean isWithinBudget() {
+        return (minMinutes == null || totalMinutes >= minMinutes)
+            && (maxMinutes == null || totalMinutes <= maxMinutes);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(type).append(": ").append(count).append(" tasks, ")
+            .append(totalMinutes).append(" min");
+        if (count > 0) {
+            text.append(" (").append(earliestStart).append(" - ").append(latestEnd).append(')');
+        }
+        if (minMinutes != null || maxMinutes != null) {
+            text.append(", budget ").append(minMinutes != null ? minMinutes.toString() : "-")
+                .append("..").append(maxMinutes != null ? maxMinutes.toString() : "-")
+                .append(isWithinBudget() ? "" : " (outside)");
+        }
+        return text.toString();
+    }
+}
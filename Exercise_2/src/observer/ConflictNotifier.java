@@ -1,5 +1,6 @@
 package observer;
 
+import util.FlightRecorder;
 import util.Logger;
 
 /**
@@ -8,6 +9,7 @@ import util.Logger;
 public class ConflictNotifier implements ConflictObserver {
     private final String observerId;
     private final Logger logger;
+    private final FlightRecorder recorder;
     
     public ConflictNotifier(String observerId) {
         if (observerId == null || observerId.trim().isEmpty()) {
@@ -16,6 +18,7 @@ public class ConflictNotifier implements ConflictObserver {
         
         this.observerId = observerId.trim();
         this.logger = Logger.getInstance();
+        this.recorder = FlightRecorder.getInstance();
         
         logger.logMessage("ConflictNotifier created: " + this.observerId);
     }
@@ -28,6 +31,8 @@ public class ConflictNotifier implements ConflictObserver {
                 return;
             }
             
+            recorder.record(FlightRecorder.EventType.CONFLICT_NOTIFIED, observerId);
+            
             // Display conflict notification
             System.out.println();
             System.out.println("*** SCHEDULE CONFLICT DETECTED ***");
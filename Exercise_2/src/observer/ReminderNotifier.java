@@ -0,0 +1,44 @@
+package observer;
+
+import model.TaskReminder;
+import util.Logger;
+
+/**
+ * Concrete observer that prints task reminders to the console
+ */
+public class ReminderNotifier implements ReminderObserver {
+    private final String observerId;
+    private final Logger logger;
+    
+    public ReminderNotifier(String observerId) {
+        if (observerId == null || observerId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Observer ID cannot be null or empty");
+        }
+        
+        this.observerId = observerId.trim();
+        this.logger = Logger.getInstance();
+        
+        logger.logMessage("ReminderNotifier created: " + this.observerId);
+    }
+    
+    @Override
+    public void remind(TaskReminder reminder) {
+        try {
+            System.out.println();
+            System.out.println("*** REMINDER (" + observerId + "): " + reminder.getMessage() + " ***");
+            logger.logMessage("Reminder: " + reminder.getMessage());
+        } catch (Exception e) {
+            logger.logError("Failed to process reminder", e);
+        }
+    }
+    
+    @Override
+    public String getObserverId() {
+        return observerId;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReminderNotifier{id='" + observerId + "'}";
+    }
+}
@@ -0,0 +1,22 @@
+package observer;
+
+import model.TaskReminder;
+
+/**
+ * Observer interface for task reminders
+ * Called on the reminder thread, one reminder at a time; a slow observer
+ * delays later reminders.
+ */
+public interface ReminderObserver {
+    /**
+     * Called when a task is about to start, starts or ends
+     * @param reminder The reminder
+     */
+    void remind(TaskReminder reminder);
+    
+    /**
+     * Gets the observer's identifier
+     * @return String identifier for this observer
+     */
+    String getObserverId();
+}
@@ -0,0 +1,28 @@
+package observer;
+
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+
+import java.util.List;
+
+/**
+ * Listener for the ScheduleManager change feed
+ * Callbacks run on the subscription's own thread, one at a time and in
+ * sequence order.
+ */
+public interface ScheduleChangeListener {
+    /**
+     * Called with the next batch of changes
+     * @param changes Consecutive changes, oldest first, never empty
+     */
+    void onChanges(List<ScheduleChange> changes);
+    
+    /**
+     * Called instead of onChanges when incremental changes cannot be delivered:
+     * the requested position has fallen out of the bounded change log, or the
+     * schedule was replaced as a whole. The follower should rebuild its state
+     * from the snapshot; the feed continues after snapshot.getSequence().
+     * @param snapshot Current schedule
+     */
+    void onSnapshot(ScheduleSnapshot snapshot);
+}
@@ -0,0 +1,220 @@
+package replication;
+
+import factory.TaskFactory;
+import manager.ScheduleManager;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+import util.LogThrottle;
+import util.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Follower side of log-shipping replication
+ * Keeps the local ScheduleManager as a read-only hot standby of a leader:
+ * connects, reports the last applied sequence (the local version), installs
+ * a snapshot if the leader sends one and applies change batches. Batches that
+ * are already buffered are applied together under one write lock and
+ * acknowledged with a single ACK. Reconnects after a lost connection and
+ * resumes where it stopped.
+ */
+public class ReplicationFollower implements Runnable {
+    private static final long RETRY_MILLIS = 1000;
+    private static final int MAX_APPLY_BATCH = 8192;
+    
+    private final ScheduleManager scheduleManager;
+    private final TaskFactory taskFactory;
+    private final Logger logger;
+    private final LogThrottle retryLog;
+    private final InetSocketAddress leaderAddress;
+    
+    private volatile long leaderSequence;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread thread;
+    
+    /**
+     * Creates a follower of the leader at the given address
+     * @param leaderAddress Host and replication port of the leader
+     */
+    public ReplicationFollower(InetSocketAddress leaderAddress) {
+        this.scheduleManager = ScheduleManager.getInstance();
+        this.taskFactory = new TaskFactory();
+        this.logger = Logger.getInstance();
+        this.retryLog = logger.throttle("replication.retry", 1, 10_000);
+        this.leaderAddress = leaderAddress;
+    }
+    
+    /**
+     * Makes the local schedule read-only and starts following the leader
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        scheduleManager.setReadOnly(true);
+        running = true;
+        thread = new Thread(this, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stops following; the local schedule stays read-only until promoted
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeSocket();
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Stops following and makes the local schedule writable (failover)
+     */
+    public void promote() {
+        stop();
+        scheduleManager.setReadOnly(false);
+        logger.logMessage("Promoted to leader at #" + getAppliedSequence());
+    }
+    
+    public boolean isConnected() {
+        return connected;
+    }
+    
+    /**
+     * Gets the last applied sequence
+     * @return Local schedule version
+     */
+    public long getAppliedSequence() {
+        return scheduleManager.getVersion();
+    }
+    
+    /**
+     * Gets the leader's latest known sequence (from batches and heartbeats)
+     * @return Leader sequence
+     */
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+    
+    /**
+     * Gets how many changes this replica is behind, as of the last heartbeat
+     * @return Leader sequence minus applied sequence
+     */
+    public long getLag() {
+        return Math.max(0, leaderSequence - getAppliedSequence());
+    }
+    
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                follow();
+            } catch (IOException | RuntimeException e) {
+                if (running && retryLog.tryAcquire()) {
+                    logger.logMessage("Replication from " + leaderAddress + " interrupted (" + e.getMessage()
+                        + "), retrying every " + RETRY_MILLIS + " ms");
+                }
+            } finally {
+                connected = false;
+                closeSocket();
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void follow() throws IOException {
+        Socket leader = new Socket();
+        socket = leader;
+        leader.connect(leaderAddress, 5000);
+        leader.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(leader.getInputStream(), 64 * 1024));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(leader.getOutputStream()));
+        
+        out.writeByte(ReplicationProtocol.HELLO);
+        out.writeLong(scheduleManager.getVersion());
+        out.flush();
+        connected = true;
+        logger.logMessage("Following leader " + leaderAddress + " from #" + scheduleManager.getVersion());
+        
+        List<ScheduleChange> pending = new ArrayList<>();
+        while (running) {
+            byte type = in.readByte();
+            switch (type) {
+                case ReplicationProtocol.BATCH:
+                    ReplicationProtocol.readBatch(in, taskFactory, pending);
+                    // Coalesce batches that have already arrived, then apply and acknowledge once
+                    if (in.available() > 0 && pending.size() < MAX_APPLY_BATCH) {
+                        continue;
+                    }
+                    apply(pending, out);
+                    break;
+                case ReplicationProtocol.SNAPSHOT:
+                    apply(pending, out);
+                    ScheduleSnapshot snapshot = ReplicationProtocol.readSnapshot(in, taskFactory);
+                    leaderSequence = snapshot.getSequence();
+                    scheduleManager.installSnapshot(snapshot);
+                    acknowledge(out, snapshot.getSequence());
+                    break;
+                case ReplicationProtocol.HEARTBEAT:
+                    leaderSequence = in.readLong();
+                    apply(pending, out);
+                    break;
+                default:
+                    throw new ProtocolException("Unexpected message type " + type);
+            }
+        }
+    }
+    
+    private void apply(List<ScheduleChange> pending, DataOutputStream out) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        scheduleManager.applyChanges(pending);
+        long last = pending.get(pending.size() - 1).getSequence();
+        leaderSequence = Math.max(leaderSequence, last);
+        pending.clear();
+        acknowledge(out, last);
+    }
+    
+    private void acknowledge(DataOutputStream out, long sequence) throws IOException {
+        out.writeByte(ReplicationProtocol.ACK);
+        out.writeLong(sequence);
+        out.flush();
+    }
+    
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
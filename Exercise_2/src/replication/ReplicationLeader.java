@@ -0,0 +1,417 @@
+package replication;
+
+import manager.ChangeSubscription;
+import manager.CommitBarrier;
+import manager.ScheduleManager;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+import observer.ScheduleChangeListener;
+import util.LogThrottle;
+import util.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leader side of log-shipping replication
+ * Accepts follower connections and streams the ScheduleManager change feed
+ * to each of them: a follower says which sequence it has applied, gets a
+ * snapshot first if the change log no longer reaches back that far, then
+ * batches of changes as they happen. Followers acknowledge what they applied,
+ * which gives per-follower lag.
+ *
+ * Modes:
+ *   ASYNC         mutations return as soon as they are applied locally
+ *   ACKNOWLEDGED  mutations also wait until at least one follower has
+ *                 acknowledged them (quorum of one). With no follower
+ *                 connected, or after ackTimeoutMillis, the write completes
+ *                 unacknowledged and is counted, like semi-synchronous
+ *                 replication falling back to async.
+ */
+public class ReplicationLeader implements CommitBarrier {
+    
+    public enum Mode {
+        ASYNC, ACKNOWLEDGED
+    }
+    
+    /**
+     * Point-in-time view of one follower
+     */
+    public static final class FollowerStatus {
+        private final String remote;
+        private final long sentSequence;
+        private final long ackedSequence;
+        private final long lag;
+        
+        FollowerStatus(String remote, long sentSequence, long ackedSequence, long lag) {
+            this.remote = remote;
+            this.sentSequence = sentSequence;
+            this.ackedSequence = ackedSequence;
+            this.lag = lag;
+        }
+        
+        public String getRemote() {
+            return remote;
+        }
+        
+        public long getSentSequence() {
+            return sentSequence;
+        }
+        
+        public long getAckedSequence() {
+            return ackedSequence;
+        }
+        
+        /**
+         * Gets how many changes the follower has not acknowledged yet
+         * @return Leader version minus acknowledged sequence
+         */
+        public long getLag() {
+            return lag;
+        }
+        
+        @Override
+        public String toString() {
+            return remote + " sent=#" + sentSequence + " acked=#" + ackedSequence + " lag=" + lag;
+        }
+    }
+    
+    private static final int MAX_BATCH = 1024;
+    private static final long HEARTBEAT_MILLIS = 1000;
+    
+    private final ScheduleManager scheduleManager;
+    private final Logger logger;
+    private final LogThrottle timeoutLog;
+    private final InetSocketAddress bindAddress;
+    private final Mode mode;
+    private final long ackTimeoutMillis;
+    private final List<FollowerLink> links = new CopyOnWriteArrayList<>();
+    
+    // Highest sequence acknowledged by any follower; guarded by itself for wait/notify
+    private final Object ackMonitor = new Object();
+    private long highestAck;
+    
+    private final LongAdder acknowledgedCommits = new LongAdder();
+    private final LongAdder unacknowledgedCommits = new LongAdder();
+    
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+    private Thread heartbeatThread;
+    private volatile boolean running;
+    
+    /**
+     * Creates a leader listening on the loopback interface
+     * @param port TCP port, or 0 for an ephemeral port
+     * @param mode ASYNC or ACKNOWLEDGED
+     * @param ackTimeoutMillis Longest a mutation waits for an acknowledgement in ACKNOWLEDGED mode
+     */
+    public ReplicationLeader(int port, Mode mode, long ackTimeoutMillis) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), mode, ackTimeoutMillis);
+    }
+    
+    public ReplicationLeader(InetSocketAddress bindAddress, Mode mode, long ackTimeoutMillis) {
+        this.scheduleManager = ScheduleManager.getInstance();
+        this.logger = Logger.getInstance();
+        this.timeoutLog = logger.throttle("replication.ackTimeout", 1, 5000);
+        this.bindAddress = bindAddress;
+        this.mode = mode;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+    }
+    
+    /**
+     * Binds the socket, starts accepting followers and installs the commit barrier
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        
+        serverSocket = new ServerSocket();
+        serverSocket.bind(bindAddress, 16);
+        running = true;
+        
+        acceptThread = new Thread(this::acceptLoop, "replication-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        heartbeatThread = new Thread(this::heartbeatLoop, "replication-heartbeat");
+        heartbeatThread.setDaemon(true);
+        heartbeatThread.start();
+        
+        if (mode == Mode.ACKNOWLEDGED) {
+            scheduleManager.setCommitBarrier(this);
+        }
+        logger.logMessage("Replication leader (" + mode + ") listening on " + getAddress());
+    }
+    
+    /**
+     * Stops accepting followers, disconnects them and removes the commit barrier
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduleManager.setCommitBarrier(null);
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.logError("Failed to close replication socket", e);
+        }
+        for (FollowerLink link : links) {
+            link.close();
+        }
+        heartbeatThread.interrupt();
+        synchronized (ackMonitor) {
+            ackMonitor.notifyAll();
+        }
+        logger.logMessage("Replication leader stopped");
+    }
+    
+    /**
+     * Gets the bound address (useful with port 0)
+     * @return Local socket address
+     */
+    public InetSocketAddress getAddress() {
+        ServerSocket socket = serverSocket;
+        return socket != null && socket.isBound()
+            ? (InetSocketAddress) socket.getLocalSocketAddress() : bindAddress;
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Gets the state of every connected follower
+     * @return Follower snapshots
+     */
+    public List<FollowerStatus> getFollowers() {
+        long version = scheduleManager.getVersion();
+        List<FollowerStatus> statuses = new ArrayList<>();
+        for (FollowerLink link : links) {
+            statuses.add(new FollowerStatus(link.remote, link.sentSequence, link.ackedSequence,
+                Math.max(0, version - link.ackedSequence)));
+        }
+        return statuses;
+    }
+    
+    /**
+     * Gets the number of mutations that were acknowledged by a follower before returning
+     */
+    public long getAcknowledgedCommits() {
+        return acknowledgedCommits.sum();
+    }
+    
+    /**
+     * Gets the number of mutations in ACKNOWLEDGED mode that returned without an acknowledgement
+     */
+    public long getUnacknowledgedCommits() {
+        return unacknowledgedCommits.sum();
+    }
+    
+    @Override
+    public String toString() {
+        return "Replication " + mode + " on " + getAddress() + ": " + links.size() + " follower(s) "
+            + getFollowers() + ", commits acked=" + getAcknowledgedCommits()
+            + " unacked=" + getUnacknowledgedCommits();
+    }
+    
+    @Override
+    public void awaitCommitted(long sequence) {
+        if (mode != Mode.ACKNOWLEDGED) {
+            return;
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMillis);
+        synchronized (ackMonitor) {
+            while (highestAck < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (links.isEmpty() || !running || remaining <= 0) {
+                    unacknowledgedCommits.increment();
+                    if (timeoutLog.tryAcquire()) {
+                        logger.logMessage("Change #" + sequence + " committed without follower acknowledgement ("
+                            + (links.isEmpty() ? "no follower connected" : "timed out") + ")");
+                    }
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(ackMonitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    unacknowledgedCommits.increment();
+                    return;
+                }
+            }
+        }
+        acknowledgedCommits.increment();
+    }
+    
+    private void acknowledged(long sequence) {
+        synchronized (ackMonitor) {
+            if (sequence > highestAck) {
+                highestAck = sequence;
+                ackMonitor.notifyAll();
+            }
+        }
+    }
+    
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerLink link = new FollowerLink(socket);
+                Thread reader = new Thread(link, "replication-link-" + link.remote);
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.logError("Failed to accept follower", e);
+                }
+            }
+        }
+    }
+    
+    private void heartbeatLoop() {
+        while (running) {
+            try {
+                Thread.sleep(HEARTBEAT_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long version = scheduleManager.getVersion();
+            for (FollowerLink link : links) {
+                link.heartbeat(version);
+            }
+        }
+    }
+    
+    /**
+     * One follower connection: its thread reads HELLO and ACKs, its change feed
+     * subscription thread writes snapshots and batches
+     */
+    private final class FollowerLink implements Runnable, ScheduleChangeListener {
+        private final Socket socket;
+        private final String remote;
+        private final DataOutputStream out;
+        private volatile ChangeSubscription feed;
+        private volatile long sentSequence;
+        private volatile long ackedSequence;
+        
+        FollowerLink(Socket socket) throws IOException {
+            this.socket = socket;
+            this.remote = String.valueOf(socket.getRemoteSocketAddress());
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        }
+        
+        @Override
+        public void run() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                if (in.readByte() != ReplicationProtocol.HELLO) {
+                    throw new ProtocolException("Expected HELLO");
+                }
+                long lastApplied = in.readLong();
+                ackedSequence = Math.max(0, lastApplied);
+                
+                long from = ackedSequence;
+                if (from > scheduleManager.getVersion()) {
+                    // Follower is ahead of this leader (e.g. the leader restarted empty)
+                    ScheduleSnapshot snapshot = scheduleManager.getSnapshot();
+                    onSnapshot(snapshot);
+                    from = snapshot.getSequence();
+                }
+                links.add(this);
+                feed = scheduleManager.subscribe(from, MAX_BATCH, this);
+                logger.logMessage("Follower connected: " + remote + " (applied #" + lastApplied + ")");
+                
+                while (running) {
+                    byte type = in.readByte();
+                    if (type != ReplicationProtocol.ACK) {
+                        throw new ProtocolException("Unexpected message type " + type);
+                    }
+                    long sequence = in.readLong();
+                    ackedSequence = sequence;
+                    acknowledged(sequence);
+                }
+            } catch (EOFException e) {
+                logger.logMessage("Follower disconnected: " + remote);
+            } catch (IOException e) {
+                if (running && !socket.isClosed()) {
+                    logger.logError("Follower link failed: " + remote, e);
+                }
+            } finally {
+                close();
+            }
+        }
+        
+        @Override
+        public void onChanges(List<ScheduleChange> changes) {
+            try {
+                synchronized (out) {
+                    ReplicationProtocol.writeBatch(out, changes);
+                    out.flush();
+                }
+                sentSequence = changes.get(changes.size() - 1).getSequence();
+            } catch (IOException e) {
+                close();
+            }
+        }
+        
+        @Override
+        public void onSnapshot(ScheduleSnapshot snapshot) {
+            try {
+                synchronized (out) {
+                    ReplicationProtocol.writeSnapshot(out, snapshot);
+                    out.flush();
+                }
+                sentSequence = snapshot.getSequence();
+                logger.logMessage("Sent snapshot #" + snapshot.getSequence() + " to follower " + remote);
+            } catch (IOException e) {
+                close();
+            }
+        }
+        
+        void heartbeat(long version) {
+            try {
+                synchronized (out) {
+                    out.writeByte(ReplicationProtocol.HEARTBEAT);
+                    out.writeLong(version);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+        
+        void close() {
+            links.remove(this);
+            if (feed != null) {
+                feed.close();
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            synchronized (ackMonitor) {
+                // Writers waiting on a quorum that just disappeared re-check links
+                ackMonitor.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package replication;
+
+import exception.TaskException;
+import factory.TaskFactory;
+import model.Dependency;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+import model.Task;
+import server.Protocol;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wire format of leader/follower log shipping
+ * A stream of messages over one TCP connection: type(byte) then payload,
+ * written with DataOutputStream (big-endian).
+ *
+ * Follower to leader:
+ *   HELLO      lastApplied(long)  - sent once after connecting
+ *   ACK        sequence(long)     - after each applied batch or snapshot
+ * Leader to follower:
+ *   SNAPSHOT   sequence(long) count(int) task* dependencyCount(int) dependency*
+ *   BATCH      count(int) change*, change = sequence(long) kind(byte) (task | dependency)
+ *   HEARTBEAT  leaderSequence(long) - once a second, for lag tracking
+ *
+ * A task is type(byte, TaskType ordinal) start(long) end(long) name(UTF)
+ * resourceCount(byte) resource(UTF)*, with count 0 for the default crew
+ * timeline; times are nanos of day so replicas hold exactly the leader's values.
+ * A dependency is before(UTF) after(UTF); LINKED and UNLINKED changes carry
+ * one in place of a task.
+ */
+public final class ReplicationProtocol {
+    public static final int DEFAULT_PORT = 7071;
+    
+    public static final byte HELLO = 1;
+    public static final byte ACK = 2;
+    public static final byte SNAPSHOT = 10;
+    public static final byte BATCH = 11;
+    public static final byte HEARTBEAT = 12;
+    
+    private static final int MAX_COUNT = 16 * 1024 * 1024;
+    
+    private ReplicationProtocol() {
+        // Constants and codecs only
+    }
+    
+    static void writeTask(DataOutputStream out, Task task) throws IOException {
+        out.writeByte(Protocol.typeCode(task));
+        out.writeLong(task.getStartTime().toNanoOfDay());
+        out.writeLong(task.getEndTime().toNanoOfDay());
+        out.writeUTF(task.getName());
+        if (task.hasDefaultResources()) {
+            out.writeByte(0);
+        } else {
+            if (task.getResources().size() > 255) {
+                throw new ProtocolException("At most 255 resources per task: " + task.getName());
+            }
+            out.writeByte(task.getResources().size());
+            for (String resource : task.getResources()) {
+                out.writeUTF(resource);
+            }
+        }
+    }
+    
+    static Task readTask(DataInputStream in, TaskFactory taskFactory) throws IOException {
+        TaskFactory.TaskType type = Protocol.taskType(in.readByte());
+        LocalTime start = readTime(in);
+        LocalTime end = readTime(in);
+        String name = in.readUTF();
+        int resourceCount = in.readUnsignedByte();
+        List<String> resources = new ArrayList<>(resourceCount);
+        for (int i = 0; i < resourceCount; i++) {
+            resources.add(in.readUTF());
+        }
+        try {
+            return taskFactory.createTask(type, name, start, end, resources);
+        } catch (TaskException e) {
+            throw new ProtocolException("Invalid replicated task '" + name + "': " + e.getMessage());
+        }
+    }
+    
+    static void writeSnapshot(DataOutputStream out, ScheduleSnapshot snapshot) throws IOException {
+        out.writeByte(SNAPSHOT);
+        out.writeLong(snapshot.getSequence());
+        out.writeInt(snapshot.getTasks().size());
+        for (Task task : snapshot.getTasks()) {
+            writeTask(out, task);
+        }
+        out.writeInt(snapshot.getDependencies().size());
+        for (Dependency dependency : snapshot.getDependencies()) {
+            writeDependency(out, dependency);
+        }
+    }
+    
+    static ScheduleSnapshot readSnapshot(DataInputStream in, TaskFactory taskFactory) throws IOException {
+        long sequence = in.readLong();
+        int count = readCount(in);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(readTask(in, taskFactory));
+        }
+        int dependencyCount = readCount(in);
+        List<Dependency> dependencies = new ArrayList<>(dependencyCount);
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencies.add(readDependency(in));
+        }
+        return new ScheduleSnapshot(sequence, Collections.unmodifiableList(tasks),
+            Collections.unmodifiableList(dependencies));
+    }
+    
+    static void writeBatch(DataOutputStream out, List<ScheduleChange> changes) throws IOException {
+        out.writeByte(BATCH);
+        out.writeInt(changes.size());
+        for (ScheduleChange change : changes) {
+            out.writeLong(change.getSequence());
+            out.writeByte(change.getKind().ordinal());
+            if (change.getKind().isDependency()) {
+                writeDependency(out, change.getDependency());
+            } else {
+                writeTask(out, change.getTask());
+            }
+        }
+    }
+    
+    /**
+     * Reads a BATCH payload and appends its changes
+     */
+    static void readBatch(DataInputStream in, TaskFactory taskFactory, List<ScheduleChange> target)
+            throws IOException {
+        int count = readCount(in);
+        ScheduleChange.Kind[] kinds = ScheduleChange.Kind.values();
+        for (int i = 0; i < count; i++) {
+            long sequence = in.readLong();
+            int kind = in.readByte();
+            if (kind < 0 || kind >= kinds.length || kinds[kind] == ScheduleChange.Kind.RESET) {
+                throw new ProtocolException("Invalid change kind " + kind);
+            }
+            target.add(kinds[kind].isDependency()
+                ? new ScheduleChange(sequence, kinds[kind], readDependency(in))
+                : new ScheduleChange(sequence, kinds[kind], readTask(in, taskFactory)));
+        }
+    }
+    
+    private static void writeDependency(DataOutputStream out, Dependency dependency) throws IOException {
+        out.writeUTF(dependency.getBefore());
+        out.writeUTF(dependency.getAfter());
+    }
+    
+    private static Dependency readDependency(DataInputStream in) throws IOException {
+        return new Dependency(in.readUTF(), in.readUTF());
+    }
+    
+    private static LocalTime readTime(DataInputStream in) throws IOException {
+        long nanos = in.readLong();
+        if (nanos < 0 || nanos > LocalTime.MAX.toNanoOfDay()) {
+            throw new ProtocolException("Invalid time " + nanos);
+        }
+        return LocalTime.ofNanoOfDay(nanos);
+    }
+    
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new ProtocolException("Invalid count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Per-client state of the schedule server: read buffer, pending output,
+ * subscription flag and whether a batch of mutations is running on a worker.
+ * Only touched by the selector thread.
+ */
+final class Connection {
+    private static final int INITIAL_BUFFER = 16 * 1024;
+    private static final int SHRINK_ABOVE = 1024 * 1024;
+    
+    final SocketChannel channel;
+    final SelectionKey key;
+    final String remote;
+    boolean subscribed;
+    
+    // A batch with ADD/REMOVE is running on a worker; the client is not read until it is answered
+    boolean busy;
+    
+    ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER);
+    private int frameStart = -1;
+    
+    Connection(SocketChannel channel, SelectionKey key, String remote) {
+        this.channel = channel;
+        this.key = key;
+        this.remote = remote;
+    }
+    
+    /**
+     * Makes room for at least n more bytes of input, growing up to one maximal frame
+     */
+    void ensureInputCapacity(int n) {
+        if (in.remaining() < n) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(in.capacity() * 2, in.position() + n));
+            in.flip();
+            bigger.put(in);
+            in = bigger;
+        }
+    }
+    
+    /**
+     * Starts a response frame; the length prefix is filled in by endFrame()
+     * @param bodyBytes Expected body size (the buffer grows as needed)
+     * @return Output buffer to write the body into
+     */
+    ByteBuffer beginFrame(int bodyBytes) {
+        ensureOutputCapacity(4 + bodyBytes);
+        frameStart = out.position();
+        out.putInt(0);
+        return out;
+    }
+    
+    /**
+     * Grows the output buffer in the middle of a frame (e.g. long RANGE results)
+     */
+    ByteBuffer reserve(int bytes) {
+        ensureOutputCapacity(bytes);
+        return out;
+    }
+    
+    void endFrame() {
+        out.putInt(frameStart, out.position() - frameStart - 4);
+        frameStart = -1;
+    }
+    
+    int pendingBytes() {
+        return out.position();
+    }
+    
+    /**
+     * Writes as much pending output as the socket accepts
+     * @return true if everything was written
+     */
+    boolean flush() throws IOException {
+        if (out.position() == 0) {
+            return true;
+        }
+        out.flip();
+        channel.write(out);
+        out.compact();
+        if (out.position() == 0 && out.capacity() > SHRINK_ABOVE) {
+            out = ByteBuffer.allocate(INITIAL_BUFFER); // Release the buffer of a large RANGE reply
+        }
+        return out.position() == 0;
+    }
+    
+    private void ensureOutputCapacity(int n) {
+        if (out.remaining() < n) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + n));
+            out.flip();
+            bigger.put(out);
+            out = bigger;
+        }
+    }
+}
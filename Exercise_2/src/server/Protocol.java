@@ -0,0 +1,177 @@
+package server;
+
+import factory.TaskFactory;
+import model.Task;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wire format of the schedule server
+ * Every message is a frame: int32 length (bytes after the length field)
+ * followed by the body. All integers are big-endian.
+ *
+ * Request body:   opcode(byte) requestId(int) payload
+ *   ADD          type(byte, TaskType ordinal) start(int) end(int) name(string) [resources]
+ *   REMOVE       name(string)
+ *   GET          name(string)
+ *   RANGE        start(int) end(int)
+ *   SUBSCRIBE    -
+ *   UNSUBSCRIBE  -
+ * Response body:  status(byte) requestId(int) payload
+ *   OK           GET and RANGE: count(int) task*; others: nothing
+ *   NOT_FOUND    -
+ *   CONFLICT     message(string)
+ *   ERROR        message(string)
+ *   EVENT        requestId 0, then kind(byte) and task (ADDED, REMOVED), message (CONFLICT)
+ *                or nothing (RESET: the schedule was replaced, so earlier events no longer
+ *                add up to it; re-query it with RANGE)
+ *
+ * Times are seconds of day; strings are uint16 length plus UTF-8 bytes;
+ * resources are count(byte) string*, with count 0 for the default crew
+ * timeline (and optional at the end of ADD); a task is type(byte) start(int)
+ * end(int) name(string) resources. Clients may pipeline
+ * any number of requests; responses come back in request order, with EVENT
+ * frames for subscribers interleaved between them.
+ */
+public final class Protocol {
+    public static final int DEFAULT_PORT = 7070;
+    public static final int MAX_REQUEST_BYTES = 64 * 1024;
+    
+    // Request opcodes
+    public static final byte OP_ADD = 1;
+    public static final byte OP_REMOVE = 2;
+    public static final byte OP_GET = 3;
+    public static final byte OP_RANGE = 4;
+    public static final byte OP_SUBSCRIBE = 5;
+    public static final byte OP_UNSUBSCRIBE = 6;
+    
+    // Response status codes
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_CONFLICT = 2;
+    public static final byte STATUS_ERROR = 3;
+    public static final byte STATUS_EVENT = 4;
+    
+    // Event kinds pushed to subscribers
+    public static final byte EVENT_ADDED = 1;
+    public static final byte EVENT_REMOVED = 2;
+    public static final byte EVENT_CONFLICT = 3;
+    public static final byte EVENT_RESET = 4;
+    
+    private static final TaskFactory.TaskType[] TYPES = TaskFactory.TaskType.values();
+    
+    private Protocol() {
+        // Constants and codec helpers only
+    }
+    
+    /**
+     * Maps a task to its type code
+     * @param task The task
+     * @return TaskType ordinal
+     */
+    public static byte typeCode(Task task) {
+        return (byte) TaskFactory.TaskType.valueOf(task.getTaskType().toUpperCase()).ordinal();
+    }
+    
+    /**
+     * Maps a type code back to a task type
+     * @param code TaskType ordinal
+     * @return The task type
+     * @throws ProtocolException if the code is unknown
+     */
+    public static TaskFactory.TaskType taskType(byte code) throws ProtocolException {
+        if (code < 0 || code >= TYPES.length) {
+            throw new ProtocolException("Unknown task type code: " + code);
+        }
+        return TYPES[code];
+    }
+    
+    /**
+     * Converts seconds of day to a time
+     * @param seconds Seconds since midnight
+     * @return The time
+     * @throws ProtocolException if out of range
+     */
+    public static LocalTime time(int seconds) throws ProtocolException {
+        if (seconds < 0 || seconds >= 86_400) {
+            throw new ProtocolException("Time out of range: " + seconds);
+        }
+        return LocalTime.ofSecondOfDay(seconds);
+    }
+    
+    public static int encodedLength(String value) {
+        return 2 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    public static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+    
+    public static String getString(ByteBuffer buffer) throws ProtocolException {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > buffer.remaining()) {
+            throw new ProtocolException("String length " + length + " exceeds frame");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    public static int encodedLength(Task task) {
+        int length = 10 + encodedLength(task.getName());
+        if (!task.hasDefaultResources()) {
+            for (String resource : task.getResources()) {
+                length += encodedLength(resource);
+            }
+        }
+        return length;
+    }
+    
+    public static void putTask(ByteBuffer buffer, Task task) {
+        buffer.put(typeCode(task));
+        buffer.putInt(task.getStartTime().toSecondOfDay());
+        buffer.putInt(task.getEndTime().toSecondOfDay());
+        putString(buffer, task.getName());
+        putResources(buffer, task.hasDefaultResources() ? null : task.getResources());
+    }
+    
+    /**
+     * Writes a resource list
+     * @param resources Resource names (at most 255), or null for the default crew timeline
+     */
+    public static void putResources(ByteBuffer buffer, Collection<String> resources) {
+        if (resources == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        if (resources.size() > 255) {
+            throw new IllegalArgumentException("At most 255 resources per task: " + resources.size());
+        }
+        buffer.put((byte) resources.size());
+        for (String resource : resources) {
+            putString(buffer, resource);
+        }
+    }
+    
+    /**
+     * Reads a resource list
+     * @return Resource names, empty for the default crew timeline
+     */
+    public static List<String> getResources(ByteBuffer buffer) throws ProtocolException {
+        int count = buffer.get() & 0xFF;
+        List<String> resources = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resources.add(getString(buffer));
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,216 @@
+package server;
+
+import exception.TaskException;
+import factory.TaskFactory;
+import model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Blocking client for the schedule server protocol
+ * Request methods only queue a frame and return its request id, so callers
+ * can pipeline many requests, flush() once, and then read() the replies in
+ * order. Not thread-safe; use one client per thread.
+ */
+public class ScheduleClient implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * One reply or pushed event
+     */
+    public static final class Response {
+        private final byte status;
+        private final int requestId;
+        private final byte eventKind;
+        private final List<Task> tasks;
+        private final String message;
+        
+        Response(byte status, int requestId, byte eventKind, List<Task> tasks, String message) {
+            this.status = status;
+            this.requestId = requestId;
+            this.eventKind = eventKind;
+            this.tasks = tasks;
+            this.message = message;
+        }
+        
+        public byte getStatus() { return status; }
+        public int getRequestId() { return requestId; }
+        public byte getEventKind() { return eventKind; }
+        public List<Task> getTasks() { return tasks; }
+        public String getMessage() { return message; }
+        
+        public boolean isOk() {
+            return status == Protocol.STATUS_OK;
+        }
+        
+        public boolean isEvent() {
+            return status == Protocol.STATUS_EVENT;
+        }
+        
+        @Override
+        public String toString() {
+            return "Response{status=" + status + ", requestId=" + requestId +
+                (isEvent() ? ", event=" + eventKind : "") +
+                (tasks.isEmpty() ? "" : ", tasks=" + tasks) +
+                (message != null ? ", message='" + message + "'" : "") + "}";
+        }
+    }
+    
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final TaskFactory taskFactory;
+    private final ByteBuffer body = ByteBuffer.allocate(Protocol.MAX_REQUEST_BYTES);
+    private int nextRequestId = 1;
+    
+    /**
+     * Connects to a server on this machine
+     * @param port Server port
+     * @throws IOException if the connection fails
+     */
+    public ScheduleClient(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress().getHostAddress(), port);
+    }
+    
+    public ScheduleClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        this.taskFactory = new TaskFactory();
+    }
+    
+    public int add(TaskFactory.TaskType type, LocalTime start, LocalTime end, String name) throws IOException {
+        return add(type, start, end, name, null);
+    }
+    
+    /**
+     * Sends ADD for a task that claims the given resources (null for the crew timeline)
+     */
+    public int add(TaskFactory.TaskType type, LocalTime start, LocalTime end, String name,
+            Collection<String> resources) throws IOException {
+        int requestId = begin(Protocol.OP_ADD);
+        body.put((byte) type.ordinal()).putInt(start.toSecondOfDay()).putInt(end.toSecondOfDay());
+        Protocol.putString(body, name);
+        Protocol.putResources(body, resources);
+        return send(requestId);
+    }
+    
+    public int remove(String name) throws IOException {
+        int requestId = begin(Protocol.OP_REMOVE);
+        Protocol.putString(body, name);
+        return send(requestId);
+    }
+    
+    public int get(String name) throws IOException {
+        int requestId = begin(Protocol.OP_GET);
+        Protocol.putString(body, name);
+        return send(requestId);
+    }
+    
+    public int range(LocalTime start, LocalTime end) throws IOException {
+        int requestId = begin(Protocol.OP_RANGE);
+        body.putInt(start.toSecondOfDay()).putInt(end.toSecondOfDay());
+        return send(requestId);
+    }
+    
+    public int subscribe() throws IOException {
+        return send(begin(Protocol.OP_SUBSCRIBE));
+    }
+    
+    public int unsubscribe() throws IOException {
+        return send(begin(Protocol.OP_UNSUBSCRIBE));
+    }
+    
+    /**
+     * Sends all queued requests
+     * @throws IOException if the connection fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    /**
+     * Reads the next reply or event, blocking until one arrives
+     * @return The decoded frame
+     * @throws IOException if the connection fails or the frame is malformed
+     */
+    public Response read() throws IOException {
+        int length = in.readInt();
+        if (length < 5) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        
+        byte status = buffer.get();
+        int requestId = buffer.getInt();
+        byte eventKind = 0;
+        List<Task> tasks = Collections.emptyList();
+        String message = null;
+        
+        if (status == Protocol.STATUS_EVENT) {
+            eventKind = buffer.get();
+            if (eventKind == Protocol.EVENT_CONFLICT) {
+                message = Protocol.getString(buffer);
+            } else if (eventKind != Protocol.EVENT_RESET) {
+                tasks = Collections.singletonList(readTask(buffer));
+            }
+        } else if (status == Protocol.STATUS_CONFLICT || status == Protocol.STATUS_ERROR) {
+            message = Protocol.getString(buffer);
+        } else if (status == Protocol.STATUS_OK && buffer.hasRemaining()) {
+            int count = buffer.getInt();
+            tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(buffer));
+            }
+        }
+        return new Response(status, requestId, eventKind, tasks, message);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+    
+    private int begin(byte opcode) {
+        int requestId = nextRequestId++;
+        body.clear();
+        body.put(opcode).putInt(requestId);
+        return requestId;
+    }
+    
+    private int send(int requestId) throws IOException {
+        out.writeInt(body.position());
+        out.write(body.array(), 0, body.position());
+        return requestId;
+    }
+    
+    private Task readTask(ByteBuffer buffer) throws IOException {
+        TaskFactory.TaskType type = Protocol.taskType(buffer.get());
+        LocalTime start = Protocol.time(buffer.getInt());
+        LocalTime end = Protocol.time(buffer.getInt());
+        String name = Protocol.getString(buffer);
+        List<String> resources = Protocol.getResources(buffer);
+        try {
+            return taskFactory.createTask(type, name, start, end, resources);
+        } catch (TaskException e) {
+            throw new ProtocolException("Invalid task in reply: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,657 @@
+package server;
+
+import exception.ConflictException;
+import exception.TaskException;
+import factory.TaskFactory;
+import manager.ChangeSubscription;
+import manager.ScheduleManager;
+import model.ScheduleChange;
+import model.ScheduleSnapshot;
+import model.Task;
+import observer.ConflictObserver;
+import observer.ScheduleChangeListener;
+import util.LogThrottle;
+import util.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking NIO front-end for the ScheduleManager
+ * A single selector thread accepts clients, decodes pipelined request frames
+ * (see Protocol) and writes all replies of a read batch with one write.
+ * ADD and REMOVE can block, for instance on follower acknowledgements in
+ * replication ack mode. A read batch holding any of them is therefore run by a
+ * worker as a whole, in order, and its replies are posted back to the
+ * selector thread; the client is not read again until they are written.
+ * Batches of lookups only are answered on the selector thread. Each client
+ * thus gets its replies in request order, and a slow commit only holds up
+ * its own client. Connection state is only touched by the selector thread;
+ * ScheduleManager does its own locking.
+ *
+ * Subscribed clients receive EVENT frames for every task added or removed,
+ * whichever front-end made the change (followed through the ScheduleManager
+ * change feed), and for conflicts, including conflicts raised by other threads.
+ * When the feed has to resynchronize from a snapshot (the schedule was
+ * replaced, or the feed fell behind the change log), they get a RESET event
+ * instead and should re-query the schedule.
+ * A client whose unsent output grows past maxPendingBytes stops being read
+ * (requests) or is dropped (subscribers) until it catches up.
+ */
+public class ScheduleServer implements Runnable, ConflictObserver, ScheduleChangeListener {
+    private static final int DEFAULT_MAX_PENDING = 8 * 1024 * 1024;
+    
+    private final ScheduleManager scheduleManager;
+    private final TaskFactory taskFactory;
+    private final Logger logger;
+    private final LogThrottle connectionLog;
+    private final InetSocketAddress bindAddress;
+    private final int maxPendingBytes;
+    
+    private final List<Connection> subscribers = new ArrayList<>();
+    private final Set<Connection> dirty = new LinkedHashSet<>();
+    
+    // Conflicts raised by other threads (e.g. the HTTP API), pushed by the selector thread
+    private final Queue<String> pendingConflicts = new ConcurrentLinkedQueue<>();
+    
+    // Change feed batches and resets, handed from the feed thread to the selector thread
+    private final Queue<ScheduleChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    private ChangeSubscription changeFeed;
+    
+    // Mutation batches run by the workers, handed back to the selector thread for their replies
+    private final Queue<Batch> finishedBatches = new ConcurrentLinkedQueue<>();
+    private ExecutorService workers;
+    
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private volatile boolean running;
+    
+    /**
+     * Creates a server bound to the loopback interface
+     * @param port TCP port, or 0 for an ephemeral port
+     */
+    public ScheduleServer(int port) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), DEFAULT_MAX_PENDING);
+    }
+    
+    public ScheduleServer(InetSocketAddress bindAddress, int maxPendingBytes) {
+        this.scheduleManager = ScheduleManager.getInstance();
+        this.taskFactory = new TaskFactory();
+        this.logger = Logger.getInstance();
+        this.connectionLog = logger.throttle("server.connection", 10, 1000);
+        this.bindAddress = bindAddress;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+    
+    /**
+     * Binds the socket and starts the selector thread
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(bindAddress, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        scheduleManager.addObserver(this);
+        changeFeed = scheduleManager.subscribe(scheduleManager.getVersion(), 1024, this);
+        workers = newWorkers();
+        
+        running = true;
+        thread = new Thread(this, "schedule-server");
+        thread.start();
+        logger.logMessage("Schedule server listening on " + getAddress());
+    }
+    
+    /**
+     * Stops the selector thread and closes all connections
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduleManager.removeObserver(this);
+        changeFeed.close();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.logMessage("Schedule server stopped");
+    }
+    
+    /**
+     * Blocks until the selector thread has stopped
+     * @throws InterruptedException if the wait is interrupted
+     */
+    public void awaitStop() throws InterruptedException {
+        Thread serverThread = thread;
+        if (serverThread != null) {
+            serverThread.join();
+        }
+    }
+    
+    /**
+     * Gets the bound address (useful with port 0)
+     * @return Local socket address
+     */
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            return bindAddress;
+        }
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                dirty.add(connection);
+                            }
+                        }
+                    } catch (IOException e) {
+                        close((Connection) key.attachment(), e.getMessage());
+                    }
+                }
+                
+                String conflict;
+                while ((conflict = pendingConflicts.poll()) != null) {
+                    broadcastConflict(conflict);
+                }
+                ScheduleChange change;
+                while ((change = pendingChanges.poll()) != null) {
+                    if (change.getKind() == ScheduleChange.Kind.RESET) {
+                        broadcastReset();
+                    } else if (!change.getKind().isDependency()) {
+                        // Subscribers are told about tasks; dependency changes move none
+                        broadcastTask(change.getKind() == ScheduleChange.Kind.ADDED
+                            ? Protocol.EVENT_ADDED : Protocol.EVENT_REMOVED, change.getTask());
+                    }
+                }
+                Batch batch;
+                while ((batch = finishedBatches.poll()) != null) {
+                    complete(batch);
+                }
+                flushDirty();
+            }
+        } catch (Exception e) {
+            logger.logError("Schedule server loop failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+    
+    @Override
+    public void update(String message) {
+        if (Thread.currentThread() == thread) {
+            broadcastConflict(message);
+        } else {
+            pendingConflicts.offer(message);
+            selector.wakeup();
+        }
+    }
+    
+    @Override
+    public void onChanges(List<ScheduleChange> changes) {
+        pendingChanges.addAll(changes);
+        selector.wakeup();
+    }
+    
+    @Override
+    public void onSnapshot(ScheduleSnapshot snapshot) {
+        // Queued behind the changes before it, so subscribers see the reset in order
+        pendingChanges.offer(new ScheduleChange(snapshot.getSequence(), ScheduleChange.Kind.RESET, (Task) null));
+        selector.wakeup();
+        logger.logMessage("Schedule server change feed resynchronized at #" + snapshot.getSequence());
+    }
+    
+    @Override
+    public String getObserverId() {
+        return "ScheduleServer";
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(channel, key, String.valueOf(channel.getRemoteAddress()));
+        key.attach(connection);
+        
+        if (connectionLog.tryAcquire()) {
+            logger.logMessage("Client connected: " + connection.remote);
+        }
+    }
+    
+    private void read(Connection connection) throws IOException {
+        connection.ensureInputCapacity(1);
+        int read = connection.channel.read(connection.in);
+        if (read < 0) {
+            close(connection, null);
+            return;
+        }
+        process(connection);
+    }
+    
+    /**
+     * Handles the complete frames in a connection's input
+     * A batch without ADD or REMOVE is answered right here. One with them is
+     * handed to a worker as a whole, so its lookups see its own changes, and
+     * the connection is not read again until the batch has been answered.
+     */
+    private void process(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        in.flip();
+        List<Request> requests = new ArrayList<>();
+        boolean mutates = false;
+        while (in.remaining() >= 4) {
+            int length = in.getInt(in.position());
+            if (length <= 0 || length > Protocol.MAX_REQUEST_BYTES) {
+                throw new ProtocolException("Invalid frame length " + length);
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            if (length < 5) {
+                throw new ProtocolException("Truncated request header");
+            }
+            
+            int frameEnd = in.position() + 4 + length;
+            ByteBuffer frame = in.duplicate();
+            frame.position(in.position() + 4).limit(frameEnd);
+            in.position(frameEnd);
+            Request request = decode(frame);
+            mutates |= request.opcode == Protocol.OP_ADD || request.opcode == Protocol.OP_REMOVE;
+            requests.add(request);
+        }
+        in.compact();
+        
+        if (in.position() >= 4) {
+            // A partial frame is waiting; make sure it fits in the buffer
+            int length = in.getInt(0);
+            if (length <= 0 || length > Protocol.MAX_REQUEST_BYTES) {
+                throw new ProtocolException("Invalid frame length " + length);
+            }
+            connection.ensureInputCapacity(length + 4 - in.position());
+        }
+        
+        if (mutates) {
+            connection.busy = true;
+            Batch batch = new Batch(connection, requests);
+            workers.execute(() -> {
+                execute(batch.requests);
+                finishedBatches.offer(batch);
+                selector.wakeup();
+            });
+        } else {
+            execute(requests);
+            answer(connection, requests);
+        }
+        dirty.add(connection);
+    }
+    
+    /**
+     * Decodes a request frame; a malformed request is answered as failed
+     */
+    private Request decode(ByteBuffer frame) {
+        Request request = new Request(frame.get(), frame.getInt());
+        try {
+            switch (request.opcode) {
+                case Protocol.OP_ADD:
+                    TaskFactory.TaskType type = Protocol.taskType(frame.get());
+                    LocalTime start = Protocol.time(frame.getInt());
+                    LocalTime end = Protocol.time(frame.getInt());
+                    String name = Protocol.getString(frame).trim();
+                    List<String> resources = frame.hasRemaining() ? Protocol.getResources(frame) : null;
+                    if (name.isEmpty() || !start.isBefore(end)) {
+                        request.fail(Protocol.STATUS_ERROR,
+                            name.isEmpty() ? "Task name cannot be empty" : "Start time must be before end time");
+                    } else {
+                        request.name = name;
+                        request.task = taskFactory.createTask(type, name, start, end, resources);
+                    }
+                    break;
+                case Protocol.OP_REMOVE:
+                case Protocol.OP_GET:
+                    request.name = Protocol.getString(frame);
+                    break;
+                case Protocol.OP_RANGE:
+                    request.start = Protocol.time(frame.getInt());
+                    request.end = Protocol.time(frame.getInt());
+                    break;
+                case Protocol.OP_SUBSCRIBE:
+                case Protocol.OP_UNSUBSCRIBE:
+                    break;
+                default:
+                    request.fail(Protocol.STATUS_ERROR, "Unknown opcode " + request.opcode);
+            }
+        } catch (ProtocolException | BufferUnderflowException e) {
+            request.fail(Protocol.STATUS_ERROR, "Malformed request: " + e.getMessage());
+        } catch (TaskException e) {
+            request.fail(Protocol.STATUS_ERROR, e.getMessage());
+        }
+        return request;
+    }
+    
+    /**
+     * Runs requests in order against the schedule, on the selector thread or a worker
+     * SUBSCRIBE and UNSUBSCRIBE change selector state, so answer() applies them.
+     */
+    private void execute(List<Request> requests) {
+        for (Request request : requests) {
+            if (request.status != Protocol.STATUS_OK) {
+                continue;
+            }
+            try {
+                switch (request.opcode) {
+                    case Protocol.OP_ADD:
+                        add(request);
+                        break;
+                    case Protocol.OP_REMOVE:
+                        remove(request);
+                        break;
+                    case Protocol.OP_GET:
+                        Task task = scheduleManager.findTask(request.name);
+                        if (task == null) {
+                            request.fail(Protocol.STATUS_NOT_FOUND, null);
+                        } else {
+                            request.tasks = Collections.singletonList(task);
+                        }
+                        break;
+                    case Protocol.OP_RANGE:
+                        request.tasks = scheduleManager.findTasksBetween(request.start, request.end);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (RuntimeException e) {
+                logger.logError("Schedule server request failed", e);
+                request.fail(Protocol.STATUS_ERROR, "Internal error: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void add(Request request) {
+        if (scheduleManager.hasTask(request.name)) {
+            request.fail(Protocol.STATUS_ERROR, "A task with this name already exists: " + request.name);
+            return;
+        }
+        try {
+            scheduleManager.addTask(request.task);
+        } catch (ConflictException e) {
+            // Subscribers hear about the conflict through update()
+            request.fail(Protocol.STATUS_CONFLICT, e.getMessage());
+        } catch (TaskException e) {
+            request.fail(Protocol.STATUS_ERROR, e.getMessage());
+        }
+    }
+    
+    private void remove(Request request) {
+        if (!scheduleManager.hasTask(request.name)) {
+            request.fail(Protocol.STATUS_NOT_FOUND, null);
+            return;
+        }
+        try {
+            scheduleManager.removeTask(request.name);
+        } catch (TaskException e) {
+            request.fail(Protocol.STATUS_ERROR, e.getMessage());
+        }
+    }
+    
+    /**
+     * Writes the replies of a batch a worker has run and resumes reading the client
+     */
+    private void complete(Batch batch) {
+        Connection connection = batch.connection;
+        connection.busy = false;
+        if (!connection.key.isValid()) {
+            return;
+        }
+        answer(connection, batch.requests);
+        dirty.add(connection);
+    }
+    
+    /**
+     * Encodes the replies of executed requests in request order; selector thread only
+     */
+    private void answer(Connection connection, List<Request> requests) {
+        for (Request request : requests) {
+            if (request.status == Protocol.STATUS_OK) {
+                if (request.opcode == Protocol.OP_SUBSCRIBE && !connection.subscribed) {
+                    connection.subscribed = true;
+                    subscribers.add(connection);
+                } else if (request.opcode == Protocol.OP_UNSUBSCRIBE) {
+                    connection.subscribed = false;
+                    subscribers.remove(connection);
+                }
+            }
+            if (request.tasks != null) {
+                replyTasks(connection, request.requestId, request.tasks);
+            } else if (request.message != null) {
+                replyMessage(connection, request.requestId, request.status, request.message);
+            } else {
+                reply(connection, request.requestId, request.status);
+            }
+        }
+    }
+    
+    private void replyTasks(Connection connection, int requestId, List<Task> tasks) {
+        ByteBuffer out = connection.beginFrame(9);
+        out.put(Protocol.STATUS_OK).putInt(requestId).putInt(tasks.size());
+        for (Task task : tasks) {
+            out = connection.reserve(Protocol.encodedLength(task));
+            Protocol.putTask(out, task);
+        }
+        connection.endFrame();
+    }
+    
+    private void reply(Connection connection, int requestId, byte status) {
+        connection.beginFrame(5).put(status).putInt(requestId);
+        connection.endFrame();
+    }
+    
+    private void replyMessage(Connection connection, int requestId, byte status, String message) {
+        ByteBuffer out = connection.beginFrame(5 + Protocol.encodedLength(message));
+        out.put(status).putInt(requestId);
+        Protocol.putString(out, message);
+        connection.endFrame();
+    }
+    
+    private void broadcastTask(byte kind, Task task) {
+        for (Connection subscriber : subscribers) {
+            ByteBuffer out = subscriber.beginFrame(6 + Protocol.encodedLength(task));
+            out.put(Protocol.STATUS_EVENT).putInt(0).put(kind);
+            Protocol.putTask(out, task);
+            subscriber.endFrame();
+            dirty.add(subscriber);
+        }
+    }
+    
+    private void broadcastReset() {
+        for (Connection subscriber : subscribers) {
+            subscriber.beginFrame(6).put(Protocol.STATUS_EVENT).putInt(0).put(Protocol.EVENT_RESET);
+            subscriber.endFrame();
+            dirty.add(subscriber);
+        }
+    }
+    
+    private void broadcastConflict(String message) {
+        for (Connection subscriber : subscribers) {
+            ByteBuffer out = subscriber.beginFrame(6 + Protocol.encodedLength(message));
+            out.put(Protocol.STATUS_EVENT).putInt(0).put(Protocol.EVENT_CONFLICT);
+            Protocol.putString(out, message);
+            subscriber.endFrame();
+            dirty.add(subscriber);
+        }
+    }
+    
+    /**
+     * Writes pending output of every connection touched in this loop iteration
+     * and adjusts interest: OP_WRITE while output is pending, no OP_READ while a
+     * client is too far behind
+     */
+    private void flushDirty() {
+        for (Connection connection : dirty) {
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            try {
+                boolean drained = connection.flush();
+                int pending = connection.pendingBytes();
+                if (connection.subscribed && pending > maxPendingBytes) {
+                    close(connection, "subscriber too slow (" + pending + " bytes pending)");
+                    continue;
+                }
+                
+                // A busy client is not read until its batch is answered, which bounds its input
+                int interest = pending > maxPendingBytes || connection.busy ? 0 : SelectionKey.OP_READ;
+                if (!drained) {
+                    interest |= SelectionKey.OP_WRITE;
+                }
+                connection.key.interestOps(interest);
+            } catch (IOException e) {
+                close(connection, e.getMessage());
+            }
+        }
+        dirty.clear();
+    }
+    
+    private void close(Connection connection, String reason) {
+        if (connection == null) {
+            return;
+        }
+        subscribers.remove(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        if (reason != null) {
+            logger.logWarning("Client " + connection.remote + " disconnected: " + reason);
+        } else if (connectionLog.tryAcquire()) {
+            logger.logMessage("Client disconnected: " + connection.remote);
+        }
+    }
+    
+    /**
+     * Mutation workers: daemon threads, created as needed. Each client has at most
+     * one batch running, so there are never more busy workers than clients.
+     */
+    private static ExecutorService newWorkers() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-server-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                close((Connection) key.attachment(), null);
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            logger.logError("Failed to close schedule server socket", e);
+        }
+    }
+    
+    /**
+     * One decoded request and its outcome
+     * A worker fills in the outcome, and the selector thread reads it once the batch is handed back.
+     */
+    private static final class Request {
+        final byte opcode;
+        final int requestId;
+        String name;
+        Task task;
+        LocalTime start;
+        LocalTime end;
+        byte status = Protocol.STATUS_OK;
+        String message;
+        List<Task> tasks;
+        
+        Request(byte opcode, int requestId) {
+            this.opcode = opcode;
+            this.requestId = requestId;
+        }
+        
+        void fail(byte status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+    
+    /**
+     * The requests of one client read, run in order by one worker
+     */
+    private static final class Batch {
+        final Connection connection;
+        final List<Request> requests;
+        
+        Batch(Connection connection, List<Request> requests) {
+            this.connection = connection;
+            this.requests = requests;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CachedClock class implementing Singleton pattern
+ * Coarse clock shared by components that stamp events. The formatted
+ * "yyyy-MM-dd HH:mm:ss" text is re-rendered only when the second changes;
+ * the optional millisecond suffix is appended arithmetically.
+ */
+public class CachedClock {
+    // Eagerly created instance - the clock is needed by the first log line anyway
+    private static final CachedClock INSTANCE = new CachedClock();
+    
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+    
+    // Last rendered second; replaced as a whole so readers never see a torn pair
+    private volatile Second cached;
+    
+    // Private constructor prevents external instantiation
+    private CachedClock() {
+        this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        this.zone = ZoneId.systemDefault();
+        this.cached = render(Math.floorDiv(System.currentTimeMillis(), 1000L));
+    }
+    
+    /**
+     * Gets the shared clock
+     * @return Single instance of CachedClock
+     */
+    public static CachedClock getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the current wall-clock time in milliseconds
+     * @return Epoch milliseconds
+     */
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+    
+    /**
+     * Gets the current time formatted to the second
+     * @return Timestamp such as 2024-05-01 14:03:27
+     */
+    public String getTimestamp() {
+        return secondFor(System.currentTimeMillis()).text;
+    }
+    
+    /**
+     * Gets the current time formatted with a millisecond suffix
+     * @return Timestamp such as 2024-05-01 14:03:27.045
+     */
+    public String getTimestampMillis() {
+        return format(System.currentTimeMillis(), true);
+    }
+    
+    /**
+     * Formats an epoch-millisecond instant, reusing the cached second when it matches
+     * @param epochMillis The instant to format
+     * @param withMillis Whether to append the .SSS suffix
+     * @return Formatted timestamp
+     */
+    public String format(long epochMillis, boolean withMillis) {
+        String text = secondFor(epochMillis).text;
+        if (!withMillis) {
+            return text;
+        }
+        
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        return new StringBuilder(text.length() + 4)
+            .append(text)
+            .append('.')
+            .append((char) ('0' + millis / 100))
+            .append((char) ('0' + millis / 10 % 10))
+            .append((char) ('0' + millis % 10))
+            .toString();
+    }
+    
+    /**
+     * Gets the rendered second for an instant, refreshing the cache when the clock has moved on
+     * @param epochMillis The instant to look up
+     * @return Rendered second
+     */
+    private Second secondFor(long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        Second current = cached;
+        if (current.epochSecond == epochSecond) {
+            return current;
+        }
+        
+        Second rendered = render(epochSecond);
+        // Only move the cache forward; stamping an older event must not evict the live second
+        if (epochSecond > current.epochSecond) {
+            cached = rendered;
+        }
+        return rendered;
+    }
+    
+    private Second render(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        return new Second(epochSecond, time.format(formatter));
+    }
+    
+    /**
+     * Immutable pair of an epoch second and its rendered text
+     */
+    private static final class Second {
+        private final long epochSecond;
+        private final String text;
+        
+        private Second(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+}
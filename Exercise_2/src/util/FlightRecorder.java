@@ -0,0 +1,213 @@
+package util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FlightRecorder class implementing Singleton pattern
+ * Always-on black box that keeps the last N schedule events in a fixed-size,
+ * memory-mapped circular file. Records are fixed-width binary so recording
+ * is a handful of absolute buffer writes with no allocation and no syscall;
+ * the mapped pages reach disk even if the JVM crashes. Use FlightRecorderDump
+ * to decode the file offline.
+ *
+ * File layout: 64-byte header followed by capacity records of 64 bytes each.
+ * Header: magic(int) version(int) recordSize(int) capacity(int) nextSequence(long)
+ * Record: sequence(long) epochMillis(long) type(byte) textLength(byte) reserved(short)
+ *         startSecond(int) endSecond(int) taskCount(int) text(32 bytes, ASCII)
+ */
+public class FlightRecorder {
+    static final int MAGIC = 0x41534652; // "ASFR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+    static final int TEXT_OFFSET = 32;
+    static final int TEXT_CAPACITY = RECORD_SIZE - TEXT_OFFSET;
+    static final int NEXT_SEQUENCE_OFFSET = 16;
+    
+    // Lazy holder, initialized by the JVM on the first getInstance() call
+    private static final class Holder {
+        static final FlightRecorder INSTANCE = create();
+    }
+    
+    /**
+     * Recorded event types; the code is what is stored on disk
+     */
+    public enum EventType {
+        TASK_ADDED(1), TASK_REMOVED(2), CONFLICT(3), CONFLICT_NOTIFIED(4), WARNING(5), ERROR(6);
+        
+        private final byte code;
+        
+        EventType(int code) {
+            this.code = (byte) code;
+        }
+        
+        public byte getCode() {
+            return code;
+        }
+        
+        public static EventType fromCode(byte code) {
+            for (EventType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+    
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong sequence;
+    private final Path file;
+    
+    // Private constructor prevents external instantiation
+    private FlightRecorder(Path file, int capacity) {
+        MappedByteBuffer mapped = null;
+        long nextSequence = 1;
+        int slots = capacity;
+        
+        if (file != null) {
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    // Keep a previous run's history (and its capacity) so a restart after a crash does not wipe it
+                    if (channel.size() >= HEADER_SIZE) {
+                        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                        if (header.getInt(0) == MAGIC && header.getInt(4) == VERSION &&
+                                header.getInt(8) == RECORD_SIZE && header.getInt(12) > 0) {
+                            slots = header.getInt(12);
+                            nextSequence = Math.max(1, header.getLong(NEXT_SEQUENCE_OFFSET));
+                        }
+                    }
+                    mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_SIZE + (long) slots * RECORD_SIZE);
+                }
+                // The header is only a hint under concurrent writers; the records themselves are authoritative
+                for (int slot = 0; slot < slots; slot++) {
+                    nextSequence = Math.max(nextSequence, mapped.getLong(HEADER_SIZE + slot * RECORD_SIZE) + 1);
+                }
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(4, VERSION);
+                mapped.putInt(8, RECORD_SIZE);
+                mapped.putInt(12, slots);
+                mapped.putLong(NEXT_SEQUENCE_OFFSET, nextSequence);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ERROR] Flight recorder disabled, could not map " + file + " - " + e.getMessage());
+                mapped = null;
+            }
+        }
+        
+        this.file = file;
+        this.buffer = mapped;
+        this.capacity = slots;
+        this.sequence = new AtomicLong(nextSequence);
+    }
+    
+    /**
+     * Thread-safe, lock-free getInstance using the initialization-on-demand holder idiom
+     * Configured with -Drecorder.enabled (default true), -Drecorder.file and -Drecorder.capacity
+     * @return Single instance of FlightRecorder
+     */
+    public static FlightRecorder getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    private static FlightRecorder create() {
+        boolean enabled = Boolean.parseBoolean(System.getProperty("recorder.enabled", "true"));
+        Path path = enabled ? Paths.get(System.getProperty("recorder.file", "logs/flight-recorder.bin")) : null;
+        int capacity = Math.max(16, Integer.getInteger("recorder.capacity", 4096));
+        return new FlightRecorder(path, capacity);
+    }
+    
+    /**
+     * Records a task event
+     * @param type Event type
+     * @param taskName Task name (truncated to 32 ASCII characters)
+     * @param start Task start time, may be null
+     * @param end Task end time, may be null
+     * @param taskCount Number of tasks in the schedule after the event
+     */
+    public void record(EventType type, String taskName, LocalTime start, LocalTime end, int taskCount) {
+        write(type, taskName,
+            start != null ? start.toSecondOfDay() : -1,
+            end != null ? end.toSecondOfDay() : -1,
+            taskCount);
+    }
+    
+    /**
+     * Records an event that carries only a message (warnings, errors, notifications)
+     * @param type Event type
+     * @param message Message text (truncated to 32 ASCII characters)
+     */
+    public void record(EventType type, String message) {
+        write(type, message, -1, -1, -1);
+    }
+    
+    /**
+     * Checks whether events are being recorded
+     * @return true if the ring file is mapped
+     */
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Forces the mapped ring to disk (only needed to survive an OS crash, not a JVM crash)
+     */
+    public void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+    
+    private void write(EventType type, String text, int startSecond, int endSecond, int taskCount) {
+        if (buffer == null || type == null) {
+            return;
+        }
+        
+        long seq = sequence.getAndIncrement();
+        int base = HEADER_SIZE + (int) (seq % capacity) * RECORD_SIZE;
+        
+        // Invalidate the slot first so a torn record is never decoded as a complete one
+        buffer.putLong(base, 0L);
+        buffer.putLong(base + 8, System.currentTimeMillis());
+        buffer.put(base + 16, type.getCode());
+        buffer.putShort(base + 18, (short) 0);
+        buffer.putInt(base + 20, startSecond);
+        buffer.putInt(base + 24, endSecond);
+        buffer.putInt(base + 28, taskCount);
+        
+        int length = 0;
+        if (text != null) {
+            length = Math.min(text.length(), TEXT_CAPACITY);
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                buffer.put(base + TEXT_OFFSET + i, (byte) (c < 0x80 ? c : '?'));
+            }
+        }
+        buffer.put(base + 17, (byte) length);
+        
+        buffer.putLong(base, seq);
+        buffer.putLong(NEXT_SEQUENCE_OFFSET, seq + 1);
+    }
+}
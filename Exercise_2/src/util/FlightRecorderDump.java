@@ -0,0 +1,103 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Offline decoder for FlightRecorder ring files
+ * Usage: java -cp out util.FlightRecorderDump [logs/flight-recorder.bin]
+ * Prints the surviving records oldest first.
+ */
+public class FlightRecorderDump {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    
+    public static void main(String[] args) {
+        Path file = Paths.get(args.length > 0 ? args[0] : "logs/flight-recorder.bin");
+        try {
+            for (String line : decode(file)) {
+                System.out.println(line);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to decode flight recorder file " + file + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Decodes a ring file into text lines, oldest record first
+     * @param file The ring file
+     * @return Header line followed by one line per record
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> decode(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.limit() < FlightRecorder.HEADER_SIZE || buffer.getInt(0) != FlightRecorder.MAGIC) {
+            throw new IllegalArgumentException("Not a flight recorder file");
+        }
+        if (buffer.getInt(4) != FlightRecorder.VERSION || buffer.getInt(8) != FlightRecorder.RECORD_SIZE) {
+            throw new IllegalArgumentException("Unsupported flight recorder version " + buffer.getInt(4));
+        }
+        
+        int capacity = buffer.getInt(12);
+        int available = (buffer.limit() - FlightRecorder.HEADER_SIZE) / FlightRecorder.RECORD_SIZE;
+        int slots = Math.min(capacity, available);
+        
+        List<long[]> present = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            long seq = buffer.getLong(FlightRecorder.HEADER_SIZE + slot * FlightRecorder.RECORD_SIZE);
+            // Zero marks an empty or torn slot; a sequence in the wrong slot is stale garbage
+            if (seq > 0 && seq % capacity == slot) {
+                present.add(new long[] {seq, slot});
+            }
+        }
+        present.sort(Comparator.comparingLong(entry -> entry[0]));
+        
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Flight recorder %s: capacity=%d, records=%d, next sequence=%d",
+            file, capacity, present.size(), buffer.getLong(FlightRecorder.NEXT_SEQUENCE_OFFSET)));
+        for (long[] entry : present) {
+            lines.add(formatRecord(buffer, FlightRecorder.HEADER_SIZE + (int) entry[1] * FlightRecorder.RECORD_SIZE));
+        }
+        return lines;
+    }
+    
+    private static String formatRecord(ByteBuffer buffer, int base) {
+        long seq = buffer.getLong(base);
+        long millis = buffer.getLong(base + 8);
+        FlightRecorder.EventType type = FlightRecorder.EventType.fromCode(buffer.get(base + 16));
+        int textLength = Math.min(buffer.get(base + 17) & 0xFF, FlightRecorder.TEXT_CAPACITY);
+        int startSecond = buffer.getInt(base + 20);
+        int endSecond = buffer.getInt(base + 24);
+        int taskCount = buffer.getInt(base + 28);
+        
+        byte[] text = new byte[textLength];
+        buffer.get(base + FlightRecorder.TEXT_OFFSET, text);
+        
+        StringBuilder line = new StringBuilder();
+        line.append('#').append(seq).append(' ')
+            .append(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(TIMESTAMP))
+            .append(' ').append(type != null ? type : "UNKNOWN")
+            .append(" '").append(new String(text, StandardCharsets.US_ASCII)).append('\'');
+        if (startSecond >= 0 && endSecond >= 0) {
+            line.append(' ').append(LocalTime.ofSecondOfDay(startSecond).format(TIME))
+                .append('-').append(LocalTime.ofSecondOfDay(endSecond).format(TIME));
+        }
+        if (taskCount >= 0) {
+            line.append(" tasks=").append(taskCount);
+        }
+        return line.toString();
+    }
+}
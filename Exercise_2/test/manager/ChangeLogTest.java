@@ -0,0 +1,130 @@
+package manager;
+
+import exception.ChangeLogTruncatedException;
+import model.ResearchTask;
+import model.ScheduleChange;
+import model.Task;
+import tests.Check;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Behavior tests for ChangeLog and the change feed ScheduleManager writes to it
+ * The log tests use a capacity of four, so the fifth append overwrites the first.
+ */
+public class ChangeLogTest {
+    private static final String GROUP = "ChangeLog";
+    private static final Task TASK = new ResearchTask("A", LocalTime.of(8, 0), LocalTime.of(9, 0));
+    
+    public static void run(Check check) {
+        check.run(GROUP, "appendAndRead", () -> {
+            ChangeLog log = new ChangeLog(4);
+            check.equal(0L, log.getLastSequence(), "empty");
+            check.equal("[]", sequences(log.read(0, 10, 0)), "nothing yet");
+            append(log, 1, 3);
+            check.equal("[1, 2, 3]", sequences(log.read(0, 10, 0)), "from the start");
+            check.equal("[2]", sequences(log.read(1, 1, 0)), "batch size");
+            check.equal("[]", sequences(log.read(3, 10, 0)), "up to date");
+            check.fails(IllegalStateException.class, () -> log.append(change(5)), "gap");
+            check.fails(IllegalStateException.class, () -> log.append(change(3)), "repeat");
+            check.fails(IllegalArgumentException.class, () -> log.read(0, 0, 0), "zero batch");
+        });
+        
+        check.run(GROUP, "truncation", () -> {
+            ChangeLog log = new ChangeLog(4);
+            append(log, 1, 10);
+            check.equal("[7, 8, 9, 10]", sequences(log.read(6, 10, 0)), "oldest retained");
+            ChangeLogTruncatedException e = check.fails(ChangeLogTruncatedException.class,
+                () -> log.read(5, 10, 0), "overwritten");
+            check.equal(5L, e.getRequestedSequence(), "requested");
+            check.equal(7L, e.getOldestSequence(), "oldest");
+            check.fails(ChangeLogTruncatedException.class, () -> log.read(0, 10, 0), "from the start");
+        });
+        
+        check.run(GROUP, "restart", () -> {
+            ChangeLog log = new ChangeLog(4);
+            append(log, 1, 3);
+            // A snapshot taken further on: readers behind it must resynchronize
+            log.restart(20);
+            check.equal(20L, log.getLastSequence(), "restarted");
+            check.fails(ChangeLogTruncatedException.class, () -> log.read(3, 10, 0), "behind");
+            check.equal("[]", sequences(log.read(20, 10, 0)), "at the snapshot");
+            check.fails(IllegalStateException.class, () -> log.append(change(4)), "old numbering");
+            append(log, 21, 22);
+            check.equal("[21, 22]", sequences(log.read(20, 10, 0)), "continues after the snapshot");
+            
+            // A snapshot further back: readers ahead of it must resynchronize too
+            log.restart(5);
+            ChangeLogTruncatedException e = check.fails(ChangeLogTruncatedException.class,
+                () -> log.read(22, 10, 0), "ahead");
+            check.equal(6L, e.getOldestSequence(), "oldest after moving back");
+            append(log, 6, 6);
+            check.equal("[6]", sequences(log.read(5, 10, 0)), "continues after moving back");
+        });
+        
+        check.run(GROUP, "blockingRead", () -> {
+            ChangeLog log = new ChangeLog(4);
+            append(log, 1, 1);
+            Thread writer = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                    log.append(change(2));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            writer.start();
+            long started = System.nanoTime();
+            check.equal("[2]", sequences(log.read(1, 10, 10_000)), "woken by the append");
+            check.isTrue(System.nanoTime() - started < 5_000_000_000L, "did not wait out the timeout");
+            writer.join();
+            
+            started = System.nanoTime();
+            check.equal("[]", sequences(log.read(2, 10, 50)), "timed out");
+            check.isTrue(System.nanoTime() - started >= 40_000_000L, "waited for the timeout");
+        });
+        
+        check.run(GROUP, "scheduleFeed", () -> {
+            ScheduleManager manager = ScheduleManager.getInstance();
+            manager.replaceTasks(Collections.emptyList());
+            long start = manager.getVersion();
+            manager.addTask(TASK);
+            manager.addTask(new ResearchTask("B", LocalTime.of(9, 0), LocalTime.of(10, 0)));
+            manager.addDependency("A", "B");
+            manager.moveTask("B", LocalTime.of(10, 0), LocalTime.of(11, 0));
+            manager.removeDependency("A", "B");
+            List<ScheduleChange> changes = manager.readChanges(start, 100);
+            List<String> kinds = new ArrayList<>();
+            for (ScheduleChange change : changes) {
+                kinds.add(change.getKind() + " " + (change.getKind().isDependency()
+                    ? change.getDependency() : change.getTask().getName()));
+            }
+            check.equal("[ADDED A, ADDED B, LINKED A -> B, REMOVED B, ADDED B, UNLINKED A -> B]",
+                kinds.toString(), "changes");
+            check.equal(start + changes.size(), manager.getVersion(), "one sequence number per change");
+            check.equal("[]", sequences(manager.readChanges(manager.getVersion(), 100)), "up to date");
+            manager.replaceTasks(Collections.emptyList());
+        });
+    }
+    
+    private static ScheduleChange change(long sequence) {
+        return new ScheduleChange(sequence, ScheduleChange.Kind.ADDED, TASK);
+    }
+    
+    private static void append(ChangeLog log, long first, long last) {
+        for (long sequence = first; sequence <= last; sequence++) {
+            log.append(change(sequence));
+        }
+    }
+    
+    private static String sequences(List<ScheduleChange> changes) {
+        List<Long> sequences = new ArrayList<>();
+        for (ScheduleChange change : changes) {
+            sequences.add(change.getSequence());
+        }
+        return sequences.toString();
+    }
+}
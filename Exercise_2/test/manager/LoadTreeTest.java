@@ -0,0 +1,118 @@
+package manager;
+
+import model.ResearchTask;
+import model.ScheduleLoad;
+import tests.Check;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Behavior tests for LoadTree and the load queries ScheduleManager answers with it
+ * The random test keeps a plain per-minute array next to the tree and
+ * compares every range sum and maximum after adding and removing intervals.
+ */
+public class LoadTreeTest {
+    private static final String GROUP = "LoadTree";
+    
+    public static void run(Check check) {
+        check.run(GROUP, "minutes", () -> {
+            check.equal(0, LoadTree.firstMinute(LocalTime.MIDNIGHT), "midnight");
+            check.equal(600, LoadTree.firstMinute(LocalTime.of(10, 0, 30)), "start within a minute");
+            check.equal(600, LoadTree.endMinute(LocalTime.of(10, 0)), "end on a minute");
+            check.equal(601, LoadTree.endMinute(LocalTime.of(10, 0, 1)), "end within a minute");
+            check.equal(LoadTree.MINUTES, LoadTree.endMinute(LocalTime.MAX), "end of the day");
+        });
+        
+        check.run(GROUP, "rangeUpdates", () -> {
+            LoadTree tree = new LoadTree();
+            tree.add(60, 120, 1);
+            tree.add(90, 180, 1);
+            check.equal(150L, tree.sum(0, LoadTree.MINUTES), "task-minutes");
+            check.equal(20L, tree.sum(100, 110), "overlap");
+            check.equal(2, tree.max(0, LoadTree.MINUTES), "peak");
+            check.equal(1, tree.max(120, 180), "after the first ends");
+            check.equal(0, tree.max(180, 181), "idle minute");
+            check.equal(0L, tree.sum(90, 90), "empty range");
+            check.equal(0, tree.max(90, 90), "empty range peak");
+            
+            tree.add(60, 120, -1);
+            check.equal(90L, tree.sum(0, LoadTree.MINUTES), "after remove");
+            check.equal(1, tree.max(0, LoadTree.MINUTES), "peak after remove");
+            tree.add(0, LoadTree.MINUTES, 3);
+            check.equal(3, tree.max(LoadTree.MINUTES - 1, LoadTree.MINUTES), "last minute");
+            check.equal(4, tree.max(179, LoadTree.MINUTES), "suffix");
+            check.equal(3L * LoadTree.MINUTES + 90, tree.sum(0, LoadTree.MINUTES), "whole day");
+            tree.clear();
+            check.equal(0L, tree.sum(0, LoadTree.MINUTES), "cleared");
+        });
+        
+        check.run(GROUP, "randomAgainstArray", () -> {
+            Random random = new Random(11);
+            LoadTree tree = new LoadTree();
+            int[] load = new int[LoadTree.MINUTES];
+            List<int[]> live = new ArrayList<>();
+            for (int step = 0; step < 3000; step++) {
+                int[] range;
+                int delta;
+                if (!live.isEmpty() && random.nextInt(3) == 0) {
+                    range = live.remove(random.nextInt(live.size()));
+                    delta = -1;
+                } else {
+                    int from = random.nextInt(LoadTree.MINUTES);
+                    range = new int[] {from, from + 1 + random.nextInt(Math.min(240, LoadTree.MINUTES - from))};
+                    live.add(range);
+                    delta = 1;
+                }
+                tree.add(range[0], range[1], delta);
+                for (int minute = range[0]; minute < range[1]; minute++) {
+                    load[minute] += delta;
+                }
+                
+                for (int query = 0; query < 5; query++) {
+                    int from = random.nextInt(LoadTree.MINUTES);
+                    int to = from + 1 + random.nextInt(LoadTree.MINUTES - from);
+                    long sum = 0;
+                    int max = 0;
+                    for (int minute = from; minute < to; minute++) {
+                        sum += load[minute];
+                        max = Math.max(max, load[minute]);
+                    }
+                    check.equal(sum, tree.sum(from, to), "sum of [" + from + ", " + to + ") at step " + step);
+                    check.equal(max, tree.max(from, to), "max of [" + from + ", " + to + ") at step " + step);
+                }
+            }
+        });
+        
+        check.run(GROUP, "scheduleLoad", () -> {
+            ScheduleManager manager = ScheduleManager.getInstance();
+            manager.replaceTasks(Collections.emptyList());
+            // Different crew members, so the two tasks may overlap
+            manager.addTask(new ResearchTask("A", LocalTime.of(8, 0), LocalTime.of(9, 0), Arrays.asList("crew1")));
+            manager.addTask(new ResearchTask("B", LocalTime.of(8, 30), LocalTime.of(9, 30), Arrays.asList("crew2")));
+            ScheduleLoad load = manager.getLoad(LocalTime.of(8, 0), LocalTime.of(10, 0));
+            check.equal(120L, load.getBusyMinutes(), "busy minutes");
+            check.equal(2, load.getPeakConcurrency(), "peak");
+            check.equal(120, load.getWindowMinutes(), "window");
+            check.equal(LocalTime.of(8, 0), manager.getBusiestHour(), "busiest hour");
+            
+            manager.moveTask("B", LocalTime.of(9, 0), LocalTime.of(11, 0));
+            load = manager.getLoad(LocalTime.of(8, 0), LocalTime.of(10, 0));
+            check.equal(1, load.getPeakConcurrency(), "peak after move");
+            // 60 busy minutes in each of 08, 09 and 10
+            check.equal(LocalTime.of(8, 0), manager.getBusiestHour(), "earliest on a tie");
+            manager.resizeTask("A", LocalTime.of(8, 30));
+            check.equal(LocalTime.of(9, 0), manager.getBusiestHour(), "busiest hour after resize");
+            manager.undo();
+            manager.undo();
+            check.equal(2, manager.getLoad(LocalTime.of(8, 0), LocalTime.of(10, 0)).getPeakConcurrency(),
+                "peak after undo");
+            manager.replaceTasks(Collections.emptyList());
+            check.equal(null, manager.getBusiestHour(), "empty schedule");
+        });
+    }
+}
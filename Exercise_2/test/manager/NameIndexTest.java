@@ -0,0 +1,134 @@
+package manager;
+
+import model.ResearchTask;
+import model.Task;
+import tests.Check;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Behavior tests for NameIndex
+ * Names are added in reverse name order, so results that come back in name
+ * order were sorted rather than read off the trigram lists in insertion order.
+ */
+public class NameIndexTest {
+    private static final String GROUP = "NameIndex";
+    
+    public static void run(Check check) {
+        List<String> names = Arrays.asList("Solar Panel Check", "Sample Analysis", "Sample Prep", "sample wash",
+            "Samples Stowage", "Spacewalk Prep", "Airlock Check", "Crew Meal", "Exercise", "Exercises");
+        
+        check.run(GROUP, "withPrefix", () -> {
+            NameIndex index = index(names);
+            check.equal("[Sample Analysis, Sample Prep, sample wash, Samples Stowage]",
+                names(index.withPrefix("SAMPLE", 10)), "case-insensitive, in name order");
+            check.equal("[Sample Analysis, Sample Prep]", names(index.withPrefix("sample", 2)), "limit");
+            check.equal("[]", names(index.withPrefix("Zebra", 10)), "no match");
+        });
+        
+        check.run(GROUP, "containing", () -> {
+            NameIndex index = index(names);
+            // Two characters scan the sorted names; longer queries go through the trigrams
+            check.equal("[Airlock Check, Crew Meal, Exercise, Exercises]", names(index.containing("e", 4)),
+                "short query, first in name order");
+            check.equal("[Sample Prep, Spacewalk Prep]", names(index.containing("PREP", 10)), "trigram query");
+            check.equal("[Sample Analysis, Sample Prep]", names(index.containing("ample", 2)),
+                "limit keeps the first in name order");
+            check.equal("[Airlock Check, Solar Panel Check]", names(index.containing(" check", 10)), "spaces");
+            check.equal("[]", names(index.containing("xyz", 10)), "unknown trigram");
+            check.equal("[]", names(index.containing("ck Ch", 0)), "zero limit");
+        });
+        
+        check.run(GROUP, "similar", () -> {
+            NameIndex index = index(names);
+            check.equal("[Exercise, Exercises]", names(index.similar("exercise", 1, 10)),
+                "exact match first, then one edit");
+            check.equal("[Exercise]", names(index.similar("Exercsie", 1, 10)), "swap is one edit");
+            check.equal("[]", names(index.similar("Exrecsie", 1, 10)), "two swaps exceed one edit");
+            check.equal("[Exercise]", names(index.similar("Exrecsie", 2, 10)), "within two edits");
+            check.equal("[Exercise, Exercises]", names(index.similar("Exercisea", 1, 10)), "tie broken by name");
+            check.equal("[Sample Prep]", names(index.similar("Sample Prep", 2, 1)), "limit");
+            check.equal("[Sample Prep, sample wash]", names(index.similar("Sample Pwap", 3, 10)),
+                "closer first");
+        });
+        
+        check.run(GROUP, "removeAndRebuild", () -> {
+            List<String> many = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) {
+                many.add(String.format("Task %04d", i));
+            }
+            NameIndex index = index(many);
+            // Removing most names pushes the dead ids past the rebuild threshold
+            for (int i = 0; i < 3000; i++) {
+                if (i % 10 != 7) {
+                    index.remove(task(many.get(i)));
+                }
+            }
+            check.equal("[Task 0007, Task 0017, Task 0027]", names(index.containing("task 0", 3)), "after rebuild");
+            check.equal("[Task 2997]", names(index.containing("2997", 10)), "kept name");
+            check.equal("[]", names(index.containing("2998", 10)), "removed name");
+            check.equal("[Task 0107]", names(index.similar("Task 0108", 1, 10)), "fuzzy skips removed names");
+            index.add(task("Task 2998"));
+            check.equal("[Task 2998]", names(index.containing("2998", 10)), "added after rebuild");
+            index.clear();
+            check.equal("[]", names(index.withPrefix("Task", 10)), "cleared");
+        });
+        
+        check.run(GROUP, "containingAgainstScan", () -> {
+            Random random = new Random(7);
+            List<String> words = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                StringBuilder word = new StringBuilder();
+                for (int length = 3 + random.nextInt(8); length > 0; length--) {
+                    word.append((char) ('a' + random.nextInt(4)));
+                }
+                if (!words.contains(word.toString())) {
+                    words.add(word.toString());
+                }
+            }
+            NameIndex index = index(words);
+            List<String> sorted = new ArrayList<>(words);
+            Collections.sort(sorted);
+            for (int query = 0; query < 200; query++) {
+                String text = words.get(random.nextInt(words.size())).substring(0, 1 + random.nextInt(3));
+                int limit = 1 + random.nextInt(20);
+                List<String> expected = new ArrayList<>();
+                for (String word : sorted) {
+                    if (expected.size() < limit && word.contains(text)) {
+                        expected.add(word);
+                    }
+                }
+                check.equal(expected.toString(), names(index.containing(text, limit)),
+                    "containing '" + text + "' limit " + limit);
+            }
+        });
+    }
+    
+    /**
+     * Index of tasks with these names, added in reverse name order
+     */
+    private static NameIndex index(List<String> names) {
+        List<String> order = new ArrayList<>(names);
+        order.sort(Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT)).reversed());
+        NameIndex index = new NameIndex();
+        for (String name : order) {
+            index.add(task(name));
+        }
+        return index;
+    }
+    
+    private static Task task(String name) {
+        return new ResearchTask(name, LocalTime.of(8, 0), LocalTime.of(9, 0));
+    }
+    
+    private static String names(List<Task> tasks) {
+        return ScheduleManagerTest.names(tasks);
+    }
+}
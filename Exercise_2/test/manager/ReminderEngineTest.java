@@ -0,0 +1,150 @@
+package manager;
+
+import model.ResearchTask;
+import model.Task;
+import model.TaskReminder;
+import tests.Check;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Behavior tests for ReminderEngine, driven through runDue() by a clock the
+ * test sets instead of the engine thread
+ * The engine runs with one-second ticks and a ten-minute lead, so a task at
+ * 10:00-11:00 is due UPCOMING at 09:50, STARTED at 10:00 and ENDED at 11:00.
+ */
+public class ReminderEngineTest {
+    private static final String GROUP = "ReminderEngine";
+    private static final String DAY = "2026-03-02T";
+    
+    /**
+     * Clock that stays where the test puts it
+     */
+    static final class ManualClock extends Clock {
+        private final ZoneId zone;
+        private long millis;
+        
+        ManualClock(ZoneId zone, long millis) {
+            this.zone = zone;
+            this.millis = millis;
+        }
+        
+        void set(long millis) {
+            this.millis = millis;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new ManualClock(zone, millis);
+        }
+        
+        @Override
+        public long millis() {
+            return millis;
+        }
+        
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+    
+    public static void run(Check check) {
+        Task task = new ResearchTask("Experiment", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        
+        check.run(GROUP, "dailyCycle", () -> {
+            ManualClock clock = new ManualClock(ZoneOffset.UTC, at("08:00:00"));
+            List<TaskReminder> sink = new ArrayList<>();
+            ReminderEngine engine = new ReminderEngine(clock, 1000, 10, sink::add);
+            engine.schedule(task);
+            check.equal(1, engine.size(), "one timer per task");
+            
+            check.equal(0, runAt(engine, clock, "09:49:59.999"), "not before it is due");
+            check.equal(1, runAt(engine, clock, "09:50:00"), "upcoming");
+            check.equal(0, runAt(engine, clock, "09:59:59"), "between events");
+            check.equal(1, runAt(engine, clock, "10:00:00.500"), "started");
+            check.equal(1, runAt(engine, clock, "11:00:00"), "ended");
+            // After the end the timer waits for the next day's lead
+            check.equal(0, runAt(engine, clock, "23:59:59"), "rest of the day");
+            clock.set(at("09:50:00") + 24 * 3600_000L);
+            check.equal(1, engine.runDue(), "next day's upcoming");
+            
+            check.equal("[UPCOMING, STARTED, ENDED, UPCOMING]", kinds(sink), "kinds");
+            check.equal(at("09:50:00"), sink.get(0).getDueMillis(), "due time");
+            check.isTrue(sink.get(0).getTask() == task, "task");
+            check.equal(1, engine.size(), "re-armed");
+        });
+        
+        check.run(GROUP, "stallFiresOnlyWhatFellDue", () -> {
+            ManualClock clock = new ManualClock(ZoneOffset.UTC, at("09:00:00"));
+            List<TaskReminder> sink = new ArrayList<>();
+            ReminderEngine engine = new ReminderEngine(clock, 1000, 10, sink::add);
+            engine.schedule(task);
+            // UPCOMING fell due during the stall; STARTED is skipped, not replayed
+            check.equal(1, runAt(engine, clock, "10:30:00"), "after a stall");
+            check.equal(1, runAt(engine, clock, "11:00:00"), "next event");
+            check.equal("[UPCOMING, ENDED]", kinds(sink), "kinds");
+        });
+        
+        check.run(GROUP, "cancelAndReset", () -> {
+            ManualClock clock = new ManualClock(ZoneOffset.UTC, at("08:00:00"));
+            List<TaskReminder> sink = new ArrayList<>();
+            ReminderEngine engine = new ReminderEngine(clock, 1000, 0, sink::add);
+            Task other = new ResearchTask("Other", LocalTime.of(9, 0), LocalTime.of(9, 30));
+            engine.schedule(task);
+            engine.schedule(other);
+            // An equal copy (as a replica applies) finds the same timer
+            engine.cancel(new ResearchTask("Experiment", LocalTime.of(10, 0), LocalTime.of(11, 0)));
+            check.equal(1, engine.size(), "cancelled by an equal task");
+            check.equal(1, runAt(engine, clock, "09:00:00"), "other task started, no lead reminder");
+            check.equal(1, runAt(engine, clock, "10:30:00"), "other task ended, cancelled one silent");
+            check.equal("[STARTED, ENDED]", kinds(sink), "kinds");
+            
+            engine.reset(List.of(task));
+            check.equal(1, engine.size(), "reset");
+            check.equal(1, runAt(engine, clock, "11:00:00"), "armed from the current time");
+            check.isTrue(sink.get(2).getTask() == task, "reset task");
+        });
+        
+        check.run(GROUP, "sinkFailureDoesNotStopDelivery", () -> {
+            ManualClock clock = new ManualClock(ZoneOffset.UTC, at("09:00:00"));
+            List<TaskReminder> sink = new ArrayList<>();
+            ReminderEngine engine = new ReminderEngine(clock, 1000, 0, reminder -> {
+                sink.add(reminder);
+                throw new IllegalStateException("observer failed");
+            });
+            engine.schedule(task);
+            check.equal(1, runAt(engine, clock, "10:00:00"), "delivered despite the failure");
+            check.equal(1, runAt(engine, clock, "11:00:00"), "still armed");
+            check.equal(2, sink.size(), "sink calls");
+        });
+    }
+    
+    private static long at(String time) {
+        return Instant.parse(DAY + time + "Z").toEpochMilli();
+    }
+    
+    private static int runAt(ReminderEngine engine, ManualClock clock, String time) {
+        clock.set(at(time));
+        return engine.runDue();
+    }
+    
+    private static String kinds(List<TaskReminder> reminders) {
+        List<TaskReminder.Kind> kinds = new ArrayList<>();
+        for (TaskReminder reminder : reminders) {
+            kinds.add(reminder.getKind());
+        }
+        return kinds.toString();
+    }
+}
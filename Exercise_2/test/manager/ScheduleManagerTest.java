@@ -0,0 +1,335 @@
+package manager;
+
+import exception.TaskException;
+import exception.TransactionException;
+import factory.TaskFactory.TaskType;
+import model.ExerciseTask;
+import model.MergeReport;
+import model.ResearchTask;
+import model.Task;
+import tests.Check;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Behavior tests for ScheduleManager edits through its public API
+ * Lives in the manager package so each test can start from an empty
+ * schedule with replaceTasks(), which also clears the undo history.
+ *
+ * undoRedoRoundTrip records the schedule after every kind of edit, then
+ * checks that undoing them all walks back through those states and redoing
+ * them all walks forward again.
+ *
+ * The type tests follow the running per-type totals through edits, and
+ * check that a budget turns away adds, removes and redos that would break it.
+ *
+ * The merge tests run the same plan under each policy against a schedule of
+ * A 08:00-09:00, B 10:00-11:00 and C 12:00-13:00.
+ *
+ * The dependency tests include DEPEND and UNDEPEND in an undo/redo round
+ * trip, and check refusals and the hand-on when a task is taken out.
+ */
+public class ScheduleManagerTest {
+    private static final String GROUP = "ScheduleManager";
+    
+    public static void run(Check check) {
+        ScheduleManager manager = ScheduleManager.getInstance();
+        
+        check.run(GROUP, "undoRedoRoundTrip", () -> {
+            manager.replaceTasks(Collections.emptyList());
+            List<String> states = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            states.add(state(manager));
+            
+            manager.addTask(task("A", "08:00", "09:00"));
+            record(manager, states, labels, "add A");
+            manager.addTask(task("B", "09:00", "10:00"));
+            record(manager, states, labels, "add B");
+            manager.moveTask("B", time("10:00"), time("11:00"));
+            record(manager, states, labels, "move B");
+            manager.resizeTask("A", time("09:30"));
+            record(manager, states, labels, "resize A");
+            manager.beginTransaction()
+                .add(task("C", "12:00", "13:00"))
+                .move("A", time("07:00"), time("08:00"))
+                .commit();
+            record(manager, states, labels, "transaction of 2 operations");
+            manager.removeTask("B");
+            record(manager, states, labels, "remove B");
+            
+            for (int i = labels.size() - 1; i >= 0; i--) {
+                check.equal(labels.get(i), manager.undo(), "undo label");
+                check.equal(states.get(i), state(manager), "state after undoing " + labels.get(i));
+            }
+            check.isTrue(!manager.canUndo(), "everything undone");
+            check.fails(TaskException.class, manager::undo, "undo with empty history");
+            
+            for (int i = 0; i < labels.size(); i++) {
+                check.equal(labels.get(i), manager.redo(), "redo label");
+                check.equal(states.get(i + 1), state(manager), "state after redoing " + labels.get(i));
+            }
+            check.isTrue(!manager.canRedo(), "everything redone");
+        });
+        
+        check.run(GROUP, "newEditDiscardsRedo", () -> {
+            manager.replaceTasks(Collections.emptyList());
+            manager.addTask(task("A", "08:00", "09:00"));
+            manager.undo();
+            check.isTrue(manager.canRedo(), "undone add can be redone");
+            manager.addTask(task("B", "10:00", "11:00"));
+            check.isTrue(!manager.canRedo(), "new edit discards redo");
+            check.fails(TaskException.class, manager::redo, "redo after new edit");
+            check.equal("[Research: B (10:00 - 11:00) [60 min]]", state(manager), "schedule");
+        });
+        
+        check.run(GROUP, "undoneTaskFreesItsSlot", () -> {
+            manager.replaceTasks(Collections.emptyList());
+            manager.addTask(task("A", "08:00", "09:00"));
+            manager.moveTask("A", time("10:00"), time("11:00"));
+            manager.undo();
+            // The undone move gives back 10:00-11:00 and takes 08:00-09:00 again
+            manager.addTask(task("B", "10:00", "11:00"));
+            check.isTrue(manager.findConflictingTask(task("X", "08:30", "08:45")) != null, "old slot held");
+        });
+        
+        check.run(GROUP, "typeTotals", () -> {
+            manager.replaceTasks(Collections.emptyList());
+            manager.addTask(task("A", "08:00", "09:00"));
+            manager.addTask(new ExerciseTask("B", time("09:00"), time("09:30")));
+            manager.addTask(task("C", "12:00", "14:00"));
+            check.equal("RESEARCH: 2 tasks, 180 min (08:00 - 14:00)",
+                manager.getTypeSummary(TaskType.RESEARCH).toString(), "research");
+            check.equal("EXERCISE: 1 tasks, 30 min (09:00 - 09:30)",
+                manager.getTypeSummary(TaskType.EXERCISE).toString(), "exercise");
+            
+            // Taking out the task that spans to the latest end narrows the span
+            manager.removeTask("C");
+            check.equal("RESEARCH: 1 tasks, 60 min (08:00 - 09:00)",
+                manager.getTypeSummary(TaskType.RESEARCH).toString(), "after remove");
+            manager.moveTask("A", time("10:00"), time("10:45"));
+            check.equal("RESEARCH: 1 tasks, 45 min (10:00 - 10:45)",
+                manager.getTypeSummary(TaskType.RESEARCH).toString(), "after move");
+            manager.undo();
+            manager.undo();
+            check.equal("RESEARCH: 2 tasks, 180 min (08:00 - 14:00)",
+                manager.getTypeSummary(TaskType.RESEARCH).toString(), "after undo");
+            manager.removeTask("B");
+            check.equal("EXERCISE: 0 tasks, 0 min", manager.getTypeSummary(TaskType.EXERCISE).toString(),
+                "empty type");
+        });
+        
+        check.run(GROUP, "budgets", () -> {
+            manager.replaceTasks(Collections.emptyList());
+            try {
+                manager.setBudget(TaskType.RESEARCH, 30L, 90L);
+                manager.addTask(task("A", "08:00", "09:00"));
+                check.fails(TransactionException.class, () -> manager.addTask(task("B", "10:00", "11:00")),
+                    "add over the maximum");
+                manager.addTask(task("B", "10:00", "10:30"));
+                check.fails(TransactionException.class, () -> manager.moveTask("B", time("10:00"), time("11:00")),
+                    "lengthening over the maximum");
+                manager.removeTask("B");
+                check.fails(TransactionException.class, () -> manager.removeTask("A"), "remove under the minimum");
+                check.isTrue(manager.hasTask("A"), "refused remove keeps the task");
+                
+                // A redo that no longer fits the budget stays redoable
+                manager.undo();
+                manager.undo();
+                manager.setBudget(TaskType.RESEARCH, null, 60L);
+                check.fails(TaskException.class, manager::redo, "redo over the maximum");
+                check.isTrue(manager.canRedo(), "refused redo kept");
+                check.isTrue(!manager.hasTask("B"), "refused redo changes nothing");
+                check.equal("RESEARCH: 1 tasks, 60 min (08:00 - 09:00), budget -..60",
+                    manager.getTypeSummary(TaskType.RESEARCH).toString(), "summary");
+            } finally {
+                manager.setBudget(TaskType.RESEARCH, null, null);
+            }
+        });
+        
+        // Revises A, overlaps B and C, and adds D in a free slot
+        List<Task> plan = Arrays.asList(task("A", "08:30", "09:30"), task("X", "10:30", "11:30"),
+            task("D", "14:00", "15:00"), task("Y", "12:30", "13:30"));
+        
+        check.run(GROUP, "mergeKeepExisting", () -> {
+            fixture(manager);
+            MergeReport report = manager.merge(sorted(plan), MergePolicy.KEEP_EXISTING);
+            check.equal("[A, D]", names(report.getAdded()), "added");
+            check.equal("[A]", names(report.getRemoved()), "removed");
+            check.equal("[X, Y]", names(report.getSkipped()), "skipped");
+            check.equal(2, report.getConflicts().size(), "conflicts");
+            check.equal("[A, B, C, D]", names(manager.getSnapshot().getTasks()), "schedule");
+            check.equal("08:30", manager.findTask("A").getStartTime().toString(), "A revised");
+        });
+        
+        check.run(GROUP, "mergePreferIncoming", () -> {
+            fixture(manager);
+            MergeReport report = manager.merge(sorted(plan), MergePolicy.PREFER_INCOMING);
+            check.equal("[A, X, Y, D]", names(report.getAdded()), "added");
+            check.equal("[A, B, C]", names(report.getRemoved()), "removed");
+            check.equal("[]", names(report.getSkipped()), "skipped");
+            check.equal("[A, X, Y, D]", names(manager.getSnapshot().getTasks()), "schedule");
+            
+            // The whole merge is one undo step
+            check.equal("merge of 4 tasks", manager.undo(), "undo label");
+            check.equal("[A, B, C]", names(manager.getSnapshot().getTasks()), "after undo");
+        });
+        
+        check.run(GROUP, "mergeReject", () -> {
+            fixture(manager);
+            String before = state(manager);
+            TransactionException e = check.fails(TransactionException.class,
+                () -> manager.merge(sorted(plan), MergePolicy.REJECT), "conflicting plan");
+            check.equal(2, e.getProblems().size(), "problems");
+            check.equal(before, state(manager), "schedule unchanged");
+            
+            MergeReport report = manager.merge(Collections.singletonList(task("D", "14:00", "15:00")),
+                MergePolicy.REJECT);
+            check.equal("[D]", names(report.getAdded()), "conflict-free plan");
+        });
+        
+        check.run(GROUP, "mergeSweepsPlan", () -> {
+            fixture(manager);
+            List<Task> repeated = Arrays.asList(task("D", "14:00", "15:00"), task("E", "14:30", "15:30"),
+                task("d", "16:00", "17:00"));
+            MergeReport report = manager.merge(repeated, MergePolicy.PREFER_INCOMING);
+            check.equal("[D]", names(report.getAdded()), "earlier task kept");
+            check.equal("[E, d]", names(report.getSkipped()), "overlap and repeated name skipped");
+            check.fails(IllegalArgumentException.class, () -> manager.merge(plan, MergePolicy.KEEP_EXISTING),
+                "unsorted plan");
+        });
+        
+        check.run(GROUP, "mergeRefusedRevisionBlocks", () -> {
+            fixture(manager);
+            // B cannot move onto C, so it keeps 10:00-11:00 and A cannot move into it
+            List<Task> moves = Arrays.asList(task("A", "10:00", "10:30"), task("B", "12:30", "13:30"));
+            MergeReport report = manager.merge(moves, MergePolicy.KEEP_EXISTING);
+            check.equal("[]", names(report.getAdded()), "added");
+            check.equal("[A, B]", names(report.getSkipped()), "skipped");
+            check.equal("[A, B, C]", names(manager.getSnapshot().getTasks()), "schedule");
+        });
+        
+        check.run(GROUP, "dependencyUndoRedoRoundTrip", () -> {
+            manager.replaceTasks(Arrays.asList(task("B", "07:00", "07:30"), task("A", "08:00", "09:00"),
+                task("C", "09:10", "09:40")));
+            List<String> states = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            states.add(state(manager));
+            
+            check.equal("[]", names(manager.addDependency("B", "C")), "holding dependency shifts nothing");
+            record(manager, states, labels, "depend B -> C");
+            // B moves behind A, and C behind B
+            check.equal("[B, C]", names(manager.addDependency("A", "B")), "shifted");
+            check.equal("09:00", manager.findTask("B").getStartTime().toString(), "B after A");
+            check.equal("09:30", manager.findTask("C").getStartTime().toString(), "C after B");
+            record(manager, states, labels, "depend A -> B");
+            manager.moveTask("A", time("08:30"), time("09:30"));
+            check.equal("10:00", manager.findTask("C").getStartTime().toString(), "move pushes the chain");
+            record(manager, states, labels, "move A");
+            check.isTrue(manager.removeDependency("B", "C"), "undepend");
+            check.isTrue(!manager.removeDependency("B", "C"), "undepend twice");
+            record(manager, states, labels, "undepend B -> C");
+            
+            for (int i = labels.size() - 1; i >= 0; i--) {
+                check.equal(labels.get(i), manager.undo(), "undo label");
+                check.equal(states.get(i), state(manager), "state after undoing " + labels.get(i));
+            }
+            check.equal(0, manager.getDependencyCount(), "all dependencies undone");
+            for (int i = 0; i < labels.size(); i++) {
+                check.equal(labels.get(i), manager.redo(), "redo label");
+                check.equal(states.get(i + 1), state(manager), "state after redoing " + labels.get(i));
+            }
+            check.equal(1, manager.getDependencyCount(), "A -> B left");
+        });
+        
+        check.run(GROUP, "dependencyRefusals", () -> {
+            manager.replaceTasks(Arrays.asList(task("A", "08:00", "09:00"), task("B", "09:00", "10:00"),
+                task("C", "10:00", "11:00")));
+            manager.addDependency("A", "B");
+            manager.addDependency("B", "C");
+            check.fails(TaskException.class, () -> manager.addDependency("C", "A"), "cycle");
+            check.fails(TaskException.class, () -> manager.addDependency("A", "a"), "self");
+            check.fails(TaskException.class, () -> manager.addDependency("A", "Z"), "missing task");
+            check.fails(TransactionException.class, () -> manager.moveTask("B", time("07:00"), time("08:00")),
+                "move before a prerequisite ends");
+            check.equal("[A -> B, B -> C]", edges(manager), "dependencies kept");
+            check.equal("08:00", manager.findTask("A").getStartTime().toString(), "nothing moved");
+        });
+        
+        check.run(GROUP, "removeHandsOnDependencies", () -> {
+            manager.replaceTasks(Arrays.asList(task("A", "08:00", "09:00"), task("B", "09:00", "10:00"),
+                task("C", "10:00", "11:00"), task("D", "11:00", "12:00")));
+            manager.addDependency("A", "B");
+            manager.addDependency("B", "C");
+            manager.addDependency("D", "C");
+            manager.removeTask("B");
+            check.equal("[A -> C, D -> C]", edges(manager), "A now comes before C");
+            List<Task> prerequisites = new ArrayList<>(manager.getPrerequisites("C"));
+            prerequisites.sort(TaskIndex.START_ORDER);
+            check.equal("[A, D]", names(prerequisites), "prerequisites");
+            check.fails(TransactionException.class, () -> manager.moveTask("C", time("08:30"), time("08:45")),
+                "handed-on dependency holds");
+            // Undoing the removal brings B back without its dependencies
+            manager.undo();
+            check.isTrue(manager.hasTask("B"), "B restored");
+            check.equal("[A -> C, D -> C]", edges(manager), "after undo");
+            check.equal("[]", names(manager.getDependents("B")), "B has no dependents");
+        });
+        
+        manager.replaceTasks(Collections.emptyList());
+    }
+    
+    static Task task(String name, String start, String end) {
+        return new ResearchTask(name, time(start), time(end));
+    }
+    
+    static LocalTime time(String text) {
+        return LocalTime.parse(text);
+    }
+    
+    /**
+     * Tasks in start order, then dependencies in name order
+     */
+    static String state(ScheduleManager manager) {
+        List<String> tasks = new ArrayList<>();
+        for (Task task : manager.getSnapshot().getTasks()) {
+            tasks.add(task.toString());
+        }
+        return manager.getDependencyCount() == 0 ? tasks.toString() : tasks + " " + edges(manager);
+    }
+    
+    static String names(List<Task> tasks) {
+        List<String> names = new ArrayList<>();
+        for (Task task : tasks) {
+            names.add(task.getName());
+        }
+        return names.toString();
+    }
+    
+    static String edges(ScheduleManager manager) {
+        List<String> edges = new ArrayList<>();
+        manager.getSnapshot().getDependencies().forEach(edge -> edges.add(edge.toString()));
+        Collections.sort(edges);
+        return edges.toString();
+    }
+    
+    private static void fixture(ScheduleManager manager) {
+        manager.replaceTasks(Arrays.asList(task("A", "08:00", "09:00"), task("B", "10:00", "11:00"),
+            task("C", "12:00", "13:00")));
+    }
+    
+    private static List<Task> sorted(List<Task> plan) {
+        List<Task> copy = new ArrayList<>(plan);
+        copy.sort(TaskIndex.START_ORDER);
+        return copy;
+    }
+    
+    private static void record(ScheduleManager manager, List<String> states, List<String> labels,
+            String label) {
+        states.add(state(manager));
+        labels.add(label);
+    }
+}
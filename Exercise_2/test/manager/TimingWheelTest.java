@@ -0,0 +1,147 @@
+package manager;
+
+import tests.Check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Behavior tests for TimingWheel
+ * With six bits per level, ticks 64, 4096 and 262144 ahead are where a timer
+ * first lands in levels 1, 2 and 3, and 2^24 is the span of the wheel;
+ * exactTicks checks that timers on either side of each boundary fire on
+ * their tick and no earlier. The random test compares the wheel with a
+ * plain list over advances of random length.
+ */
+public class TimingWheelTest {
+    private static final String GROUP = "TimingWheel";
+    private static final long SPAN = 1L << 24;
+    
+    /**
+     * A timer that knows its deadline, so tests can check when it fired
+     */
+    static final class Probe extends TimingWheel.Timer {
+        final long deadline;
+        
+        Probe(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+    
+    public static void run(Check check) {
+        check.run(GROUP, "exactTicks", () -> {
+            for (long start : new long[] {0, 4090, SPAN - 3, 5 * SPAN + 12345}) {
+                List<Probe> probes = new ArrayList<>();
+                for (long ahead : new long[] {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262143, 262144,
+                        262145, SPAN - 1, SPAN, SPAN + 1, 3 * SPAN + 7}) {
+                    probes.add(new Probe(start + ahead));
+                }
+                TimingWheel wheel = new TimingWheel(start);
+                for (Probe probe : probes) {
+                    wheel.schedule(probe, probe.deadline);
+                }
+                check.equal(probes.size(), wheel.size(), "pending");
+                List<TimingWheel.Timer> fired = new ArrayList<>();
+                for (Probe probe : probes) {
+                    wheel.advance(probe.deadline - 1, fired::add);
+                    check.isTrue(fired.isEmpty(), "from " + start + ": fired before tick " + probe.deadline);
+                    wheel.advance(probe.deadline, fired::add);
+                    check.equal(1, fired.size(), "from " + start + ": fired at tick " + probe.deadline);
+                    check.isTrue(fired.get(0) == probe, "from " + start + ": timer due at " + probe.deadline);
+                    fired.clear();
+                }
+                check.equal(0, wheel.size(), "drained");
+            }
+        });
+        
+        check.run(GROUP, "cancelAndReschedule", () -> {
+            TimingWheel wheel = new TimingWheel(100);
+            Probe kept = new Probe(5000);
+            Probe cancelled = new Probe(5000);
+            Probe moved = new Probe(300);
+            wheel.schedule(kept, kept.deadline);
+            wheel.schedule(cancelled, cancelled.deadline);
+            wheel.schedule(moved, moved.deadline);
+            check.isTrue(wheel.cancel(cancelled), "cancel pending");
+            check.isTrue(!wheel.cancel(cancelled), "cancel twice");
+            // Rescheduling a pending timer moves it rather than adding a second one
+            wheel.schedule(moved, 70_000);
+            check.equal(2, wheel.size(), "pending");
+            
+            List<TimingWheel.Timer> fired = new ArrayList<>();
+            wheel.advance(5000, fired::add);
+            check.equal(1, fired.size(), "fired by 5000");
+            check.isTrue(fired.get(0) == kept, "kept timer fired");
+            wheel.advance(69_999, fired::add);
+            check.equal(1, fired.size(), "moved timer not early");
+            wheel.advance(70_000, fired::add);
+            check.isTrue(fired.size() == 2 && fired.get(1) == moved, "moved timer fired");
+            check.isTrue(!wheel.cancel(moved), "fired timer is no longer pending");
+        });
+        
+        check.run(GROUP, "pastDeadlineAndClear", () -> {
+            TimingWheel wheel = new TimingWheel(1000);
+            Probe late = new Probe(10);
+            Probe current = new Probe(1000);
+            wheel.schedule(late, late.deadline);
+            wheel.schedule(current, current.deadline);
+            List<TimingWheel.Timer> fired = new ArrayList<>();
+            wheel.advance(1000, fired::add);
+            check.equal(0, fired.size(), "nothing fires at the current tick");
+            wheel.advance(1001, fired::add);
+            check.equal(2, fired.size(), "passed deadlines fire on the next tick");
+            
+            Probe cleared = new Probe(2000);
+            wheel.schedule(cleared, cleared.deadline);
+            wheel.clear();
+            check.equal(0, wheel.size(), "cleared");
+            check.isTrue(!wheel.cancel(cleared), "cleared timer is no longer pending");
+            wheel.advance(3000, fired::add);
+            check.equal(2, fired.size(), "cleared timer does not fire");
+            // An idle wheel jumps ahead, and timers scheduled afterwards count from there
+            wheel.schedule(cleared, 3064);
+            wheel.advance(3063, fired::add);
+            check.equal(2, fired.size(), "after the jump");
+            wheel.advance(3064, fired::add);
+            check.equal(3, fired.size(), "fired after the jump");
+        });
+        
+        check.run(GROUP, "randomAgainstList", () -> {
+            Random random = new Random(42);
+            long now = random.nextInt(1 << 20);
+            TimingWheel wheel = new TimingWheel(now);
+            List<Probe> pending = new ArrayList<>();
+            List<TimingWheel.Timer> fired = new ArrayList<>();
+            for (int round = 0; round < 2000; round++) {
+                int adds = random.nextInt(8);
+                for (int i = 0; i < adds; i++) {
+                    // Mostly near, sometimes a level or the whole span away
+                    int bits = new int[] {6, 12, 18, 26}[random.nextInt(4)];
+                    Probe probe = new Probe(now + 1 + (random.nextLong() & ((1L << bits) - 1)));
+                    wheel.schedule(probe, probe.deadline);
+                    pending.add(probe);
+                }
+                if (!pending.isEmpty() && random.nextInt(4) == 0) {
+                    Probe probe = pending.remove(random.nextInt(pending.size()));
+                    check.isTrue(wheel.cancel(probe), "cancel pending probe");
+                }
+                int bits = new int[] {3, 8, 12, 18}[random.nextInt(4)];
+                long tick = now + (random.nextLong() & ((1L << bits) - 1));
+                wheel.advance(tick, fired::add);
+                for (TimingWheel.Timer timer : fired) {
+                    Probe probe = (Probe) timer;
+                    check.isTrue(probe.deadline > now && probe.deadline <= tick,
+                        "probe due at " + probe.deadline + " fired advancing " + now + " -> " + tick);
+                    check.isTrue(pending.remove(probe), "fired probe was pending");
+                }
+                fired.clear();
+                for (Probe probe : pending) {
+                    check.isTrue(probe.deadline > tick, "probe due at " + probe.deadline + " missed by " + tick);
+                }
+                check.equal(pending.size(), wheel.size(), "pending count");
+                now = tick;
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal dependency-free test harness
+ * Each test is a named body run in isolation: the first failed check ends
+ * it, and any exception it throws counts as a failure. Failures are listed
+ * at the end and turn into a non-zero exit code in TestMain.
+ *
+ * Options (system properties):
+ *   test.include  regex on "group.name" to select tests
+ */
+public final class Check {
+    
+    /**
+     * Body of one test, or a call expected to fail
+     */
+    public interface Body {
+        void run() throws Exception;
+    }
+    
+    /**
+     * Thrown by a failed check; caught by run()
+     */
+    private static final class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        Failure(String message) {
+            super(message);
+        }
+    }
+    
+    private final Pattern include;
+    private final List<String> failures = new ArrayList<>();
+    private int passed;
+    
+    public Check() {
+        this.include = Pattern.compile(System.getProperty("test.include", ".*"));
+    }
+    
+    /**
+     * Runs one test if test.include selects it
+     * @param group Test group (e.g. TimingWheel)
+     * @param name Test name
+     * @param body The test
+     */
+    public void run(String group, String name, Body body) {
+        String key = group + "." + name;
+        if (!include.matcher(key).find()) {
+            return;
+        }
+        try {
+            body.run();
+            passed++;
+            System.out.println("PASS " + key);
+        } catch (Failure e) {
+            fail(key, e.getMessage());
+        } catch (Throwable e) {
+            fail(key, "unexpected " + e);
+            e.printStackTrace(System.out);
+        }
+    }
+    
+    public void equal(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new Failure(what + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+    
+    public void isTrue(boolean condition, String what) {
+        if (!condition) {
+            throw new Failure(what);
+        }
+    }
+    
+    /**
+     * Checks that a call throws an exception of a type
+     * @return The exception, for further checks
+     */
+    public <T extends Throwable> T fails(Class<T> type, Body body, String what) {
+        try {
+            body.run();
+        } catch (Throwable e) {
+            if (type.isInstance(e)) {
+                return type.cast(e);
+            }
+            throw new Failure(what + ": expected " + type.getSimpleName() + " but got " + e);
+        }
+        throw new Failure(what + ": expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+    
+    /**
+     * Prints the summary
+     * @return false if any test failed
+     */
+    public boolean finish() {
+        System.out.println();
+        System.out.println(passed + " passed, " + failures.size() + " failed");
+        for (String failure : failures) {
+            System.out.println("  " + failure);
+        }
+        return failures.isEmpty();
+    }
+    
+    private void fail(String key, String message) {
+        failures.add(key + ": " + message);
+        System.out.println("FAIL " + key + ": " + message);
+    }
+}
@@ -0,0 +1,30 @@
+package tests;
+
+import manager.ChangeLogTest;
+import manager.LoadTreeTest;
+import manager.NameIndexTest;
+import manager.ReminderEngineTest;
+import manager.ScheduleManagerTest;
+import manager.TimingWheelTest;
+
+/**
+ * Entry point for the Exercise 2 behavior tests
+ * Run through run_tests.sh, which disables logging and the flight recorder.
+ * Exits with code 1 if any test fails; see Check for options.
+ */
+public class TestMain {
+    
+    public static void main(String[] args) {
+        Check check = new Check();
+        ScheduleManagerTest.run(check);
+        TimingWheelTest.run(check);
+        ReminderEngineTest.run(check);
+        NameIndexTest.run(check);
+        LoadTreeTest.run(check);
+        ChangeLogTest.run(check);
+        
+        if (!check.finish()) {
+            System.exit(1);
+        }
+    }
+}
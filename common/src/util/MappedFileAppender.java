@@ -0,0 +1,267 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rolling file sink that appends log lines through a memory-mapped region
+ * Lines are copied into the mapped segment, so no write syscall is made per line.
+ * Segments are written as numbered files (app.log.1, app.log.2, ...) and are
+ * rolled when full or when the rotation interval elapses; rolled segments can
+ * be gzip-compressed on a background thread.
+ *
+ * The active segment is only closed once its successor is mapped. If that
+ * fails, lines keep going to the old segment while it has room and are
+ * counted as dropped after that; rotation is retried at most once a second.
+ *
+ * Shared by both exercises: Exercise_1 and Exercise_2 compile it from common/src.
+ */
+public class MappedFileAppender {
+    private static final long MIN_SEGMENT_BYTES = 64 * 1024;
+    private static final long ROTATE_RETRY_MILLIS = 1000;
+    
+    private final Path basePath;
+    private final long segmentBytes;
+    private final long rotateIntervalMillis;
+    private final boolean compressRotated;
+    private final ExecutorService compressor;
+    
+    // Active segment state (guarded by this)
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Path segmentPath;
+    private int segmentIndex;
+    private long segmentOpenedAt;
+    private long rotateRetryAt;
+    private long droppedLines;
+    private boolean closed;
+    
+    /**
+     * Creates an appender and opens its first segment
+     * @param basePath Base log file path; segments are suffixed with an index
+     * @param segmentBytes Size of each mapped segment in bytes
+     * @param rotateIntervalMillis Time-based rotation interval, or 0 to rotate on size only
+     * @param compressRotated Whether rolled segments are gzip-compressed
+     * @throws IOException if the first segment cannot be opened
+     */
+    public MappedFileAppender(Path basePath, long segmentBytes, long rotateIntervalMillis,
+            boolean compressRotated) throws IOException {
+        if (basePath == null) {
+            throw new IllegalArgumentException("Log file path cannot be null");
+        }
+        if (rotateIntervalMillis < 0) {
+            throw new IllegalArgumentException("Rotation interval cannot be negative");
+        }
+        
+        this.basePath = basePath.toAbsolutePath();
+        this.segmentBytes = Math.max(segmentBytes, MIN_SEGMENT_BYTES);
+        this.rotateIntervalMillis = rotateIntervalMillis;
+        this.compressRotated = compressRotated;
+        this.compressor = compressRotated ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "log-segment-compressor");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        
+        Path parent = this.basePath.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.segmentIndex = findLastSegmentIndex();
+        openSegment(0);
+        this.segmentOpenedAt = System.currentTimeMillis();
+    }
+    
+    /**
+     * Appends one line (a newline is added) to the active segment
+     * @param line The line to append
+     */
+    public synchronized void append(String line) {
+        if (closed) {
+            return;
+        }
+        
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        long now = System.currentTimeMillis();
+        boolean expired = rotateIntervalMillis > 0 && now - segmentOpenedAt >= rotateIntervalMillis;
+        if ((expired || buffer.remaining() < bytes.length) && now >= rotateRetryAt) {
+            rotate(bytes.length, now);
+        }
+        if (buffer.remaining() < bytes.length) {
+            droppedLines++;
+            return;
+        }
+        buffer.put(bytes);
+    }
+    
+    /**
+     * Forces the mapped pages of the active segment to disk
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+    
+    /**
+     * Closes the active segment and waits for pending compressions
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                closeSegment(segmentPath, channel, buffer);
+            } catch (IOException e) {
+                System.err.println("[ERROR] Failed to close log segment " + segmentPath + " - " + e.getMessage());
+            }
+        }
+        
+        if (compressor != null) {
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Gets the path of the segment currently being written
+     * @return Active segment path
+     */
+    public synchronized Path getActiveSegment() {
+        return segmentPath;
+    }
+    
+    /**
+     * Rolls to a new segment, compressing the old one if configured
+     * The old segment stays active until the new one is mapped, so a failed
+     * rotation leaves the appender writable and is retried later.
+     * @param minCapacity Minimum capacity the new segment must offer
+     * @param now Current time in milliseconds
+     */
+    private void rotate(int minCapacity, long now) {
+        Path finished = segmentPath;
+        FileChannel finishedChannel = channel;
+        MappedByteBuffer finishedBuffer = buffer;
+        try {
+            openSegment(minCapacity);
+        } catch (IOException e) {
+            rotateRetryAt = now + ROTATE_RETRY_MILLIS;
+            System.err.println("[ERROR] Log rotation failed, still writing " + finished + " - " + e.getMessage());
+            return;
+        }
+        segmentOpenedAt = now;
+        rotateRetryAt = 0;
+        
+        try {
+            closeSegment(finished, finishedChannel, finishedBuffer);
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to close log segment " + finished + " - " + e.getMessage());
+        }
+        if (droppedLines > 0) {
+            System.err.println("[WARNING] " + droppedLines + " log lines dropped while " + finished + " was full");
+            droppedLines = 0;
+        }
+        if (compressRotated) {
+            compressor.execute(() -> compress(finished));
+        }
+    }
+    
+    /**
+     * Maps the next segment and makes it active; on failure the active segment is left as it was
+     */
+    private void openSegment(int minCapacity) throws IOException {
+        Path path = basePath.resolveSibling(basePath.getFileName() + "." + (segmentIndex + 1));
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapped;
+        try {
+            mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minCapacity));
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        buffer = mapped;
+        channel = opened;
+        segmentPath = path;
+        segmentIndex++;
+    }
+    
+    /**
+     * Flushes a segment and trims the unused mapped tail
+     */
+    private static void closeSegment(Path segmentPath, FileChannel channel, MappedByteBuffer buffer)
+            throws IOException {
+        int written = buffer.position();
+        buffer.force();
+        try {
+            // Some platforms refuse to truncate while the region is still mapped
+            channel.truncate(written);
+        } catch (IOException e) {
+            System.err.println("[WARNING] Could not trim log segment " + segmentPath + " - " + e.getMessage());
+        } finally {
+            channel.close();
+        }
+    }
+    
+    /**
+     * Gzips a rolled segment and deletes the original
+     * @param segment The segment to compress
+     */
+    private void compress(Path segment) {
+        Path target = segment.resolveSibling(segment.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to compress log segment " + segment + " - " + e.getMessage());
+            return;
+        }
+        
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            System.err.println("[WARNING] Could not delete compressed log segment " + segment + " - " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Finds the highest existing segment index so a restart never overwrites history
+     * @return Highest index found, or 0 if none
+     */
+    private int findLastSegmentIndex() throws IOException {
+        String prefix = basePath.getFileName() + ".";
+        int last = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(basePath.getParent(), prefix + "*")) {
+            for (Path path : stream) {
+                String suffix = path.getFileName().toString().substring(prefix.length());
+                if (suffix.endsWith(".gz")) {
+                    suffix = suffix.substring(0, suffix.length() - 3);
+                }
+                try {
+                    last = Math.max(last, Integer.parseInt(suffix));
+                } catch (NumberFormatException e) {
+                    // Not one of our segments
+                }
+            }
+        }
+        return last;
+    }
+}